@@ -0,0 +1,82 @@
+package com.rentalagency.benchmark;
+
+import com.rentalagency.agency.Customer;
+import com.rentalagency.agency.RentalAgency;
+import com.rentalagency.agency.Vehicle;
+import com.rentalagency.criterions.MaxPriceCriterion;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Benchmark of the selection of the available vehicles of a fleet of 1 000 000 vehicles, most of them rented : select
+ * then aVehicleRented for each result, against selectAvailable, with an indexed criterion and with a full scan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class AvailabilityBenchmark {
+    static final int FLEET_SIZE = 1_000_000;
+
+    @Param({"50", "90"})
+    int rentedPercent;
+
+    RentalAgency agency;
+    Predicate<Vehicle> indexed;
+    Predicate<Vehicle> scanned;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Vehicle> vehicles = Fleets.vehicles(FLEET_SIZE);
+        agency = new RentalAgency(vehicles);
+        for (int i = 0; i < FLEET_SIZE; i++) {
+            if (i % 100 < rentedPercent) agency.rentVehicle(new Customer(null, "Client", String.valueOf(i)), vehicles.get(i));
+        }
+        indexed = new MaxPriceCriterion(50);
+        scanned = vehicle -> vehicle.getProductionYear() >= 2010;
+    }
+
+    /**
+     * Select the vehicles under 50€ a day, then keep the ones which are not rented
+     */
+    @Benchmark
+    public List<Vehicle> indexedSelectThenFilter() {
+        return notRented(agency.select(indexed));
+    }
+
+    /**
+     * Select the vehicles under 50€ a day which are not rented
+     */
+    @Benchmark
+    public List<Vehicle> indexedSelectAvailable() {
+        return agency.selectAvailable(indexed);
+    }
+
+    /**
+     * Select the vehicles produced since 2010, then keep the ones which are not rented
+     */
+    @Benchmark
+    public List<Vehicle> scanSelectThenFilter() {
+        return notRented(agency.select(scanned));
+    }
+
+    /**
+     * Select the vehicles produced since 2010 which are not rented
+     */
+    @Benchmark
+    public List<Vehicle> scanSelectAvailable() {
+        return agency.selectAvailable(scanned);
+    }
+
+    private List<Vehicle> notRented(List<Vehicle> vehicles) {
+        List<Vehicle> available = new ArrayList<>();
+        for (Vehicle vehicle : vehicles) if (!agency.aVehicleRented(vehicle)) available.add(vehicle);
+        return available;
+    }
+}
@@ -0,0 +1,74 @@
+package com.rentalagency.benchmark;
+
+import com.rentalagency.agency.Customer;
+import com.rentalagency.agency.RentalAgency;
+import com.rentalagency.agency.Vehicle;
+import com.rentalagency.events.FleetEventBus;
+import com.rentalagency.events.FleetListener;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Benchmarks of renting a vehicle and returning it, in an agency of 100 000 vehicles, without any subscriber to its
+ * events, with a subscriber keeping up with them and with a subscriber taking a millisecond per event
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventBenchmark {
+    static final int FLEET_SIZE = 100_000;
+
+    @Param({"none", "fast", "slow"})
+    String subscriber;
+
+    RentalAgency agency;
+    List<Vehicle> vehicles;
+    Customer customer;
+    FleetEventBus.Subscription subscription;
+    long received;
+    int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        vehicles = Fleets.vehicles(FLEET_SIZE);
+        agency = new RentalAgency(vehicles);
+        customer = new Customer(new Date(0), "Dupont", "Jean");
+        FleetListener listener;
+        switch (subscriber) {
+            case "fast":
+                listener = event -> received++;
+                break;
+            case "slow":
+                listener = event -> LockSupport.parkNanos(1_000_000);
+                break;
+            default:
+                return;
+        }
+        subscription = agency.getEvents().subscribe(listener, FleetEventBus.DEFAULT_CAPACITY,
+                FleetEventBus.OverflowPolicy.DROP_NEWEST);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (subscription != null) subscription.close();
+    }
+
+    /**
+     * Rent a vehicle, going through the whole fleet, then return it
+     */
+    @Benchmark
+    public double rentThenReturn() {
+        Vehicle vehicle = vehicles.get(next);
+        next = next + 1 == FLEET_SIZE ? 0 : next + 1;
+        double price = agency.rentVehicle(customer, vehicle);
+        agency.returnVehicle(customer);
+        return price;
+    }
+}
@@ -0,0 +1,56 @@
+package com.rentalagency.benchmark;
+
+import com.rentalagency.agency.RentalAgency;
+import com.rentalagency.agency.Vehicle;
+import com.rentalagency.criterions.BrandCriterion;
+import com.rentalagency.criterions.MaxPriceCriterion;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the operations of a RentalAgency on its fleet, from 1 000 to 1 000 000 vehicles
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FleetBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    int fleetSize;
+
+    RentalAgency agency;
+    Vehicle extraVehicle;
+    BrandCriterion brandCriterion;
+    MaxPriceCriterion maxPriceCriterion;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        agency = new RentalAgency(Fleets.vehicles(fleetSize));
+        extraVehicle = Fleets.vehicle(fleetSize);
+        brandCriterion = new BrandCriterion("Honda");
+        maxPriceCriterion = new MaxPriceCriterion(60);
+    }
+
+    /**
+     * Add a vehicle, then remove it so the fleet keeps the same size
+     */
+    @Benchmark
+    public void addThenRemove() {
+        agency.add(extraVehicle);
+        agency.remove(extraVehicle);
+    }
+
+    @Benchmark
+    public List<Vehicle> selectBrand() {
+        return agency.select(brandCriterion);
+    }
+
+    @Benchmark
+    public List<Vehicle> selectMaxPrice() {
+        return agency.select(maxPriceCriterion);
+    }
+}
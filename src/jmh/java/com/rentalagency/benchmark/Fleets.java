@@ -0,0 +1,41 @@
+package com.rentalagency.benchmark;
+
+import com.rentalagency.agency.Car;
+import com.rentalagency.agency.Motorbike;
+import com.rentalagency.agency.Vehicle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the fleets used by the benchmarks
+ */
+final class Fleets {
+    static final String[] BRANDS = {"Toyota", "Honda", "Renault", "Peugeot", "Yamaha", "Suzuki", "Ford", "Fiat"};
+
+    private Fleets() {
+    }
+
+    /**
+     * Build a fleet of cars and motorbikes, one motorbike for three cars, spread over the brands
+     * @param size : the number of vehicles
+     * @return the list of vehicles, all different
+     */
+    static List<Vehicle> vehicles(int size) {
+        List<Vehicle> vehicles = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) vehicles.add(vehicle(i));
+        return vehicles;
+    }
+
+    /**
+     * Build the i-th vehicle of a fleet
+     * @param i : the number of the vehicle
+     * @return the vehicle
+     */
+    static Vehicle vehicle(int i) {
+        String brand = BRANDS[i % BRANDS.length];
+        int productionYear = 2000 + i % 25;
+        if (i % 4 == 3) return new Motorbike(brand, "Model " + i, productionYear, 50 + i % 1000);
+        return new Car(brand, "Model " + i, productionYear, 2 + i % 6);
+    }
+}
@@ -0,0 +1,56 @@
+package com.rentalagency.benchmark;
+
+import com.rentalagency.agency.Car;
+import com.rentalagency.agency.Motorbike;
+import com.rentalagency.agency.Vehicle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the heap retained by a fleet, in bytes per vehicle.
+ * The names of the vehicles are built as new String instances, as when they are read from a file or a request, with
+ * 32 brands and 4 096 models, each model having a single kind and capacity : the measurement shows how much of the
+ * fleet is taken by data repeated for every unit of a model.
+ * Run with : java -cp build/classes/java/main:build/classes/java/jmh com.rentalagency.benchmark.FootprintMeasurement [size]
+ */
+public final class FootprintMeasurement {
+    private static final int BRANDS = 32;
+    private static final int MODELS = 4096;
+
+    private FootprintMeasurement() {
+    }
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        long before = usedHeap();
+        List<Vehicle> vehicles = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int modelNumber = i % MODELS;
+            String brand = new String("Brand " + modelNumber % BRANDS);
+            String model = new String("Model " + modelNumber);
+            if (modelNumber % 4 == 3) vehicles.add(new Motorbike(brand, model, 2000 + i % 25, 50 + modelNumber % 1000));
+            else vehicles.add(new Car(brand, model, 2000 + i % 25, 2 + modelNumber % 6));
+        }
+        long after = usedHeap();
+        System.out.printf("%d vehicles : %d bytes retained, %.1f bytes per vehicle%n",
+                vehicles.size(), after - before, (double) (after - before) / vehicles.size());
+    }
+
+    /**
+     * Get the heap used by live objects, after asking for a few garbage collections
+     * @return the used heap, in bytes
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
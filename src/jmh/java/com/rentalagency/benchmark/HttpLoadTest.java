@@ -0,0 +1,117 @@
+package com.rentalagency.benchmark;
+
+import com.rentalagency.agency.ConcurrentRentalAgency;
+import com.rentalagency.agency.Vehicle;
+import com.rentalagency.http.AgencyHttpServer;
+import com.rentalagency.metrics.LatencyHistogram;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test of the HTTP front end : starts an agency on a local port, then has several clients rent a vehicle, return
+ * it, select the cheap vehicles of a brand and list a page of the fleet in a loop, and reports the requests per second
+ * and the latencies of each kind of request.
+ * Arguments : the number of clients (16), the duration in seconds (10) and the size of the fleet (10 000).
+ * It is run by the loadTest task of the build, for instance with -PloadTest.args="32 30 100000".
+ */
+public final class HttpLoadTest {
+    private static final String[] OPERATIONS = {"rent", "return", "select", "list"};
+
+    private HttpLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int fleetSize = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+
+        List<Vehicle> vehicles = Fleets.vehicles(fleetSize);
+        ConcurrentRentalAgency agency = new ConcurrentRentalAgency(vehicles);
+        LatencyHistogram[] latencies = new LatencyHistogram[OPERATIONS.length];
+        for (int i = 0; i < latencies.length; i++) latencies[i] = new LatencyHistogram();
+        LongAdder errors = new LongAdder();
+
+        try (AgencyHttpServer server = AgencyHttpServer.start(agency, new InetSocketAddress("127.0.0.1", 0))) {
+            String base = "http://127.0.0.1:" + server.getAddress().getPort();
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            System.out.println("Load test : " + clients + " clients, " + seconds + " s, " + fleetSize + " vehicles, "
+                    + base);
+
+            long start = System.nanoTime();
+            long deadline = start + seconds * 1_000_000_000L;
+            Thread[] threads = new Thread[clients];
+            for (int c = 0; c < clients; c++) {
+                String customer = "name=Client&surname=" + c + "&birth=1990-01-01";
+                threads[c] = new Thread(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        Vehicle vehicle = vehicles.get(random.nextInt(fleetSize));
+                        String brand = Fleets.BRANDS[random.nextInt(Fleets.BRANDS.length)];
+                        call(client, latencies[0], errors, 409, "POST", base + "/rentals?" + customer + "&brand="
+                                + encode(vehicle.getBrand()) + "&model=" + encode(vehicle.getModel())
+                                + "&year=" + vehicle.getProductionYear());
+                        call(client, latencies[1], errors, 404, "DELETE", base + "/rentals?" + customer);
+                        call(client, latencies[2], errors, 200, "GET", base + "/vehicles/select?brand=" + brand
+                                + "&maxPrice=40&available=true");
+                        call(client, latencies[3], errors, 200, "GET", base + "/vehicles?offset="
+                                + random.nextInt(fleetSize) + "&limit=50");
+                    }
+                }, "load-client-" + c);
+                threads[c].start();
+            }
+            for (Thread thread : threads) thread.join();
+            double elapsed = (System.nanoTime() - start) / 1e9;
+
+            long total = 0;
+            for (int i = 0; i < OPERATIONS.length; i++) {
+                LatencyHistogram.Snapshot snapshot = latencies[i].snapshot();
+                total += snapshot.getCount();
+                System.out.printf("%-7s %8.0f req/s  mean %7.0f µs  p50 < %6d µs  p99 < %6d µs%n", OPERATIONS[i],
+                        snapshot.getCount() / elapsed, snapshot.getMeanNanos() / 1000,
+                        snapshot.percentile(50) / 1000, snapshot.percentile(99) / 1000);
+            }
+            System.out.printf("total   %8.0f req/s  errors %d%n", total / elapsed, errors.sum());
+        }
+    }
+
+    /**
+     * Send a request and record its latency, counting the unexpected statuses and the failures as errors
+     * @param client : the client
+     * @param latencies : the histogram of the latencies of this kind of request
+     * @param errors : the number of errors
+     * @param tolerated : an error status expected under load, such as 409 for a vehicle rented by another client
+     * @param method : the method of the request
+     * @param uri : the URI of the request
+     */
+    private static void call(HttpClient client, LatencyHistogram latencies, LongAdder errors, int tolerated, String method,
+                             String uri) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(uri)).method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            latencies.record(System.nanoTime() - start);
+            if (response.statusCode() >= 300 && response.statusCode() != tolerated) errors.increment();
+        } catch (Exception e) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Encode a value of a query string
+     * @param value : the value
+     * @return the encoded value
+     */
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,97 @@
+package com.rentalagency.benchmark;
+
+import com.rentalagency.agency.ConcurrentRentalAgency;
+import com.rentalagency.agency.Customer;
+import com.rentalagency.agency.Vehicle;
+import com.rentalagency.persistence.JournaledRentalAgency;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Benchmark of the rentals per second of an agency shared by 8 threads : in memory only, journaled without fsync, and
+ * journaled with an fsync shared by the threads waiting at the same time
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class JournalBenchmark {
+    static final int FLEET_SIZE = 8 * 1024;
+
+    @Param({"memory", "journal", "fsync"})
+    String durability;
+
+    List<Vehicle> vehicles;
+    ConcurrentRentalAgency agency;
+    Path journal;
+    AtomicInteger threads;
+
+    /**
+     * Rentals of one thread, each thread renting its own range of vehicles
+     */
+    @State(Scope.Thread)
+    public static class Renter {
+        Customer customer;
+        int first;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp(JournalBenchmark benchmark) {
+            int thread = benchmark.threads.getAndIncrement();
+            customer = new Customer(new Date(0), "Client " + thread, "Jean");
+            first = thread * 1024;
+            next = first;
+        }
+
+        Vehicle nextVehicle(List<Vehicle> vehicles) {
+            Vehicle vehicle = vehicles.get(next);
+            next = next + 1 == first + 1024 ? first : next + 1;
+            return vehicle;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUpFleet() {
+        vehicles = Fleets.vehicles(FLEET_SIZE);
+        threads = new AtomicInteger();
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpAgency() throws IOException {
+        if (durability.equals("memory")) {
+            agency = new ConcurrentRentalAgency(vehicles);
+            return;
+        }
+        journal = Files.createTempFile("agency", ".journal");
+        agency = JournaledRentalAgency.open(journal, durability.equals("fsync"));
+        agency.addAll(vehicles);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDownAgency() throws IOException {
+        if (agency instanceof JournaledRentalAgency) {
+            ((JournaledRentalAgency) agency).close();
+            Files.deleteIfExists(journal);
+        }
+    }
+
+    /**
+     * Rent a vehicle then return it
+     */
+    @Benchmark
+    public double rentThenReturn(Renter renter) {
+        double price = agency.rentVehicle(renter.customer, renter.nextVehicle(vehicles));
+        agency.returnVehicle(renter.customer);
+        return price;
+    }
+}
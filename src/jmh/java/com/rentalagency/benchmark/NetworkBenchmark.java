@@ -0,0 +1,88 @@
+package com.rentalagency.benchmark;
+
+import com.rentalagency.agency.AgencyNetwork;
+import com.rentalagency.agency.ConcurrentRentalAgency;
+import com.rentalagency.agency.Customer;
+import com.rentalagency.agency.Vehicle;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Benchmark of a single concurrent agency against a network of 16 shards holding the same 100 000 vehicles : a full
+ * scan selection, and a rental followed by its return from 4 threads, each with its own customer
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NetworkBenchmark {
+    static final int FLEET_SIZE = 100_000;
+    static final int SHARDS = 16;
+
+    ConcurrentRentalAgency agency;
+    AgencyNetwork network;
+    List<Vehicle> vehicles;
+    Predicate<Vehicle> criterion;
+
+    @State(Scope.Thread)
+    public static class Renter {
+        Customer customer = new Customer(null, "Client", Thread.currentThread().getName());
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        vehicles = Fleets.vehicles(FLEET_SIZE);
+        agency = new ConcurrentRentalAgency(vehicles);
+        network = new AgencyNetwork(SHARDS);
+        network.addAll(vehicles);
+        criterion = vehicle -> vehicle.getProductionYear() >= 2020 && vehicle.dailyRentalPrice() < 100;
+    }
+
+    @Benchmark
+    public List<Vehicle> agencySelect() {
+        return agency.select(criterion);
+    }
+
+    @Benchmark
+    public List<Vehicle> networkSelect() {
+        return network.select(criterion);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public double agencyRentAndReturn(Renter renter) {
+        Vehicle vehicle = vehicles.get(ThreadLocalRandom.current().nextInt(FLEET_SIZE));
+        double price = 0;
+        if (!agency.aVehicleRented(vehicle)) {
+            try {
+                price = agency.rentVehicle(renter.customer, vehicle);
+            } catch (IllegalStateException e) {
+                return 0;
+            }
+        }
+        agency.returnVehicle(renter.customer);
+        return price;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public double networkRentAndReturn(Renter renter) {
+        Vehicle vehicle = vehicles.get(ThreadLocalRandom.current().nextInt(FLEET_SIZE));
+        double price = 0;
+        if (!network.aVehicleRented(vehicle)) {
+            try {
+                price = network.rentVehicle(renter.customer, vehicle);
+            } catch (IllegalStateException e) {
+                return 0;
+            }
+        }
+        network.returnVehicle(renter.customer);
+        return price;
+    }
+}
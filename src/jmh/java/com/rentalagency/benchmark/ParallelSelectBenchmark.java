@@ -0,0 +1,44 @@
+package com.rentalagency.benchmark;
+
+import com.rentalagency.agency.RentalAgency;
+import com.rentalagency.agency.Vehicle;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Benchmark of a full scan, sequential or split across the common fork/join pool, to find the fleet size from which
+ * selectParallel pays off and tune RentalAgency.DEFAULT_PARALLEL_THRESHOLD
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelSelectBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    int fleetSize;
+
+    RentalAgency agency;
+    Predicate<Vehicle> criterion;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        agency = new RentalAgency(Fleets.vehicles(fleetSize));
+        agency.setParallelThreshold(1);
+        criterion = vehicle -> vehicle.getProductionYear() >= 2020 && vehicle.dailyRentalPrice() < 100;
+    }
+
+    @Benchmark
+    public List<Vehicle> sequential() {
+        return agency.select(criterion);
+    }
+
+    @Benchmark
+    public List<Vehicle> parallel() {
+        return agency.selectParallel(criterion);
+    }
+}
@@ -0,0 +1,94 @@
+package com.rentalagency.benchmark;
+
+import com.rentalagency.agency.Customer;
+import com.rentalagency.agency.RentalAgency;
+import com.rentalagency.agency.Vehicle;
+import com.rentalagency.metrics.AgencyMetrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of renting vehicles and returning them, from 1 000 to 1 000 000 vehicles, with and without metrics
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RentalBenchmark {
+    static final int BATCH_SIZE = 32;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    int fleetSize;
+
+    @Param({"false", "true"})
+    boolean metrics;
+
+    RentalAgency agency;
+    List<Vehicle> vehicles;
+    Customer customer;
+    List<Customer> batchCustomers;
+    int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        vehicles = Fleets.vehicles(fleetSize);
+        agency = new RentalAgency(vehicles);
+        if (metrics) agency.setMetrics(new AgencyMetrics());
+        customer = new Customer(new Date(0), "Dupont", "Jean");
+        batchCustomers = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) batchCustomers.add(new Customer(new Date(0), "Client " + i, "Jean"));
+    }
+
+    /**
+     * Rent a vehicle, going through the whole fleet, then return it
+     */
+    @Benchmark
+    public double rentThenReturn() {
+        double price = agency.rentVehicle(customer, nextVehicle());
+        agency.returnVehicle(customer);
+        return price;
+    }
+
+    /**
+     * Rent a batch of vehicles one call at a time, then return them
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public double rentOneByOneThenReturn() {
+        double total = 0;
+        for (int i = 0; i < BATCH_SIZE; i++) total += agency.rentVehicle(batchCustomers.get(i), nextVehicle());
+        for (Customer batchCustomer : batchCustomers) agency.returnVehicle(batchCustomer);
+        return total;
+    }
+
+    /**
+     * Rent a batch of vehicles in a single call, then return them
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Map<Customer, Double> rentBatchThenReturn() {
+        Map<Customer, Vehicle> rentals = new LinkedHashMap<>();
+        for (Customer batchCustomer : batchCustomers) rentals.put(batchCustomer, nextVehicle());
+        Map<Customer, Double> prices = agency.rentVehicles(rentals);
+        for (Customer batchCustomer : batchCustomers) agency.returnVehicle(batchCustomer);
+        return prices;
+    }
+
+    /**
+     * Get the next vehicle, going through the whole fleet
+     * @return the vehicle
+     */
+    private Vehicle nextVehicle() {
+        Vehicle vehicle = vehicles.get(next);
+        next = next + 1 == fleetSize ? 0 : next + 1;
+        return vehicle;
+    }
+}
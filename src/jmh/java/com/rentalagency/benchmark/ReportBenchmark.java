@@ -0,0 +1,56 @@
+package com.rentalagency.benchmark;
+
+import com.rentalagency.agency.ReportRenderer;
+import com.rentalagency.agency.Vehicle;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the report of a 200 000 vehicles inventory : one println of toString per vehicle, as
+ * printSelectedVehicles did, against the ReportRenderer
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReportBenchmark {
+    static final int FLEET_SIZE = 200_000;
+
+    List<Vehicle> vehicles;
+    ReportRenderer renderer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        vehicles = Fleets.vehicles(FLEET_SIZE);
+        renderer = new ReportRenderer();
+    }
+
+    /**
+     * Print the toString of each vehicle on its own line
+     */
+    @Benchmark
+    public int printlnEachVehicle() {
+        StringWriter output = new StringWriter(FLEET_SIZE * 64);
+        PrintWriter writer = new PrintWriter(output);
+        for (Vehicle vehicle : vehicles) writer.println(vehicle);
+        writer.flush();
+        return output.getBuffer().length();
+    }
+
+    /**
+     * Render the report with the ReportRenderer
+     */
+    @Benchmark
+    public int render() throws IOException {
+        StringWriter output = new StringWriter(FLEET_SIZE * 64);
+        renderer.render(vehicles, output);
+        return output.getBuffer().length();
+    }
+}
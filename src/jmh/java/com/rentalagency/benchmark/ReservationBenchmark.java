@@ -0,0 +1,65 @@
+package com.rentalagency.benchmark;
+
+import com.rentalagency.agency.Customer;
+import com.rentalagency.agency.RentalAgency;
+import com.rentalagency.agency.Vehicle;
+import com.rentalagency.criterions.BrandCriterion;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the availability query of an agency of 100 000 vehicles holding 500 000 reservations, against the plain
+ * selection of the same criterion
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReservationBenchmark {
+    static final int FLEET_SIZE = 100_000;
+    static final int RESERVATIONS_PER_VEHICLE = 5;
+    static final LocalDate FIRST_DAY = LocalDate.of(2026, 1, 1);
+
+    RentalAgency agency;
+    BrandCriterion criterion;
+    LocalDate start;
+    LocalDate end;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Vehicle> vehicles = Fleets.vehicles(FLEET_SIZE);
+        agency = new RentalAgency(vehicles);
+        Customer customer = new Customer(new Date(0), "Dupont", "Jean");
+        for (int i = 0; i < FLEET_SIZE; i++) {
+            for (int r = 0; r < RESERVATIONS_PER_VEHICLE; r++) {
+                LocalDate first = FIRST_DAY.plusDays(r * 60L + i % 30);
+                agency.reserve(customer, vehicles.get(i), first, first.plusDays(7));
+            }
+        }
+        criterion = new BrandCriterion("Toyota");
+        start = FIRST_DAY.plusDays(125);
+        end = start.plusDays(7);
+    }
+
+    /**
+     * Select the vehicles of a brand
+     */
+    @Benchmark
+    public List<Vehicle> select() {
+        return agency.select(criterion);
+    }
+
+    /**
+     * Select the vehicles of a brand free during a week
+     */
+    @Benchmark
+    public List<Vehicle> selectAvailable() {
+        return agency.selectAvailable(criterion, start, end);
+    }
+}
@@ -0,0 +1,74 @@
+package com.rentalagency.benchmark;
+
+import com.rentalagency.agency.Vehicle;
+import com.rentalagency.persistence.JournaledRentalAgency;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmark of the startup of a journaled agency of a million vehicles : replaying the journal of the additions, or
+ * reading the snapshot written by a checkpoint
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 15)
+@Fork(value = 2, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class SnapshotBenchmark {
+    static final int FLEET_SIZE = 1 << 20;
+    static final int BATCH_SIZE = 1024;
+
+    Path directory;
+    Path journal;
+    Path checkpointed;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        List<Vehicle> vehicles = Fleets.vehicles(FLEET_SIZE);
+        directory = Files.createTempDirectory("agency");
+        journal = directory.resolve("replay.journal");
+        checkpointed = directory.resolve("snapshot.journal");
+        try (JournaledRentalAgency agency = JournaledRentalAgency.open(journal, false)) {
+            for (int i = 0; i < FLEET_SIZE; i += BATCH_SIZE) agency.addAll(vehicles.subList(i, i + BATCH_SIZE));
+        }
+        try (JournaledRentalAgency agency = JournaledRentalAgency.open(checkpointed, false)) {
+            agency.addAll(vehicles);
+            agency.checkpoint();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) Files.delete(file);
+        }
+    }
+
+    /**
+     * Open the agency by replaying every addition of its journal
+     */
+    @Benchmark
+    public int replayJournal() throws IOException {
+        try (JournaledRentalAgency agency = JournaledRentalAgency.open(journal, false)) {
+            return agency.getVehicles().size();
+        }
+    }
+
+    /**
+     * Open the agency by reading its snapshot
+     */
+    @Benchmark
+    public int readSnapshot() throws IOException {
+        try (JournaledRentalAgency agency = JournaledRentalAgency.open(checkpointed, false)) {
+            return agency.getVehicles().size();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.rentalagency.benchmark;
+
+import com.rentalagency.agency.Car;
+import com.rentalagency.agency.Motorbike;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the price and the description of a single vehicle
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VehicleBenchmark {
+    Car car;
+    Motorbike motorbike;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        car = new Car("Toyota", "Corolla", 2022, 5);
+        motorbike = new Motorbike("Yamaha", "MT-07", 2020, 689);
+    }
+
+    @Benchmark
+    public double carDailyRentalPrice() {
+        return car.dailyRentalPrice();
+    }
+
+    @Benchmark
+    public double motorbikeDailyRentalPrice() {
+        return motorbike.dailyRentalPrice();
+    }
+
+    @Benchmark
+    public String carToString() {
+        return car.toString();
+    }
+
+    @Benchmark
+    public String motorbikeToString() {
+        return motorbike.toString();
+    }
+}
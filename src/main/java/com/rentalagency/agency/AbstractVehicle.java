@@ -2,26 +2,65 @@ package com.rentalagency.agency;
 
 import com.rentalagency.util.TimeProvider;
 
+import java.util.Objects;
+
 public abstract class AbstractVehicle implements Vehicle {
-    protected String brand;
-    protected String model;
+    protected final VehicleSpec spec;
     protected int productionYear;
 
     /**
      * Constructor : creates a new AbstractVehicle with the given brand, model and production year
+     * The vehicle shares the specification of every other vehicle of the same kind, brand and model
      * @param brand : the brand of the vehicle
      * @param model : the model of the vehicle
      * @param productionYear : the production year of the vehicle
      */
     public AbstractVehicle(String brand, String model, int productionYear) {
+        this(spec(brand, model, productionYear), productionYear);
+    }
+
+    /**
+     * Check the production year of a vehicle which is neither a car nor a motorbike, then get its specification
+     * @param brand : the brand of the vehicle
+     * @param model : the model of the vehicle
+     * @param productionYear : the production year of the vehicle
+     * @return the shared specification of the vehicle
+     */
+    private static VehicleSpec spec(String brand, String model, int productionYear) {
+        checkProductionYear(productionYear);
+        return VehicleSpec.of(VehicleSpec.Kind.OTHER, brand, model, 0);
+    }
+
+    /**
+     * Constructor : creates a new AbstractVehicle with the given specification and production year
+     * @param spec : the shared specification of the vehicle
+     * @param productionYear : the production year of the vehicle, already checked with checkProductionYear
+     */
+    protected AbstractVehicle(VehicleSpec spec, int productionYear) {
+        this.spec = spec;
+        this.productionYear = productionYear;
+    }
+
+    /**
+     * Check the production year of a vehicle
+     * @param productionYear : the production year
+     * @return the production year
+     * @throws IllegalArgumentException : if the production year is before 1900 or after the current year
+     */
+    protected static int checkProductionYear(int productionYear) {
         if (productionYear > TimeProvider.currentYearValue() || productionYear < 1900) {
             throw new IllegalArgumentException("L'année de production doit être comprise entre 1900 et l'année actuelle," +
                     " votre année de production est égale à : " + productionYear);
         }
+        return productionYear;
+    }
 
-        this.brand = brand;
-        this.model = model;
-        this.productionYear = productionYear;
+    /**
+     * Get the shared specification of the vehicle
+     * @return the specification of the vehicle
+     */
+    public VehicleSpec getSpec() {
+        return this.spec;
     }
 
     /**
@@ -30,7 +69,7 @@ public abstract class AbstractVehicle implements Vehicle {
      */
     @Override
     public String getBrand() {
-        return this.brand;
+        return this.spec.getBrand();
     }
 
     /**
@@ -39,7 +78,7 @@ public abstract class AbstractVehicle implements Vehicle {
      */
     @Override
     public String getModel() {
-        return this.model;
+        return this.spec.getModel();
     }
 
     /**
@@ -59,11 +98,22 @@ public abstract class AbstractVehicle implements Vehicle {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
+        if (!(o instanceof AbstractVehicle)) return false;
 
         AbstractVehicle that = (AbstractVehicle) o;
 
         return productionYear == that.productionYear &&
-                brand.equals(that.brand) &&
-                model.equals(that.model);
+                Objects.equals(getBrand(), that.getBrand()) &&
+                Objects.equals(getModel(), that.getModel());
+    }
+
+    /**
+     * Return the hash code of the vehicle, consistent with equals : built from the brand, the model and the production
+     * year
+     * @return the hash code of the vehicle
+     */
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Objects.hashCode(getBrand()) + Objects.hashCode(getModel())) + productionYear;
     }
 }
@@ -0,0 +1,303 @@
+package com.rentalagency.agency;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Network of agencies sharing the fleet, each vehicle belonging to one shard chosen by a partitioner : the branch of
+ * the vehicle, or by default a hash of the fields compared by equals.
+ * Adding, removing, renting and returning a vehicle go to the shard owning the vehicle and only take the locks of that
+ * shard. A customer may rent a single vehicle in the whole network : a rental first claims the customer in a
+ * concurrent map of the network, then rents the vehicle in its shard outside of the map, and gives the claim up if the
+ * shard refuses the rental, so two rentals of the same customer in different shards cannot both succeed. A rental of
+ * one shard never waits for the rental of another shard whose customer shares a bin of the map.
+ * Selections are scattered to every shard in parallel on the common fork/join pool and gathered in the order of the
+ * shards, the vehicles of each shard in the order they were added; the criterion must be safe to test from several
+ * threads at once. A selection sees each shard at a different instant, not a snapshot of the whole network.
+ */
+public class AgencyNetwork {
+    private final ConcurrentRentalAgency[] shards;
+    private final ToIntFunction<Vehicle> partitioner;
+    private final ConcurrentHashMap<Customer, Claim> renters = new ConcurrentHashMap<>();
+
+    /**
+     * Claim of a customer on the network, made by a rental before the shard rents the vehicle
+     */
+    private static final class Claim {
+        private final ConcurrentRentalAgency shard;
+        private volatile boolean rented;
+
+        /**
+         * Constructor : creates a new Claim
+         * @param shard : the shard renting the vehicle of the customer
+         * @param rented : true if the shard already rented the vehicle, false if the rental is in progress
+         */
+        Claim(ConcurrentRentalAgency shard, boolean rented) {
+            this.shard = shard;
+            this.rented = rented;
+        }
+    }
+
+    /**
+     * Constructor : creates a new AgencyNetwork of empty shards, the vehicles being spread by a hash of their brand,
+     * model and production year
+     * @param shardCount : the number of shards
+     */
+    public AgencyNetwork(int shardCount) {
+        this(emptyShards(shardCount), null);
+    }
+
+    /**
+     * Constructor : creates a new AgencyNetwork of the given shards, for instance the agencies of the branches
+     * The rentals already recorded by the shards are taken into account
+     * @param shards : the shards, such as concurrent or journaled agencies, each one holding only the vehicles the
+     * partitioner assigns to it
+     * @param partitioner : the function giving the index of the shard of a vehicle, between 0 and the number of shards
+     * minus 1, or null to spread the vehicles by a hash of their brand, model and production year
+     * @throws IllegalArgumentException : if there is no shard, or if a customer rents a vehicle in several shards
+     */
+    public AgencyNetwork(List<? extends ConcurrentRentalAgency> shards, ToIntFunction<Vehicle> partitioner) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("Le nombre de succursales doit être supérieur à 0," +
+                    " votre nombre de succursales est égal à : 0");
+        }
+        this.shards = shards.toArray(new ConcurrentRentalAgency[0]);
+        int shardCount = this.shards.length;
+        this.partitioner = partitioner != null ? partitioner : vehicle -> hashShard(vehicle, shardCount);
+        for (ConcurrentRentalAgency shard : this.shards) {
+            for (Vehicle vehicle : shard.allRentedVehicles()) {
+                Customer renter = shard.renterOf(vehicle);
+                if (renter != null && renters.putIfAbsent(renter, new Claim(shard, true)) != null) {
+                    throw new IllegalArgumentException("Un client loue des véhicules dans plusieurs succursales : "
+                            + renter.getName() + " " + renter.getSurname());
+                }
+            }
+        }
+    }
+
+    /**
+     * Create empty shards
+     * @param shardCount : the number of shards
+     * @return the list of shards
+     */
+    private static List<ConcurrentRentalAgency> emptyShards(int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Le nombre de succursales doit être supérieur à 0," +
+                    " votre nombre de succursales est égal à : " + shardCount);
+        }
+        List<ConcurrentRentalAgency> shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) shards.add(new ConcurrentRentalAgency());
+        return shards;
+    }
+
+    /**
+     * Get the shard of a vehicle from its hash code, consistent with equals
+     * The hash code is spread so the shards do not depend on its lowest bits only
+     * @param vehicle : the vehicle
+     * @param shardCount : the number of shards
+     * @return the index of the shard
+     */
+    static int hashShard(Vehicle vehicle, int shardCount) {
+        int hash = vehicle.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x45d9f3b;
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, shardCount);
+    }
+
+    /**
+     * Get the number of shards
+     * @return the number of shards
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Get a shard of the network
+     * The shard is meant to be read, for instance its vehicles, its rentals or its metrics : a vehicle rented or
+     * returned directly on the shard bypasses the network, so its customer is not known to be renting and could rent
+     * another vehicle through the network
+     * @param index the index of the shard
+     * @return the shard
+     */
+    public ConcurrentRentalAgency getShard(int index) {
+        return shards[index];
+    }
+
+    /**
+     * Get the shard owning a vehicle
+     * As with getShard, the shard is meant to be read, the rentals going through the network
+     * @param vehicle the vehicle
+     * @return the shard the vehicle belongs to, whether it is in its fleet or not
+     * @throws IllegalStateException if the partitioner gives an index outside of the shards
+     */
+    public ConcurrentRentalAgency shardOf(Vehicle vehicle) {
+        return shards[shardIndex(vehicle)];
+    }
+
+    /**
+     * Get the index of the shard owning a vehicle
+     * @param vehicle : the vehicle
+     * @return the index of the shard, checked to be within the shards
+     * @throws IllegalStateException : if the partitioner gives an index outside of the shards
+     */
+    private int shardIndex(Vehicle vehicle) {
+        int index = partitioner.applyAsInt(vehicle);
+        if (index < 0 || index >= shards.length) {
+            throw new IllegalStateException("La succursale d'un véhicule doit être comprise entre 0 et "
+                    + (shards.length - 1) + ", votre succursale est égale à : " + index);
+        }
+        return index;
+    }
+
+    /**
+     * Add a vehicle to the fleet of its shard
+     * @param vehicle the vehicle to add
+     * @return true if the vehicle was added, false if it was already in the network
+     */
+    public boolean add(Vehicle vehicle) {
+        return shardOf(vehicle).add(vehicle);
+    }
+
+    /**
+     * Add several vehicles, each shard receiving its vehicles in a single call
+     * @param vehicles the vehicles to add
+     * @return the number of vehicles added, the ones already in the network being skipped
+     */
+    public int addAll(Collection<? extends Vehicle> vehicles) {
+        List<List<Vehicle>> batches = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) batches.add(new ArrayList<>());
+        for (Vehicle vehicle : vehicles) batches.get(shardIndex(vehicle)).add(vehicle);
+        int added = 0;
+        for (int i = 0; i < shards.length; i++) {
+            if (!batches.get(i).isEmpty()) added += shards[i].addAll(batches.get(i));
+        }
+        return added;
+    }
+
+    /**
+     * Remove a vehicle from the fleet of its shard, with its reservations
+     * @param vehicle : the vehicle to remove
+     * @throws UnknownVehicleException : if the vehicle is not in the network
+     */
+    public void remove(Vehicle vehicle) {
+        shardOf(vehicle).remove(vehicle);
+    }
+
+    /**
+     * Rent a vehicle to a customer, in the shard owning the vehicle
+     * @param customer : the customer
+     * @param vehicle : the vehicle
+     * @return the daily rental price of the vehicle
+     * @throws UnknownVehicleException : if the vehicle is not in the network
+     * @throws IllegalStateException : if the customer already rented a vehicle in any shard or if the vehicle is
+     * already rented
+     */
+    public double rentVehicle(Customer customer, Vehicle vehicle) throws UnknownVehicleException, IllegalStateException {
+        Claim claim = new Claim(shardOf(vehicle), false);
+        if (renters.putIfAbsent(customer, claim) != null) {
+            throw new IllegalStateException("Customer already rented a vehicle");
+        }
+        double price;
+        try {
+            price = claim.shard.rentVehicle(customer, vehicle);
+        } catch (RuntimeException e) {
+            renters.remove(customer, claim);
+            throw e;
+        }
+        claim.rented = true;
+        return price;
+    }
+
+    /**
+     * Return the vehicle rented by a customer to its shard
+     * A return made while the rental of the customer is still in progress does nothing, as if it came first
+     * @param customer : the customer
+     */
+    public void returnVehicle(Customer customer) {
+        Claim claim = renters.get(customer);
+        if (claim == null || !claim.rented) return;
+        claim.shard.returnVehicle(customer);
+        renters.remove(customer, claim);
+    }
+
+    /**
+     * Check if a customer rented a vehicle in any shard
+     * @param customer : the customer
+     * @return true if the customer rented a vehicle, false otherwise
+     */
+    public boolean aVehicleRentedBy(Customer customer) {
+        Claim claim = renters.get(customer);
+        return claim != null && claim.rented;
+    }
+
+    /**
+     * Check if a vehicle is rented
+     * @param vehicle : the vehicle
+     * @return true if the vehicle is rented, false otherwise
+     */
+    public boolean aVehicleRented(Vehicle vehicle) {
+        return shardOf(vehicle).aVehicleRented(vehicle);
+    }
+
+    /**
+     * Select the vehicles of every shard that satisfy the given criterion
+     * @param criterion the criterion to satisfy, safe to test from several threads
+     * @return the list of vehicles that satisfy the criterion, shard after shard
+     */
+    public List<Vehicle> select(Predicate<Vehicle> criterion) {
+        return scatterGather(shard -> shard.select(criterion));
+    }
+
+    /**
+     * Select the vehicles of every shard that satisfy the given criterion and are not rented
+     * @param criterion the criterion to satisfy, safe to test from several threads
+     * @return the list of vehicles not rented that satisfy the criterion, shard after shard
+     */
+    public List<Vehicle> selectAvailable(Predicate<Vehicle> criterion) {
+        return scatterGather(shard -> shard.selectAvailable(criterion));
+    }
+
+    /**
+     * Get the vehicles of the network
+     * @return a copy of the vehicles of every shard, shard after shard
+     */
+    public List<Vehicle> getVehicles() {
+        return scatterGather(ConcurrentRentalAgency::getVehicles);
+    }
+
+    /**
+     * Run a query on every shard in parallel and concatenate the results in the order of the shards
+     * The first shard is queried by the calling thread while the fork/join pool queries the others
+     * @param query : the query of a shard
+     * @return the merged results
+     */
+    private List<Vehicle> scatterGather(Function<ConcurrentRentalAgency, List<Vehicle>> query) {
+        if (shards.length == 1) return query.apply(shards[0]);
+        List<ForkJoinTask<List<Vehicle>>> tasks = new ArrayList<>(shards.length - 1);
+        for (int i = 1; i < shards.length; i++) {
+            ConcurrentRentalAgency shard = shards[i];
+            tasks.add(ForkJoinPool.commonPool().submit(() -> query.apply(shard)));
+        }
+        List<Vehicle> first = query.apply(shards[0]);
+        List<List<Vehicle>> results = new ArrayList<>(shards.length);
+        results.add(first);
+        int size = first.size();
+        for (ForkJoinTask<List<Vehicle>> task : tasks) {
+            List<Vehicle> result = task.join();
+            results.add(result);
+            size += result.size();
+        }
+        List<Vehicle> merged = new ArrayList<>(size);
+        for (List<Vehicle> result : results) merged.addAll(result);
+        return merged;
+    }
+}
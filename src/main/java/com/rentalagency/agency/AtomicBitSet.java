@@ -0,0 +1,72 @@
+package com.rentalagency.agency;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Set of bits indexed by the slots of a fleet, whose bits can be set and cleared from several threads at once.
+ * Setting or clearing a bit is an atomic update of its 64 bits word, so two threads changing bits of the same word
+ * never lose each other's update. Growing the set must be serialized with every other operation by the caller.
+ */
+final class AtomicBitSet {
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private long[] words;
+
+    /**
+     * Constructor : creates a new AtomicBitSet able to hold the given number of bits without growing
+     * @param capacity : the number of bits
+     */
+    AtomicBitSet(int capacity) {
+        this.words = new long[wordCount(capacity)];
+    }
+
+    /**
+     * Set or clear a bit
+     * @param index : the index of the bit, within the capacity
+     * @param value : true to set the bit, false to clear it
+     */
+    void set(int index, boolean value) {
+        long mask = 1L << index;
+        if (value) WORDS.getAndBitwiseOr(words, index >>> 6, mask);
+        else WORDS.getAndBitwiseAnd(words, index >>> 6, ~mask);
+    }
+
+    /**
+     * Get a bit
+     * @param index : the index of the bit
+     * @return true if the bit is set, false if it is clear or beyond the capacity
+     */
+    boolean get(int index) {
+        int word = index >>> 6;
+        return word < words.length && ((long) WORDS.getOpaque(words, word) & (1L << index)) != 0;
+    }
+
+    /**
+     * Get a word of 64 bits, the bit i of the word being the bit 64 * word + i of the set
+     * @param word : the index of the word
+     * @return the word, 0 beyond the capacity
+     */
+    long word(int word) {
+        return word < words.length ? (long) WORDS.getOpaque(words, word) : 0;
+    }
+
+    /**
+     * Make the set able to hold the given number of bits, keeping its bits
+     * @param capacity : the number of bits
+     */
+    void ensureCapacity(int capacity) {
+        int count = wordCount(capacity);
+        if (count > words.length) words = Arrays.copyOf(words, Math.max(count, words.length * 2));
+    }
+
+    /**
+     * Get the number of words holding a number of bits
+     * @param bits : the number of bits
+     * @return the number of words
+     */
+    static int wordCount(int bits) {
+        return (bits + 63) >>> 6;
+    }
+}
@@ -1,13 +1,9 @@
 package com.rentalagency.agency;
 
+import com.rentalagency.util.PriceFormat;
 import com.rentalagency.util.TimeProvider;
 
 public class Car extends AbstractVehicle implements Vehicle {
-    private String brand;
-    private String model;
-    private int productionYear;
-    private int numberOfSeats;
-
     /**
      * Constructor : creates a new Car with the given brand, model, production year and number of seats
      *
@@ -17,13 +13,43 @@ public class Car extends AbstractVehicle implements Vehicle {
      * @param numberOfSeats
      */
     public Car(String brand, String model, int productionYear, int numberOfSeats) {
-        super(brand, model, productionYear);
+        super(spec(brand, model, productionYear, numberOfSeats), productionYear);
+    }
 
+    /**
+     * Constructor : creates a new Car of the given model without checking it, see VehicleSpec.restoreUnit
+     *
+     * @param spec           : the specification of the model, of kind CAR
+     * @param productionYear : the production year of the car, already checked
+     */
+    Car(VehicleSpec spec, int productionYear) {
+        super(spec, productionYear);
+    }
+
+    /**
+     * Check the production year and the number of seats of a car, then get the specification of its model
+     *
+     * @param brand          : the brand of the car
+     * @param model          : the model of the car
+     * @param productionYear : the production year of the car
+     * @param numberOfSeats  : the number of seats of the car
+     * @return the shared specification of the model
+     */
+    private static VehicleSpec spec(String brand, String model, int productionYear, int numberOfSeats) {
+        checkProductionYear(productionYear);
         if (numberOfSeats < 1) {
             throw new IllegalArgumentException("Le nombre de sièges doit être supérieur à 0, votre nombre de sièges est égal à : " + numberOfSeats);
         }
+        return VehicleSpec.of(VehicleSpec.Kind.CAR, brand, model, numberOfSeats);
+    }
 
-        this.numberOfSeats = numberOfSeats;
+    /**
+     * Get the number of seats of the car
+     *
+     * @return the number of seats of the car
+     */
+    public int getNumberOfSeats() {
+        return spec.getCapacity();
     }
 
     /**
@@ -33,6 +59,7 @@ public class Car extends AbstractVehicle implements Vehicle {
      */
     @Override
     public double dailyRentalPrice() {
+        int numberOfSeats = spec.getCapacity();
         return isNew() ? 40 * numberOfSeats : 20 * numberOfSeats;
     }
 
@@ -43,8 +70,20 @@ public class Car extends AbstractVehicle implements Vehicle {
      */
     @Override
     public String toString() {
-        return "Car, " + getBrand() + ", " + getModel() + ", " + getProductionYear() + ", "
-                + numberOfSeats + " seats : " + String.format("%.1f", dailyRentalPrice()) + "€/day";
+        return appendTo(new StringBuilder(64)).toString();
+    }
+
+    /**
+     * Append the string representation of the car to a builder
+     *
+     * @param builder : the builder to append to
+     * @return the builder
+     */
+    @Override
+    public StringBuilder appendTo(StringBuilder builder) {
+        builder.append("Car, ").append(getBrand()).append(", ").append(getModel()).append(", ")
+                .append(getProductionYear()).append(", ").append(spec.getCapacity()).append(" seats : ");
+        return PriceFormat.appendOneDecimal(builder, dailyRentalPrice()).append("€/day");
     }
 
     /**
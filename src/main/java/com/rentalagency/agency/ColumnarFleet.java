@@ -0,0 +1,209 @@
+package com.rentalagency.agency;
+
+import com.rentalagency.criterions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Immutable column-oriented snapshot of a fleet, for scan-heavy analytics queries.
+ * Each attribute of the vehicles is stored in its own primitive array : the brand as an id in a dictionary of brands,
+ * the production year, the daily rental price computed when the snapshot was taken, and the type of vehicle. The
+ * brand, price and production year criteria, and their combinations, are evaluated by tight loops over these arrays
+ * into bit masks, without touching the vehicles themselves.
+ */
+public final class ColumnarFleet {
+    public static final byte TYPE_CAR = 0;
+    public static final byte TYPE_MOTORBIKE = 1;
+    public static final byte TYPE_OTHER = 2;
+
+    private final int year;
+    private final Vehicle[] vehicles;
+    private final String[] brands;
+    private final int[] brandIds;
+    private final int[] productionYears;
+    private final double[] prices;
+    private final byte[] types;
+
+    /**
+     * Constructor : creates a new ColumnarFleet from the vehicles of a fleet
+     * @param fleet : the fleet
+     * @param year : the current year, used to compute the daily rental prices
+     */
+    ColumnarFleet(Fleet fleet, int year) {
+        int size = fleet.size();
+        this.year = year;
+        this.vehicles = new Vehicle[size];
+        this.brandIds = new int[size];
+        this.productionYears = new int[size];
+        this.prices = new double[size];
+        this.types = new byte[size];
+
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> brandList = new ArrayList<>();
+        int row = 0;
+        for (Vehicle vehicle : fleet) {
+            vehicles[row] = vehicle;
+            Integer brandId = dictionary.get(vehicle.getBrand());
+            if (brandId == null) {
+                brandId = brandList.size();
+                dictionary.put(vehicle.getBrand(), brandId);
+                brandList.add(vehicle.getBrand());
+            }
+            brandIds[row] = brandId;
+            productionYears[row] = vehicle.getProductionYear();
+            prices[row] = vehicle.dailyRentalPrice();
+            types[row] = vehicle instanceof Car ? TYPE_CAR : vehicle instanceof Motorbike ? TYPE_MOTORBIKE : TYPE_OTHER;
+            row++;
+        }
+        this.brands = brandList.toArray(new String[0]);
+    }
+
+    /**
+     * Get the number of vehicles of the snapshot
+     * @return the number of vehicles
+     */
+    public int size() {
+        return vehicles.length;
+    }
+
+    /**
+     * Get the year the daily rental prices of the snapshot were computed for
+     * @return the year of the prices
+     */
+    public int getYear() {
+        return year;
+    }
+
+    /**
+     * Select the vehicles of the snapshot that satisfy the given criterion
+     * @param criterion the criterion to satisfy
+     * @return the list of vehicles that satisfy the criterion, in the order of the fleet
+     */
+    public List<Vehicle> select(Predicate<Vehicle> criterion) {
+        long[] mask = mask(criterion);
+        List<Vehicle> selectedVehicles = new ArrayList<>();
+        for (int word = 0; word < mask.length; word++) {
+            long bits = mask[word];
+            while (bits != 0) {
+                selectedVehicles.add(vehicles[(word << 6) + Long.numberOfTrailingZeros(bits)]);
+                bits &= bits - 1;
+            }
+        }
+        return selectedVehicles;
+    }
+
+    /**
+     * Count the vehicles of the snapshot that satisfy the given criterion
+     * @param criterion the criterion to satisfy
+     * @return the number of vehicles that satisfy the criterion
+     */
+    public int count(Predicate<Vehicle> criterion) {
+        int count = 0;
+        for (long bits : mask(criterion)) count += Long.bitCount(bits);
+        return count;
+    }
+
+    /**
+     * Compute the average daily rental price of the vehicles of the snapshot that satisfy the given criterion
+     * @param criterion the criterion to satisfy
+     * @return the average daily rental price, or NaN if no vehicle satisfies the criterion
+     */
+    public double averageDailyRentalPrice(Predicate<Vehicle> criterion) {
+        long[] mask = mask(criterion);
+        double total = 0;
+        int count = 0;
+        for (int word = 0; word < mask.length; word++) {
+            long bits = mask[word];
+            while (bits != 0) {
+                total += prices[(word << 6) + Long.numberOfTrailingZeros(bits)];
+                count++;
+                bits &= bits - 1;
+            }
+        }
+        return count == 0 ? Double.NaN : total / count;
+    }
+
+    /**
+     * Count the vehicles of the snapshot of the given type
+     * @param type the type of vehicle, one of TYPE_CAR, TYPE_MOTORBIKE and TYPE_OTHER
+     * @return the number of vehicles of the type
+     */
+    public int countOfType(byte type) {
+        int count = 0;
+        for (byte vehicleType : types) {
+            if (vehicleType == type) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Compute the bit mask of the rows satisfying a criterion
+     * @param criterion : the criterion
+     * @return the bit mask, bit i of word i / 64 being set when row i satisfies the criterion
+     */
+    private long[] mask(Predicate<Vehicle> criterion) {
+        long[] mask = new long[(vehicles.length + 63) >>> 6];
+        if (criterion instanceof BrandCriterion) {
+            int brandId = brandId(((BrandCriterion) criterion).getBrand());
+            if (brandId < 0) return mask;
+            for (int row = 0; row < brandIds.length; row++) {
+                if (brandIds[row] == brandId) mask[row >>> 6] |= 1L << row;
+            }
+        } else if (criterion instanceof MaxPriceCriterion) {
+            double maxPrice = ((MaxPriceCriterion) criterion).getMaxPrice();
+            for (int row = 0; row < prices.length; row++) {
+                if (prices[row] <= maxPrice) mask[row >>> 6] |= 1L << row;
+            }
+        } else if (criterion instanceof PriceRangeCriterion) {
+            double minPrice = ((PriceRangeCriterion) criterion).getMinPrice();
+            double maxPrice = ((PriceRangeCriterion) criterion).getMaxPrice();
+            for (int row = 0; row < prices.length; row++) {
+                if (prices[row] >= minPrice && prices[row] <= maxPrice) mask[row >>> 6] |= 1L << row;
+            }
+        } else if (criterion instanceof ProductionYearCriterion) {
+            int minYear = ((ProductionYearCriterion) criterion).getMinYear();
+            int maxYear = ((ProductionYearCriterion) criterion).getMaxYear();
+            for (int row = 0; row < productionYears.length; row++) {
+                if (productionYears[row] >= minYear && productionYears[row] <= maxYear) mask[row >>> 6] |= 1L << row;
+            }
+        } else if (criterion instanceof AndCriterion) {
+            List<Predicate<Vehicle>> criteria = ((AndCriterion) criterion).getCriteria();
+            mask = mask(criteria.get(0));
+            for (int i = 1; i < criteria.size(); i++) {
+                long[] other = mask(criteria.get(i));
+                for (int word = 0; word < mask.length; word++) mask[word] &= other[word];
+            }
+        } else if (criterion instanceof OrCriterion) {
+            for (Predicate<Vehicle> alternative : ((OrCriterion) criterion).getCriteria()) {
+                long[] other = mask(alternative);
+                for (int word = 0; word < mask.length; word++) mask[word] |= other[word];
+            }
+        } else if (criterion instanceof NotCriterion) {
+            long[] negated = mask(((NotCriterion) criterion).getCriterion());
+            for (int word = 0; word < mask.length; word++) mask[word] = ~negated[word];
+            if ((vehicles.length & 63) != 0) mask[mask.length - 1] &= (1L << vehicles.length) - 1;
+        } else {
+            for (int row = 0; row < vehicles.length; row++) {
+                if (criterion.test(vehicles[row])) mask[row >>> 6] |= 1L << row;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Get the id of a brand in the dictionary of the snapshot
+     * @param brand : the brand, possibly null as for the vehicles without a brand
+     * @return the id of the brand, or -1 if no vehicle of the snapshot has this brand
+     */
+    private int brandId(String brand) {
+        for (int id = 0; id < brands.length; id++) {
+            if (Objects.equals(brands[id], brand)) return id;
+        }
+        return -1;
+    }
+}
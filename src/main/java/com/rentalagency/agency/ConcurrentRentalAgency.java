@@ -0,0 +1,361 @@
+package com.rentalagency.agency;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * RentalAgency which can be shared between threads.
+ * Changes of the fleet (add and remove) and batch rentals take the fleet lock exclusively, every other operation
+ * shares it.
+ * Rentals and returns also lock the stripes of their customer and vehicle, so operations on the same customer or the
+ * same vehicle are serialized while rentals of unrelated vehicles by unrelated customers never wait for each other.
+ * Reservations share the fleet lock and lock the calendar of their vehicle only.
+ */
+public class ConcurrentRentalAgency extends RentalAgency {
+    private static final int STRIPES_PER_PROCESSOR = 16;
+
+    private final ReadWriteLock fleetLock;
+    private final LockStripes rentalLocks;
+
+    /**
+     * Constructor : creates a new ConcurrentRentalAgency with the given list of vehicles
+     * @param vehicles the list of vehicles
+     */
+    public ConcurrentRentalAgency(List<Vehicle> vehicles) {
+        super(vehicles, RentalLedger.concurrent(), ReservationCalendar.concurrent());
+        this.fleetLock = new ReentrantReadWriteLock();
+        this.rentalLocks = new LockStripes(STRIPES_PER_PROCESSOR * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor : creates a new ConcurrentRentalAgency with an empty list of vehicles
+     */
+    public ConcurrentRentalAgency() {
+        this(new ArrayList<>());
+    }
+
+    /**
+     * Add a vehicle to the list of vehicles
+     * @param vehicle the vehicle to add
+     * @return true if the vehicle was added, false if it was already in the list
+     */
+    @Override
+    public boolean add(Vehicle vehicle) {
+        fleetLock.writeLock().lock();
+        try {
+            return super.add(vehicle);
+        } finally {
+            fleetLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add several vehicles to the list of vehicles, holding the fleet lock once for the whole collection
+     * @param vehicles the vehicles to add
+     * @return the number of vehicles added, the ones already in the list being skipped
+     */
+    @Override
+    public int addAll(Collection<? extends Vehicle> vehicles) {
+        fleetLock.writeLock().lock();
+        try {
+            return super.addAll(vehicles);
+        } finally {
+            fleetLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a vehicle from the list of vehicles
+     * @param vehicle : the vehicle to remove
+     */
+    @Override
+    public void remove(Vehicle vehicle) {
+        fleetLock.writeLock().lock();
+        try {
+            super.remove(vehicle);
+        } finally {
+            fleetLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get the vehicle of the fleet with the given brand, model and production year
+     * @param brand the brand of the vehicle
+     * @param model the model of the vehicle
+     * @param productionYear the production year of the vehicle
+     * @return the vehicle of the fleet, or an empty optional if no vehicle has this brand, model and production year
+     */
+    @Override
+    public Optional<Vehicle> find(String brand, String model, int productionYear) {
+        fleetLock.readLock().lock();
+        try {
+            return super.find(brand, model, productionYear);
+        } finally {
+            fleetLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the list of vehicles
+     * @return a copy of the vehicles taken at the time of the call, in the order they were added
+     */
+    @Override
+    public List<Vehicle> getVehicles() {
+        fleetLock.readLock().lock();
+        try {
+            return List.copyOf(super.getVehicles());
+        } finally {
+            fleetLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Select vehicles that satisfy the given criterion
+     * @param criterion the criterion to satisfy
+     * @return the list of vehicles that satisfy the criterion
+     */
+    @Override
+    public List<Vehicle> select(Predicate<Vehicle> criterion) {
+        fleetLock.readLock().lock();
+        try {
+            return super.select(criterion);
+        } finally {
+            fleetLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Select the vehicles that satisfy the given criterion and are not rented
+     * A vehicle rented or returned during the selection may or may not be selected
+     * @param criterion the criterion to satisfy
+     * @return the list of vehicles not rented that satisfy the criterion
+     */
+    @Override
+    public List<Vehicle> selectAvailable(Predicate<Vehicle> criterion) {
+        fleetLock.readLock().lock();
+        try {
+            return super.selectAvailable(criterion);
+        } finally {
+            fleetLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Select a page of the vehicles that satisfy the given criterion
+     * The page is selected lazily under the fleet lock, so the criterion stops being tested once the page is full
+     * @param criterion the criterion to satisfy
+     * @param offset the number of matching vehicles to skip
+     * @param limit the maximum number of vehicles of the page
+     * @return the list of at most limit vehicles that satisfy the criterion
+     */
+    @Override
+    public List<Vehicle> select(Predicate<Vehicle> criterion, int offset, int limit) {
+        fleetLock.readLock().lock();
+        try {
+            return super.select(criterion, offset, limit);
+        } finally {
+            fleetLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the first vehicle that satisfies the given criterion, without testing the vehicles after it
+     * @param criterion the criterion to satisfy
+     * @return the first vehicle that satisfies the criterion, or an empty optional
+     */
+    @Override
+    public Optional<Vehicle> first(Predicate<Vehicle> criterion) {
+        fleetLock.readLock().lock();
+        try {
+            return super.first(criterion);
+        } finally {
+            fleetLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get a stream of the vehicles that satisfy the given criterion
+     * The fleet may change while the stream is consumed, after the fleet lock is released, so the vehicles are all
+     * selected when the stream is created; select with an offset and a limit, or first, stop earlier
+     * @param criterion the criterion to satisfy
+     * @return the stream of vehicles that satisfy the criterion
+     */
+    @Override
+    public Stream<Vehicle> stream(Predicate<Vehicle> criterion) {
+        return select(criterion).stream();
+    }
+
+    /**
+     * Select vehicles that satisfy the given criterion, using all the cores for a full scan of a large fleet
+     * @param criterion the criterion to satisfy
+     * @return the list of vehicles that satisfy the criterion
+     */
+    @Override
+    public List<Vehicle> selectParallel(Predicate<Vehicle> criterion) {
+        fleetLock.readLock().lock();
+        try {
+            return super.selectParallel(criterion);
+        } finally {
+            fleetLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Explain how the vehicles satisfying the given criterion would be selected
+     * @param criterion the criterion to satisfy
+     * @return the description of the plan chosen for the criterion, one step per line
+     */
+    @Override
+    public String explain(Predicate<Vehicle> criterion) {
+        fleetLock.readLock().lock();
+        try {
+            return super.explain(criterion);
+        } finally {
+            fleetLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Take an immutable column-oriented snapshot of the vehicles, for analytics queries scanning the whole fleet
+     * @return the snapshot of the vehicles
+     */
+    @Override
+    public ColumnarFleet columnarSnapshot() {
+        fleetLock.readLock().lock();
+        try {
+            return super.columnarSnapshot();
+        } finally {
+            fleetLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rent a vehicle to a customer
+     * @param customer : the customer
+     * @param vehicle : the vehicle
+     * @return the daily rental price of the vehicle
+     * @throws UnknownVehicleException : if the vehicle is not in the list of vehicles
+     * @throws IllegalStateException : if the customer already rented a vehicle or if the vehicle is already rented
+     */
+    @Override
+    public double rentVehicle(Customer customer, Vehicle vehicle) throws UnknownVehicleException, IllegalStateException {
+        fleetLock.readLock().lock();
+        try {
+            rentalLocks.lock(customer, vehicle);
+            try {
+                return super.rentVehicle(customer, vehicle);
+            } finally {
+                rentalLocks.unlock(customer, vehicle);
+            }
+        } finally {
+            fleetLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rent several vehicles at once, each one to its customer
+     * The batch holds the fleet exclusively, so no other rental or return can interleave with it
+     * @param rentals : the vehicle to rent to each customer
+     * @return the daily rental price of the vehicle of each customer, in the iteration order of the rentals
+     * @throws UnknownVehicleException : if a vehicle is not in the list of vehicles
+     * @throws IllegalStateException : if a customer already rented a vehicle, if a vehicle is already rented or if a
+     * vehicle appears twice in the batch
+     */
+    @Override
+    public Map<Customer, Double> rentVehicles(Map<Customer, Vehicle> rentals)
+            throws UnknownVehicleException, IllegalStateException {
+        fleetLock.writeLock().lock();
+        try {
+            return super.rentVehicles(rentals);
+        } finally {
+            fleetLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Return a vehicle rented by a customer
+     * @param customer : the customer
+     */
+    @Override
+    public void returnVehicle(Customer customer) {
+        fleetLock.readLock().lock();
+        try {
+            while (true) {
+                Vehicle vehicle = rentedVehicles().rentedBy(customer);
+                if (vehicle == null) return;
+                rentalLocks.lock(customer, vehicle);
+                try {
+                    if (rentedVehicles().rentedBy(customer) == vehicle) {
+                        super.returnVehicle(customer);
+                        return;
+                    }
+                } finally {
+                    rentalLocks.unlock(customer, vehicle);
+                }
+            }
+        } finally {
+            fleetLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reserve a vehicle for a customer for a range of days
+     * @param customer : the customer
+     * @param vehicle : the vehicle
+     * @param start : the first day of the reservation
+     * @param end : the day after the last day of the reservation
+     * @return the reservation
+     * @throws UnknownVehicleException : if the vehicle is not in the list of vehicles
+     * @throws IllegalStateException : if the vehicle is already reserved for one of the days
+     */
+    @Override
+    public Reservation reserve(Customer customer, Vehicle vehicle, LocalDate start, LocalDate end)
+            throws UnknownVehicleException, IllegalStateException {
+        fleetLock.readLock().lock();
+        try {
+            return super.reserve(customer, vehicle, start, end);
+        } finally {
+            fleetLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cancel a reservation
+     * @param reservation : the reservation
+     * @return true if the reservation was cancelled, false if it was not recorded
+     */
+    @Override
+    public boolean cancelReservation(Reservation reservation) {
+        fleetLock.readLock().lock();
+        try {
+            return super.cancelReservation(reservation);
+        } finally {
+            fleetLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Select the vehicles that satisfy the given criterion and are not reserved during a range of days
+     * @param criterion the criterion to satisfy
+     * @param start the first day of the range
+     * @param end the day after the last day of the range
+     * @return the list of available vehicles that satisfy the criterion
+     */
+    @Override
+    public List<Vehicle> selectAvailable(Predicate<Vehicle> criterion, LocalDate start, LocalDate end) {
+        fleetLock.readLock().lock();
+        try {
+            return super.selectAvailable(criterion, start, end);
+        } finally {
+            fleetLock.readLock().unlock();
+        }
+    }
+}
@@ -2,6 +2,11 @@ package com.rentalagency.agency;
 
 import java.util.Date;
 
+/**
+ * Customer of an agency.
+ * Customers are compared by identity : two customers with the same birth date, name and surname are two customers,
+ * who can each rent a vehicle.
+ */
 public class Customer {
     private Date birth;
     private String name;
@@ -14,8 +19,32 @@ public class Customer {
      * @param surname the surname
      */
     public Customer(Date birth, String name, String surname) {
-        this.birth = birth;
+        this.birth = birth == null ? null : new Date(birth.getTime());
         this.name = name;
         this.surname = surname;
     }
+
+    /**
+     * Get the birth date of the customer
+     * @return a copy of the birth date of the customer
+     */
+    public Date getBirth() {
+        return birth == null ? null : new Date(birth.getTime());
+    }
+
+    /**
+     * Get the name of the customer
+     * @return the name of the customer
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the surname of the customer
+     * @return the surname of the customer
+     */
+    public String getSurname() {
+        return surname;
+    }
 }
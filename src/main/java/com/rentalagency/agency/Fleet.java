@@ -0,0 +1,306 @@
+package com.rentalagency.agency;
+
+import java.util.*;
+
+/**
+ * Hash-indexed storage of the vehicles of an agency.
+ * Each vehicle lives in a slot of an array and a hash map gives the slot of a vehicle in constant time, so membership,
+ * insertion and deletion no longer scan the fleet. Removed vehicles leave an empty slot behind, which keeps the
+ * insertion order of the remaining vehicles; empty slots are squeezed out by the writes, once they outnumber the
+ * vehicles, and never by a read, so reading the fleet by position does not disturb an iteration in progress.
+ * A secondary index groups the vehicles by brand, in insertion order, for exact-match queries on the brand.
+ * The slot of a vehicle is its dense integer id : a bit set indexed by slot flags the rented vehicles, so a selection
+ * of the available vehicles skips 64 rented vehicles at once. The bits follow the vehicles when the slots are
+ * compacted.
+ */
+class Fleet extends AbstractList<Vehicle> {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private Vehicle[] slots;
+    private int end;
+    private int size;
+    private int layout;
+    private final Map<Vehicle, Integer> slotOf;
+    private final Map<String, Set<Vehicle>> byBrand;
+    private final AtomicBitSet rented;
+    private Position lastPosition;
+
+    /**
+     * Slot of the vehicle read last by position, so reading the vehicles one after the other skips the empty slots
+     * only once
+     */
+    private static final class Position {
+        private final int version;
+        private final int index;
+        private final int slot;
+
+        /**
+         * Constructor : creates a new Position
+         * @param version : the version of the fleet the slot was found in
+         * @param index : the position of the vehicle
+         * @param slot : the slot of the vehicle
+         */
+        Position(int version, int index, int slot) {
+            this.version = version;
+            this.index = index;
+            this.slot = slot;
+        }
+    }
+
+    /**
+     * Constructor : creates a new empty Fleet able to hold the given number of vehicles without growing
+     * @param capacity : the initial capacity
+     */
+    Fleet(int capacity) {
+        this.slots = new Vehicle[Math.max(capacity, DEFAULT_CAPACITY)];
+        this.slotOf = new HashMap<>(Math.max(capacity, DEFAULT_CAPACITY) * 4 / 3 + 1);
+        this.byBrand = new HashMap<>();
+        this.rented = new AtomicBitSet(slots.length);
+    }
+
+    /**
+     * Constructor : creates a new empty Fleet
+     */
+    Fleet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Check if a vehicle is in the fleet
+     * @param o : the vehicle
+     * @return true if the vehicle is in the fleet, false otherwise
+     */
+    @Override
+    public boolean contains(Object o) {
+        return slotOf.containsKey(o);
+    }
+
+    /**
+     * Get the vehicle of the fleet equal to the given one
+     * @param o : the vehicle to look for
+     * @return the instance held by the fleet, or null if the vehicle is not in the fleet
+     */
+    Vehicle find(Object o) {
+        Integer slot = slotOf.get(o);
+        return slot == null ? null : slots[slot];
+    }
+
+    /**
+     * Add a vehicle at the end of the fleet
+     * @param vehicle : the vehicle to add
+     * @return true if the vehicle was added, false if it was already in the fleet
+     */
+    @Override
+    public boolean add(Vehicle vehicle) {
+        if (slotOf.putIfAbsent(vehicle, end) != null) return false;
+        if (end == slots.length) {
+            if (end - size > size) compact();
+            else slots = Arrays.copyOf(slots, slots.length * 2);
+            rented.ensureCapacity(slots.length);
+            slotOf.put(vehicle, end);
+        }
+        slots[end++] = vehicle;
+        byBrand.computeIfAbsent(vehicle.getBrand(), brand -> new LinkedHashSet<>()).add(vehicle);
+        size++;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Remove a vehicle from the fleet
+     * @param o : the vehicle to remove
+     * @return true if the vehicle was removed, false if it was not in the fleet
+     */
+    @Override
+    public boolean remove(Object o) {
+        Integer slot = slotOf.remove(o);
+        if (slot == null) return false;
+        Vehicle vehicle = slots[slot];
+        Set<Vehicle> sameBrand = byBrand.get(vehicle.getBrand());
+        sameBrand.remove(vehicle);
+        if (sameBrand.isEmpty()) byBrand.remove(vehicle.getBrand());
+        slots[slot] = null;
+        rented.set(slot, false);
+        size--;
+        modCount++;
+        if (size == 0) {
+            end = 0;
+            layout++;
+        } else if (end - size > size) {
+            compact();
+        }
+        return true;
+    }
+
+    /**
+     * Get the vehicle at the given position, in insertion order
+     * The empty slots before the vehicle are skipped without changing the fleet, starting from the position read last
+     * when it is before the given one. The last position is an immutable object, so readers sharing the fleet at
+     * worst skip from the first slot again.
+     * @param index : the position
+     * @return the vehicle at the given position
+     */
+    @Override
+    public Vehicle get(int index) {
+        Objects.checkIndex(index, size);
+        if (end == size) return slots[index];
+        Position last = lastPosition;
+        int position = 0;
+        int slot = nextSlot(0);
+        if (last != null && last.version == modCount && last.index <= index) {
+            position = last.index;
+            slot = last.slot;
+        }
+        while (position < index) {
+            slot = nextSlot(slot + 1);
+            position++;
+        }
+        lastPosition = new Position(modCount, index, slot);
+        return slots[slot];
+    }
+
+    /**
+     * Get the number of vehicles of the given brand
+     * @param brand : the brand
+     * @return the number of vehicles of the brand
+     */
+    int countWithBrand(String brand) {
+        Set<Vehicle> sameBrand = byBrand.get(brand);
+        return sameBrand == null ? 0 : sameBrand.size();
+    }
+
+    /**
+     * Get the slots of the vehicles of the given brand, without scanning the fleet
+     * @param brand : the brand
+     * @return the set of slots holding a vehicle of the brand
+     */
+    BitSet slotsWithBrand(String brand) {
+        BitSet matches = new BitSet(end);
+        Set<Vehicle> sameBrand = byBrand.get(brand);
+        if (sameBrand != null) {
+            for (Vehicle vehicle : sameBrand) matches.set(slotOf.get(vehicle));
+        }
+        return matches;
+    }
+
+    /**
+     * Flag a vehicle of the fleet as rented or available
+     * Vehicles of different slots can be flagged from several threads at once
+     * @param vehicle : the vehicle
+     * @param isRented : true if the vehicle is rented, false if it is available
+     */
+    void setRented(Vehicle vehicle, boolean isRented) {
+        Integer slot = slotOf.get(vehicle);
+        if (slot != null) rented.set(slot, isRented);
+    }
+
+    /**
+     * Get a word of the rented flags, the bit i of the word flagging the slot 64 * word + i
+     * @param word : the index of the word
+     * @return the word of flags
+     */
+    long rentedWord(int word) {
+        return rented.word(word);
+    }
+
+    /**
+     * Get the number of slots in use, occupied or left empty by a removal
+     * @return the number of slots in use
+     */
+    int end() {
+        return end;
+    }
+
+    /**
+     * Get the vehicle stored in a slot
+     * @param slot : the slot
+     * @return the vehicle stored in the slot, or null if the slot is empty
+     */
+    Vehicle slot(int slot) {
+        return slots[slot];
+    }
+
+    /**
+     * Get the version of the fleet, which changes each time a vehicle is added or removed or the slots are compacted
+     * @return the version of the fleet
+     */
+    int version() {
+        return modCount;
+    }
+
+    /**
+     * Get the layout of the slots, which changes each time the vehicles move to other slots; between two changes, a
+     * vehicle keeps its slot and a slot left empty is never used again
+     * @return the layout of the slots
+     */
+    int layout() {
+        return layout;
+    }
+
+    /**
+     * Get the number of vehicles in the fleet
+     * @return the number of vehicles
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Iterate over the vehicles in insertion order, skipping the empty slots
+     * @return the iterator
+     */
+    @Override
+    public Iterator<Vehicle> iterator() {
+        return new Iterator<>() {
+            private final int expectedModCount = modCount;
+            private int cursor = nextSlot(0);
+
+            @Override
+            public boolean hasNext() {
+                return cursor < end;
+            }
+
+            @Override
+            public Vehicle next() {
+                if (modCount != expectedModCount) throw new ConcurrentModificationException();
+                if (cursor >= end) throw new NoSuchElementException();
+                Vehicle vehicle = slots[cursor];
+                cursor = nextSlot(cursor + 1);
+                return vehicle;
+            }
+        };
+    }
+
+    /**
+     * Get the first occupied slot starting from the given one
+     * @param from : the slot to start from
+     * @return the first occupied slot, or the end of the fleet if there is none
+     */
+    private int nextSlot(int from) {
+        while (from < end && slots[from] == null) from++;
+        return from;
+    }
+
+    /**
+     * Move the vehicles to the front of the slots, keeping their order, and update their index entries
+     */
+    private void compact() {
+        int target = 0;
+        for (int slot = 0; slot < end; slot++) {
+            Vehicle vehicle = slots[slot];
+            if (vehicle == null) continue;
+            if (slot != target) {
+                slots[target] = vehicle;
+                slotOf.put(vehicle, target);
+                rented.set(target, rented.get(slot));
+                rented.set(slot, false);
+            }
+            target++;
+        }
+        Arrays.fill(slots, target, end, null);
+        end = target;
+        layout++;
+        modCount++;
+    }
+}
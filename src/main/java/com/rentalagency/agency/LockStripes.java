@@ -0,0 +1,57 @@
+package com.rentalagency.agency;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of locks shared by hashing : two objects only wait for each other when they fall on the same stripe.
+ * When two objects have to be locked together, their stripes are always taken in ascending order to avoid deadlocks.
+ */
+class LockStripes {
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    /**
+     * Constructor : creates a new LockStripes with at least the given number of stripes
+     * @param minimumStripes : the minimum number of stripes, rounded up to a power of two
+     */
+    LockStripes(int minimumStripes) {
+        int count = Integer.highestOneBit(Math.max(1, minimumStripes - 1)) << 1;
+        this.stripes = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) stripes[i] = new ReentrantLock();
+        this.mask = count - 1;
+    }
+
+    /**
+     * Get the stripe of an object
+     * @param key : the object
+     * @return the index of the stripe guarding the object
+     */
+    int stripeOf(Object key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Lock the stripes of two objects
+     * @param first : the first object
+     * @param second : the second object
+     */
+    void lock(Object first, Object second) {
+        int a = stripeOf(first);
+        int b = stripeOf(second);
+        stripes[Math.min(a, b)].lock();
+        if (a != b) stripes[Math.max(a, b)].lock();
+    }
+
+    /**
+     * Unlock the stripes of two objects previously locked with lock
+     * @param first : the first object
+     * @param second : the second object
+     */
+    void unlock(Object first, Object second) {
+        int a = stripeOf(first);
+        int b = stripeOf(second);
+        if (a != b) stripes[Math.max(a, b)].unlock();
+        stripes[Math.min(a, b)].unlock();
+    }
+}
@@ -1,8 +1,6 @@
 package com.rentalagency.agency;
 
 public class Motorbike extends AbstractVehicle {
-    private int cylinderCapacity;
-
     /**
      * Constructor : creates a new Motorbike with the given brand, model, production year and cylinder capacity
      * @param brand : the brand of the motorbike
@@ -11,11 +9,40 @@ public class Motorbike extends AbstractVehicle {
      * @param cylinderCapacity : the cylinder capacity of the motorbike
      */
     public Motorbike(String brand, String model, int productionYear,int cylinderCapacity) {
-        super(brand, model, productionYear);
+        super(spec(brand, model, productionYear, cylinderCapacity), productionYear);
+    }
+
+    /**
+     * Constructor : creates a new Motorbike of the given model without checking it, see VehicleSpec.restoreUnit
+     * @param spec : the specification of the model, of kind MOTORBIKE
+     * @param productionYear : the production year of the motorbike, already checked
+     */
+    Motorbike(VehicleSpec spec, int productionYear) {
+        super(spec, productionYear);
+    }
+
+    /**
+     * Check the production year and the cylinder capacity of a motorbike, then get the specification of its model
+     * @param brand : the brand of the motorbike
+     * @param model : the model of the motorbike
+     * @param productionYear : the production year of the motorbike
+     * @param cylinderCapacity : the cylinder capacity of the motorbike
+     * @return the shared specification of the model
+     */
+    private static VehicleSpec spec(String brand, String model, int productionYear, int cylinderCapacity) {
+        checkProductionYear(productionYear);
         if (cylinderCapacity < 50) {
             throw new IllegalArgumentException("La cylindrée doit être supérieure à 50, votre cylindrée est égale à : " + cylinderCapacity);
         }
-        this.cylinderCapacity = cylinderCapacity;
+        return VehicleSpec.of(VehicleSpec.Kind.MOTORBIKE, brand, model, cylinderCapacity);
+    }
+
+    /**
+     * Get the cylinder capacity of the motorbike
+     * @return the cylinder capacity of the motorbike
+     */
+    public int getCylinderCapacity() {
+        return spec.getCapacity();
     }
 
     /**
@@ -24,7 +51,7 @@ public class Motorbike extends AbstractVehicle {
      */
     @Override
     public double dailyRentalPrice() {
-        return 0.25 * cylinderCapacity;
+        return 0.25 * spec.getCapacity();
     }
 
     /**
@@ -33,6 +60,18 @@ public class Motorbike extends AbstractVehicle {
      */
     @Override
     public String toString() {
-        return "Motorbike, " + getBrand() + ", " + getModel() + ", " + getProductionYear() + ", " +  cylinderCapacity + "cm3 :" + dailyRentalPrice() + "€/day";
+        return appendTo(new StringBuilder(64)).toString();
+    }
+
+    /**
+     * Append the string representation of the motorbike to a builder
+     * @param builder : the builder to append to
+     * @return the builder
+     */
+    @Override
+    public StringBuilder appendTo(StringBuilder builder) {
+        return builder.append("Motorbike, ").append(getBrand()).append(", ").append(getModel()).append(", ")
+                .append(getProductionYear()).append(", ").append(spec.getCapacity()).append("cm3 :")
+                .append(dailyRentalPrice()).append("€/day");
     }
 }
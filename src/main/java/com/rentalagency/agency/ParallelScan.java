@@ -0,0 +1,90 @@
+package com.rentalagency.agency;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
+
+/**
+ * Scan of the whole fleet split across the threads of the common fork/join pool.
+ * The slots are cut in chunks, each chunk is scanned by one task into its own buffer, and the buffers are concatenated
+ * in the order of the chunks at the end, so the result is in the same order as a sequential scan.
+ */
+final class ParallelScan {
+    private static final int MIN_CHUNK_SIZE = 1024;
+    private static final int CHUNKS_PER_THREAD = 8;
+
+    private final Fleet fleet;
+    private final Predicate<Vehicle> criterion;
+    private final int chunkSize;
+    private final List<List<Vehicle>> buffers;
+
+    /**
+     * Constructor : creates a new ParallelScan of a fleet
+     * @param fleet : the fleet, which must not change during the scan
+     * @param criterion : the criterion to satisfy, which must be safe to test from several threads
+     */
+    ParallelScan(Fleet fleet, Predicate<Vehicle> criterion) {
+        this.fleet = fleet;
+        this.criterion = criterion;
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        this.chunkSize = Math.max(MIN_CHUNK_SIZE, fleet.end() / (parallelism * CHUNKS_PER_THREAD) + 1);
+        int chunks = (fleet.end() + chunkSize - 1) / chunkSize;
+        this.buffers = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) buffers.add(null);
+    }
+
+    /**
+     * Run the scan
+     * @return the list of vehicles that satisfy the criterion, in the order of the fleet
+     */
+    List<Vehicle> execute() {
+        ForkJoinPool.commonPool().invoke(new ChunkTask(0, buffers.size()));
+        int total = 0;
+        for (List<Vehicle> buffer : buffers) total += buffer.size();
+        List<Vehicle> selectedVehicles = new ArrayList<>(total);
+        for (List<Vehicle> buffer : buffers) selectedVehicles.addAll(buffer);
+        return selectedVehicles;
+    }
+
+    /**
+     * Task scanning a range of chunks, split in two halves until a single chunk is left
+     */
+    private final class ChunkTask extends RecursiveAction {
+        private final int fromChunk;
+        private final int toChunk;
+
+        /**
+         * Constructor : creates a new ChunkTask
+         * @param fromChunk : the first chunk, inclusive
+         * @param toChunk : the last chunk, exclusive
+         */
+        ChunkTask(int fromChunk, int toChunk) {
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+        }
+
+        /**
+         * Scan the chunks, splitting the range when it holds more than one chunk
+         */
+        @Override
+        protected void compute() {
+            if (toChunk - fromChunk > 1) {
+                int middle = (fromChunk + toChunk) >>> 1;
+                invokeAll(new ChunkTask(fromChunk, middle), new ChunkTask(middle, toChunk));
+                return;
+            }
+            if (fromChunk == toChunk) return;
+
+            int from = fromChunk * chunkSize;
+            int to = Math.min(from + chunkSize, fleet.end());
+            List<Vehicle> buffer = new ArrayList<>();
+            for (int slot = from; slot < to; slot++) {
+                Vehicle vehicle = fleet.slot(slot);
+                if (vehicle != null && criterion.test(vehicle)) buffer.add(vehicle);
+            }
+            buffers.set(fromChunk, buffer);
+        }
+    }
+}
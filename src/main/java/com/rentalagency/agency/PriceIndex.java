@@ -0,0 +1,284 @@
+package com.rentalagency.agency;
+
+import java.util.BitSet;
+
+/**
+ * Immutable index of the daily rental prices of a fleet, sorted in ascending order.
+ * A price range query is a binary search for both bounds followed by a copy of the slots in between, so it never calls
+ * dailyRentalPrice. The index is only valid for the version of the fleet and the current year it was built for, but
+ * an index can be brought up to date without sorting the whole fleet again : the vehicles added since are sorted in a
+ * second run, small compared to the main one and searched along with it, and the removed vehicles stay in the runs
+ * until they are purged, their empty slots being skipped by the queries. Both runs are merged into a new main run once
+ * the added run or the removed vehicles grow too large, which costs a linear merge instead of a sort. A new year
+ * making cars older, or the vehicles moving to other slots, still requires a full rebuild.
+ */
+final class PriceIndex {
+    private static final int MIN_ADDED_RUN = 256;
+
+    private final int version;
+    private final int layout;
+    private final int year;
+    private final int end;
+    private final double[] prices;
+    private final int[] slots;
+    private final double[] addedPrices;
+    private final int[] addedSlots;
+    private final int removed;
+
+    /**
+     * Constructor : creates a new PriceIndex from runs of prices already sorted with their slots
+     * @param fleet : the fleet the index is built for
+     * @param year : the current year the index was built for
+     * @param prices : the sorted prices of the main run
+     * @param slots : the slot of the vehicle of each price of the main run
+     * @param addedPrices : the sorted prices of the vehicles added after the main run was built
+     * @param addedSlots : the slot of the vehicle of each added price
+     */
+    private PriceIndex(Fleet fleet, int year, double[] prices, int[] slots, double[] addedPrices, int[] addedSlots) {
+        this.version = fleet.version();
+        this.layout = fleet.layout();
+        this.year = year;
+        this.end = fleet.end();
+        this.prices = prices;
+        this.slots = slots;
+        this.addedPrices = addedPrices;
+        this.addedSlots = addedSlots;
+        this.removed = prices.length + addedPrices.length - fleet.size();
+    }
+
+    /**
+     * Build the price index of a fleet
+     * @param fleet : the fleet
+     * @param year : the current year, on which the prices of the vehicles depend
+     * @return the price index of the fleet
+     */
+    static PriceIndex build(Fleet fleet, int year) {
+        double[] prices = new double[fleet.size()];
+        int[] slots = new int[fleet.size()];
+        collect(fleet, 0, prices, slots);
+        sort(prices, slots);
+        return new PriceIndex(fleet, year, prices, slots, new double[0], new int[0]);
+    }
+
+    /**
+     * Check if the index still describes a fleet
+     * @param fleet : the fleet
+     * @param year : the current year
+     * @return true if the fleet did not change and the year is the same since the index was built, false otherwise
+     */
+    boolean isValidFor(Fleet fleet, int year) {
+        return this.version == fleet.version() && this.year == year;
+    }
+
+    /**
+     * Bring the index up to date with a fleet
+     * Only the vehicles added since the index was built are sorted, then merged into the added run; both runs are
+     * merged without the removed vehicles once the added run outgrows the square root of the main run or a quarter of
+     * the entries are removed vehicles
+     * @param fleet : the fleet the index was built for
+     * @param year : the current year
+     * @return this index if it is still valid, otherwise an index of the fleet as it is now
+     */
+    PriceIndex update(Fleet fleet, int year) {
+        if (isValidFor(fleet, year)) return this;
+        if (this.year != year || this.layout != fleet.layout()) return build(fleet, year);
+
+        int count = 0;
+        for (int slot = end; slot < fleet.end(); slot++) {
+            if (fleet.slot(slot) != null) count++;
+        }
+        double[] newPrices = new double[count];
+        int[] newSlots = new int[count];
+        collect(fleet, end, newPrices, newSlots);
+        sort(newPrices, newSlots);
+
+        int length = addedPrices.length + count;
+        double[] mergedPrices = new double[length];
+        int[] mergedSlots = new int[length];
+        merge(addedPrices, addedSlots, newPrices, newSlots, mergedPrices, mergedSlots, null);
+
+        int entries = prices.length + length;
+        int removedNow = entries - fleet.size();
+        if (length <= Math.max(MIN_ADDED_RUN, (int) Math.sqrt(prices.length)) && removedNow * 4 <= entries) {
+            return new PriceIndex(fleet, year, prices, slots, mergedPrices, mergedSlots);
+        }
+        double[] allPrices = new double[fleet.size()];
+        int[] allSlots = new int[fleet.size()];
+        merge(prices, slots, mergedPrices, mergedSlots, allPrices, allSlots, fleet);
+        return new PriceIndex(fleet, year, allPrices, allSlots, new double[0], new int[0]);
+    }
+
+    /**
+     * Get the number of vehicles whose daily rental price is within a range
+     * The removed vehicles which are not purged yet are counted too, so the count is an upper bound once vehicles
+     * were removed
+     * @param minPrice : the minimum price, inclusive
+     * @param maxPrice : the maximum price, inclusive
+     * @return the number of vehicles within the range
+     */
+    int count(double minPrice, double maxPrice) {
+        int to = firstAbove(prices, maxPrice);
+        int addedTo = firstAbove(addedPrices, maxPrice);
+        return to - firstAtLeast(prices, minPrice, to) + addedTo - firstAtLeast(addedPrices, minPrice, addedTo);
+    }
+
+    /**
+     * Get the slots of the vehicles whose daily rental price is within a range
+     * @param minPrice : the minimum price, inclusive
+     * @param maxPrice : the maximum price, inclusive
+     * @param fleet : the fleet the index was built for
+     * @return the set of slots holding a vehicle within the range
+     */
+    BitSet slotsBetween(double minPrice, double maxPrice, Fleet fleet) {
+        BitSet matches = new BitSet(fleet.end());
+        addSlotsBetween(prices, slots, minPrice, maxPrice, matches);
+        addSlotsBetween(addedPrices, addedSlots, minPrice, maxPrice, matches);
+        if (removed > 0) {
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                if (fleet.slot(slot) == null) matches.clear(slot);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Add the slots of a run whose price is within a range to a set of slots
+     * @param prices : the sorted prices of the run
+     * @param slots : the slot of each price of the run
+     * @param minPrice : the minimum price, inclusive
+     * @param maxPrice : the maximum price, inclusive
+     * @param matches : the set of slots to fill
+     */
+    private static void addSlotsBetween(double[] prices, int[] slots, double minPrice, double maxPrice, BitSet matches) {
+        int to = firstAbove(prices, maxPrice);
+        for (int i = firstAtLeast(prices, minPrice, to); i < to; i++) matches.set(slots[i]);
+    }
+
+    /**
+     * Get the position of the first price greater than the given one
+     * @param prices : the sorted prices
+     * @param maxPrice : the price
+     * @return the position of the first greater price, or the number of prices if there is none
+     */
+    private static int firstAbove(double[] prices, double maxPrice) {
+        int low = 0;
+        int high = prices.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (prices[middle] <= maxPrice) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Get the position of the first price greater than or equal to the given one, before a given position
+     * @param prices : the sorted prices
+     * @param minPrice : the price
+     * @param high : the position to stop at
+     * @return the position of the first price at least equal to the given one, or high if there is none
+     */
+    private static int firstAtLeast(double[] prices, double minPrice, int high) {
+        int low = 0;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (prices[middle] >= minPrice) high = middle;
+            else low = middle + 1;
+        }
+        return low;
+    }
+
+    /**
+     * Read the prices of the vehicles of a fleet from a given slot, skipping the empty slots
+     * @param fleet : the fleet
+     * @param from : the first slot to read
+     * @param prices : the prices to fill, as long as the number of vehicles read
+     * @param slots : the slots of the prices to fill
+     */
+    private static void collect(Fleet fleet, int from, double[] prices, int[] slots) {
+        int count = 0;
+        for (int slot = from; slot < fleet.end(); slot++) {
+            Vehicle vehicle = fleet.slot(slot);
+            if (vehicle == null) continue;
+            prices[count] = vehicle.dailyRentalPrice();
+            slots[count++] = slot;
+        }
+    }
+
+    /**
+     * Merge two sorted runs of prices with their slots, the first run coming first for equal prices
+     * @param leftPrices : the prices of the first run
+     * @param leftSlots : the slots of the first run
+     * @param rightPrices : the prices of the second run
+     * @param rightSlots : the slots of the second run
+     * @param prices : the merged prices to fill
+     * @param slots : the merged slots to fill
+     * @param fleet : the fleet whose empty slots are left out, or null to keep every slot
+     */
+    private static void merge(double[] leftPrices, int[] leftSlots, double[] rightPrices, int[] rightSlots,
+                              double[] prices, int[] slots, Fleet fleet) {
+        int left = 0;
+        int right = 0;
+        int target = 0;
+        while (left < leftPrices.length || right < rightPrices.length) {
+            double price;
+            int slot;
+            if (right >= rightPrices.length
+                    || (left < leftPrices.length && Double.compare(leftPrices[left], rightPrices[right]) <= 0)) {
+                price = leftPrices[left];
+                slot = leftSlots[left++];
+            } else {
+                price = rightPrices[right];
+                slot = rightSlots[right++];
+            }
+            if (fleet != null && fleet.slot(slot) == null) continue;
+            prices[target] = price;
+            slots[target++] = slot;
+        }
+    }
+
+    /**
+     * Sort prices in ascending order, moving their slots along with them
+     * The sort is a stable bottom-up merge sort, so vehicles with the same price stay in the order of the fleet
+     * @param prices : the prices
+     * @param slots : the slots of the prices
+     */
+    private static void sort(double[] prices, int[] slots) {
+        int length = prices.length;
+        double[] pricesBuffer = new double[length];
+        int[] slotsBuffer = new int[length];
+        double[] fromPrices = prices;
+        int[] fromSlots = slots;
+        double[] toPrices = pricesBuffer;
+        int[] toSlots = slotsBuffer;
+
+        for (int width = 1; width < length; width *= 2) {
+            for (int low = 0; low < length; low += 2 * width) {
+                int middle = Math.min(low + width, length);
+                int high = Math.min(low + 2 * width, length);
+                int left = low;
+                int right = middle;
+                for (int target = low; target < high; target++) {
+                    if (left < middle && (right >= high || Double.compare(fromPrices[left], fromPrices[right]) <= 0)) {
+                        toPrices[target] = fromPrices[left];
+                        toSlots[target] = fromSlots[left++];
+                    } else {
+                        toPrices[target] = fromPrices[right];
+                        toSlots[target] = fromSlots[right++];
+                    }
+                }
+            }
+            double[] swappedPrices = fromPrices;
+            fromPrices = toPrices;
+            toPrices = swappedPrices;
+            int[] swappedSlots = fromSlots;
+            fromSlots = toSlots;
+            toSlots = swappedSlots;
+        }
+
+        if (fromPrices != prices) {
+            System.arraycopy(fromPrices, 0, prices, 0, length);
+            System.arraycopy(fromSlots, 0, slots, 0, length);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.rentalagency.agency;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Plan chosen by the QueryPlanner to select the vehicles satisfying a criterion.
+ * A plan either scans the whole fleet or starts from the candidates of one or more index lookups, intersected or
+ * united, then keeps the candidates passing every remaining filter, tested in the order of the plan.
+ */
+final class QueryPlan {
+    /**
+     * Lookup of the slots satisfying a criterion in one of the indexes of the fleet
+     */
+    static final class IndexLookup {
+        private final Predicate<Vehicle> criterion;
+        private final String description;
+        private final int estimate;
+        private final Supplier<BitSet> slots;
+
+        /**
+         * Constructor : creates a new IndexLookup
+         * @param criterion : the criterion answered by the lookup
+         * @param description : the description of the lookup, shown by explain
+         * @param estimate : the number of vehicles the lookup returns
+         * @param slots : the function computing the slots returned by the lookup
+         */
+        IndexLookup(Predicate<Vehicle> criterion, String description, int estimate, Supplier<BitSet> slots) {
+            this.criterion = criterion;
+            this.description = description;
+            this.estimate = estimate;
+            this.slots = slots;
+        }
+
+        /**
+         * Get the criterion answered by the lookup
+         * @return the criterion
+         */
+        Predicate<Vehicle> criterion() {
+            return criterion;
+        }
+
+        /**
+         * Get the number of vehicles the lookup returns
+         * @return the number of vehicles
+         */
+        int estimate() {
+            return estimate;
+        }
+    }
+
+    private final List<IndexLookup> lookups;
+    private final boolean union;
+    private final List<Predicate<Vehicle>> filters;
+    private final int fleetSize;
+
+    /**
+     * Constructor : creates a new QueryPlan
+     * @param lookups : the index lookups giving the candidates, the first one drives the plan; empty for a full scan
+     * @param union : true if the candidates of the lookups are united, false if they are intersected
+     * @param filters : the criteria the candidates must all satisfy, in the order they are tested
+     * @param fleetSize : the number of vehicles of the fleet when the plan was chosen
+     */
+    QueryPlan(List<IndexLookup> lookups, boolean union, List<Predicate<Vehicle>> filters, int fleetSize) {
+        this.lookups = lookups;
+        this.union = union;
+        this.filters = filters;
+        this.fleetSize = fleetSize;
+    }
+
+    /**
+     * Run the plan on a fleet
+     * @param fleet : the fleet the plan was chosen for
+     * @return the list of vehicles selected by the plan, in the order of the fleet
+     */
+    List<Vehicle> execute(Fleet fleet) {
+        List<Vehicle> selectedVehicles = new ArrayList<>();
+        if (lookups.isEmpty()) {
+            for (int slot = 0; slot < fleet.end(); slot++) {
+                Vehicle vehicle = fleet.slot(slot);
+                if (vehicle != null && passesFilters(vehicle)) selectedVehicles.add(vehicle);
+            }
+            return selectedVehicles;
+        }
+
+        BitSet candidates = candidates();
+        for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+            Vehicle vehicle = fleet.slot(slot);
+            if (passesFilters(vehicle)) selectedVehicles.add(vehicle);
+        }
+        return selectedVehicles;
+    }
+
+    /**
+     * Run the plan on a fleet, keeping only the vehicles which are not rented
+     * A full scan reads the rented flags of the fleet 64 slots at a time and only tests the filters on the available
+     * slots; a plan starting from index lookups removes the rented slots from its candidates before testing them
+     * @param fleet : the fleet the plan was chosen for
+     * @return the list of available vehicles selected by the plan, in the order of the fleet
+     */
+    List<Vehicle> executeAvailable(Fleet fleet) {
+        List<Vehicle> selectedVehicles = new ArrayList<>();
+        int end = fleet.end();
+        if (lookups.isEmpty()) {
+            for (int word = 0; word < AtomicBitSet.wordCount(end); word++) {
+                long available = ~fleet.rentedWord(word);
+                if ((word + 1) << 6 > end) available &= -1L >>> -(end & 63);
+                while (available != 0) {
+                    int slot = (word << 6) + Long.numberOfTrailingZeros(available);
+                    available &= available - 1;
+                    Vehicle vehicle = fleet.slot(slot);
+                    if (vehicle != null && passesFilters(vehicle)) selectedVehicles.add(vehicle);
+                }
+            }
+            return selectedVehicles;
+        }
+
+        BitSet candidates = candidates();
+        long[] words = candidates.toLongArray();
+        for (int word = 0; word < words.length; word++) {
+            long available = words[word] & ~fleet.rentedWord(word);
+            while (available != 0) {
+                int slot = (word << 6) + Long.numberOfTrailingZeros(available);
+                available &= available - 1;
+                Vehicle vehicle = fleet.slot(slot);
+                if (passesFilters(vehicle)) selectedVehicles.add(vehicle);
+            }
+        }
+        return selectedVehicles;
+    }
+
+    /**
+     * Run the plan on a fleet lazily : the filters are only tested when the stream asks for the next vehicle, so a
+     * short-circuiting stream such as one with a limit stops testing vehicles once it has enough of them. The candidates
+     * of the index lookups are still computed up front, so the plan of a stream should come from planStream, which
+     * only looks up the brand index
+     * @param fleet : the fleet the plan was chosen for, which must not change while the stream is consumed
+     * @return the stream of vehicles selected by the plan, in the order of the fleet
+     */
+    Stream<Vehicle> stream(Fleet fleet) {
+        IntStream slots = lookups.isEmpty() ? IntStream.range(0, fleet.end()) : candidates().stream();
+        return slots.mapToObj(fleet::slot)
+                .filter(Objects::nonNull)
+                .filter(this::passesFilters);
+    }
+
+    /**
+     * Compute the candidate slots of the index lookups of the plan
+     * @return the set of candidate slots
+     */
+    private BitSet candidates() {
+        BitSet candidates = lookups.get(0).slots.get();
+        for (int i = 1; i < lookups.size(); i++) {
+            if (union) candidates.or(lookups.get(i).slots.get());
+            else candidates.and(lookups.get(i).slots.get());
+        }
+        return candidates;
+    }
+
+    /**
+     * Run the plan on a fleet, splitting a full scan across the threads of the common fork/join pool
+     * Plans starting from index lookups only visit their candidates and stay sequential
+     * @param fleet : the fleet the plan was chosen for, which must not change during the scan
+     * @return the list of vehicles selected by the plan, in the order of the fleet
+     */
+    List<Vehicle> executeParallel(Fleet fleet) {
+        if (!lookups.isEmpty()) return execute(fleet);
+        return new ParallelScan(fleet, this::passesFilters).execute();
+    }
+
+    /**
+     * Check if a vehicle satisfies every filter of the plan, stopping at the first one it does not satisfy
+     * @param vehicle : the vehicle
+     * @return true if the vehicle satisfies every filter, false otherwise
+     */
+    private boolean passesFilters(Vehicle vehicle) {
+        for (Predicate<Vehicle> filter : filters) {
+            if (!filter.test(vehicle)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Describe the plan, one step per line
+     * @return the description of the plan
+     */
+    String explain() {
+        StringBuilder explanation = new StringBuilder();
+        if (lookups.isEmpty()) {
+            explanation.append("Full scan : ").append(fleetSize).append(" vehicles");
+        } else {
+            for (int i = 0; i < lookups.size(); i++) {
+                IndexLookup lookup = lookups.get(i);
+                if (i > 0) explanation.append('\n').append(union ? "Union : " : "Intersect : ");
+                else explanation.append("Index lookup : ");
+                explanation.append(lookup.description).append(" (").append(lookup.estimate).append(" vehicles)");
+            }
+        }
+        if (!filters.isEmpty()) {
+            explanation.append('\n').append("Filter : ")
+                    .append(filters.stream().map(String::valueOf).collect(Collectors.joining(", ")));
+        }
+        return explanation.toString();
+    }
+}
@@ -0,0 +1,197 @@
+package com.rentalagency.agency;
+
+import com.rentalagency.criterions.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Chooses how to select the vehicles of a fleet satisfying a criterion.
+ * The brand and price criteria can be answered from the indexes of the fleet. For a conjunction, the planner starts
+ * from the index lookup returning the fewest vehicles, intersects the other lookups when building their candidates
+ * costs less than testing their criterion on the current candidates, and tests the remaining criteria from the
+ * cheapest to the most expensive : the brand, model and production year are plain field reads, while the price needs a
+ * call to dailyRentalPrice. A disjunction of indexed criteria is answered by uniting their lookups.
+ * The number of vehicles of a price criterion is estimated from the last price index built, even out of date, and the
+ * price index is only brought up to date for the price criteria answered from it.
+ * A plan for a lazy stream only answers the brand criteria from an index : reading the price index costs as much as
+ * the whole fleet, and may rebuild it, while a stream consumed with a limit often stops after a few vehicles, so its
+ * price criteria are tested on each vehicle instead.
+ */
+final class QueryPlanner {
+    private static final int CHEAP_COST = 1;
+    private static final int UNKNOWN_COST = 2;
+    private static final int PRICE_COST = 4;
+
+    private final Fleet fleet;
+    private final Supplier<PriceIndex> priceIndex;
+    private final PriceIndex estimates;
+
+    /**
+     * Constructor : creates a new QueryPlanner for a fleet
+     * @param fleet : the fleet
+     * @param priceIndex : the function giving an up to date price index of the fleet, only called for the price
+     * criteria answered from the index
+     * @param estimates : the last price index of the fleet, possibly out of date, giving the number of vehicles
+     * estimated for a price criterion, or null if there is none yet and the whole fleet is assumed
+     */
+    QueryPlanner(Fleet fleet, Supplier<PriceIndex> priceIndex, PriceIndex estimates) {
+        this.fleet = fleet;
+        this.priceIndex = priceIndex;
+        this.estimates = estimates;
+    }
+
+    /**
+     * Choose the plan selecting the vehicles satisfying a criterion
+     * @param criterion : the criterion
+     * @return the plan
+     */
+    QueryPlan plan(Predicate<Vehicle> criterion) {
+        return plan(criterion, true);
+    }
+
+    /**
+     * Choose the plan of a lazy stream of the vehicles satisfying a criterion, without using the price index
+     * @param criterion : the criterion
+     * @return the plan
+     */
+    QueryPlan planStream(Predicate<Vehicle> criterion) {
+        return plan(criterion, false);
+    }
+
+    /**
+     * Choose the plan selecting the vehicles satisfying a criterion
+     * @param criterion : the criterion
+     * @param priceLookups : true if the price criteria may be answered from the price index, false otherwise
+     * @return the plan
+     */
+    private QueryPlan plan(Predicate<Vehicle> criterion, boolean priceLookups) {
+        if (criterion instanceof OrCriterion) {
+            List<Predicate<Vehicle>> alternatives = ((OrCriterion) criterion).getCriteria();
+            if (alternatives.stream().allMatch(alternative -> isIndexed(alternative, priceLookups))) {
+                List<QueryPlan.IndexLookup> lookups = new ArrayList<>();
+                for (Predicate<Vehicle> alternative : alternatives) lookups.add(lookup(alternative));
+                return new QueryPlan(lookups, true, List.of(), fleet.size());
+            }
+        }
+
+        List<Predicate<Vehicle>> conditions = new ArrayList<>();
+        flattenConjunction(criterion, conditions);
+
+        List<Predicate<Vehicle>> indexed = new ArrayList<>();
+        List<Predicate<Vehicle>> filters = new ArrayList<>();
+        for (Predicate<Vehicle> condition : conditions) {
+            if (isIndexed(condition, priceLookups)) indexed.add(condition);
+            else filters.add(condition);
+        }
+
+        indexed.sort(Comparator.comparingInt(this::estimate));
+
+        List<QueryPlan.IndexLookup> lookups = new ArrayList<>();
+        for (Predicate<Vehicle> condition : indexed) {
+            if (lookups.isEmpty()
+                    || (long) estimate(condition) < (long) lookups.get(0).estimate() * cost(condition)) {
+                lookups.add(lookup(condition));
+            } else {
+                filters.add(condition);
+            }
+        }
+        filters.sort(Comparator.comparingInt(this::cost));
+        return new QueryPlan(lookups, false, filters, fleet.size());
+    }
+
+    /**
+     * Add the conditions of a criterion to a list, replacing nested conjunctions by their own conditions
+     * @param criterion : the criterion
+     * @param conditions : the list of conditions to fill
+     */
+    private void flattenConjunction(Predicate<Vehicle> criterion, List<Predicate<Vehicle>> conditions) {
+        if (criterion instanceof AndCriterion) {
+            for (Predicate<Vehicle> condition : ((AndCriterion) criterion).getCriteria()) {
+                flattenConjunction(condition, conditions);
+            }
+        } else {
+            conditions.add(criterion);
+        }
+    }
+
+    /**
+     * Check if a criterion can be answered from an index of the fleet
+     * @param criterion : the criterion
+     * @param priceLookups : true if the price criteria may be answered from the price index, false otherwise
+     * @return true if the criterion can be answered from an index, false otherwise
+     */
+    private boolean isIndexed(Predicate<Vehicle> criterion, boolean priceLookups) {
+        return (criterion instanceof BrandCriterion && ((BrandCriterion) criterion).getBrand() != null)
+                || (priceLookups && (criterion instanceof MaxPriceCriterion || criterion instanceof PriceRangeCriterion));
+    }
+
+    /**
+     * Estimate the number of vehicles returned by the index lookup of an indexed criterion, without building an index
+     * @param criterion : the criterion, for which isIndexed is true
+     * @return the estimated number of vehicles
+     */
+    private int estimate(Predicate<Vehicle> criterion) {
+        if (criterion instanceof BrandCriterion) return fleet.countWithBrand(((BrandCriterion) criterion).getBrand());
+        if (estimates == null) return fleet.size();
+        if (criterion instanceof MaxPriceCriterion) {
+            return estimates.count(Double.NEGATIVE_INFINITY, ((MaxPriceCriterion) criterion).getMaxPrice());
+        }
+        PriceRangeCriterion range = (PriceRangeCriterion) criterion;
+        return estimates.count(range.getMinPrice(), range.getMaxPrice());
+    }
+
+    /**
+     * Build the index lookup of an indexed criterion, getting the up to date price index for a price criterion
+     * @param criterion : the criterion, for which isIndexed is true
+     * @return the index lookup
+     */
+    private QueryPlan.IndexLookup lookup(Predicate<Vehicle> criterion) {
+        if (criterion instanceof BrandCriterion) {
+            String brand = ((BrandCriterion) criterion).getBrand();
+            return new QueryPlan.IndexLookup(criterion, "brand index, " + criterion, fleet.countWithBrand(brand),
+                    () -> fleet.slotsWithBrand(brand));
+        }
+
+        double minPrice;
+        double maxPrice;
+        if (criterion instanceof MaxPriceCriterion) {
+            minPrice = Double.NEGATIVE_INFINITY;
+            maxPrice = ((MaxPriceCriterion) criterion).getMaxPrice();
+        } else {
+            minPrice = ((PriceRangeCriterion) criterion).getMinPrice();
+            maxPrice = ((PriceRangeCriterion) criterion).getMaxPrice();
+        }
+        PriceIndex index = priceIndex.get();
+        return new QueryPlan.IndexLookup(criterion, "price index, " + criterion, index.count(minPrice, maxPrice),
+                () -> index.slotsBetween(minPrice, maxPrice, fleet));
+    }
+
+    /**
+     * Estimate the cost of testing a criterion on one vehicle
+     * @param criterion : the criterion
+     * @return the relative cost of the criterion
+     */
+    private int cost(Predicate<Vehicle> criterion) {
+        if (criterion instanceof BrandCriterion || criterion instanceof ModelCriterion
+                || criterion instanceof ProductionYearCriterion) {
+            return CHEAP_COST;
+        }
+        if (criterion instanceof MaxPriceCriterion || criterion instanceof PriceRangeCriterion) {
+            return PRICE_COST;
+        }
+        if (criterion instanceof AndCriterion) {
+            return ((AndCriterion) criterion).getCriteria().stream().mapToInt(this::cost).sum();
+        }
+        if (criterion instanceof OrCriterion) {
+            return ((OrCriterion) criterion).getCriteria().stream().mapToInt(this::cost).sum();
+        }
+        if (criterion instanceof NotCriterion) {
+            return cost(((NotCriterion) criterion).getCriterion());
+        }
+        return UNKNOWN_COST;
+    }
+}
@@ -1,19 +1,52 @@
 package com.rentalagency.agency;
 
+import com.rentalagency.events.FleetEvent;
+import com.rentalagency.events.FleetEventBus;
+import com.rentalagency.metrics.AgencyMetrics;
+import com.rentalagency.metrics.AgencyMetrics.Operation;
+import com.rentalagency.metrics.AgencyMetrics.Rejection;
+import com.rentalagency.util.TimeProvider;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.*;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 public class RentalAgency {
-    private List<Vehicle> vehicles;
-    private Map<Customer, Vehicle> rentedVehicles;
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 100_000;
+
+    private Fleet vehicles;
+    private RentalLedger rentedVehicles;
+    private ReservationCalendar reservations;
+    private volatile PriceIndex priceIndex;
+    private final Object priceIndexLock = new Object();
+    private volatile int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+    private volatile AgencyMetrics metrics = AgencyMetrics.DISABLED;
+    private volatile FleetEventBus events = new FleetEventBus();
     
     /**
      * Constructor : creates a new RentalAgency with the given list of vehicles
+     * The vehicles are copied into the indexed fleet of the agency, duplicates are kept only once
      * @param vehicles the list of vehicles
      */
     public RentalAgency(List<Vehicle> vehicles) {
-        this.vehicles = vehicles;
-        this.rentedVehicles = new HashMap<>();
+        this(vehicles, new RentalLedger(), new ReservationCalendar());
+    }
+
+    /**
+     * Constructor : creates a new RentalAgency with the given list of vehicles, ledger of rentals and calendar of
+     * reservations
+     * @param vehicles the list of vehicles
+     * @param rentedVehicles the ledger in which the rentals are recorded
+     * @param reservations the calendar in which the reservations are recorded
+     */
+    RentalAgency(List<Vehicle> vehicles, RentalLedger rentedVehicles, ReservationCalendar reservations) {
+        this.vehicles = new Fleet(vehicles.size());
+        this.rentedVehicles = rentedVehicles;
+        this.reservations = reservations;
+        vehicles.forEach(this.vehicles::add);
     }
 
     /**
@@ -25,42 +58,295 @@ public class RentalAgency {
 
     /**
      * Add a vehicle to the list of vehicles
+     * A vehicle removed while it was rented is still rented when it is added again, until its customer returns it
      * @param vehicle the vehicle to add
      * @return true if the vehicle was added, false if it was already in the list
      */
     public boolean add(Vehicle vehicle) {
-        if (vehicles.contains(vehicle)) return false;
-        return vehicles.add(vehicle);
+        AgencyMetrics metrics = this.metrics;
+        long start = metrics.start();
+        boolean added = addToFleet(vehicle);
+        if (added) events.publish(FleetEvent.Type.VEHICLE_ADDED, vehicle, null);
+        metrics.record(Operation.ADD, start);
+        return added;
+    }
+
+    /**
+     * Add several vehicles to the list of vehicles
+     * @param vehicles the vehicles to add
+     * @return the number of vehicles added, the ones already in the list being skipped
+     */
+    public int addAll(Collection<? extends Vehicle> vehicles) {
+        AgencyMetrics metrics = this.metrics;
+        long start = metrics.start();
+        FleetEventBus events = this.events;
+        int added = 0;
+        for (Vehicle vehicle : vehicles) {
+            if (addToFleet(vehicle)) {
+                events.publish(FleetEvent.Type.VEHICLE_ADDED, vehicle, null);
+                added++;
+            }
+        }
+        metrics.record(Operation.ADD, start);
+        return added;
+    }
+
+    /**
+     * Add a vehicle to the fleet, flagged as rented if it was removed during a rental which is not over
+     * The rentals are not ended when their vehicle is removed, so the rented flag of the fleet is set again from the
+     * ledger
+     * @param vehicle : the vehicle to add
+     * @return true if the vehicle was added, false if it was already in the fleet
+     */
+    private boolean addToFleet(Vehicle vehicle) {
+        if (!vehicles.add(vehicle)) return false;
+        if (rentedVehicles.isRented(vehicle)) vehicles.setRented(vehicle, true);
+        return true;
     }
 
     /**
-     * Remove a vehicle from the list of vehicles
+     * Remove a vehicle from the list of vehicles, with its reservations
      * @param vehicle : the vehicle to remove
      */
     public void remove(Vehicle vehicle) {
-        if (!vehicles.contains(vehicle)) throw new UnknownVehicleException(vehicle);
-        vehicles.remove(vehicle);
+        AgencyMetrics metrics = this.metrics;
+        long start = metrics.start();
+        if (!vehicles.remove(vehicle)) throw metrics.reject(Rejection.UNKNOWN_VEHICLE, new UnknownVehicleException(vehicle));
+        reservations.removeVehicle(vehicle);
+        events.publish(FleetEvent.Type.VEHICLE_REMOVED, vehicle, null);
+        metrics.record(Operation.REMOVE, start);
+    }
+
+    /**
+     * Get the vehicle of the fleet with the given brand, model and production year, the fields compared by equals
+     * The vehicle is looked up in constant time, without creating a vehicle nor registering its specification, so
+     * names coming from outside the agency can be looked up safely
+     * @param brand the brand of the vehicle
+     * @param model the model of the vehicle
+     * @param productionYear the production year of the vehicle
+     * @return the vehicle of the fleet, or an empty optional if no vehicle has this brand, model and production year
+     */
+    public Optional<Vehicle> find(String brand, String model, int productionYear) {
+        Vehicle key = new AbstractVehicle(VehicleSpec.lookupKey(brand, model), productionYear) {
+            @Override
+            public double dailyRentalPrice() {
+                return 0;
+            }
+        };
+        return Optional.ofNullable(vehicles.find(key));
     }
 
     /**
      * Get the list of vehicles
-     * @return the list of vehicles
+     * @return a read-only view of the vehicles, in the order they were added
      */
     public List<Vehicle> getVehicles() {
-        return vehicles;
+        return Collections.unmodifiableList(vehicles);
     }
 
     /**
      * Select vehicles that satisfy the given criterion
+     * The criterion is answered by the plan chosen by the QueryPlanner : brand and price criteria, alone or combined
+     * with AndCriterion and OrCriterion, are answered from the indexes of the fleet, the other criteria are tested on
+     * the candidates from the cheapest to the most expensive
      * @param criterion the criterion to satisfy
-     * @return the list of vehicles that satisfy the criterion
+     * @return the list of vehicles that satisfy the criterion, in the order they were added
      */
     public List<Vehicle> select(Predicate<Vehicle> criterion) {
-        List<Vehicle> selectedVehicles = new ArrayList<>();
-        for (Vehicle vehicle : vehicles) {
-            if (criterion.test(vehicle)) selectedVehicles.add(vehicle);
+        AgencyMetrics metrics = this.metrics;
+        long start = metrics.start();
+        List<Vehicle> selected = plan(criterion).execute(vehicles);
+        metrics.record(Operation.SELECT, start);
+        return selected;
+    }
+
+    /**
+     * Select the vehicles that satisfy the given criterion and are not rented
+     * The rented vehicles are skipped from the rented flags of the fleet, 64 vehicles at a time, before the criterion
+     * is tested, so they cost nothing when most of the fleet is rented
+     * @param criterion the criterion to satisfy
+     * @return the list of vehicles not rented that satisfy the criterion, in the order they were added
+     */
+    public List<Vehicle> selectAvailable(Predicate<Vehicle> criterion) {
+        AgencyMetrics metrics = this.metrics;
+        long start = metrics.start();
+        List<Vehicle> selected = plan(criterion).executeAvailable(vehicles);
+        metrics.record(Operation.SELECT, start);
+        return selected;
+    }
+
+    /**
+     * Select a page of the vehicles that satisfy the given criterion
+     * The criterion stops being tested as soon as the page is full, so the cost depends on the position of the page
+     * and not on the size of the fleet
+     * @param criterion the criterion to satisfy
+     * @param offset the number of matching vehicles to skip
+     * @param limit the maximum number of vehicles of the page
+     * @return the list of at most limit vehicles that satisfy the criterion, in the order they were added
+     */
+    public List<Vehicle> select(Predicate<Vehicle> criterion, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Le décalage et la limite doivent être positifs," +
+                    " votre décalage est égal à : " + offset + " et votre limite à : " + limit);
+        }
+        AgencyMetrics metrics = this.metrics;
+        long start = metrics.start();
+        List<Vehicle> page = new ArrayList<>(Math.min(limit, vehicles.size()));
+        lazyStream(criterion).skip(offset).limit(limit).forEach(page::add);
+        metrics.record(Operation.SELECT, start);
+        return page;
+    }
+
+    /**
+     * Get the first vehicle that satisfies the given criterion, without testing the vehicles after it
+     * @param criterion the criterion to satisfy
+     * @return the first vehicle that satisfies the criterion, in the order they were added, or an empty optional
+     */
+    public Optional<Vehicle> first(Predicate<Vehicle> criterion) {
+        return lazyStream(criterion).findFirst();
+    }
+
+    /**
+     * Get a lazy stream of the vehicles that satisfy the given criterion
+     * The criterion is only tested when the stream asks for the next vehicle. The fleet must not change while the
+     * stream is consumed.
+     * @param criterion the criterion to satisfy
+     * @return the stream of vehicles that satisfy the criterion, in the order they were added
+     */
+    public Stream<Vehicle> stream(Predicate<Vehicle> criterion) {
+        return lazyStream(criterion);
+    }
+
+    /**
+     * Get a lazy stream of the vehicles that satisfy the given criterion, whatever stream returns in a subclass
+     * Paging and first consume it before returning, so a subclass only has to hold its locks around them
+     * @param criterion the criterion to satisfy
+     * @return the stream of vehicles that satisfy the criterion, in the order they were added
+     */
+    private Stream<Vehicle> lazyStream(Predicate<Vehicle> criterion) {
+        return new QueryPlanner(vehicles, this::priceIndex, priceIndex).planStream(criterion).stream(vehicles);
+    }
+
+    /**
+     * Select vehicles that satisfy the given criterion, using all the cores for a full scan of a large fleet
+     * When the criterion is not answered from an index and the fleet holds at least as many vehicles as the parallel
+     * threshold, the fleet is split across the threads of the common fork/join pool; otherwise this is the same as
+     * select. The criterion must be safe to test from several threads at once.
+     * @param criterion the criterion to satisfy
+     * @return the list of vehicles that satisfy the criterion, in the order they were added
+     */
+    public List<Vehicle> selectParallel(Predicate<Vehicle> criterion) {
+        AgencyMetrics metrics = this.metrics;
+        long start = metrics.start();
+        QueryPlan plan = plan(criterion);
+        List<Vehicle> selected = vehicles.size() >= parallelThreshold ? plan.executeParallel(vehicles)
+                : plan.execute(vehicles);
+        metrics.record(Operation.SELECT, start);
+        return selected;
+    }
+
+    /**
+     * Get the number of vehicles from which selectParallel splits a full scan across several threads
+     * @return the parallel threshold
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Set the number of vehicles from which selectParallel splits a full scan across several threads
+     * @param parallelThreshold the parallel threshold, at least 1
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        if (parallelThreshold < 1) {
+            throw new IllegalArgumentException("Le seuil de parallélisme doit être supérieur à 0," +
+                    " votre seuil est égal à : " + parallelThreshold);
+        }
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Get the metrics recording the operations of the agency
+     * @return the metrics, AgencyMetrics.DISABLED if the operations are not recorded
+     */
+    public AgencyMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Set the metrics recording the latencies of the operations of the agency and the reasons of the rejected ones
+     * Adding, removing, selecting, renting and returning vehicles are recorded; the time spent waiting for the locks of
+     * a concurrent agency is not
+     * @param metrics the metrics, AgencyMetrics.DISABLED to stop recording
+     */
+    public void setMetrics(AgencyMetrics metrics) {
+        if (metrics == null) throw new IllegalArgumentException("Les métriques ne peuvent pas être nulles");
+        this.metrics = metrics;
+    }
+
+    /**
+     * Get the bus publishing the vehicles added, removed, rented and returned by the agency
+     * @return the bus of the fleet events, to subscribe to
+     */
+    public FleetEventBus getEvents() {
+        return events;
+    }
+
+    /**
+     * Set the bus publishing the vehicles added, removed, rented and returned by the agency, for instance to share a
+     * bus between several agencies
+     * The events are published once the change is applied, from the thread of the operation; a subscriber is never
+     * called by the agency itself
+     * @param events the bus of the fleet events
+     */
+    public void setEvents(FleetEventBus events) {
+        if (events == null) throw new IllegalArgumentException("Le bus d'événements ne peut pas être nul");
+        this.events = events;
+    }
+
+    /**
+     * Explain how the vehicles satisfying the given criterion would be selected
+     * @param criterion the criterion to satisfy
+     * @return the description of the plan chosen for the criterion, one step per line
+     */
+    public String explain(Predicate<Vehicle> criterion) {
+        return plan(criterion).explain();
+    }
+
+    /**
+     * Take an immutable column-oriented snapshot of the vehicles, for analytics queries scanning the whole fleet
+     * The daily rental prices of the snapshot are those of the current year and are not updated afterwards
+     * @return the snapshot of the vehicles
+     */
+    public ColumnarFleet columnarSnapshot() {
+        return new ColumnarFleet(vehicles, TimeProvider.currentYearValue());
+    }
+
+    /**
+     * Choose the plan selecting the vehicles that satisfy the given criterion
+     * @param criterion the criterion to satisfy
+     * @return the plan
+     */
+    private QueryPlan plan(Predicate<Vehicle> criterion) {
+        return new QueryPlanner(vehicles, this::priceIndex, priceIndex).plan(criterion);
+    }
+
+    /**
+     * Get the price index of the fleet, updating the last one if vehicles were added or removed or if the year changed
+     * since it was built
+     * A single thread updates the index at a time, the others waiting for its index instead of building their own
+     * @return the up to date price index
+     */
+    private PriceIndex priceIndex() {
+        int year = TimeProvider.currentYearValue();
+        PriceIndex index = priceIndex;
+        if (index != null && index.isValidFor(vehicles, year)) return index;
+        synchronized (priceIndexLock) {
+            index = priceIndex;
+            index = index == null ? PriceIndex.build(vehicles, year) : index.update(vehicles, year);
+            priceIndex = index;
+            return index;
         }
-        return selectedVehicles;
     }
 
     /**
@@ -68,7 +354,26 @@ public class RentalAgency {
      * @param criterion the criterion to satisfy
      */
     public void printSelectedVehicles(Predicate<Vehicle> criterion) {
-        select(criterion).forEach(System.out::println);
+        try {
+            renderSelectedVehicles(criterion, System.out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        System.out.flush();
+    }
+
+    /**
+     * Write the report of the vehicles that satisfy the given criterion, one line per vehicle as printed by
+     * printSelectedVehicles, in large chunks rather than once per vehicle
+     * The vehicles are streamed to the report as they are selected, without collecting them in a list first
+     * @param criterion the criterion to satisfy
+     * @param output the output
+     * @throws IOException if the output cannot be written
+     */
+    public void renderSelectedVehicles(Predicate<Vehicle> criterion, Appendable output) throws IOException {
+        try (Stream<Vehicle> selected = stream(criterion)) {
+            new ReportRenderer().render(selected, output);
+        }
     }
 
     /**
@@ -80,11 +385,128 @@ public class RentalAgency {
      * @throws IllegalStateException : if the customer already rented a vehicle or if the vehicle is already rented
      */
     public double rentVehicle(Customer customer, Vehicle vehicle) throws UnknownVehicleException, IllegalStateException {
+        AgencyMetrics metrics = this.metrics;
+        long start = metrics.start();
+        if (!vehicles.contains(vehicle)) throw metrics.reject(Rejection.UNKNOWN_VEHICLE, new UnknownVehicleException(vehicle));
+        if (rentedVehicles.hasRental(customer)) {
+            throw metrics.reject(Rejection.CUSTOMER_ALREADY_RENTING, new IllegalStateException("Customer already rented a vehicle"));
+        }
+        if (rentedVehicles.isRented(vehicle)) {
+            throw metrics.reject(Rejection.VEHICLE_ALREADY_RENTED, new IllegalStateException("Vehicle already rented"));
+        }
+        rentedVehicles.record(customer, vehicle);
+        vehicles.setRented(vehicle, true);
+        events.publish(FleetEvent.Type.VEHICLE_RENTED, vehicle, customer);
+        double price = vehicle.dailyRentalPrice();
+        metrics.record(Operation.RENT_VEHICLE, start);
+        return price;
+    }
+
+    /**
+     * Rent several vehicles at once, each one to its customer
+     * The whole batch is checked before anything is recorded : either every rental is recorded or none is
+     * @param rentals : the vehicle to rent to each customer
+     * @return the daily rental price of the vehicle of each customer, in the iteration order of the rentals
+     * @throws UnknownVehicleException : if a vehicle is not in the list of vehicles
+     * @throws IllegalStateException : if a customer already rented a vehicle, if a vehicle is already rented or if a
+     * vehicle appears twice in the batch
+     */
+    public Map<Customer, Double> rentVehicles(Map<Customer, Vehicle> rentals)
+            throws UnknownVehicleException, IllegalStateException {
+        AgencyMetrics metrics = this.metrics;
+        long start = metrics.start();
+        Set<Vehicle> batchVehicles = new HashSet<>(rentals.size() * 2);
+        for (Map.Entry<Customer, Vehicle> rental : rentals.entrySet()) {
+            Vehicle vehicle = rental.getValue();
+            if (!vehicles.contains(vehicle)) throw metrics.reject(Rejection.UNKNOWN_VEHICLE, new UnknownVehicleException(vehicle));
+            if (rentedVehicles.hasRental(rental.getKey())) {
+                throw metrics.reject(Rejection.CUSTOMER_ALREADY_RENTING, new IllegalStateException("Customer already rented a vehicle"));
+            }
+            if (rentedVehicles.isRented(vehicle)) {
+                throw metrics.reject(Rejection.VEHICLE_ALREADY_RENTED, new IllegalStateException("Vehicle already rented"));
+            }
+            if (!batchVehicles.add(vehicle)) {
+                throw metrics.reject(Rejection.VEHICLE_RENTED_TWICE, new IllegalStateException("Vehicle rented twice in the batch"));
+            }
+        }
+
+        FleetEventBus events = this.events;
+        Map<Customer, Double> prices = new LinkedHashMap<>(rentals.size() * 2);
+        for (Map.Entry<Customer, Vehicle> rental : rentals.entrySet()) {
+            rentedVehicles.record(rental.getKey(), rental.getValue());
+            vehicles.setRented(rental.getValue(), true);
+            events.publish(FleetEvent.Type.VEHICLE_RENTED, rental.getValue(), rental.getKey());
+            prices.put(rental.getKey(), rental.getValue().dailyRentalPrice());
+        }
+        metrics.record(Operation.RENT_VEHICLES, start);
+        return prices;
+    }
+
+    /**
+     * Reserve a vehicle for a customer for a range of days
+     * The reservations of a vehicle cannot overlap; they are independent from the current rentals
+     * @param customer : the customer
+     * @param vehicle : the vehicle
+     * @param start : the first day of the reservation
+     * @param end : the day after the last day of the reservation
+     * @return the reservation
+     * @throws UnknownVehicleException : if the vehicle is not in the list of vehicles
+     * @throws IllegalStateException : if the vehicle is already reserved for one of the days
+     * @throws IllegalArgumentException : if the end date is not after the start date
+     */
+    public Reservation reserve(Customer customer, Vehicle vehicle, LocalDate start, LocalDate end)
+            throws UnknownVehicleException, IllegalStateException {
+        Reservation reservation = new Reservation(customer, vehicle, start, end);
         if (!vehicles.contains(vehicle)) throw new UnknownVehicleException(vehicle);
-        if (rentedVehicles.containsKey(customer)) throw new IllegalStateException("Customer already rented a vehicle");
-        if (rentedVehicles.containsValue(vehicle)) throw new IllegalStateException("Vehicle already rented");
-        rentedVehicles.put(customer, vehicle);
-        return vehicle.dailyRentalPrice();
+        if (!reservations.reserve(reservation)) throw new IllegalStateException("Vehicle already reserved for these dates");
+        return reservation;
+    }
+
+    /**
+     * Cancel a reservation
+     * @param reservation : the reservation
+     * @return true if the reservation was cancelled, false if it was not recorded
+     */
+    public boolean cancelReservation(Reservation reservation) {
+        return reservations.cancel(reservation);
+    }
+
+    /**
+     * Get the reservations of a vehicle
+     * @param vehicle : the vehicle
+     * @return the reservations of the vehicle, ordered by start date
+     */
+    public List<Reservation> reservationsOf(Vehicle vehicle) {
+        return reservations.reservationsOf(vehicle);
+    }
+
+    /**
+     * Get every reservation of the agency
+     * @return the reservations, ordered by start date for each vehicle
+     */
+    public List<Reservation> allReservations() {
+        return reservations.reservations();
+    }
+
+    /**
+     * Select the vehicles that satisfy the given criterion and are not reserved during a range of days
+     * The criterion is answered by select, then the calendar of each candidate is checked in a logarithmic time in
+     * its number of reservations
+     * @param criterion the criterion to satisfy
+     * @param start the first day of the range
+     * @param end the day after the last day of the range
+     * @return the list of available vehicles that satisfy the criterion, in the order they were added
+     */
+    public List<Vehicle> selectAvailable(Predicate<Vehicle> criterion, LocalDate start, LocalDate end) {
+        if (!end.isAfter(start)) {
+            throw new IllegalArgumentException("La date de fin doit être postérieure à la date de début," +
+                    " votre date de début est égale à : " + start + " et votre date de fin à : " + end);
+        }
+        List<Vehicle> available = new ArrayList<>();
+        for (Vehicle vehicle : select(criterion)) {
+            if (reservations.isAvailable(vehicle, start, end)) available.add(vehicle);
+        }
+        return available;
     }
 
     /**
@@ -93,7 +515,16 @@ public class RentalAgency {
      * @return true if the customer rented a vehicle, false otherwise
      */
     public boolean aVehicleRentedBy(Customer customer) {
-        return rentedVehicles.containsKey(customer);
+        return rentedVehicles.hasRental(customer);
+    }
+
+    /**
+     * Get the vehicle rented by a customer
+     * @param customer : the customer
+     * @return the vehicle rented by the customer, or null if the customer did not rent a vehicle
+     */
+    public Vehicle vehicleRentedBy(Customer customer) {
+        return rentedVehicles.rentedBy(customer);
     }
 
     /**
@@ -102,7 +533,16 @@ public class RentalAgency {
      * @return true if the vehicle is rented, false otherwise
      */
     public boolean aVehicleRented(Vehicle vehicle) {
-        return rentedVehicles.containsValue(vehicle);
+        return rentedVehicles.isRented(vehicle);
+    }
+
+    /**
+     * Get the customer who rented a vehicle
+     * @param vehicle : the vehicle
+     * @return the customer who rented the vehicle, or null if the vehicle is not rented
+     */
+    public Customer renterOf(Vehicle vehicle) {
+        return rentedVehicles.renterOf(vehicle);
     }
 
     /**
@@ -110,14 +550,29 @@ public class RentalAgency {
      * @param customer : the customer
      */
     public void returnVehicle(Customer customer) {
-        if (aVehicleRentedBy(customer)) rentedVehicles.remove(customer);
+        AgencyMetrics metrics = this.metrics;
+        long start = metrics.start();
+        Vehicle vehicle = rentedVehicles.release(customer);
+        if (vehicle != null) {
+            vehicles.setRented(vehicle, false);
+            events.publish(FleetEvent.Type.VEHICLE_RETURNED, vehicle, customer);
+        }
+        metrics.record(Operation.RETURN_VEHICLE, start);
+    }
+
+    /**
+     * Get the ledger in which the rentals are recorded
+     * @return the ledger of the rentals
+     */
+    RentalLedger rentedVehicles() {
+        return rentedVehicles;
     }
 
     /**
      * Return all rented vehicles
-     * @return the collection of rented vehicles
+     * @return a read-only live view of the rented vehicles
      */
     public Collection<Vehicle> allRentedVehicles() {
-        return rentedVehicles.values();
+        return rentedVehicles.vehicles();
     }
 }
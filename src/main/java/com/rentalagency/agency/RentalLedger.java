@@ -0,0 +1,109 @@
+package com.rentalagency.agency;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bidirectional record of the current rentals of an agency.
+ * The ledger keeps both the customer to vehicle and the vehicle to customer associations, so checking whether a
+ * customer or a vehicle is involved in a rental, and finding the other side of the rental, take constant time.
+ */
+class RentalLedger {
+    private final Map<Customer, Vehicle> vehicleByCustomer;
+    private final Map<Vehicle, Customer> customerByVehicle;
+
+    /**
+     * Constructor : creates a new empty RentalLedger
+     */
+    RentalLedger() {
+        this(new HashMap<>(), new HashMap<>());
+    }
+
+    /**
+     * Constructor : creates a new empty RentalLedger on top of the given maps
+     * @param vehicleByCustomer : the customer to vehicle map
+     * @param customerByVehicle : the vehicle to customer map
+     */
+    private RentalLedger(Map<Customer, Vehicle> vehicleByCustomer, Map<Vehicle, Customer> customerByVehicle) {
+        this.vehicleByCustomer = vehicleByCustomer;
+        this.customerByVehicle = customerByVehicle;
+    }
+
+    /**
+     * Create an empty ledger which can be read and updated from several threads
+     * Updates of the same customer or vehicle must still be serialized by the caller
+     * @return the new ledger
+     */
+    static RentalLedger concurrent() {
+        return new RentalLedger(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Get the vehicle rented by a customer
+     * @param customer : the customer
+     * @return the vehicle rented by the customer, or null if the customer has no rental
+     */
+    Vehicle rentedBy(Customer customer) {
+        return vehicleByCustomer.get(customer);
+    }
+
+    /**
+     * Check if a customer rented a vehicle
+     * @param customer : the customer
+     * @return true if the customer rented a vehicle, false otherwise
+     */
+    boolean hasRental(Customer customer) {
+        return vehicleByCustomer.containsKey(customer);
+    }
+
+    /**
+     * Check if a vehicle is rented
+     * @param vehicle : the vehicle
+     * @return true if the vehicle is rented, false otherwise
+     */
+    boolean isRented(Vehicle vehicle) {
+        return customerByVehicle.containsKey(vehicle);
+    }
+
+    /**
+     * Get the customer who rented a vehicle
+     * @param vehicle : the vehicle
+     * @return the customer who rented the vehicle, or null if the vehicle is not rented
+     */
+    Customer renterOf(Vehicle vehicle) {
+        return customerByVehicle.get(vehicle);
+    }
+
+    /**
+     * Record the rental of a vehicle by a customer
+     * The caller is responsible for checking that neither the customer nor the vehicle is already in a rental
+     * @param customer : the customer
+     * @param vehicle : the vehicle
+     */
+    void record(Customer customer, Vehicle vehicle) {
+        vehicleByCustomer.put(customer, vehicle);
+        customerByVehicle.put(vehicle, customer);
+    }
+
+    /**
+     * End the rental of a customer
+     * @param customer : the customer
+     * @return the vehicle which was rented by the customer, or null if the customer had no rental
+     */
+    Vehicle release(Customer customer) {
+        Vehicle vehicle = vehicleByCustomer.remove(customer);
+        if (vehicle != null) customerByVehicle.remove(vehicle);
+        return vehicle;
+    }
+
+    /**
+     * Get the rented vehicles
+     * @return a read-only live view of the rented vehicles
+     */
+    Collection<Vehicle> vehicles() {
+        return Collections.unmodifiableCollection(vehicleByCustomer.values());
+    }
+}
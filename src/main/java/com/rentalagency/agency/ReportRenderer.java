@@ -0,0 +1,142 @@
+package com.rentalagency.agency;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+/**
+ * Renderer of inventory reports : one line per vehicle, with the same text as its toString.
+ * The lines are appended to a reused buffer by Vehicle.appendTo, and the buffer is written to the output in large
+ * chunks instead of once per vehicle. The buffer grows with the report up to the size of a chunk, so a short report
+ * does not allocate a whole chunk. The vehicles can be given as a stream, rendered as they are selected without being
+ * collected first. A renderer reuses its buffer, so it must not be shared between threads.
+ */
+public final class ReportRenderer {
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private final StringBuilder buffer = new StringBuilder();
+    private final String lineSeparator = System.lineSeparator();
+    private char[] chars;
+
+    /**
+     * Write the report of vehicles to an output, one line per vehicle
+     * @param vehicles the vehicles
+     * @param output the output, written in chunks
+     * @throws IOException if the output cannot be written
+     */
+    public void render(Iterable<? extends Vehicle> vehicles, Appendable output) throws IOException {
+        buffer.setLength(0);
+        for (Vehicle vehicle : vehicles) {
+            appendLine(vehicle);
+            if (buffer.length() >= CHUNK_SIZE) flush(output);
+        }
+        flush(output);
+    }
+
+    /**
+     * Write the report of a stream of vehicles to an output, one line per vehicle, consuming the stream as the report
+     * is written
+     * @param vehicles the vehicles
+     * @param output the output, written in chunks
+     * @param <V> the type of the vehicles
+     * @throws IOException if the output cannot be written
+     */
+    public <V extends Vehicle> void render(Stream<V> vehicles, Appendable output) throws IOException {
+        Iterable<V> iterable = vehicles::iterator;
+        render(iterable, output);
+    }
+
+    /**
+     * Write the report of vehicles to a byte buffer, encoded in UTF-8, one line per vehicle
+     * @param vehicles the vehicles
+     * @param output the byte buffer, written from its position
+     * @return the number of bytes written
+     * @throws BufferOverflowException if the report does not fit in the remaining bytes of the buffer
+     */
+    public int render(Iterable<? extends Vehicle> vehicles, ByteBuffer output) {
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        int start = output.position();
+        buffer.setLength(0);
+        for (Vehicle vehicle : vehicles) {
+            appendLine(vehicle);
+            if (buffer.length() >= CHUNK_SIZE) encode(encoder, output, false);
+        }
+        encode(encoder, output, true);
+        check(encoder.flush(output));
+        return output.position() - start;
+    }
+
+    /**
+     * Render the report of vehicles as a string, one line per vehicle
+     * @param vehicles the vehicles
+     * @return the report
+     */
+    public String render(Iterable<? extends Vehicle> vehicles) {
+        buffer.setLength(0);
+        for (Vehicle vehicle : vehicles) appendLine(vehicle);
+        return buffer.toString();
+    }
+
+    /**
+     * Append the line of a vehicle to the buffer
+     * @param vehicle : the vehicle
+     */
+    private void appendLine(Vehicle vehicle) {
+        vehicle.appendTo(buffer).append(lineSeparator);
+    }
+
+    /**
+     * Write the buffer to an output and empty it
+     * A writer is given the characters of the buffer directly, without building a String
+     * @param output : the output
+     */
+    private void flush(Appendable output) throws IOException {
+        if (buffer.length() == 0) return;
+        if (output instanceof Writer) {
+            if (chars == null || chars.length < buffer.length()) chars = new char[buffer.capacity()];
+            buffer.getChars(0, buffer.length(), chars, 0);
+            ((Writer) output).write(chars, 0, buffer.length());
+        } else {
+            output.append(buffer);
+        }
+        buffer.setLength(0);
+    }
+
+    /**
+     * Encode the buffer into a byte buffer and empty it
+     * The characters the encoder cannot encode yet, as the first half of a surrogate pair ending a chunk, stay in the
+     * buffer for the next chunk
+     * @param encoder : the UTF-8 encoder
+     * @param output : the byte buffer
+     * @param endOfInput : true if the buffer holds the end of the report, false if more chunks follow
+     */
+    private void encode(CharsetEncoder encoder, ByteBuffer output, boolean endOfInput) {
+        CharBuffer chunk = CharBuffer.wrap(buffer);
+        check(encoder.encode(chunk, output, endOfInput));
+        buffer.delete(0, chunk.position());
+    }
+
+    /**
+     * Check the result of the encoder
+     * @param result : the result of the encoder
+     * @throws BufferOverflowException if the byte buffer is full
+     * @throws IllegalStateException if the characters cannot be encoded
+     */
+    private static void check(CoderResult result) {
+        if (result.isOverflow()) throw new BufferOverflowException();
+        if (result.isError()) {
+            try {
+                result.throwException();
+            } catch (CharacterCodingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
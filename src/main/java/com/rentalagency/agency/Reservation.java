@@ -0,0 +1,107 @@
+package com.rentalagency.agency;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Booking of a vehicle by a customer for a range of days, from the start date included to the end date excluded
+ */
+public final class Reservation {
+    private final Customer customer;
+    private final Vehicle vehicle;
+    private final LocalDate start;
+    private final LocalDate end;
+
+    /**
+     * Constructor : creates a new Reservation with the given customer, vehicle and dates
+     * @param customer the customer
+     * @param vehicle the vehicle
+     * @param start the first day of the reservation
+     * @param end the day after the last day of the reservation, after the start date
+     */
+    public Reservation(Customer customer, Vehicle vehicle, LocalDate start, LocalDate end) {
+        if (!end.isAfter(start)) {
+            throw new IllegalArgumentException("La date de fin doit être postérieure à la date de début," +
+                    " votre date de début est égale à : " + start + " et votre date de fin à : " + end);
+        }
+        this.customer = customer;
+        this.vehicle = vehicle;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Get the customer of the reservation
+     * @return the customer
+     */
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    /**
+     * Get the vehicle of the reservation
+     * @return the vehicle
+     */
+    public Vehicle getVehicle() {
+        return vehicle;
+    }
+
+    /**
+     * Get the first day of the reservation
+     * @return the start date, included
+     */
+    public LocalDate getStart() {
+        return start;
+    }
+
+    /**
+     * Get the day after the last day of the reservation
+     * @return the end date, excluded
+     */
+    public LocalDate getEnd() {
+        return end;
+    }
+
+    /**
+     * Check if the reservation shares at least one day with a range of days
+     * @param start the first day of the range
+     * @param end the day after the last day of the range
+     * @return true if the reservation and the range overlap, false otherwise
+     */
+    public boolean overlaps(LocalDate start, LocalDate end) {
+        return this.start.isBefore(end) && start.isBefore(this.end);
+    }
+
+    /**
+     * Check if the reservation is equal to another object
+     * @param o the other object
+     * @return true if the other object is a reservation of the same vehicle by the same customer for the same days
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Reservation that = (Reservation) o;
+        return Objects.equals(customer, that.customer) && Objects.equals(vehicle, that.vehicle)
+                && start.equals(that.start) && end.equals(that.end);
+    }
+
+    /**
+     * Get the hash code of the reservation
+     * @return the hash code of the reservation
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(customer, vehicle, start, end);
+    }
+
+    /**
+     * Return the string representation of the reservation
+     * @return the string representation of the reservation
+     */
+    @Override
+    public String toString() {
+        return vehicle.appendTo(new StringBuilder(128)).append(" reserved by ").append(customer)
+                .append(" from ").append(start).append(" to ").append(end).toString();
+    }
+}
@@ -0,0 +1,199 @@
+package com.rentalagency.agency;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Future bookings of the vehicles of an agency.
+ * Each vehicle has its own calendar : its reservations sorted by start date, with their first and last days kept as
+ * epoch days in primitive arrays. The reservations of a vehicle never overlap, so the only one which may overlap a
+ * range of days is the last one starting before the end of the range, found by a binary search over the start days
+ * without touching the Reservation objects. A vehicle without reservations has no calendar at all. The calendar of a
+ * vehicle is locked while it is read or updated, so reservations of different vehicles never wait for each other.
+ */
+class ReservationCalendar {
+    private final Map<Vehicle, VehicleCalendar> calendars;
+
+    /**
+     * Constructor : creates a new empty ReservationCalendar
+     */
+    ReservationCalendar() {
+        this(new HashMap<>());
+    }
+
+    /**
+     * Constructor : creates a new empty ReservationCalendar on top of the given map
+     * @param calendars : the map of the calendar of each vehicle
+     */
+    private ReservationCalendar(Map<Vehicle, VehicleCalendar> calendars) {
+        this.calendars = calendars;
+    }
+
+    /**
+     * Create an empty calendar which can be read and updated from several threads
+     * Removing a vehicle must still be serialized with the other operations by the caller
+     * @return the new calendar
+     */
+    static ReservationCalendar concurrent() {
+        return new ReservationCalendar(new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Record a reservation if its vehicle is free for its days
+     * @param reservation : the reservation
+     * @return true if the reservation was recorded, false if it overlaps another reservation of its vehicle
+     */
+    boolean reserve(Reservation reservation) {
+        VehicleCalendar calendar = calendars.computeIfAbsent(reservation.getVehicle(), vehicle -> new VehicleCalendar());
+        synchronized (calendar) {
+            return calendar.add(reservation);
+        }
+    }
+
+    /**
+     * Remove a reservation
+     * @param reservation : the reservation
+     * @return true if the reservation was removed, false if it was not recorded
+     */
+    boolean cancel(Reservation reservation) {
+        VehicleCalendar calendar = calendars.get(reservation.getVehicle());
+        if (calendar == null) return false;
+        synchronized (calendar) {
+            return calendar.remove(reservation);
+        }
+    }
+
+    /**
+     * Check if a vehicle has no reservation during a range of days
+     * @param vehicle : the vehicle
+     * @param start : the first day of the range
+     * @param end : the day after the last day of the range
+     * @return true if no reservation of the vehicle overlaps the range, false otherwise
+     */
+    boolean isAvailable(Vehicle vehicle, LocalDate start, LocalDate end) {
+        VehicleCalendar calendar = calendars.get(vehicle);
+        if (calendar == null) return true;
+        synchronized (calendar) {
+            return calendar.overlapping(start.toEpochDay(), end.toEpochDay()) < 0;
+        }
+    }
+
+    /**
+     * Get the reservations of a vehicle
+     * @param vehicle : the vehicle
+     * @return a copy of the reservations of the vehicle, ordered by start date
+     */
+    List<Reservation> reservationsOf(Vehicle vehicle) {
+        List<Reservation> reservations = new ArrayList<>();
+        VehicleCalendar calendar = calendars.get(vehicle);
+        if (calendar == null) return reservations;
+        synchronized (calendar) {
+            calendar.addTo(reservations);
+        }
+        return reservations;
+    }
+
+    /**
+     * Get every reservation
+     * @return a copy of the reservations, ordered by start date for each vehicle
+     */
+    List<Reservation> reservations() {
+        List<Reservation> reservations = new ArrayList<>();
+        for (VehicleCalendar calendar : calendars.values()) {
+            synchronized (calendar) {
+                calendar.addTo(reservations);
+            }
+        }
+        return reservations;
+    }
+
+    /**
+     * Remove every reservation of a vehicle
+     * @param vehicle : the vehicle
+     */
+    void removeVehicle(Vehicle vehicle) {
+        calendars.remove(vehicle);
+    }
+
+    /**
+     * Reservations of one vehicle, sorted by start date and never overlapping each other
+     */
+    private static final class VehicleCalendar {
+        private long[] starts = new long[2];
+        private long[] ends = new long[2];
+        private Reservation[] reservations = new Reservation[2];
+        private int size;
+
+        /**
+         * Add a reservation if it does not overlap another one
+         * @param reservation : the reservation
+         * @return true if the reservation was added, false if it overlaps another one
+         */
+        boolean add(Reservation reservation) {
+            long start = reservation.getStart().toEpochDay();
+            long end = reservation.getEnd().toEpochDay();
+            if (overlapping(start, end) >= 0) return false;
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+                reservations = Arrays.copyOf(reservations, size * 2);
+            }
+            int index = -(Arrays.binarySearch(starts, 0, size, start) + 1);
+            System.arraycopy(starts, index, starts, index + 1, size - index);
+            System.arraycopy(ends, index, ends, index + 1, size - index);
+            System.arraycopy(reservations, index, reservations, index + 1, size - index);
+            starts[index] = start;
+            ends[index] = end;
+            reservations[index] = reservation;
+            size++;
+            return true;
+        }
+
+        /**
+         * Remove a reservation
+         * @param reservation : the reservation
+         * @return true if the reservation was removed, false if it was not in the calendar
+         */
+        boolean remove(Reservation reservation) {
+            int index = Arrays.binarySearch(starts, 0, size, reservation.getStart().toEpochDay());
+            if (index < 0 || !reservations[index].equals(reservation)) return false;
+            size--;
+            System.arraycopy(starts, index + 1, starts, index, size - index);
+            System.arraycopy(ends, index + 1, ends, index, size - index);
+            System.arraycopy(reservations, index + 1, reservations, index, size - index);
+            reservations[size] = null;
+            return true;
+        }
+
+        /**
+         * Find the reservation overlapping a range of days
+         * @param start : the first day of the range, as an epoch day
+         * @param end : the day after the last day of the range, as an epoch day
+         * @return the index of the reservation overlapping the range, or -1 if there is none
+         */
+        int overlapping(long start, long end) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (starts[middle] < end) low = middle + 1;
+                else high = middle;
+            }
+            int last = low - 1;
+            return last >= 0 && ends[last] > start ? last : -1;
+        }
+
+        /**
+         * Add the reservations of the calendar to a list
+         * @param list : the list
+         */
+        void addTo(List<Reservation> list) {
+            for (int i = 0; i < size; i++) list.add(reservations[i]);
+        }
+    }
+}
@@ -18,6 +18,6 @@ public class UnknownVehicleException extends RuntimeException {
      */
     @Override
     public String getMessage() {
-        return "Vehicle not found in the agency: " + vehicle.toString();
+        return vehicle.appendTo(new StringBuilder(96).append("Vehicle not found in the agency: ")).toString();
     }
 }
@@ -6,5 +6,17 @@ public interface Vehicle {
     int getProductionYear();
     double dailyRentalPrice();
     boolean equals(Object o);
+    int hashCode();
     String toString();
+
+    /**
+     * Append the string representation of the vehicle to a builder, the same text as toString
+     * Implementations write it field by field, so rendering many vehicles into one builder does not create a String
+     * per vehicle
+     * @param builder the builder to append to
+     * @return the builder
+     */
+    default StringBuilder appendTo(StringBuilder builder) {
+        return builder.append(this);
+    }
 }
@@ -0,0 +1,146 @@
+package com.rentalagency.agency;
+
+import com.rentalagency.util.NameDictionary;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Specification of a vehicle model, shared by every unit of that model.
+ * The kind, brand, model and capacity (the number of seats of a car or the cylinder capacity of a motorbike) are the
+ * same for all the units of a model : the registry keeps one instance of each specification, and a vehicle only stores
+ * a reference to it next to its own production year.
+ */
+public final class VehicleSpec {
+    /**
+     * Kind of vehicle described by a specification
+     */
+    public enum Kind {
+        CAR, MOTORBIKE, OTHER
+    }
+
+    private static final ConcurrentHashMap<VehicleSpec, VehicleSpec> REGISTRY = new ConcurrentHashMap<>();
+
+    private final Kind kind;
+    private final String brand;
+    private final String model;
+    private final int capacity;
+
+    /**
+     * Constructor : creates a new VehicleSpec with the given kind, brand, model and capacity
+     * @param kind : the kind of vehicle
+     * @param brand : the brand of the model
+     * @param model : the name of the model
+     * @param capacity : the number of seats of a car, the cylinder capacity of a motorbike, 0 otherwise
+     */
+    private VehicleSpec(Kind kind, String brand, String model, int capacity) {
+        this.kind = kind;
+        this.brand = brand;
+        this.model = model;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Get the shared specification with the given kind, brand, model and capacity, registering it if needed
+     * @param kind the kind of vehicle
+     * @param brand the brand of the model
+     * @param model the name of the model
+     * @param capacity the number of seats of a car, the cylinder capacity of a motorbike, 0 otherwise
+     * @return the shared specification
+     */
+    public static VehicleSpec of(Kind kind, String brand, String model, int capacity) {
+        VehicleSpec spec = new VehicleSpec(kind, NameDictionary.BRANDS.canonical(brand),
+                NameDictionary.MODELS.canonical(model), capacity);
+        VehicleSpec registered = REGISTRY.putIfAbsent(spec, spec);
+        return registered == null ? spec : registered;
+    }
+
+    /**
+     * Get a specification to look a vehicle up by its brand and model, without registering it nor its names
+     * @param brand the brand of the model
+     * @param model the name of the model
+     * @return the specification, not shared
+     */
+    static VehicleSpec lookupKey(String brand, String model) {
+        return new VehicleSpec(Kind.OTHER, NameDictionary.BRANDS.lookup(brand), NameDictionary.MODELS.lookup(model), 0);
+    }
+
+    /**
+     * Get the number of specifications of the registry
+     * @return the number of specifications
+     */
+    public static int registered() {
+        return REGISTRY.size();
+    }
+
+    /**
+     * Create a unit of the model without checking its production year, for vehicles validated when they were first
+     * created, such as the ones read back from a snapshot of an agency
+     * @param productionYear the production year of the unit, already checked
+     * @return the new car or motorbike
+     * @throws IllegalStateException if the specification is neither a car nor a motorbike
+     */
+    public Vehicle restoreUnit(int productionYear) {
+        if (kind == Kind.CAR) return new Car(this, productionYear);
+        if (kind == Kind.MOTORBIKE) return new Motorbike(this, productionYear);
+        throw new IllegalStateException("Seules les voitures et les motos peuvent être restaurées");
+    }
+
+    /**
+     * Get the kind of vehicle
+     * @return the kind of vehicle
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Get the brand of the model
+     * @return the brand
+     */
+    public String getBrand() {
+        return brand;
+    }
+
+    /**
+     * Get the name of the model
+     * @return the name of the model
+     */
+    public String getModel() {
+        return model;
+    }
+
+    /**
+     * Get the capacity of the model
+     * @return the number of seats of a car, the cylinder capacity of a motorbike, 0 otherwise
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Check if an object is a specification with the same kind, brand, model and capacity
+     * @param o : the object to compare
+     * @return true if the object is equal to the specification, false otherwise
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof VehicleSpec)) return false;
+
+        VehicleSpec that = (VehicleSpec) o;
+
+        return kind == that.kind && capacity == that.capacity &&
+                Objects.equals(brand, that.brand) &&
+                Objects.equals(model, that.model);
+    }
+
+    /**
+     * Return the hash code of the specification, consistent with equals
+     * @return the hash code of the specification
+     */
+    @Override
+    public int hashCode() {
+        return 31 * (31 * (31 * kind.hashCode() + Objects.hashCode(brand)) + Objects.hashCode(model)) + capacity;
+    }
+}
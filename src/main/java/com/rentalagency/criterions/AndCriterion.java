@@ -0,0 +1,61 @@
+package com.rentalagency.criterions;
+
+import com.rentalagency.agency.Vehicle;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+public class AndCriterion implements Predicate<Vehicle> {
+    private List<Predicate<Vehicle>> criteria;
+
+    /**
+     * Constructor : creates a new AndCriterion satisfied when all the given criteria are satisfied
+     * @param criteria the criteria
+     */
+    @SafeVarargs
+    public AndCriterion(Predicate<Vehicle>... criteria) {
+        this(List.of(criteria));
+    }
+
+    /**
+     * Constructor : creates a new AndCriterion satisfied when all the given criteria are satisfied
+     * @param criteria the list of criteria
+     */
+    public AndCriterion(List<Predicate<Vehicle>> criteria) {
+        if (criteria.isEmpty()) {
+            throw new IllegalArgumentException("Un critère composé doit contenir au moins un critère");
+        }
+        this.criteria = List.copyOf(criteria);
+    }
+
+    /**
+     * Get the criteria combined by the criterion
+     * @return the list of criteria
+     */
+    public List<Predicate<Vehicle>> getCriteria() {
+        return criteria;
+    }
+
+    /**
+     * Test if a vehicle satisfies the criterion
+     * @param vehicle the input argument
+     * @return true if the vehicle satisfies all the criteria, false otherwise
+     */
+    @Override
+    public boolean test(Vehicle vehicle) {
+        for (Predicate<Vehicle> criterion : criteria) {
+            if (!criterion.test(vehicle)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Return the string representation of the criterion
+     * @return the string representation of the criterion
+     */
+    @Override
+    public String toString() {
+        return criteria.stream().map(String::valueOf).collect(Collectors.joining(" AND ", "(", ")"));
+    }
+}
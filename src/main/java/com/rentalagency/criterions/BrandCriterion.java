@@ -1,6 +1,7 @@
 package com.rentalagency.criterions;
 
 import com.rentalagency.agency.Vehicle;
+import com.rentalagency.util.NameDictionary;
 
 import java.util.function.Predicate;
 
@@ -9,10 +10,19 @@ public class BrandCriterion implements Predicate<Vehicle> {
 
     /**
      * Constructor : creates a new BrandCriterion with the given brand
+     * The brand is replaced by its canonical instance when a vehicle has it, so most tests compare by identity
      * @param brand the brand
      */
     public BrandCriterion(String brand) {
-        this.brand = brand;
+        this.brand = NameDictionary.BRANDS.lookup(brand);
+    }
+
+    /**
+     * Get the brand required by the criterion
+     * @return the brand
+     */
+    public String getBrand() {
+        return brand;
     }
 
     /**
@@ -22,6 +32,16 @@ public class BrandCriterion implements Predicate<Vehicle> {
      */
     @Override
     public boolean test(Vehicle vehicle) {
-        return vehicle.getBrand().equals(brand);
+        String vehicleBrand = vehicle.getBrand();
+        return vehicleBrand == brand || vehicleBrand.equals(brand);
+    }
+
+    /**
+     * Return the string representation of the criterion
+     * @return the string representation of the criterion
+     */
+    @Override
+    public String toString() {
+        return "brand = " + brand;
     }
 }
@@ -15,6 +15,14 @@ public class MaxPriceCriterion implements Predicate<Vehicle> {
         this.maxPrice = maxPrice;
     }
 
+    /**
+     * Get the maximum price of the criterion
+     * @return the maximum price
+     */
+    public double getMaxPrice() {
+        return maxPrice;
+    }
+
     /**
      * Test if a vehicle satisfies the criterion
      * @param vehicle the input argument
@@ -24,4 +32,13 @@ public class MaxPriceCriterion implements Predicate<Vehicle> {
     public boolean test(Vehicle vehicle) {
         return vehicle.dailyRentalPrice() <= maxPrice;
     }
+
+    /**
+     * Return the string representation of the criterion
+     * @return the string representation of the criterion
+     */
+    @Override
+    public String toString() {
+        return "price <= " + maxPrice;
+    }
 }
@@ -0,0 +1,47 @@
+package com.rentalagency.criterions;
+
+import com.rentalagency.agency.Vehicle;
+import com.rentalagency.util.NameDictionary;
+
+import java.util.function.Predicate;
+
+public class ModelCriterion implements Predicate<Vehicle> {
+    private String model;
+
+    /**
+     * Constructor : creates a new ModelCriterion with the given model
+     * The model is replaced by its canonical instance when a vehicle has it, so most tests compare by identity
+     * @param model the model
+     */
+    public ModelCriterion(String model) {
+        this.model = NameDictionary.MODELS.lookup(model);
+    }
+
+    /**
+     * Get the model required by the criterion
+     * @return the model
+     */
+    public String getModel() {
+        return model;
+    }
+
+    /**
+     * Test if a vehicle satisfies the criterion
+     * @param vehicle the input argument
+     * @return true if the vehicle satisfies the criterion, false otherwise
+     */
+    @Override
+    public boolean test(Vehicle vehicle) {
+        String vehicleModel = vehicle.getModel();
+        return vehicleModel == model || vehicleModel.equals(model);
+    }
+
+    /**
+     * Return the string representation of the criterion
+     * @return the string representation of the criterion
+     */
+    @Override
+    public String toString() {
+        return "model = " + model;
+    }
+}
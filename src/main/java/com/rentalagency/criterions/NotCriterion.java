@@ -0,0 +1,44 @@
+package com.rentalagency.criterions;
+
+import com.rentalagency.agency.Vehicle;
+
+import java.util.function.Predicate;
+
+public class NotCriterion implements Predicate<Vehicle> {
+    private Predicate<Vehicle> criterion;
+
+    /**
+     * Constructor : creates a new NotCriterion satisfied when the given criterion is not satisfied
+     * @param criterion the criterion
+     */
+    public NotCriterion(Predicate<Vehicle> criterion) {
+        this.criterion = criterion;
+    }
+
+    /**
+     * Get the negated criterion
+     * @return the negated criterion
+     */
+    public Predicate<Vehicle> getCriterion() {
+        return criterion;
+    }
+
+    /**
+     * Test if a vehicle satisfies the criterion
+     * @param vehicle the input argument
+     * @return true if the vehicle does not satisfy the negated criterion, false otherwise
+     */
+    @Override
+    public boolean test(Vehicle vehicle) {
+        return !criterion.test(vehicle);
+    }
+
+    /**
+     * Return the string representation of the criterion
+     * @return the string representation of the criterion
+     */
+    @Override
+    public String toString() {
+        return "NOT " + criterion;
+    }
+}
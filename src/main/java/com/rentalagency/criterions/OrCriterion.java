@@ -0,0 +1,61 @@
+package com.rentalagency.criterions;
+
+import com.rentalagency.agency.Vehicle;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+public class OrCriterion implements Predicate<Vehicle> {
+    private List<Predicate<Vehicle>> criteria;
+
+    /**
+     * Constructor : creates a new OrCriterion satisfied when at least one of the given criteria are satisfied
+     * @param criteria the criteria
+     */
+    @SafeVarargs
+    public OrCriterion(Predicate<Vehicle>... criteria) {
+        this(List.of(criteria));
+    }
+
+    /**
+     * Constructor : creates a new OrCriterion satisfied when at least one of the given criteria are satisfied
+     * @param criteria the list of criteria
+     */
+    public OrCriterion(List<Predicate<Vehicle>> criteria) {
+        if (criteria.isEmpty()) {
+            throw new IllegalArgumentException("Un critère composé doit contenir au moins un critère");
+        }
+        this.criteria = List.copyOf(criteria);
+    }
+
+    /**
+     * Get the criteria combined by the criterion
+     * @return the list of criteria
+     */
+    public List<Predicate<Vehicle>> getCriteria() {
+        return criteria;
+    }
+
+    /**
+     * Test if a vehicle satisfies the criterion
+     * @param vehicle the input argument
+     * @return true if the vehicle satisfies at least one of the criteria, false otherwise
+     */
+    @Override
+    public boolean test(Vehicle vehicle) {
+        for (Predicate<Vehicle> criterion : criteria) {
+            if (criterion.test(vehicle)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Return the string representation of the criterion
+     * @return the string representation of the criterion
+     */
+    @Override
+    public String toString() {
+        return criteria.stream().map(String::valueOf).collect(Collectors.joining(" OR ", "(", ")"));
+    }
+}
@@ -0,0 +1,60 @@
+package com.rentalagency.criterions;
+
+import com.rentalagency.agency.Vehicle;
+
+import java.util.function.Predicate;
+
+public class PriceRangeCriterion implements Predicate<Vehicle> {
+    private double minPrice;
+    private double maxPrice;
+
+    /**
+     * Constructor : creates a new PriceRangeCriterion with the given minimum and maximum prices
+     * @param minPrice the minimum price, inclusive
+     * @param maxPrice the maximum price, inclusive
+     */
+    public PriceRangeCriterion(double minPrice, double maxPrice) {
+        if (minPrice > maxPrice) {
+            throw new IllegalArgumentException("Le prix minimum doit être inférieur ou égal au prix maximum," +
+                    " votre prix minimum est égal à : " + minPrice + " et votre prix maximum à : " + maxPrice);
+        }
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+    }
+
+    /**
+     * Get the minimum price of the criterion
+     * @return the minimum price
+     */
+    public double getMinPrice() {
+        return minPrice;
+    }
+
+    /**
+     * Get the maximum price of the criterion
+     * @return the maximum price
+     */
+    public double getMaxPrice() {
+        return maxPrice;
+    }
+
+    /**
+     * Test if a vehicle satisfies the criterion
+     * @param vehicle the input argument
+     * @return true if the daily rental price of the vehicle is between the minimum and the maximum prices, false otherwise
+     */
+    @Override
+    public boolean test(Vehicle vehicle) {
+        double price = vehicle.dailyRentalPrice();
+        return price >= minPrice && price <= maxPrice;
+    }
+
+    /**
+     * Return the string representation of the criterion
+     * @return the string representation of the criterion
+     */
+    @Override
+    public String toString() {
+        return "price between " + minPrice + " and " + maxPrice;
+    }
+}
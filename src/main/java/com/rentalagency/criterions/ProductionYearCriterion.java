@@ -0,0 +1,60 @@
+package com.rentalagency.criterions;
+
+import com.rentalagency.agency.Vehicle;
+
+import java.util.function.Predicate;
+
+public class ProductionYearCriterion implements Predicate<Vehicle> {
+    private int minYear;
+    private int maxYear;
+
+    /**
+     * Constructor : creates a new ProductionYearCriterion with the given minimum and maximum production years
+     * @param minYear the minimum production year, inclusive
+     * @param maxYear the maximum production year, inclusive
+     */
+    public ProductionYearCriterion(int minYear, int maxYear) {
+        if (minYear > maxYear) {
+            throw new IllegalArgumentException("L'année minimum doit être inférieure ou égale à l'année maximum," +
+                    " votre année minimum est égale à : " + minYear + " et votre année maximum à : " + maxYear);
+        }
+        this.minYear = minYear;
+        this.maxYear = maxYear;
+    }
+
+    /**
+     * Get the minimum production year of the criterion
+     * @return the minimum production year
+     */
+    public int getMinYear() {
+        return minYear;
+    }
+
+    /**
+     * Get the maximum production year of the criterion
+     * @return the maximum production year
+     */
+    public int getMaxYear() {
+        return maxYear;
+    }
+
+    /**
+     * Test if a vehicle satisfies the criterion
+     * @param vehicle the input argument
+     * @return true if the production year of the vehicle is between the minimum and the maximum years, false otherwise
+     */
+    @Override
+    public boolean test(Vehicle vehicle) {
+        int productionYear = vehicle.getProductionYear();
+        return productionYear >= minYear && productionYear <= maxYear;
+    }
+
+    /**
+     * Return the string representation of the criterion
+     * @return the string representation of the criterion
+     */
+    @Override
+    public String toString() {
+        return "production year between " + minYear + " and " + maxYear;
+    }
+}
@@ -0,0 +1,87 @@
+package com.rentalagency.events;
+
+import com.rentalagency.agency.Customer;
+import com.rentalagency.agency.Vehicle;
+
+/**
+ * Immutable change of the fleet of an agency : a vehicle added, removed, rented or returned
+ */
+public final class FleetEvent {
+    /**
+     * Kind of change of the fleet
+     */
+    public enum Type {
+        VEHICLE_ADDED, VEHICLE_REMOVED, VEHICLE_RENTED, VEHICLE_RETURNED
+    }
+
+    private final long sequence;
+    private final long timestamp;
+    private final Type type;
+    private final Vehicle vehicle;
+    private final Customer customer;
+
+    /**
+     * Constructor : creates a new FleetEvent with the given change
+     * @param sequence : the number of the event, increasing with the order in which the events are published
+     * @param timestamp : the time of the change, in milliseconds since the epoch
+     * @param type : the kind of change
+     * @param vehicle : the vehicle
+     * @param customer : the customer who rented or returned the vehicle, null for the other changes
+     */
+    FleetEvent(long sequence, long timestamp, Type type, Vehicle vehicle, Customer customer) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.type = type;
+        this.vehicle = vehicle;
+        this.customer = customer;
+    }
+
+    /**
+     * Get the number of the event
+     * @return the number of the event, increasing with the order in which the events are published
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Get the time of the change
+     * @return the time of the change, in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Get the kind of change
+     * @return the kind of change
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Get the vehicle added, removed, rented or returned
+     * @return the vehicle
+     */
+    public Vehicle getVehicle() {
+        return vehicle;
+    }
+
+    /**
+     * Get the customer who rented or returned the vehicle
+     * @return the customer, or null if the vehicle was added or removed
+     */
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    /**
+     * Return a string representation of the event
+     * @return the sequence, the kind of change, the vehicle and the customer if any
+     */
+    @Override
+    public String toString() {
+        return "#" + sequence + " " + type + " " + vehicle + (customer != null ? " " + customer : "");
+    }
+}
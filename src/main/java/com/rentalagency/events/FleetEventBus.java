@@ -0,0 +1,294 @@
+package com.rentalagency.events;
+
+import com.rentalagency.agency.Customer;
+import com.rentalagency.agency.Vehicle;
+import com.rentalagency.util.VirtualThreads;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publisher of the changes of the fleet of an agency to its subscribers.
+ * Each subscription owns a bounded queue and a dispatcher thread which hands the events to its listener, so publishing
+ * an event only copies a reference into the queue of each subscription and never waits for a listener : a slow
+ * subscriber fills its own queue and its overflow policy decides what happens, without slowing the agency down nor
+ * delaying the other subscribers. The dispatchers run on virtual threads when the JVM provides them, and on daemon
+ * platform threads otherwise.
+ * Publishing without any subscription costs a single volatile read, no event is even created.
+ */
+public final class FleetEventBus {
+    /**
+     * What a publisher does when the queue of a subscription is full
+     */
+    public enum OverflowPolicy {
+        /**
+         * Drop the new event : the subscriber misses the latest changes, the publisher never waits
+         */
+        DROP_NEWEST,
+        /**
+         * Drop the oldest queued event to make room for the new one : the subscriber misses the earliest changes, the
+         * publisher never waits
+         */
+        DROP_OLDEST,
+        /**
+         * Wait until the subscriber makes room : no event is lost, but the operation which published the event waits
+         * for the subscriber, with the locks of a concurrent agency held
+         */
+        BLOCK
+    }
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final int BATCH_SIZE = 256;
+    private static final Subscription[] NO_SUBSCRIPTIONS = new Subscription[0];
+
+    private final ThreadFactory threadFactory;
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile Subscription[] subscriptions = NO_SUBSCRIPTIONS;
+
+    /**
+     * Constructor : creates a new FleetEventBus dispatching the events on virtual threads when the JVM provides them
+     */
+    public FleetEventBus() {
+        this(VirtualThreads.factory("fleet-events-"));
+    }
+
+    /**
+     * Constructor : creates a new FleetEventBus with the given factory of dispatcher threads
+     * @param threadFactory : the factory creating the dispatcher thread of each subscription
+     */
+    public FleetEventBus(ThreadFactory threadFactory) {
+        if (threadFactory == null) throw new IllegalArgumentException("La fabrique de threads ne peut pas être nulle");
+        this.threadFactory = threadFactory;
+    }
+
+    /**
+     * Subscribe to the changes of the fleet, with a queue of DEFAULT_CAPACITY events dropping the new events when
+     * it is full
+     * @param listener : the listener
+     * @return the subscription, to close to stop receiving events
+     */
+    public Subscription subscribe(FleetListener listener) {
+        return subscribe(listener, DEFAULT_CAPACITY, OverflowPolicy.DROP_NEWEST);
+    }
+
+    /**
+     * Subscribe to the changes of the fleet
+     * The listener only receives the events published after this call
+     * @param listener : the listener
+     * @param capacity : the maximum number of events waiting for the listener
+     * @param policy : what a publisher does when the queue is full
+     * @return the subscription, to close to stop receiving events
+     */
+    public Subscription subscribe(FleetListener listener, int capacity, OverflowPolicy policy) {
+        if (listener == null) throw new IllegalArgumentException("L'abonné ne peut pas être nul");
+        if (policy == null) throw new IllegalArgumentException("La politique de débordement ne peut pas être nulle");
+        if (capacity < 1) {
+            throw new IllegalArgumentException("La capacité doit être supérieure à 0, votre capacité est égale à : " + capacity);
+        }
+        Subscription subscription = new Subscription(listener, capacity, policy);
+        synchronized (this) {
+            Subscription[] current = subscriptions;
+            Subscription[] next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = subscription;
+            subscriptions = next;
+        }
+        subscription.start(threadFactory);
+        return subscription;
+    }
+
+    /**
+     * Remove a subscription from the ones receiving the events
+     * @param subscription : the subscription
+     */
+    private synchronized void unsubscribe(Subscription subscription) {
+        Subscription[] current = subscriptions;
+        List<Subscription> next = new ArrayList<>(Arrays.asList(current));
+        next.remove(subscription);
+        subscriptions = next.isEmpty() ? NO_SUBSCRIPTIONS : next.toArray(NO_SUBSCRIPTIONS);
+    }
+
+    /**
+     * Check if at least one subscription receives the events
+     * @return true if an event published now would be delivered, false otherwise
+     */
+    public boolean hasSubscribers() {
+        return subscriptions.length > 0;
+    }
+
+    /**
+     * Publish a change of the fleet to every subscription
+     * Nothing is created when there is no subscription. Otherwise the event is queued for each subscription, following
+     * its overflow policy when its queue is full. The events published concurrently by several threads may be queued
+     * in a different order than their sequence.
+     * @param type : the kind of change
+     * @param vehicle : the vehicle
+     * @param customer : the customer who rented or returned the vehicle, null for the other changes
+     */
+    public void publish(FleetEvent.Type type, Vehicle vehicle, Customer customer) {
+        Subscription[] subscriptions = this.subscriptions;
+        if (subscriptions.length == 0) return;
+        FleetEvent event = new FleetEvent(sequence.incrementAndGet(), System.currentTimeMillis(), type, vehicle, customer);
+        for (Subscription subscription : subscriptions) subscription.offer(event);
+    }
+
+    /**
+     * Subscription of a listener, with its queue of events and its dispatcher thread
+     */
+    public final class Subscription implements AutoCloseable {
+        private final FleetListener listener;
+        private final OverflowPolicy policy;
+        private final ArrayBlockingQueue<FleetEvent> queue;
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder delivered = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private volatile boolean closed;
+        private Thread dispatcher;
+
+        /**
+         * Constructor : creates a new Subscription with the given listener, capacity and overflow policy
+         * @param listener : the listener
+         * @param capacity : the maximum number of events waiting for the listener
+         * @param policy : what a publisher does when the queue is full
+         */
+        private Subscription(FleetListener listener, int capacity, OverflowPolicy policy) {
+            this.listener = listener;
+            this.policy = policy;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        /**
+         * Start the dispatcher thread of the subscription
+         * @param threadFactory : the factory of the thread
+         */
+        private synchronized void start(ThreadFactory threadFactory) {
+            if (closed) return;
+            dispatcher = threadFactory.newThread(this::dispatch);
+            dispatcher.start();
+        }
+
+        /**
+         * Queue an event, following the overflow policy if the queue is full
+         * @param event : the event
+         */
+        private void offer(FleetEvent event) {
+            if (closed) return;
+            if (queue.offer(event)) return;
+            switch (policy) {
+                case DROP_NEWEST:
+                    dropped.increment();
+                    break;
+                case DROP_OLDEST:
+                    while (!queue.offer(event)) {
+                        if (queue.poll() != null) dropped.increment();
+                    }
+                    break;
+                case BLOCK:
+                    try {
+                        while (!queue.offer(event, 100, TimeUnit.MILLISECONDS)) {
+                            if (closed) return;
+                        }
+                    } catch (InterruptedException e) {
+                        dropped.increment();
+                        Thread.currentThread().interrupt();
+                    }
+                    break;
+            }
+        }
+
+        /**
+         * Hand the queued events to the listener until the subscription is closed
+         * The events are taken from the queue by batches, so a busy queue wakes the dispatcher up once per batch
+         */
+        private void dispatch() {
+            List<FleetEvent> batch = new ArrayList<>(BATCH_SIZE);
+            while (!closed) {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) {
+                    break;
+                }
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                for (FleetEvent event : batch) {
+                    if (closed) break;
+                    try {
+                        listener.onEvent(event);
+                        delivered.increment();
+                    } catch (RuntimeException e) {
+                        failures.increment();
+                    }
+                }
+                batch.clear();
+            }
+        }
+
+        /**
+         * Get the overflow policy of the subscription
+         * @return what a publisher does when the queue is full
+         */
+        public OverflowPolicy getPolicy() {
+            return policy;
+        }
+
+        /**
+         * Get the number of events dropped because the queue was full
+         * @return the number of events the listener missed
+         */
+        public long getDropped() {
+            return dropped.sum();
+        }
+
+        /**
+         * Get the number of events handled by the listener
+         * @return the number of events handled without an exception
+         */
+        public long getDelivered() {
+            return delivered.sum();
+        }
+
+        /**
+         * Get the number of events for which the listener threw an exception
+         * @return the number of failed events
+         */
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        /**
+         * Get the number of events waiting for the listener
+         * @return the number of queued events
+         */
+        public int getPending() {
+            return queue.size();
+        }
+
+        /**
+         * Check if the subscription is closed
+         * @return true if the subscription no longer receives events, false otherwise
+         */
+        public boolean isClosed() {
+            return closed;
+        }
+
+        /**
+         * Stop receiving events : the queued events are discarded and the dispatcher thread is interrupted, so it
+         * stops after the event being handled, if any
+         */
+        @Override
+        public void close() {
+            synchronized (this) {
+                if (closed) return;
+                closed = true;
+            }
+            unsubscribe(this);
+            queue.clear();
+            if (dispatcher != null && dispatcher != Thread.currentThread()) dispatcher.interrupt();
+        }
+    }
+}
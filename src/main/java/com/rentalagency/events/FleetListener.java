@@ -0,0 +1,15 @@
+package com.rentalagency.events;
+
+/**
+ * Subscriber to the changes of the fleet of an agency
+ */
+@FunctionalInterface
+public interface FleetListener {
+    /**
+     * Handle a change of the fleet
+     * The events of a subscription are handled one at a time, on the dispatcher thread of the subscription, in the
+     * order they were published. An exception thrown by the listener is counted and the next events are still handled.
+     * @param event : the change
+     */
+    void onEvent(FleetEvent event);
+}
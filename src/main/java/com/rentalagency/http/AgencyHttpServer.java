@@ -0,0 +1,424 @@
+package com.rentalagency.http;
+
+import com.rentalagency.agency.Car;
+import com.rentalagency.agency.ConcurrentRentalAgency;
+import com.rentalagency.agency.Customer;
+import com.rentalagency.agency.Motorbike;
+import com.rentalagency.agency.UnknownVehicleException;
+import com.rentalagency.agency.Vehicle;
+import com.rentalagency.criterions.AndCriterion;
+import com.rentalagency.criterions.BrandCriterion;
+import com.rentalagency.criterions.MaxPriceCriterion;
+import com.rentalagency.util.VirtualThreads;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Predicate;
+
+/**
+ * HTTP front end of an agency, built on the HTTP server of the JDK, answering in JSON.
+ * Each request is handled on its own virtual thread when the JVM provides them, or on a pool of platform threads
+ * otherwise, so the agency must be safe to use from several threads at once. The responses are streamed by a
+ * JsonWriter, without building the document in memory. The parameters are passed in the query string :
+ * <ul>
+ *     <li>GET /vehicles?offset=&amp;limit= : the vehicles of the fleet, in the order they were added</li>
+ *     <li>GET /vehicles/select?brand=&amp;maxPrice=&amp;available= : the vehicles of a brand and/or under a daily
+ *     price, only the ones not rented if available is true</li>
+ *     <li>POST /rentals?name=&amp;surname=&amp;birth=&amp;brand=&amp;model=&amp;year= : rent a vehicle to a customer,
+ *     answering its daily rental price</li>
+ *     <li>DELETE /rentals?name=&amp;surname=&amp;birth= : return the vehicle rented by a customer</li>
+ * </ul>
+ * A customer is identified by its name, surname and birth date (yyyy-MM-dd, at midnight UTC), a vehicle by its brand,
+ * model and production year. Customers are compared by identity in the agency, so the server keeps the customer of
+ * each name, surname and birth date holding a rental, starting with the renters of the agency : a customer is kept
+ * once its rental is made and dropped once its vehicle is returned, and a request naming no kept customer gets a new
+ * one which is not kept. An error is answered with its status and a JSON object holding its message : 400 for an
+ * invalid parameter, 404 for an unknown path, vehicle or rental, 405 for a wrong method, 409 for a vehicle or a
+ * customer already renting, 503 for an agency refusing changes, as a journaled agency once closed, and 500 for any
+ * other error of the agency.
+ * The server disables Nagle's algorithm on its connections unless the sun.net.httpserver.nodelay property is already
+ * set; the property is read once, when the first server of the JVM is created.
+ */
+public final class AgencyHttpServer implements Closeable {
+    private static final String JSON = "application/json; charset=utf-8";
+
+    private final ConcurrentRentalAgency agency;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ConcurrentHashMap<List<Object>, Customer> customers;
+
+    /**
+     * Constructor : creates a new AgencyHttpServer serving the given agency on a bound server
+     * @param agency : the agency
+     * @param server : the server, not started yet
+     */
+    private AgencyHttpServer(ConcurrentRentalAgency agency, HttpServer server) {
+        this.agency = agency;
+        this.server = server;
+        this.executor = VirtualThreads.newThreadPerTaskExecutor("agency-http-");
+        this.customers = new ConcurrentHashMap<>();
+        for (Vehicle vehicle : agency.allRentedVehicles()) {
+            Customer renter = agency.renterOf(vehicle);
+            if (renter == null) continue;
+            customers.putIfAbsent(key(renter), renter);
+        }
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    /**
+     * Start serving an agency
+     * @param agency the agency
+     * @param address the address to listen to, with the port 0 to use any free port
+     * @return the started server
+     * @throws IOException if the address cannot be bound
+     */
+    public static AgencyHttpServer start(ConcurrentRentalAgency agency, InetSocketAddress address) throws IOException {
+        if (agency == null) throw new IllegalArgumentException("L'agence ne peut pas être nulle");
+        // the server writes the headers and the body of a response separately : with Nagle's algorithm, the body of
+        // every response on a kept-alive connection would wait for the delayed acknowledgement of the headers
+        System.getProperties().putIfAbsent("sun.net.httpserver.nodelay", "true");
+        AgencyHttpServer httpServer = new AgencyHttpServer(agency, HttpServer.create(address, 0));
+        httpServer.server.start();
+        return httpServer;
+    }
+
+    /**
+     * Get the address the server listens to
+     * @return the address, with the port actually bound
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * Get the number of customers kept by the server, the ones holding a rental
+     * @return the number of kept customers
+     */
+    int keptCustomers() {
+        return customers.size();
+    }
+
+    /**
+     * Stop the server, without waiting for the requests being handled
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Route a request to its handler, and answer the errors
+     * @param exchange : the request and its response
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            Map<String, String> parameters = parameters(exchange.getRequestURI().getRawQuery());
+            try {
+                switch (path) {
+                    case "/vehicles":
+                        if (expect(exchange, method, "GET")) listVehicles(exchange, parameters);
+                        break;
+                    case "/vehicles/select":
+                        if (expect(exchange, method, "GET")) selectVehicles(exchange, parameters);
+                        break;
+                    case "/rentals":
+                        if ("POST".equals(method)) rentVehicle(exchange, parameters);
+                        else if (expect(exchange, method, "DELETE")) returnVehicle(exchange, parameters);
+                        break;
+                    default:
+                        sendError(exchange, 404, "Chemin inconnu : " + path);
+                }
+            } catch (UnknownVehicleException e) {
+                sendError(exchange, 404, e.getMessage());
+            } catch (IllegalStateException e) {
+                sendError(exchange, 503, e.getMessage());
+            } catch (IllegalArgumentException | DateTimeException e) {
+                sendError(exchange, 400, e.getMessage());
+            } catch (RuntimeException e) {
+                sendError(exchange, 500, "Erreur interne : " + e.getMessage());
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Check the method of a request, answering 405 if it is not the expected one
+     * @param exchange : the request and its response
+     * @param method : the method of the request
+     * @param expected : the method expected by the path
+     * @return true if the method is the expected one, false if the error was answered
+     */
+    private static boolean expect(HttpExchange exchange, String method, String expected) throws IOException {
+        if (expected.equals(method)) return true;
+        exchange.getResponseHeaders().set("Allow", "/rentals".equals(exchange.getRequestURI().getPath())
+                ? "POST, DELETE" : expected);
+        sendError(exchange, 405, "Méthode non autorisée : " + method);
+        return false;
+    }
+
+    /**
+     * Answer a page of the fleet
+     * @param exchange : the request and its response
+     * @param parameters : the parameters of the request
+     */
+    private void listVehicles(HttpExchange exchange, Map<String, String> parameters) throws IOException {
+        int offset = intParameter(parameters, "offset", 0);
+        int limit = intParameter(parameters, "limit", Integer.MAX_VALUE);
+        sendVehicles(exchange, agency.select(vehicle -> true, offset, limit));
+    }
+
+    /**
+     * Answer the vehicles of a brand and/or under a daily price
+     * @param exchange : the request and its response
+     * @param parameters : the parameters of the request
+     */
+    private void selectVehicles(HttpExchange exchange, Map<String, String> parameters) throws IOException {
+        List<Predicate<Vehicle>> criteria = new ArrayList<>(2);
+        String brand = parameters.get("brand");
+        if (brand != null) criteria.add(new BrandCriterion(brand));
+        String maxPrice = parameters.get("maxPrice");
+        if (maxPrice != null) criteria.add(new MaxPriceCriterion(Double.parseDouble(maxPrice)));
+        Predicate<Vehicle> criterion = criteria.isEmpty() ? vehicle -> true
+                : criteria.size() == 1 ? criteria.get(0) : new AndCriterion(criteria);
+        boolean available = Boolean.parseBoolean(parameters.get("available"));
+        sendVehicles(exchange, available ? agency.selectAvailable(criterion) : agency.select(criterion));
+    }
+
+    /**
+     * Rent a vehicle to a customer and answer its daily rental price
+     * @param exchange : the request and its response
+     * @param parameters : the parameters of the request
+     */
+    private void rentVehicle(HttpExchange exchange, Map<String, String> parameters) throws IOException {
+        Customer customer = customer(parameters);
+        String brand = required(parameters, "brand");
+        String model = required(parameters, "model");
+        int year = intParameter(parameters, "year", -1);
+        Vehicle vehicle = agency.find(brand, model, year).orElse(null);
+        if (vehicle == null) {
+            sendError(exchange, 404, "Véhicule inconnu : " + brand + " " + model + " " + year);
+            return;
+        }
+        double price;
+        try {
+            price = agency.rentVehicle(customer, vehicle);
+        } catch (IllegalStateException e) {
+            // the agency refuses a rental with the same exception when it cannot record it, as a closed journal
+            if (!agency.aVehicleRentedBy(customer) && !agency.aVehicleRented(vehicle)) throw e;
+            sendError(exchange, 409, e.getMessage());
+            return;
+        }
+        Customer kept = customers.putIfAbsent(key(customer), customer);
+        if (kept != null && kept != customer) {
+            // a concurrent request for the same new customer rented first : this customer already holds a rental
+            agency.returnVehicle(customer);
+            sendError(exchange, 409, "Customer already rented a vehicle");
+            return;
+        }
+        try (JsonWriter json = startJson(exchange, 200)) {
+            json.beginObject().name("vehicle");
+            writeVehicle(json, vehicle);
+            json.name("dailyRentalPrice").price(price).endObject();
+        }
+    }
+
+    /**
+     * Return the vehicle rented by a customer
+     * @param exchange : the request and its response
+     * @param parameters : the parameters of the request
+     */
+    private void returnVehicle(HttpExchange exchange, Map<String, String> parameters) throws IOException {
+        Customer customer = customer(parameters);
+        if (!agency.aVehicleRentedBy(customer)) {
+            sendError(exchange, 404, "Aucun véhicule loué par ce client");
+            return;
+        }
+        agency.returnVehicle(customer);
+        // a concurrent request may have rented again with the same customer, which must then stay kept
+        customers.computeIfPresent(key(customer), (key, kept) ->
+                kept == customer && !agency.aVehicleRentedBy(kept) ? null : kept);
+        // a 204 without a body makes the server of the JDK 17 close some kept-alive connections under load
+        try (JsonWriter json = startJson(exchange, 200)) {
+            json.beginObject().name("returned").value(true).endObject();
+        }
+    }
+
+    /**
+     * Answer a list of vehicles, streamed as a JSON array
+     * @param exchange : the request and its response
+     * @param vehicles : the vehicles
+     */
+    private static void sendVehicles(HttpExchange exchange, List<Vehicle> vehicles) throws IOException {
+        try (JsonWriter json = startJson(exchange, 200)) {
+            json.beginArray();
+            for (Vehicle vehicle : vehicles) writeVehicle(json, vehicle);
+            json.endArray();
+        }
+    }
+
+    /**
+     * Write a vehicle as a JSON object
+     * @param json : the writer
+     * @param vehicle : the vehicle
+     */
+    static void writeVehicle(JsonWriter json, Vehicle vehicle) throws IOException {
+        json.beginObject();
+        if (vehicle instanceof Car) {
+            json.name("type").value("Car").name("brand").value(vehicle.getBrand()).name("model").value(vehicle.getModel())
+                    .name("productionYear").value(vehicle.getProductionYear())
+                    .name("seats").value(((Car) vehicle).getNumberOfSeats());
+        } else if (vehicle instanceof Motorbike) {
+            json.name("type").value("Motorbike").name("brand").value(vehicle.getBrand()).name("model").value(vehicle.getModel())
+                    .name("productionYear").value(vehicle.getProductionYear())
+                    .name("cylinderCapacity").value(((Motorbike) vehicle).getCylinderCapacity());
+        } else {
+            json.name("type").value("Vehicle").name("brand").value(vehicle.getBrand()).name("model").value(vehicle.getModel())
+                    .name("productionYear").value(vehicle.getProductionYear());
+        }
+        json.name("dailyRentalPrice").price(vehicle.dailyRentalPrice()).endObject();
+    }
+
+    /**
+     * Answer an error
+     * @param exchange : the request and its response
+     * @param status : the status of the response
+     * @param message : the message of the error
+     */
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        try (JsonWriter json = startJson(exchange, status)) {
+            json.beginObject().name("error").value(message).endObject();
+        }
+    }
+
+    /**
+     * Start a JSON response
+     * The headers are sent once the writer knows the length of the document, or knows that it is larger than its
+     * buffer. A response sent with its length goes out in a single write : a chunked response ends with a small
+     * separate write which may wait for the delayed acknowledgement of the client.
+     * @param exchange : the request and its response
+     * @param status : the status of the response
+     * @return the writer of the body, to close once the document is written
+     */
+    private static JsonWriter startJson(HttpExchange exchange, int status) {
+        return new JsonWriter(length -> {
+            exchange.getResponseHeaders().set("Content-Type", JSON);
+            exchange.sendResponseHeaders(status, length == -1 ? 0 : length);
+            return exchange.getResponseBody();
+        });
+    }
+
+    /**
+     * Get the customer identified by the parameters of a request : the kept one if it holds a rental, else a new
+     * customer which is not kept
+     * @param parameters : the parameters of the request
+     * @return the customer
+     * @throws IllegalArgumentException : if a parameter is missing
+     * @throws DateTimeException : if the birth date is invalid
+     */
+    private Customer customer(Map<String, String> parameters) {
+        String name = required(parameters, "name");
+        String surname = required(parameters, "surname");
+        Date birth = Date.from(LocalDate.parse(required(parameters, "birth")).atStartOfDay(ZoneOffset.UTC).toInstant());
+        Customer customer = customers.get(key(birth, name, surname));
+        return customer != null ? customer : new Customer(birth, name, surname);
+    }
+
+    /**
+     * Get the key of a customer in the customers of the server
+     * @param customer : the customer
+     * @return the key of the customer
+     */
+    private static List<Object> key(Customer customer) {
+        return key(customer.getBirth(), customer.getName(), customer.getSurname());
+    }
+
+    /**
+     * Get the key of a customer in the customers of the server
+     * @param birth : the birth date of the customer, or null
+     * @param name : the name of the customer
+     * @param surname : the surname of the customer
+     * @return the key of the customer
+     */
+    private static List<Object> key(Date birth, String name, String surname) {
+        return Arrays.asList(birth == null ? null : birth.getTime(), name, surname);
+    }
+
+    /**
+     * Get a parameter which must be present
+     * @param parameters : the parameters of the request
+     * @param name : the name of the parameter
+     * @return the value of the parameter
+     * @throws IllegalArgumentException : if the parameter is missing
+     */
+    private static String required(Map<String, String> parameters, String name) {
+        String value = parameters.get(name);
+        if (value == null) throw new IllegalArgumentException("Paramètre manquant : " + name);
+        return value;
+    }
+
+    /**
+     * Get an integer parameter
+     * @param parameters : the parameters of the request
+     * @param name : the name of the parameter
+     * @param defaultValue : the value if the parameter is missing, or -1 if it is required
+     * @return the value of the parameter
+     * @throws IllegalArgumentException : if the parameter is not an integer, or is required and missing
+     */
+    private static int intParameter(Map<String, String> parameters, String name, int defaultValue) {
+        String value = parameters.get(name);
+        if (value == null) {
+            if (defaultValue == -1) throw new IllegalArgumentException("Paramètre manquant : " + name);
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Paramètre " + name + " invalide : " + value);
+        }
+    }
+
+    /**
+     * Decode the parameters of a query string
+     * @param query : the raw query string, or null if there is none
+     * @return the value of each parameter, the last one if a parameter is repeated
+     */
+    static Map<String, String> parameters(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (query == null || query.isEmpty()) return parameters;
+        int start = 0;
+        while (start <= query.length()) {
+            int end = query.indexOf('&', start);
+            if (end == -1) end = query.length();
+            if (end > start) {
+                int equals = query.indexOf('=', start);
+                if (equals == -1 || equals > end) equals = end;
+                String name = URLDecoder.decode(query.substring(start, equals), StandardCharsets.UTF_8);
+                String value = equals == end ? "" : URLDecoder.decode(query.substring(equals + 1, end), StandardCharsets.UTF_8);
+                parameters.put(name, value);
+            }
+            start = end + 1;
+        }
+        return parameters;
+    }
+}
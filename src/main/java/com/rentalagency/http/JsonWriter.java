@@ -0,0 +1,296 @@
+package com.rentalagency.http;
+
+import com.rentalagency.util.PriceFormat;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+
+/**
+ * Streaming writer of JSON documents, encoding the text in UTF-8 straight into a byte buffer flushed to the output when
+ * it is full.
+ * The output is only opened when the buffer is first flushed, so a document which fits in the buffer is written at
+ * once with its length known in advance, and a larger one is streamed without a length.
+ * No String, char array nor encoder is created for the names and values written : the characters are escaped and
+ * encoded one at a time, and the numbers go through a single reusable builder. The commas between the members and
+ * the elements are written automatically, up to 64 levels of nesting. Not thread-safe.
+ */
+final class JsonWriter implements Closeable {
+    /**
+     * Destination of a document, opened when its first bytes are written
+     */
+    interface Output {
+        /**
+         * Open the stream receiving the document
+         * @param length : the length of the whole document in bytes, or -1 if it is not known yet
+         * @return the stream, closed with the writer
+         */
+        OutputStream open(long length) throws IOException;
+    }
+
+    private static final int BUFFER_SIZE = 8 << 10;
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+    private static final int MAX_DEPTH = 64;
+
+    private final Output destination;
+    private OutputStream output;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final StringBuilder number = new StringBuilder(24);
+    private int position;
+    private int depth;
+    private long nonEmpty;
+    private boolean afterName;
+
+    /**
+     * Constructor : creates a new JsonWriter writing to the given stream
+     * @param output : the stream, closed with the writer
+     */
+    JsonWriter(OutputStream output) {
+        this(length -> output);
+    }
+
+    /**
+     * Constructor : creates a new JsonWriter writing to the given destination
+     * @param destination : the destination, opened with the length of the document if it fits in the buffer
+     */
+    JsonWriter(Output destination) {
+        this.destination = destination;
+    }
+
+    /**
+     * Start an object
+     * @return this writer
+     */
+    JsonWriter beginObject() throws IOException {
+        beforeValue();
+        push();
+        writeByte('{');
+        return this;
+    }
+
+    /**
+     * End the current object
+     * @return this writer
+     */
+    JsonWriter endObject() throws IOException {
+        depth--;
+        writeByte('}');
+        return this;
+    }
+
+    /**
+     * Start an array
+     * @return this writer
+     */
+    JsonWriter beginArray() throws IOException {
+        beforeValue();
+        push();
+        writeByte('[');
+        return this;
+    }
+
+    /**
+     * End the current array
+     * @return this writer
+     */
+    JsonWriter endArray() throws IOException {
+        depth--;
+        writeByte(']');
+        return this;
+    }
+
+    /**
+     * Write the name of the next member of the current object
+     * @param name : the name
+     * @return this writer
+     */
+    JsonWriter name(String name) throws IOException {
+        beforeValue();
+        writeString(name);
+        writeByte(':');
+        afterName = true;
+        return this;
+    }
+
+    /**
+     * Write a string value
+     * @param value : the value, written as null if it is null
+     * @return this writer
+     */
+    JsonWriter value(String value) throws IOException {
+        beforeValue();
+        if (value == null) writeAscii("null");
+        else writeString(value);
+        return this;
+    }
+
+    /**
+     * Write a boolean value
+     * @param value : the value
+     * @return this writer
+     */
+    JsonWriter value(boolean value) throws IOException {
+        beforeValue();
+        writeAscii(value ? "true" : "false");
+        return this;
+    }
+
+    /**
+     * Write an integer value
+     * @param value : the value
+     * @return this writer
+     */
+    JsonWriter value(long value) throws IOException {
+        beforeValue();
+        number.setLength(0);
+        writeAscii(number.append(value));
+        return this;
+    }
+
+    /**
+     * Write a price with one decimal, as printed in the reports of the agency but always with a dot
+     * @param price : the price
+     * @return this writer
+     */
+    JsonWriter price(double price) throws IOException {
+        beforeValue();
+        number.setLength(0);
+        writeAscii(PriceFormat.appendOneDecimal(number, price, Locale.ROOT));
+        return this;
+    }
+
+    /**
+     * Write the buffered bytes to the output, opening it without a length if needed
+     */
+    void flush() throws IOException {
+        writeBuffer();
+        output.flush();
+    }
+
+    /**
+     * Write the buffered bytes and close the output, opening it with the length of the document if the whole
+     * document is in the buffer
+     */
+    @Override
+    public void close() throws IOException {
+        if (output == null) output = destination.open(position);
+        try {
+            writeBuffer();
+        } finally {
+            output.close();
+        }
+    }
+
+    /**
+     * Write the buffered bytes to the output, opening it without a length if needed
+     */
+    private void writeBuffer() throws IOException {
+        if (output == null) output = destination.open(-1);
+        if (position > 0) {
+            output.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    /**
+     * Open a level of nesting, which has no member nor element yet
+     */
+    private void push() {
+        if (depth == MAX_DEPTH) throw new IllegalStateException("Trop de niveaux d'imbrication : " + MAX_DEPTH);
+        nonEmpty &= ~(1L << depth);
+        depth++;
+    }
+
+    /**
+     * Write the comma separating a value from the previous member or element of the current level, if any
+     */
+    private void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth == 0) return;
+        long bit = 1L << (depth - 1);
+        if ((nonEmpty & bit) != 0) writeByte(',');
+        else nonEmpty |= bit;
+    }
+
+    /**
+     * Write a quoted and escaped string, encoded in UTF-8
+     * @param value : the string
+     */
+    private void writeString(CharSequence value) throws IOException {
+        writeByte('"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c == '"' || c == '\\') {
+                    writeByte('\\');
+                    writeByte(c);
+                } else if (c < 0x20) {
+                    writeEscapedControl(c);
+                } else {
+                    writeByte(c);
+                }
+            } else if (c < 0x800) {
+                writeByte(0xc0 | (c >> 6));
+                writeByte(0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                writeByte(0xf0 | (codePoint >> 18));
+                writeByte(0x80 | ((codePoint >> 12) & 0x3f));
+                writeByte(0x80 | ((codePoint >> 6) & 0x3f));
+                writeByte(0x80 | (codePoint & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                writeByte('?');
+            } else {
+                writeByte(0xe0 | (c >> 12));
+                writeByte(0x80 | ((c >> 6) & 0x3f));
+                writeByte(0x80 | (c & 0x3f));
+            }
+        }
+        writeByte('"');
+    }
+
+    /**
+     * Write a control character as an escape sequence
+     * @param c : the control character
+     */
+    private void writeEscapedControl(char c) throws IOException {
+        switch (c) {
+            case '\n':
+                writeAscii("\\n");
+                break;
+            case '\r':
+                writeAscii("\\r");
+                break;
+            case '\t':
+                writeAscii("\\t");
+                break;
+            default:
+                writeAscii("\\u00");
+                writeByte(HEX[c >> 4]);
+                writeByte(HEX[c & 0xf]);
+        }
+    }
+
+    /**
+     * Write characters known to be ASCII, without escaping them
+     * @param text : the characters
+     */
+    private void writeAscii(CharSequence text) throws IOException {
+        int length = text.length();
+        for (int i = 0; i < length; i++) writeByte(text.charAt(i));
+    }
+
+    /**
+     * Write a byte, flushing the buffer to the output when it is full
+     * @param b : the byte
+     */
+    private void writeByte(int b) throws IOException {
+        if (position == BUFFER_SIZE) writeBuffer();
+        buffer[position++] = (byte) b;
+    }
+}
@@ -0,0 +1,351 @@
+package com.rentalagency.importer;
+
+import com.rentalagency.agency.Car;
+import com.rentalagency.agency.Motorbike;
+import com.rentalagency.agency.RentalAgency;
+import com.rentalagency.agency.Vehicle;
+import com.rentalagency.util.TimeProvider;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Imports a fleet from a CSV file into a rental agency.
+ * Each row holds the type (Car or Motorbike), brand, model, production year and capacity (number of seats or cylinder
+ * capacity) of a vehicle, separated by commas, without quoting; a first row starting with "type" is a header. The file
+ * is read through a channel into a byte buffer and parsed in place : numbers are read from the bytes directly and the
+ * brand and model are decoded once per distinct name. Duplicates are skipped with a hash set, and the vehicles are
+ * added to the agency in batches, so the import runs in time linear in the size of the file. Invalid rows do not stop
+ * the import, they are listed in the report with the reason of the rejection; the production years and capacities are
+ * checked before building the vehicle, so a rejected row costs no exception.
+ * An importer is not thread-safe, it imports one file at a time.
+ */
+public class FleetImporter {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int BATCH_SIZE = 8192;
+    private static final int FIELDS = 5;
+    private static final long INVALID_NUMBER = Long.MIN_VALUE;
+    private static final int MIN_PRODUCTION_YEAR = 1900;
+    private static final int MIN_SEATS = 1;
+    private static final int MIN_CYLINDER_CAPACITY = 50;
+    private static final byte[] CAR = "car".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MOTORBIKE = "motorbike".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEADER = "type".getBytes(StandardCharsets.US_ASCII);
+
+    private final RentalAgency agency;
+    private final int[] fieldStarts = new int[FIELDS];
+    private final int[] fieldEnds = new int[FIELDS];
+    private NameCache brands;
+    private NameCache models;
+    private Set<Vehicle> seen;
+    private List<Vehicle> batch;
+    private ImportReport report;
+    private long line;
+    private int currentYear;
+
+    /**
+     * Constructor : creates a new FleetImporter adding the vehicles to the given agency
+     * @param agency the agency
+     */
+    public FleetImporter(RentalAgency agency) {
+        this.agency = agency;
+    }
+
+    /**
+     * Import the vehicles of a CSV file
+     * @param file the path of the file
+     * @return the report of the import
+     * @throws IOException if the file cannot be read
+     */
+    public ImportReport importFile(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return importFrom(channel);
+        }
+    }
+
+    /**
+     * Import the vehicles of CSV content read from a channel, until the end of the channel
+     * @param channel the channel
+     * @return the report of the import
+     * @throws IOException if the channel cannot be read
+     */
+    public ImportReport importFrom(ReadableByteChannel channel) throws IOException {
+        brands = new NameCache();
+        models = new NameCache();
+        seen = new HashSet<>();
+        batch = new ArrayList<>(BATCH_SIZE);
+        report = new ImportReport();
+        line = 0;
+        currentYear = TimeProvider.currentYearValue();
+
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int length = 0;
+        int scanned = 0;
+        while (true) {
+            if (length == buffer.length) buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            int read = channel.read(ByteBuffer.wrap(buffer, length, buffer.length - length));
+            if (read < 0) break;
+            length += read;
+
+            int start = 0;
+            for (int i = scanned; i < length; i++) {
+                if (buffer[i] == '\n') {
+                    parseRow(buffer, start, i);
+                    start = i + 1;
+                }
+            }
+            System.arraycopy(buffer, start, buffer, 0, length - start);
+            length -= start;
+            scanned = length;
+        }
+        if (length > 0) parseRow(buffer, 0, length);
+        flush();
+
+        ImportReport result = report;
+        brands = models = null;
+        seen = null;
+        batch = null;
+        report = null;
+        return result;
+    }
+
+    /**
+     * Parse a row and add its vehicle to the current batch
+     * @param bytes : the buffer holding the row
+     * @param from : the first byte of the row
+     * @param to : the end of the row, exclusive, without the line feed
+     */
+    private void parseRow(byte[] bytes, int from, int to) {
+        line++;
+        if (to > from && bytes[to - 1] == '\r') to--;
+        if (isBlank(bytes, from, to)) return;
+
+        int fields = split(bytes, from, to);
+        if (line == 1 && fields > 0 && equalsIgnoreCase(bytes, fieldStarts[0], fieldEnds[0], HEADER)) return;
+        report.rowRead();
+        if (fields != FIELDS) {
+            report.reject(line, "Nombre de champs incorrect : " + fields + " au lieu de " + FIELDS);
+            return;
+        }
+
+        boolean car = equalsIgnoreCase(bytes, fieldStarts[0], fieldEnds[0], CAR);
+        if (!car && !equalsIgnoreCase(bytes, fieldStarts[0], fieldEnds[0], MOTORBIKE)) {
+            report.reject(line, "Type de véhicule inconnu : " + text(bytes, 0));
+            return;
+        }
+        long productionYear = parseNumber(bytes, fieldStarts[3], fieldEnds[3]);
+        if (productionYear == INVALID_NUMBER) {
+            report.reject(line, "Année de production invalide : " + text(bytes, 3));
+            return;
+        }
+        if (productionYear < MIN_PRODUCTION_YEAR || productionYear > currentYear) {
+            report.reject(line, "L'année de production doit être comprise entre 1900 et l'année actuelle," +
+                    " votre année de production est égale à : " + productionYear);
+            return;
+        }
+        long capacity = parseNumber(bytes, fieldStarts[4], fieldEnds[4]);
+        if (capacity == INVALID_NUMBER) {
+            report.reject(line, "Capacité invalide : " + text(bytes, 4));
+            return;
+        }
+        if (car && capacity < MIN_SEATS) {
+            report.reject(line, "Le nombre de sièges doit être supérieur à 0, votre nombre de sièges est égal à : " + capacity);
+            return;
+        }
+        if (!car && capacity < MIN_CYLINDER_CAPACITY) {
+            report.reject(line, "La cylindrée doit être supérieure à 50, votre cylindrée est égale à : " + capacity);
+            return;
+        }
+
+        String brand = brands.get(bytes, fieldStarts[1], fieldEnds[1]);
+        String model = models.get(bytes, fieldStarts[2], fieldEnds[2]);
+        Vehicle vehicle;
+        // the rows are checked above as the constructors would check them, so this only catches a rule added later
+        try {
+            vehicle = car ? new Car(brand, model, (int) productionYear, (int) capacity)
+                    : new Motorbike(brand, model, (int) productionYear, (int) capacity);
+        } catch (IllegalArgumentException e) {
+            report.reject(line, e.getMessage());
+            return;
+        }
+
+        if (!seen.add(vehicle)) {
+            report.duplicates(1);
+            return;
+        }
+        batch.add(vehicle);
+        if (batch.size() == BATCH_SIZE) flush();
+    }
+
+    /**
+     * Add the vehicles of the current batch to the agency, counting the ones it already had as duplicates
+     */
+    private void flush() {
+        if (batch.isEmpty()) return;
+        int added = agency.addAll(batch);
+        report.imported(added);
+        report.duplicates(batch.size() - added);
+        batch.clear();
+    }
+
+    /**
+     * Find the fields of a row, without the spaces around them
+     * @param bytes : the buffer holding the row
+     * @param from : the first byte of the row
+     * @param to : the end of the row, exclusive
+     * @return the number of fields of the row, which may be greater than the number of fields recorded
+     */
+    private int split(byte[] bytes, int from, int to) {
+        int fields = 0;
+        int start = from;
+        for (int i = from; i <= to; i++) {
+            if (i == to || bytes[i] == ',') {
+                if (fields < FIELDS) {
+                    int fieldStart = start;
+                    int fieldEnd = i;
+                    while (fieldStart < fieldEnd && bytes[fieldStart] == ' ') fieldStart++;
+                    while (fieldEnd > fieldStart && bytes[fieldEnd - 1] == ' ') fieldEnd--;
+                    fieldStarts[fields] = fieldStart;
+                    fieldEnds[fields] = fieldEnd;
+                }
+                fields++;
+                start = i + 1;
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Parse a decimal integer written in ASCII, with an optional minus sign
+     * @param bytes : the buffer holding the number
+     * @param from : the first byte of the number
+     * @param to : the end of the number, exclusive
+     * @return the number, or INVALID_NUMBER if the bytes are not an integer fitting in an int
+     */
+    private static long parseNumber(byte[] bytes, int from, int to) {
+        boolean negative = from < to && bytes[from] == '-';
+        if (negative) from++;
+        if (from == to || to - from > 10) return INVALID_NUMBER;
+        long number = 0;
+        for (int i = from; i < to; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) return INVALID_NUMBER;
+            number = number * 10 + digit;
+        }
+        if (negative) number = -number;
+        return number < Integer.MIN_VALUE || number > Integer.MAX_VALUE ? INVALID_NUMBER : number;
+    }
+
+    /**
+     * Check if a range of bytes holds an ASCII word, ignoring case
+     * @param bytes : the buffer
+     * @param from : the first byte of the range
+     * @param to : the end of the range, exclusive
+     * @param word : the word, in lower case
+     * @return true if the range holds the word, false otherwise
+     */
+    private static boolean equalsIgnoreCase(byte[] bytes, int from, int to, byte[] word) {
+        if (to - from != word.length) return false;
+        for (int i = 0; i < word.length; i++) {
+            if ((bytes[from + i] | 0x20) != word[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Check if a range of bytes only holds spaces
+     * @param bytes : the buffer
+     * @param from : the first byte of the range
+     * @param to : the end of the range, exclusive
+     * @return true if the range is empty or only holds spaces, false otherwise
+     */
+    private static boolean isBlank(byte[] bytes, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] != ' ') return false;
+        }
+        return true;
+    }
+
+    /**
+     * Decode a field of the current row, to describe a rejected row
+     * @param bytes : the buffer holding the row
+     * @param field : the number of the field
+     * @return the text of the field
+     */
+    private String text(byte[] bytes, int field) {
+        return new String(bytes, fieldStarts[field], fieldEnds[field] - fieldStarts[field], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Cache decoding each distinct name once, looked up by its UTF-8 bytes with open addressing
+     */
+    private static final class NameCache {
+        private byte[][] keys = new byte[64][];
+        private String[] names = new String[64];
+        private int size;
+
+        /**
+         * Get the name encoded by a range of bytes
+         * @param bytes : the buffer holding the name
+         * @param from : the first byte of the name
+         * @param to : the end of the name, exclusive
+         * @return the decoded name, the same instance for every occurrence of the name
+         */
+        String get(byte[] bytes, int from, int to) {
+            int mask = keys.length - 1;
+            for (int slot = hash(bytes, from, to) & mask; ; slot = (slot + 1) & mask) {
+                byte[] key = keys[slot];
+                if (key == null) {
+                    String name = new String(bytes, from, to - from, StandardCharsets.UTF_8);
+                    keys[slot] = Arrays.copyOfRange(bytes, from, to);
+                    names[slot] = name;
+                    if (++size * 2 > keys.length) grow();
+                    return name;
+                }
+                if (Arrays.equals(key, 0, key.length, bytes, from, to)) return names[slot];
+            }
+        }
+
+        /**
+         * Double the capacity of the cache
+         */
+        private void grow() {
+            byte[][] oldKeys = keys;
+            String[] oldNames = names;
+            keys = new byte[oldKeys.length * 2][];
+            names = new String[oldNames.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                byte[] key = oldKeys[i];
+                if (key == null) continue;
+                int slot = hash(key, 0, key.length) & mask;
+                while (keys[slot] != null) slot = (slot + 1) & mask;
+                keys[slot] = key;
+                names[slot] = oldNames[i];
+            }
+        }
+
+        /**
+         * Hash a range of bytes
+         * @param bytes : the buffer
+         * @param from : the first byte of the range
+         * @param to : the end of the range, exclusive
+         * @return the hash of the range, with its bits spread
+         */
+        private static int hash(byte[] bytes, int from, int to) {
+            int hash = 1;
+            for (int i = from; i < to; i++) hash = 31 * hash + bytes[i];
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
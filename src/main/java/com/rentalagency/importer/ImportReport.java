@@ -0,0 +1,131 @@
+package com.rentalagency.importer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Report of a fleet import : how many rows were read, imported or skipped as duplicates, and why rows were rejected
+ */
+public class ImportReport {
+    /**
+     * Row of the file which could not be imported
+     */
+    public static class RejectedRow {
+        private final long line;
+        private final String reason;
+
+        /**
+         * Constructor : creates a new RejectedRow with the given line number and reason
+         * @param line : the number of the line, starting at 1
+         * @param reason : the reason why the row was rejected
+         */
+        RejectedRow(long line, String reason) {
+            this.line = line;
+            this.reason = reason;
+        }
+
+        /**
+         * Get the number of the line of the row
+         * @return the number of the line, starting at 1
+         */
+        public long getLine() {
+            return line;
+        }
+
+        /**
+         * Get the reason why the row was rejected
+         * @return the reason
+         */
+        public String getReason() {
+            return reason;
+        }
+
+        /**
+         * Return the string representation of the rejected row
+         * @return the string representation of the rejected row
+         */
+        @Override
+        public String toString() {
+            return "line " + line + " : " + reason;
+        }
+    }
+
+    private long rows;
+    private long imported;
+    private long duplicates;
+    private final List<RejectedRow> rejected = new ArrayList<>();
+
+    /**
+     * Count a row read from the file
+     */
+    void rowRead() {
+        rows++;
+    }
+
+    /**
+     * Count vehicles imported into the agency
+     * @param count : the number of vehicles
+     */
+    void imported(long count) {
+        imported += count;
+    }
+
+    /**
+     * Count vehicles skipped because they were already in the file or in the agency
+     * @param count : the number of vehicles
+     */
+    void duplicates(long count) {
+        duplicates += count;
+    }
+
+    /**
+     * Record a rejected row
+     * @param line : the number of the line, starting at 1
+     * @param reason : the reason why the row was rejected
+     */
+    void reject(long line, String reason) {
+        rejected.add(new RejectedRow(line, reason));
+    }
+
+    /**
+     * Get the number of rows read from the file, the header excluded
+     * @return the number of rows
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Get the number of vehicles imported into the agency
+     * @return the number of vehicles imported
+     */
+    public long getImported() {
+        return imported;
+    }
+
+    /**
+     * Get the number of valid rows skipped because their vehicle was already in the file or in the agency
+     * @return the number of duplicates
+     */
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * Get the rows which could not be imported, in the order of the file
+     * @return a read-only list of the rejected rows
+     */
+    public List<RejectedRow> getRejected() {
+        return Collections.unmodifiableList(rejected);
+    }
+
+    /**
+     * Return the string representation of the report
+     * @return the string representation of the report
+     */
+    @Override
+    public String toString() {
+        return rows + " rows : " + imported + " imported, " + duplicates + " duplicates, " + rejected.size() + " rejected";
+    }
+}
@@ -0,0 +1,104 @@
+package com.rentalagency.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms of the operations of an agency, and counters of the rejected operations.
+ * Recording never takes a lock : the histograms and the counters are made of LongAdder. The DISABLED instance records
+ * nothing and does not even read the clock, so an agency without metrics only pays for one check per operation.
+ */
+public final class AgencyMetrics {
+    /**
+     * Operation of an agency whose latency is measured
+     */
+    public enum Operation {
+        ADD, REMOVE, SELECT, RENT_VEHICLE, RENT_VEHICLES, RETURN_VEHICLE
+    }
+
+    /**
+     * Reason why an operation of an agency was rejected
+     */
+    public enum Rejection {
+        UNKNOWN_VEHICLE, CUSTOMER_ALREADY_RENTING, VEHICLE_ALREADY_RENTED, VEHICLE_RENTED_TWICE
+    }
+
+    public static final AgencyMetrics DISABLED = new AgencyMetrics(false);
+
+    private final boolean enabled;
+    private final LatencyHistogram[] latencies = new LatencyHistogram[Operation.values().length];
+    private final LongAdder[] rejections = new LongAdder[Rejection.values().length];
+
+    /**
+     * Constructor : creates a new AgencyMetrics recording the operations
+     */
+    public AgencyMetrics() {
+        this(true);
+    }
+
+    /**
+     * Constructor : creates a new AgencyMetrics
+     * @param enabled : true if the operations are recorded, false if they are ignored
+     */
+    private AgencyMetrics(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) return;
+        for (int i = 0; i < latencies.length; i++) latencies[i] = new LatencyHistogram();
+        for (int i = 0; i < rejections.length; i++) rejections[i] = new LongAdder();
+    }
+
+    /**
+     * Check if the operations are recorded
+     * @return true if the operations are recorded, false for DISABLED
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get the start time of an operation
+     * @return the current value of System.nanoTime, or 0 if the metrics are disabled
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Record an operation which completed
+     * @param operation the operation
+     * @param start the start time of the operation, returned by start
+     */
+    public void record(Operation operation, long start) {
+        if (enabled) latencies[operation.ordinal()].record(System.nanoTime() - start);
+    }
+
+    /**
+     * Count a rejected operation, before throwing its exception
+     * @param rejection the reason of the rejection
+     * @param exception the exception rejecting the operation
+     * @param <E> the type of the exception
+     * @return the exception, to be thrown by the caller
+     */
+    public <E extends RuntimeException> E reject(Rejection rejection, E exception) {
+        if (enabled) rejections[rejection.ordinal()].increment();
+        return exception;
+    }
+
+    /**
+     * Take a snapshot of the metrics recorded so far, for export
+     * @return the snapshot, empty if the metrics are disabled
+     */
+    public MetricsSnapshot snapshot() {
+        Map<Operation, LatencyHistogram.Snapshot> latencySnapshots = new EnumMap<>(Operation.class);
+        Map<Rejection, Long> rejectionCounts = new EnumMap<>(Rejection.class);
+        for (Operation operation : Operation.values()) {
+            latencySnapshots.put(operation, enabled ? latencies[operation.ordinal()].snapshot()
+                    : new LatencyHistogram.Snapshot(new long[LatencyHistogram.BUCKETS], 0));
+        }
+        for (Rejection rejection : Rejection.values()) {
+            rejectionCounts.put(rejection, enabled ? rejections[rejection.ordinal()].sum() : 0);
+        }
+        return new MetricsSnapshot(latencySnapshots, rejectionCounts);
+    }
+}
@@ -0,0 +1,149 @@
+package com.rentalagency.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations with fixed power-of-two buckets, recorded without locks.
+ * Bucket 0 counts the durations of 0 ns, and bucket k the durations from 2^(k-1) ns included to 2^k ns excluded; the
+ * last bucket also counts every longer duration. Each bucket is a LongAdder, so threads recording at the same time
+ * update different cells instead of contending on one counter.
+ */
+public final class LatencyHistogram {
+    public static final int BUCKETS = 40;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+    private final LongAdder totalNanos = new LongAdder();
+
+    /**
+     * Constructor : creates a new empty LatencyHistogram
+     */
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) counts[i] = new LongAdder();
+    }
+
+    /**
+     * Record a duration
+     * @param nanos the duration in nanoseconds, a negative duration being counted as 0
+     */
+    public void record(long nanos) {
+        long duration = Math.max(0, nanos);
+        counts[bucketOf(duration)].increment();
+        totalNanos.add(duration);
+    }
+
+    /**
+     * Take a snapshot of the durations recorded so far
+     * The durations recorded while the snapshot is taken may be counted or not
+     * @return the snapshot
+     */
+    public Snapshot snapshot() {
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) snapshot[i] = counts[i].sum();
+        return new Snapshot(snapshot, totalNanos.sum());
+    }
+
+    /**
+     * Get the bucket counting a duration
+     * @param nanos the duration in nanoseconds, positive
+     * @return the number of the bucket
+     */
+    static int bucketOf(long nanos) {
+        return Math.min(BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(nanos));
+    }
+
+    /**
+     * Get the upper bound of the durations counted by a bucket
+     * @param bucket the number of the bucket
+     * @return the upper bound in nanoseconds, excluded, or Long.MAX_VALUE for the last bucket
+     */
+    public static long upperBound(int bucket) {
+        if (bucket < 0 || bucket >= BUCKETS) {
+            throw new IllegalArgumentException("Le numéro de l'intervalle doit être compris entre 0 et " + (BUCKETS - 1)
+                    + ", votre numéro est égal à : " + bucket);
+        }
+        return bucket == BUCKETS - 1 ? Long.MAX_VALUE : 1L << bucket;
+    }
+
+    /**
+     * Immutable counts of a histogram at a point in time
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long totalNanos;
+
+        /**
+         * Constructor : creates a new Snapshot with the given counts
+         * @param counts : the number of durations of each bucket
+         * @param totalNanos : the sum of the durations
+         */
+        Snapshot(long[] counts, long totalNanos) {
+            this.counts = counts;
+            this.count = Arrays.stream(counts).sum();
+            this.totalNanos = totalNanos;
+        }
+
+        /**
+         * Get the number of durations recorded
+         * @return the number of durations
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Get the sum of the durations recorded
+         * @return the sum in nanoseconds
+         */
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        /**
+         * Get the mean of the durations recorded
+         * @return the mean in nanoseconds, or 0 if no duration was recorded
+         */
+        public double getMeanNanos() {
+            return count == 0 ? 0 : (double) totalNanos / count;
+        }
+
+        /**
+         * Get the number of durations of each bucket
+         * @return a copy of the counts, indexed by the number of the bucket
+         */
+        public long[] getBucketCounts() {
+            return counts.clone();
+        }
+
+        /**
+         * Get an upper bound of a percentile of the durations : the upper bound of the bucket holding it
+         * @param percentile the percentile, between 0 and 100
+         * @return the upper bound in nanoseconds, excluded, or 0 if no duration was recorded
+         */
+        public long percentile(double percentile) {
+            if (!(percentile >= 0 && percentile <= 100)) {
+                throw new IllegalArgumentException("Le centile doit être compris entre 0 et 100," +
+                        " votre centile est égal à : " + percentile);
+            }
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return upperBound(i);
+            }
+            return upperBound(counts.length - 1);
+        }
+
+        /**
+         * Return the string representation of the snapshot
+         * @return the number of durations, their mean and their 50th, 99th and 99.9th percentiles
+         */
+        @Override
+        public String toString() {
+            return "count=" + count + " mean=" + Math.round(getMeanNanos()) + "ns p50<" + percentile(50)
+                    + "ns p99<" + percentile(99) + "ns p999<" + percentile(99.9) + "ns";
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.rentalagency.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Immutable metrics of an agency at a point in time : the latencies of each operation and the number of rejections
+ * for each reason
+ */
+public final class MetricsSnapshot {
+    private final Map<AgencyMetrics.Operation, LatencyHistogram.Snapshot> latencies;
+    private final Map<AgencyMetrics.Rejection, Long> rejections;
+
+    /**
+     * Constructor : creates a new MetricsSnapshot with the given metrics
+     * @param latencies : the latencies of each operation
+     * @param rejections : the number of rejections for each reason
+     */
+    MetricsSnapshot(Map<AgencyMetrics.Operation, LatencyHistogram.Snapshot> latencies,
+                    Map<AgencyMetrics.Rejection, Long> rejections) {
+        this.latencies = Collections.unmodifiableMap(latencies);
+        this.rejections = Collections.unmodifiableMap(rejections);
+    }
+
+    /**
+     * Get the number of completed calls of an operation
+     * @param operation the operation
+     * @return the number of calls which completed, the rejected ones excluded
+     */
+    public long getCount(AgencyMetrics.Operation operation) {
+        return latencies.get(operation).getCount();
+    }
+
+    /**
+     * Get the latencies of an operation
+     * @param operation the operation
+     * @return the histogram of the latencies of the calls which completed
+     */
+    public LatencyHistogram.Snapshot getLatency(AgencyMetrics.Operation operation) {
+        return latencies.get(operation);
+    }
+
+    /**
+     * Get the number of operations rejected for a reason
+     * @param rejection the reason
+     * @return the number of operations rejected
+     */
+    public long getRejections(AgencyMetrics.Rejection rejection) {
+        return rejections.get(rejection);
+    }
+
+    /**
+     * Get the latencies of every operation
+     * @return a read-only map of the histogram of each operation
+     */
+    public Map<AgencyMetrics.Operation, LatencyHistogram.Snapshot> getLatencies() {
+        return latencies;
+    }
+
+    /**
+     * Get the number of rejections for every reason
+     * @return a read-only map of the number of rejections of each reason
+     */
+    public Map<AgencyMetrics.Rejection, Long> getRejections() {
+        return rejections;
+    }
+
+    /**
+     * Return the string representation of the snapshot
+     * @return one line per operation with its latencies, then one line per reason of rejection with its count
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        latencies.forEach((operation, latency) -> builder.append(operation).append(' ').append(latency).append('\n'));
+        rejections.forEach((rejection, count) -> builder.append(rejection).append(' ').append(count).append('\n'));
+        return builder.toString();
+    }
+}
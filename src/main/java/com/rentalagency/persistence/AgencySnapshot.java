@@ -0,0 +1,385 @@
+package com.rentalagency.persistence;
+
+import com.rentalagency.agency.*;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Compact binary image of the fleet, the open rentals and the reservations of an agency.
+ * The names and the model specifications are written once in tables, and each vehicle only takes the number of its
+ * specification and its production year, each rental the number of its vehicle and its customer, each reservation
+ * the number of its vehicle, its customer and its days. A vehicle removed from the fleet while it was rented stays
+ * rented until it is returned, so its rental is written with the number of its specification and its production year
+ * instead of the number of a vehicle of the fleet. Only the snapshots of the current version are read.
+ * A snapshot is read by mapping its file in memory and decoding it in one linear pass : each specification is
+ * registered once and its units are restored without checking their production year again, since they were valid
+ * when the snapshot was written.
+ * The file ends with a CRC32 of its content, checked before anything is decoded.
+ */
+public final class AgencySnapshot {
+    private static final int MAGIC = 0x52415331;
+    private static final int VERSION = 3;
+
+    private final long epoch;
+    private final List<Vehicle> vehicles;
+    private final List<Vehicle> removedVehicles;
+    private final Map<Customer, Vehicle> rentals;
+    private final List<Reservation> reservations;
+
+    /**
+     * Constructor : creates a new AgencySnapshot with the given content
+     * @param epoch : the number of the checkpoint which wrote the snapshot
+     * @param vehicles : the vehicles of the fleet
+     * @param removedVehicles : the rented vehicles which are no longer in the fleet
+     * @param rentals : the vehicle rented by each customer
+     * @param reservations : the reservations
+     */
+    private AgencySnapshot(long epoch, List<Vehicle> vehicles, List<Vehicle> removedVehicles,
+                           Map<Customer, Vehicle> rentals, List<Reservation> reservations) {
+        this.epoch = epoch;
+        this.vehicles = vehicles;
+        this.removedVehicles = removedVehicles;
+        this.rentals = rentals;
+        this.reservations = reservations;
+    }
+
+    /**
+     * Write a snapshot of an agency, replacing the file atomically once it is complete
+     * The agency must not change while it is written
+     * @param agency the agency
+     * @param path the path of the snapshot
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if a vehicle of the agency is neither a car nor a motorbike
+     */
+    public static void write(RentalAgency agency, Path path) throws IOException {
+        write(agency, path, 0);
+    }
+
+    /**
+     * Write a snapshot of an agency, replacing the file atomically once it is complete
+     * @param agency : the agency, which must not change while it is written
+     * @param path : the path of the snapshot
+     * @param epoch : the number of the checkpoint writing the snapshot
+     */
+    static void write(RentalAgency agency, Path path, long epoch) throws IOException {
+        List<Vehicle> vehicles = agency.getVehicles();
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        Map<VehicleSpec, Integer> specs = new LinkedHashMap<>();
+        Map<Vehicle, Integer> vehicleNumbers = new HashMap<>(vehicles.size() * 2);
+        int[] vehicleSpecs = new int[vehicles.size()];
+        int[] productionYears = new int[vehicles.size()];
+        int i = 0;
+        for (Vehicle vehicle : vehicles) {
+            vehicleSpecs[i] = specNumber(specs, strings, specOf(vehicle));
+            productionYears[i] = vehicle.getProductionYear();
+            vehicleNumbers.put(vehicle, i++);
+        }
+        List<Customer> customers = new ArrayList<>();
+        List<Vehicle> rentedVehicles = new ArrayList<>();
+        for (Vehicle vehicle : agency.allRentedVehicles()) {
+            Customer customer = agency.renterOf(vehicle);
+            if (customer == null) continue;
+            if (!vehicleNumbers.containsKey(vehicle)) specNumber(specs, strings, specOf(vehicle));
+            customers.add(customer);
+            rentedVehicles.add(vehicle);
+            stringNumber(strings, customer.getName());
+            stringNumber(strings, customer.getSurname());
+        }
+        List<Reservation> reservations = new ArrayList<>();
+        for (Reservation reservation : agency.allReservations()) {
+            if (!vehicleNumbers.containsKey(reservation.getVehicle())) continue;
+            reservations.add(reservation);
+            stringNumber(strings, reservation.getCustomer().getName());
+            stringNumber(strings, reservation.getCustomer().getSurname());
+        }
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            CheckedOutputStream checked = new CheckedOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16), new CRC32());
+            DataOutputStream output = new DataOutputStream(checked);
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeLong(epoch);
+
+            output.writeInt(strings.size());
+            for (String string : strings.keySet()) {
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                output.writeInt(bytes.length);
+                output.write(bytes);
+            }
+            output.writeInt(specs.size());
+            for (VehicleSpec spec : specs.keySet()) {
+                output.writeByte(spec.getKind().ordinal());
+                output.writeInt(stringNumber(strings, spec.getBrand()));
+                output.writeInt(stringNumber(strings, spec.getModel()));
+                output.writeInt(spec.getCapacity());
+            }
+            output.writeInt(vehicles.size());
+            for (int number = 0; number < vehicleSpecs.length; number++) {
+                output.writeInt(vehicleSpecs[number]);
+                output.writeInt(productionYears[number]);
+            }
+            output.writeInt(customers.size());
+            for (int number = 0; number < customers.size(); number++) {
+                Vehicle vehicle = rentedVehicles.get(number);
+                Integer vehicleNumber = vehicleNumbers.get(vehicle);
+                output.writeInt(vehicleNumber == null ? -1 : vehicleNumber);
+                if (vehicleNumber == null) {
+                    output.writeInt(specs.get(specOf(vehicle)));
+                    output.writeInt(vehicle.getProductionYear());
+                }
+                writeCustomer(output, strings, customers.get(number));
+            }
+            output.writeInt(reservations.size());
+            for (Reservation reservation : reservations) {
+                output.writeInt(vehicleNumbers.get(reservation.getVehicle()));
+                writeCustomer(output, strings, reservation.getCustomer());
+                output.writeLong(reservation.getStart().toEpochDay());
+                output.writeLong(reservation.getEnd().toEpochDay());
+            }
+            output.flush();
+            ByteBuffer checksum = ByteBuffer.allocate(Integer.BYTES).putInt((int) checked.getChecksum().getValue());
+            checksum.flip();
+            while (checksum.hasRemaining()) channel.write(checksum);
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Read a snapshot
+     * @param path the path of the snapshot
+     * @return the snapshot
+     * @throws IOException if the file cannot be read, is not a snapshot or is corrupted
+     */
+    public static AgencySnapshot read(Path path) throws IOException {
+        return read(path, new JournalCodec.Customers(customer -> false));
+    }
+
+    /**
+     * Read a snapshot, resolving its customers with the ones read back before
+     * @param path the path of the snapshot
+     * @param customers the customers read back, shared with the journal replayed after the snapshot
+     * @return the snapshot
+     * @throws IOException if the file cannot be read, is not a snapshot or is corrupted
+     */
+    static AgencySnapshot read(Path path, JournalCodec.Customers customers) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) throw new IOException("Instantané trop grand : " + size + " octets");
+            if (size < Integer.BYTES * 3 + Long.BYTES) throw new IOException("Instantané incomplet : " + path);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().limit((int) size - Integer.BYTES));
+            if ((int) crc.getValue() != buffer.getInt((int) size - Integer.BYTES)) {
+                throw new IOException("Instantané corrompu : " + path);
+            }
+            if (buffer.getInt() != MAGIC) throw new IOException("Ce fichier n'est pas un instantané : " + path);
+            int version = buffer.getInt();
+            if (version != VERSION) throw new IOException("Version d'instantané inconnue : " + version);
+            long epoch = buffer.getLong();
+
+            String[] strings = new String[buffer.getInt()];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            VehicleSpec.Kind[] kinds = VehicleSpec.Kind.values();
+            VehicleSpec[] specs = new VehicleSpec[buffer.getInt()];
+            for (int i = 0; i < specs.length; i++) {
+                VehicleSpec.Kind kind = kinds[buffer.get()];
+                specs[i] = VehicleSpec.of(kind, string(strings, buffer.getInt()), string(strings, buffer.getInt()),
+                        buffer.getInt());
+            }
+            int vehicleCount = buffer.getInt();
+            List<Vehicle> vehicles = new ArrayList<>(vehicleCount);
+            for (int i = 0; i < vehicleCount; i++) {
+                VehicleSpec spec = specs[buffer.getInt()];
+                vehicles.add(spec.restoreUnit(buffer.getInt()));
+            }
+            int rentalCount = buffer.getInt();
+            List<Vehicle> removedVehicles = new ArrayList<>();
+            Map<Customer, Vehicle> rentals = new LinkedHashMap<>(rentalCount * 2);
+            for (int i = 0; i < rentalCount; i++) {
+                int number = buffer.getInt();
+                Vehicle vehicle;
+                if (number < 0) {
+                    VehicleSpec spec = specs[buffer.getInt()];
+                    vehicle = spec.restoreUnit(buffer.getInt());
+                    removedVehicles.add(vehicle);
+                } else {
+                    vehicle = vehicles.get(number);
+                }
+                rentals.put(customers.resolveRenter(readCustomer(buffer, strings), rentals), vehicle);
+            }
+            List<Reservation> reservations = new ArrayList<>();
+            int reservationCount = buffer.getInt();
+            for (int i = 0; i < reservationCount; i++) {
+                Vehicle vehicle = vehicles.get(buffer.getInt());
+                Customer customer = customers.resolve(readCustomer(buffer, strings));
+                LocalDate start = LocalDate.ofEpochDay(buffer.getLong());
+                reservations.add(new Reservation(customer, vehicle, start, LocalDate.ofEpochDay(buffer.getLong())));
+            }
+            return new AgencySnapshot(epoch, vehicles, removedVehicles, rentals, reservations);
+        } catch (RuntimeException e) {
+            throw new IOException("Instantané invalide : " + path, e);
+        }
+    }
+
+    /**
+     * Get the number of the checkpoint which wrote the snapshot
+     * @return the number of the checkpoint, 0 for a snapshot written outside of a journaled agency
+     */
+    long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Get the vehicles of the fleet, in the order of the agency
+     * @return a read-only list of the vehicles
+     */
+    public List<Vehicle> getVehicles() {
+        return Collections.unmodifiableList(vehicles);
+    }
+
+    /**
+     * Get the rented vehicles which were removed from the fleet before the snapshot, and are still in its rentals
+     * @return a read-only list of the removed vehicles
+     */
+    List<Vehicle> getRemovedVehicles() {
+        return Collections.unmodifiableList(removedVehicles);
+    }
+
+    /**
+     * Get the open rentals, including the ones of the vehicles removed from the fleet
+     * @return a read-only map of the vehicle rented by each customer
+     */
+    public Map<Customer, Vehicle> getRentals() {
+        return Collections.unmodifiableMap(rentals);
+    }
+
+    /**
+     * Get the reservations
+     * @return a read-only list of the reservations
+     */
+    public List<Reservation> getReservations() {
+        return Collections.unmodifiableList(reservations);
+    }
+
+    /**
+     * Build a new agency holding the fleet, the rentals and the reservations of the snapshot
+     * @return the agency
+     */
+    public RentalAgency toAgency() {
+        RentalAgency agency = new RentalAgency(vehicles);
+        // a removed vehicle is rented as it was, while in the fleet, then removed again
+        agency.addAll(removedVehicles);
+        agency.rentVehicles(rentals);
+        for (Vehicle vehicle : removedVehicles) agency.remove(vehicle);
+        for (Reservation reservation : reservations) {
+            agency.reserve(reservation.getCustomer(), reservation.getVehicle(), reservation.getStart(),
+                    reservation.getEnd());
+        }
+        return agency;
+    }
+
+    /**
+     * Write a customer
+     * @param output : the output
+     * @param strings : the table of the strings, with their numbers
+     * @param customer : the customer
+     */
+    private static void writeCustomer(DataOutputStream output, Map<String, Integer> strings, Customer customer)
+            throws IOException {
+        Date birth = customer.getBirth();
+        output.writeBoolean(birth != null);
+        output.writeLong(birth == null ? 0 : birth.getTime());
+        output.writeInt(stringNumber(strings, customer.getName()));
+        output.writeInt(stringNumber(strings, customer.getSurname()));
+    }
+
+    /**
+     * Read a customer
+     * @param buffer : the content of the snapshot
+     * @param strings : the table of the strings
+     * @return the customer
+     */
+    private static Customer readCustomer(ByteBuffer buffer, String[] strings) {
+        boolean hasBirth = buffer.get() != 0;
+        long birth = buffer.getLong();
+        return new Customer(hasBirth ? new Date(birth) : null, string(strings, buffer.getInt()),
+                string(strings, buffer.getInt()));
+    }
+
+    /**
+     * Get the specification of a vehicle which can be written in a snapshot
+     * @param vehicle : the vehicle
+     * @return the specification of the vehicle
+     * @throws IllegalArgumentException : if the vehicle is neither a car nor a motorbike
+     */
+    private static VehicleSpec specOf(Vehicle vehicle) {
+        if (vehicle instanceof Car || vehicle instanceof Motorbike) return ((AbstractVehicle) vehicle).getSpec();
+        throw new IllegalArgumentException("Seules les voitures et les motos peuvent être sauvegardées, votre véhicule est : " + vehicle);
+    }
+
+    /**
+     * Get the number of a specification in the table of the snapshot, adding it and its names to the tables if needed
+     * @param specs : the table of the specifications, with their numbers
+     * @param strings : the table of the strings, with their numbers
+     * @param spec : the specification
+     * @return the number of the specification
+     */
+    private static int specNumber(Map<VehicleSpec, Integer> specs, Map<String, Integer> strings, VehicleSpec spec) {
+        Integer number = specs.get(spec);
+        if (number == null) {
+            number = specs.size();
+            specs.put(spec, number);
+            stringNumber(strings, spec.getBrand());
+            stringNumber(strings, spec.getModel());
+        }
+        return number;
+    }
+
+    /**
+     * Get the number of a string in the table of the snapshot, adding it to the table if needed
+     * @param strings : the table of the strings, with their numbers
+     * @param string : the string, which may be null
+     * @return the number of the string, -1 for null
+     */
+    private static int stringNumber(Map<String, Integer> strings, String string) {
+        if (string == null) return -1;
+        Integer number = strings.get(string);
+        if (number == null) {
+            number = strings.size();
+            strings.put(string, number);
+        }
+        return number;
+    }
+
+    /**
+     * Get a string of the table of the snapshot
+     * @param strings : the table of the strings
+     * @param number : the number of the string, -1 for null
+     * @return the string
+     */
+    private static String string(String[] strings, int number) {
+        return number < 0 ? null : strings[number];
+    }
+}
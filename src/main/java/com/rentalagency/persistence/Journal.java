@@ -0,0 +1,291 @@
+package com.rentalagency.persistence;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file of records, made durable with group commit.
+ * Appending a record only copies it to a pending buffer and returns its position. A caller waiting for its record to
+ * be durable either becomes the leader, which writes the whole pending buffer and forces it to the disk once, or waits
+ * for the leader that is already flushing; every record appended before a flush starts is made durable by it, so a
+ * single fsync covers the records of all the callers that arrived in the meantime.
+ * Each record is framed by its length and a CRC32 of its content, so a record torn by a crash is detected and cut off
+ * when the journal is opened again.
+ * The positions given to the callers are logical : they keep growing when the journal is reset, the file starting at
+ * a base position moved past every record appended before, so a caller waiting for a record saved by a reset returns
+ * at once.
+ */
+final class Journal implements Closeable {
+    /**
+     * Receiver of the records read when the journal is opened
+     */
+    interface Replay {
+        /**
+         * Apply a record of the journal
+         * @param record : the content of the record
+         * @throws IOException : if the record cannot be decoded
+         */
+        void apply(byte[] record) throws IOException;
+    }
+
+    private static final int MAX_RECORD_SIZE = 64 << 20;
+
+    private final FileChannel channel;
+    private final boolean force;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private long appended;
+    private long durable;
+    private long flushes;
+    private boolean flushing;
+    private boolean closed;
+    private IOException failure;
+
+    /**
+     * Constructor : creates a new Journal appending to a channel
+     * @param channel : the channel of the file, positioned at its end
+     * @param force : true if the records are forced to the disk, false if they are only written to the file
+     */
+    private Journal(FileChannel channel, boolean force) throws IOException {
+        this.channel = channel;
+        this.force = force;
+        this.appended = channel.position();
+        this.durable = appended;
+    }
+
+    /**
+     * Open a journal, creating its file if needed, after replaying the records it already holds
+     * An incomplete or corrupted record at the end of the file, left by a crash during a write, is removed
+     * @param path : the path of the file
+     * @param force : true if the records are forced to the disk, false if they are only written to the file
+     * @param replay : the receiver of the records already in the file, in the order they were appended
+     * @return the journal, ready to append new records
+     * @throws IOException : if the file cannot be read or written, or if the replay fails
+     */
+    static Journal open(Path path, boolean force, Replay replay) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long end = replay(channel, replay);
+            if (end < channel.size()) {
+                channel.truncate(end);
+                channel.force(true);
+            }
+            channel.position(end);
+            return new Journal(channel, force);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Read the valid records of a file
+     * @param channel : the channel of the file
+     * @param replay : the receiver of the records
+     * @return the end of the last valid record
+     */
+    private static long replay(FileChannel channel, Replay replay) throws IOException {
+        channel.position(0);
+        DataInputStream input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 1 << 16));
+        long size = channel.size();
+        long position = 0;
+        CRC32 crc = new CRC32();
+        while (position + Integer.BYTES * 2 <= size) {
+            int length = input.readInt();
+            if (length < 0 || length > MAX_RECORD_SIZE || position + Integer.BYTES * 2 + length > size) break;
+            byte[] record = new byte[length];
+            input.readFully(record);
+            int checksum = input.readInt();
+            crc.reset();
+            crc.update(record);
+            if ((int) crc.getValue() != checksum) break;
+            replay.apply(record);
+            position += Integer.BYTES * 2 + length;
+        }
+        return position;
+    }
+
+    /**
+     * Append a record to the pending buffer
+     * @param record : the content of the record
+     * @return the position of the end of the record, to wait for with awaitDurable
+     * @throws IllegalStateException : if the journal is closed
+     * @throws UncheckedIOException : if a previous write failed
+     */
+    long append(byte[] record) {
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        lock.lock();
+        try {
+            checkWritable();
+            DataOutputStream output = new DataOutputStream(pending);
+            output.writeInt(record.length);
+            output.write(record);
+            output.writeInt((int) crc.getValue());
+            appended += Integer.BYTES * 2 + record.length;
+            return appended;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Check that records can still be appended
+     * @throws IllegalStateException : if the journal is closed
+     * @throws UncheckedIOException : if a previous write failed
+     */
+    void checkWritable() {
+        lock.lock();
+        try {
+            if (closed) throw new IllegalStateException("Le journal est fermé");
+            if (failure != null) throw new UncheckedIOException("L'écriture du journal a échoué", failure);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait until every record up to a position is written to the file, and forced to the disk if the journal forces
+     * its records, flushing the pending buffer if no other caller is doing it
+     * @param position : the position returned by append
+     * @throws UncheckedIOException : if the records cannot be written
+     */
+    void awaitDurable(long position) {
+        lock.lock();
+        try {
+            while (durable < position) {
+                if (failure != null) throw new UncheckedIOException("L'écriture du journal a échoué", failure);
+                if (flushing) {
+                    flushed.awaitUninterruptibly();
+                    continue;
+                }
+
+                flushing = true;
+                ByteArrayOutputStream batch = pending;
+                pending = new ByteArrayOutputStream();
+                long target = appended;
+                lock.unlock();
+                IOException error = null;
+                try {
+                    ByteBuffer buffer = ByteBuffer.wrap(batch.toByteArray());
+                    while (buffer.hasRemaining()) channel.write(buffer);
+                    if (force) channel.force(false);
+                } catch (IOException e) {
+                    error = e;
+                } finally {
+                    lock.lock();
+                }
+                flushing = false;
+                flushes++;
+                if (error != null) failure = error;
+                else durable = target;
+                flushed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Make every record appended so far durable
+     * @throws UncheckedIOException : if the records cannot be written
+     */
+    void flush() {
+        long position;
+        lock.lock();
+        try {
+            position = appended;
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(position);
+    }
+
+    /**
+     * Replace the whole content of the journal by a single record, forced to the disk, once the records it held are
+     * saved elsewhere; no record may be appended meanwhile
+     * The records appended before are durable from then on, so the callers still waiting for them return
+     * @param record : the content of the first record of the new journal
+     * @throws IOException : if the journal cannot be written
+     */
+    void reset(byte[] record) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        ByteBuffer frame = ByteBuffer.allocate(Integer.BYTES * 2 + record.length);
+        frame.putInt(record.length).put(record).putInt((int) crc.getValue()).flip();
+        lock.lock();
+        try {
+            checkWritable();
+            while (flushing) flushed.awaitUninterruptibly();
+            try {
+                channel.truncate(0);
+                channel.position(0);
+                while (frame.hasRemaining()) channel.write(frame);
+                channel.force(true);
+            } catch (IOException e) {
+                failure = e;
+                throw e;
+            }
+            pending = new ByteArrayOutputStream();
+            // the new file starts at the logical position reached so far, so the positions never go back
+            appended += channel.position();
+            durable = appended;
+            flushed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of flushes of the pending buffer, each one writing and forcing the records of every waiting caller
+     * @return the number of flushes
+     */
+    long flushes() {
+        lock.lock();
+        try {
+            return flushes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Flush the pending records and close the file
+     * @throws IOException : if the records cannot be written or the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        long position;
+        try {
+            if (closed) return;
+            position = appended;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            awaitDurable(position);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            lock.lock();
+            try {
+                closed = true;
+            } finally {
+                lock.unlock();
+            }
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,440 @@
+package com.rentalagency.persistence;
+
+import com.rentalagency.agency.*;
+
+import java.io.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Binary encoding of the changes of an agency recorded in its journal.
+ * A record starts with the type of the change and the number of its entries : the vehicles added or removed, the
+ * customer and vehicle of each rental, the customer and vehicle of each return, or the reservations made or
+ * cancelled. A customer is recorded by its birth date, name and surname, and read back through the Customers shared by
+ * the whole replay, so the records of a customer give back the same instance.
+ */
+final class JournalCodec {
+    /**
+     * Receiver of the changes decoded from the records
+     */
+    interface Changes {
+        /**
+         * Add vehicles to the fleet
+         * @param vehicles : the vehicles
+         */
+        void add(List<Vehicle> vehicles);
+
+        /**
+         * Remove a vehicle from the fleet
+         * @param vehicle : the vehicle
+         */
+        void remove(Vehicle vehicle);
+
+        /**
+         * Rent vehicles to customers
+         * @param rentals : the vehicle rented by each customer
+         */
+        void rent(Map<Customer, Vehicle> rentals);
+
+        /**
+         * Return the vehicle rented by a customer
+         * @param customer : the customer
+         * @param vehicle : the vehicle returned
+         */
+        void returnVehicle(Customer customer, Vehicle vehicle);
+
+        /**
+         * Reserve a vehicle
+         * @param reservation : the reservation
+         */
+        void reserve(Reservation reservation);
+
+        /**
+         * Cancel a reservation
+         * @param reservation : the reservation
+         */
+        void cancel(Reservation reservation);
+
+        /**
+         * Start the changes following a snapshot
+         * @param epoch : the number of the checkpoint which wrote the snapshot
+         */
+        void checkpoint(long epoch);
+    }
+
+    /**
+     * Customers read back from a snapshot and its journal, by birth date, name and surname
+     * Customers are compared by identity, so a customer read back from several records must be the same instance.
+     * Customers with the same birth date, name and surname cannot be told apart in the records : a rental gives the
+     * first of them without an open rental, or a new customer if they all have one, so each rental keeps its own
+     * customer
+     */
+    static final class Customers {
+        private final Map<List<Object>, List<Customer>> customers = new HashMap<>();
+        private final Predicate<Customer> renting;
+
+        /**
+         * Constructor : creates a new Customers
+         * @param renting : the test of a customer having an open rental in the agency being rebuilt
+         */
+        Customers(Predicate<Customer> renting) {
+            this.renting = renting;
+        }
+
+        /**
+         * Get the customer read back with the birth date, name and surname of a customer just read
+         * @param read : the customer just read
+         * @return the first customer read back with the same birth date, name and surname, or the customer just read
+         */
+        Customer resolve(Customer read) {
+            List<Customer> same = same(read);
+            if (same.isEmpty()) same.add(read);
+            return same.get(0);
+        }
+
+        /**
+         * Get the customer of a new rental with the birth date, name and surname of a customer just read
+         * @param read : the customer just read
+         * @param rentals : the other rentals of the same record
+         * @return the first customer read back with the same birth date, name and surname which has no open rental
+         * and no other rental in the record, or the customer just read
+         */
+        Customer resolveRenter(Customer read, Map<Customer, Vehicle> rentals) {
+            List<Customer> same = same(read);
+            for (Customer customer : same) {
+                if (!renting.test(customer) && !rentals.containsKey(customer)) return customer;
+            }
+            same.add(read);
+            return read;
+        }
+
+        /**
+         * Get the customers read back with the birth date, name and surname of a customer
+         * @param customer : the customer
+         * @return the modifiable list of the customers read back with them, in the order they were read
+         */
+        private List<Customer> same(Customer customer) {
+            Date birth = customer.getBirth();
+            List<Object> key = Arrays.asList(birth == null ? null : birth.getTime(), customer.getName(),
+                    customer.getSurname());
+            return customers.computeIfAbsent(key, k -> new ArrayList<>(1));
+        }
+    }
+
+    static final byte ADD = 1;
+    static final byte REMOVE = 2;
+    static final byte RENT = 3;
+    static final byte CHECKPOINT = 5;
+    static final byte RESERVE = 6;
+    static final byte CANCEL = 7;
+    static final byte RETURN_VEHICLE = 8;
+
+    private static final byte CAR = 0;
+    private static final byte MOTORBIKE = 1;
+
+    private JournalCodec() {
+    }
+
+    /**
+     * Encode the addition of vehicles
+     * @param vehicles : the vehicles added
+     * @return the record
+     * @throws IllegalArgumentException : if a vehicle is neither a car nor a motorbike
+     */
+    static byte[] add(Collection<? extends Vehicle> vehicles) {
+        RecordOutput output = new RecordOutput(ADD, vehicles.size());
+        for (Vehicle vehicle : vehicles) output.vehicle(vehicle);
+        return output.toByteArray();
+    }
+
+    /**
+     * Encode the removal of a vehicle
+     * @param vehicle : the vehicle removed
+     * @return the record
+     * @throws IllegalArgumentException : if the vehicle is neither a car nor a motorbike
+     */
+    static byte[] remove(Vehicle vehicle) {
+        return new RecordOutput(REMOVE, 1).vehicle(vehicle).toByteArray();
+    }
+
+    /**
+     * Encode rentals
+     * @param rentals : the vehicle rented by each customer
+     * @return the record
+     * @throws IllegalArgumentException : if a vehicle is neither a car nor a motorbike
+     */
+    static byte[] rent(Map<Customer, Vehicle> rentals) {
+        RecordOutput output = new RecordOutput(RENT, rentals.size());
+        for (Map.Entry<Customer, Vehicle> rental : rentals.entrySet()) {
+            output.customer(rental.getKey()).vehicle(rental.getValue());
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Encode the return of the vehicle of a customer
+     * The vehicle is recorded along with the customer, so the replay returns the right vehicle even if other customers
+     * have the same birth date, name and surname
+     * @param customer : the customer
+     * @param vehicle : the vehicle returned
+     * @return the record
+     * @throws IllegalArgumentException : if the vehicle is neither a car nor a motorbike
+     */
+    static byte[] returnVehicle(Customer customer, Vehicle vehicle) {
+        return new RecordOutput(RETURN_VEHICLE, 1).customer(customer).vehicle(vehicle).toByteArray();
+    }
+
+    /**
+     * Encode a reservation
+     * @param reservation : the reservation made
+     * @return the record
+     * @throws IllegalArgumentException : if the vehicle is neither a car nor a motorbike
+     */
+    static byte[] reserve(Reservation reservation) {
+        return new RecordOutput(RESERVE, 1).reservation(reservation).toByteArray();
+    }
+
+    /**
+     * Encode the cancellation of a reservation
+     * @param reservation : the reservation cancelled
+     * @return the record
+     * @throws IllegalArgumentException : if the vehicle is neither a car nor a motorbike
+     */
+    static byte[] cancel(Reservation reservation) {
+        return new RecordOutput(CANCEL, 1).reservation(reservation).toByteArray();
+    }
+
+    /**
+     * Encode the start of a journal following a snapshot
+     * @param epoch : the number of the checkpoint which wrote the snapshot
+     * @return the record
+     */
+    static byte[] checkpoint(long epoch) {
+        RecordOutput output = new RecordOutput(CHECKPOINT, 1);
+        output.epoch(epoch);
+        return output.toByteArray();
+    }
+
+    /**
+     * Get the number of the checkpoint started by a record
+     * @param record : the record
+     * @return the number of the checkpoint, or -1 if the record is not a checkpoint
+     */
+    static long checkpointEpoch(byte[] record) throws IOException {
+        if (record.length == 0 || record[0] != CHECKPOINT) return -1;
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(record));
+        input.readByte();
+        input.readInt();
+        return input.readLong();
+    }
+
+    /**
+     * Decode a record and pass its change to a receiver
+     * @param record : the record
+     * @param changes : the receiver
+     * @param customers : the customers read back so far, shared with the snapshot and the other records
+     * @throws IOException : if the record is not a valid change
+     */
+    static void decode(byte[] record, Changes changes, Customers customers) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(record));
+        byte type = input.readByte();
+        int count = input.readInt();
+        switch (type) {
+            case ADD:
+                List<Vehicle> vehicles = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) vehicles.add(readVehicle(input));
+                changes.add(vehicles);
+                break;
+            case REMOVE:
+                changes.remove(readVehicle(input));
+                break;
+            case RENT:
+                Map<Customer, Vehicle> rentals = new LinkedHashMap<>(count * 2);
+                for (int i = 0; i < count; i++) {
+                    rentals.put(customers.resolveRenter(readCustomer(input), rentals), readVehicle(input));
+                }
+                changes.rent(rentals);
+                break;
+            case RETURN_VEHICLE:
+                Customer customer = customers.resolve(readCustomer(input));
+                changes.returnVehicle(customer, readVehicle(input));
+                break;
+            case RESERVE:
+                changes.reserve(readReservation(input, customers));
+                break;
+            case CANCEL:
+                changes.cancel(readReservation(input, customers));
+                break;
+            case CHECKPOINT:
+                changes.checkpoint(input.readLong());
+                break;
+            default:
+                throw new IOException("Type d'enregistrement inconnu : " + type);
+        }
+    }
+
+    /**
+     * Read a vehicle
+     * @param input : the input
+     * @return the vehicle
+     */
+    private static Vehicle readVehicle(DataInput input) throws IOException {
+        byte kind = input.readByte();
+        String brand = readString(input);
+        String model = readString(input);
+        int productionYear = input.readInt();
+        int capacity = input.readInt();
+        if (kind == CAR) return new Car(brand, model, productionYear, capacity);
+        if (kind == MOTORBIKE) return new Motorbike(brand, model, productionYear, capacity);
+        throw new IOException("Type de véhicule inconnu : " + kind);
+    }
+
+    /**
+     * Read a customer
+     * @param input : the input
+     * @return the customer
+     */
+    private static Customer readCustomer(DataInput input) throws IOException {
+        Date birth = input.readBoolean() ? new Date(input.readLong()) : null;
+        return new Customer(birth, readString(input), readString(input));
+    }
+
+    /**
+     * Read a reservation
+     * @param input : the input
+     * @param customers : the customers read back so far
+     * @return the reservation
+     */
+    private static Reservation readReservation(DataInput input, Customers customers) throws IOException {
+        Customer customer = customers.resolve(readCustomer(input));
+        Vehicle vehicle = readVehicle(input);
+        LocalDate start = LocalDate.ofEpochDay(input.readLong());
+        return new Reservation(customer, vehicle, start, LocalDate.ofEpochDay(input.readLong()));
+    }
+
+    /**
+     * Read a string which may be null
+     * @param input : the input
+     * @return the string
+     */
+    private static String readString(DataInput input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+
+    /**
+     * Output building a record
+     */
+    private static final class RecordOutput {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        private final DataOutputStream output = new DataOutputStream(bytes);
+
+        /**
+         * Constructor : creates a new RecordOutput starting the record with its type and number of entries
+         * @param type : the type of the change
+         * @param count : the number of entries
+         */
+        RecordOutput(byte type, int count) {
+            try {
+                output.writeByte(type);
+                output.writeInt(count);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Write a vehicle
+         * @param vehicle : the vehicle
+         * @return this output
+         * @throws IllegalArgumentException : if the vehicle is neither a car nor a motorbike
+         */
+        RecordOutput vehicle(Vehicle vehicle) {
+            byte kind;
+            int capacity;
+            if (vehicle instanceof Car) {
+                kind = CAR;
+                capacity = ((Car) vehicle).getNumberOfSeats();
+            } else if (vehicle instanceof Motorbike) {
+                kind = MOTORBIKE;
+                capacity = ((Motorbike) vehicle).getCylinderCapacity();
+            } else {
+                throw new IllegalArgumentException("Seules les voitures et les motos peuvent être journalisées, votre véhicule est : " + vehicle);
+            }
+            try {
+                output.writeByte(kind);
+                writeString(vehicle.getBrand());
+                writeString(vehicle.getModel());
+                output.writeInt(vehicle.getProductionYear());
+                output.writeInt(capacity);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return this;
+        }
+
+        /**
+         * Write a customer
+         * @param customer : the customer
+         * @return this output
+         */
+        RecordOutput customer(Customer customer) {
+            try {
+                Date birth = customer.getBirth();
+                output.writeBoolean(birth != null);
+                if (birth != null) output.writeLong(birth.getTime());
+                writeString(customer.getName());
+                writeString(customer.getSurname());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return this;
+        }
+
+        /**
+         * Write a reservation
+         * @param reservation : the reservation
+         * @return this output
+         * @throws IllegalArgumentException : if the vehicle is neither a car nor a motorbike
+         */
+        RecordOutput reservation(Reservation reservation) {
+            customer(reservation.getCustomer()).vehicle(reservation.getVehicle());
+            try {
+                output.writeLong(reservation.getStart().toEpochDay());
+                output.writeLong(reservation.getEnd().toEpochDay());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return this;
+        }
+
+        /**
+         * Write the number of a checkpoint
+         * @param epoch : the number of the checkpoint
+         */
+        void epoch(long epoch) {
+            try {
+                output.writeLong(epoch);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Write a string which may be null
+         * @param value : the string
+         */
+        private void writeString(String value) throws IOException {
+            output.writeBoolean(value != null);
+            if (value != null) output.writeUTF(value);
+        }
+
+        /**
+         * Get the bytes of the record
+         * @return the record
+         */
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+}
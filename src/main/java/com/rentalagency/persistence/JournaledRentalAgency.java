@@ -0,0 +1,416 @@
+package com.rentalagency.persistence;
+
+import com.rentalagency.agency.ConcurrentRentalAgency;
+import com.rentalagency.agency.Customer;
+import com.rentalagency.agency.Reservation;
+import com.rentalagency.agency.UnknownVehicleException;
+import com.rentalagency.agency.Vehicle;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ConcurrentRentalAgency recording its changes in a write-ahead journal on the local disk, so its fleet, its open
+ * rentals and its reservations survive a restart.
+ * Every change is applied and appended to the journal under the append lock, so the journal holds the changes in the
+ * order they were applied, then the caller waits outside the lock until its record is durable. The journal flushes the
+ * records of all the waiting callers with a single fsync, so concurrent rentals share the cost of the disk.
+ * A checkpoint writes a snapshot of the agency next to the journal, then starts the journal again from that snapshot,
+ * so the journal does not grow forever. When the agency is opened, the latest snapshot is loaded and the changes
+ * journaled since it was written are replayed to rebuild its state; a journal older than the snapshot, left by a crash
+ * during a checkpoint, is ignored. The customers are rebuilt as new instances, one per customer recorded, so after a
+ * restart the customer of a rental is found with renterOf and the customer of a reservation with its reservation.
+ * Only cars and motorbikes can be journaled. If the journal cannot be written, the change which failed stays applied
+ * in memory but may be lost on restart, and every later change is refused.
+ * The fleet events are published when a change is applied, so a subscriber may receive one before it is durable; the
+ * changes replayed when the agency is opened are not published.
+ */
+public class JournaledRentalAgency extends ConcurrentRentalAgency implements Closeable {
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Path snapshotPath;
+    private Journal journal;
+    private long epoch;
+    private boolean replayStarted;
+    private boolean staleJournal;
+    private ScheduledExecutorService checkpoints;
+    private volatile IOException checkpointFailure;
+
+    /**
+     * Constructor : creates a new empty JournaledRentalAgency, whose journal is opened by open
+     * @param snapshotPath : the path of the snapshot of the agency
+     */
+    private JournaledRentalAgency(Path snapshotPath) {
+        super();
+        this.snapshotPath = snapshotPath;
+    }
+
+    /**
+     * Open an agency journaled in a file, forcing each change to the disk before returning
+     * The snapshot of the agency is the file with the same name followed by ".snapshot"
+     * @param path the path of the journal, created if it does not exist
+     * @return the agency, in the state recorded by the journal
+     * @throws IOException if the journal cannot be read or written
+     */
+    public static JournaledRentalAgency open(Path path) throws IOException {
+        return open(path, true);
+    }
+
+    /**
+     * Open an agency journaled in a file
+     * @param path the path of the journal, created if it does not exist
+     * @param force true if each change is forced to the disk before returning, false if it is only written to the file
+     *              and may be lost if the system crashes
+     * @return the agency, in the state recorded by the journal
+     * @throws IOException if the journal cannot be read or written
+     */
+    public static JournaledRentalAgency open(Path path, boolean force) throws IOException {
+        JournaledRentalAgency agency = new JournaledRentalAgency(path.resolveSibling(path.getFileName() + ".snapshot"));
+        JournalCodec.Customers customers = new JournalCodec.Customers(agency::aVehicleRentedBy);
+        if (Files.exists(agency.snapshotPath)) agency.restore(AgencySnapshot.read(agency.snapshotPath, customers));
+        agency.journal = Journal.open(path, force, record -> agency.replay(record, customers));
+        if (agency.epoch > 0 && (agency.staleJournal || !agency.replayStarted)) {
+            agency.journal.reset(JournalCodec.checkpoint(agency.epoch));
+        }
+        return agency;
+    }
+
+    /**
+     * Load the fleet and the rentals of a snapshot, without journaling them
+     * @param snapshot : the snapshot
+     */
+    private void restore(AgencySnapshot snapshot) {
+        epoch = snapshot.getEpoch();
+        super.addAll(snapshot.getVehicles());
+        // a removed vehicle is rented as it was, while in the fleet, then removed again
+        super.addAll(snapshot.getRemovedVehicles());
+        super.rentVehicles(snapshot.getRentals());
+        for (Vehicle vehicle : snapshot.getRemovedVehicles()) super.remove(vehicle);
+        for (Reservation reservation : snapshot.getReservations()) {
+            super.reserve(reservation.getCustomer(), reservation.getVehicle(), reservation.getStart(),
+                    reservation.getEnd());
+        }
+    }
+
+    /**
+     * Replay a record of the journal, unless the journal is older than the snapshot
+     * @param record : the record
+     * @param customers : the customers read back from the snapshot and the records replayed before
+     * @throws IOException : if the record is not a valid change
+     */
+    private void replay(byte[] record, JournalCodec.Customers customers) throws IOException {
+        if (!replayStarted) {
+            replayStarted = true;
+            staleJournal = epoch > 0 && JournalCodec.checkpointEpoch(record) != epoch;
+        }
+        if (!staleJournal) JournalCodec.decode(record, replay(), customers);
+    }
+
+    /**
+     * Get the receiver applying the changes of the journal to the agency, without journaling them again
+     * @return the receiver of the changes
+     */
+    private JournalCodec.Changes replay() {
+        return new JournalCodec.Changes() {
+            @Override
+            public void add(List<Vehicle> vehicles) {
+                JournaledRentalAgency.super.addAll(vehicles);
+            }
+
+            @Override
+            public void remove(Vehicle vehicle) {
+                JournaledRentalAgency.super.remove(vehicle);
+            }
+
+            @Override
+            public void rent(Map<Customer, Vehicle> rentals) {
+                JournaledRentalAgency.super.rentVehicles(rentals);
+            }
+
+            @Override
+            public void returnVehicle(Customer customer, Vehicle vehicle) {
+                Customer renter = renterOf(vehicle);
+                if (renter != null) JournaledRentalAgency.super.returnVehicle(renter);
+            }
+
+            @Override
+            public void reserve(Reservation reservation) {
+                JournaledRentalAgency.super.reserve(reservation.getCustomer(), reservation.getVehicle(),
+                        reservation.getStart(), reservation.getEnd());
+            }
+
+            @Override
+            public void cancel(Reservation reservation) {
+                JournaledRentalAgency.super.cancelReservation(reservation);
+            }
+
+            @Override
+            public void checkpoint(long epoch) {
+            }
+        };
+    }
+
+    /**
+     * Add a vehicle to the list of vehicles, once the addition is durable
+     * @param vehicle the vehicle to add
+     * @return true if the vehicle was added, false if it was already in the list
+     */
+    @Override
+    public boolean add(Vehicle vehicle) {
+        byte[] record = JournalCodec.add(List.of(vehicle));
+        long position;
+        appendLock.lock();
+        try {
+            journal.checkWritable();
+            if (!super.add(vehicle)) return false;
+            position = journal.append(record);
+        } finally {
+            appendLock.unlock();
+        }
+        journal.awaitDurable(position);
+        return true;
+    }
+
+    /**
+     * Add several vehicles to the list of vehicles, once the addition is durable
+     * @param vehicles the vehicles to add
+     * @return the number of vehicles added, the ones already in the list being skipped
+     */
+    @Override
+    public int addAll(Collection<? extends Vehicle> vehicles) {
+        byte[] record = JournalCodec.add(vehicles);
+        int added;
+        long position;
+        appendLock.lock();
+        try {
+            journal.checkWritable();
+            added = super.addAll(vehicles);
+            if (added == 0) return 0;
+            position = journal.append(record);
+        } finally {
+            appendLock.unlock();
+        }
+        journal.awaitDurable(position);
+        return added;
+    }
+
+    /**
+     * Remove a vehicle from the list of vehicles, once the removal is durable
+     * @param vehicle : the vehicle to remove
+     */
+    @Override
+    public void remove(Vehicle vehicle) {
+        byte[] record = JournalCodec.remove(vehicle);
+        long position;
+        appendLock.lock();
+        try {
+            journal.checkWritable();
+            super.remove(vehicle);
+            position = journal.append(record);
+        } finally {
+            appendLock.unlock();
+        }
+        journal.awaitDurable(position);
+    }
+
+    /**
+     * Rent a vehicle to a customer, once the rental is durable
+     * @param customer : the customer
+     * @param vehicle : the vehicle
+     * @return the daily rental price of the vehicle
+     * @throws UnknownVehicleException : if the vehicle is not in the list of vehicles
+     * @throws IllegalStateException : if the customer already rented a vehicle or if the vehicle is already rented
+     */
+    @Override
+    public double rentVehicle(Customer customer, Vehicle vehicle) throws UnknownVehicleException, IllegalStateException {
+        byte[] record = JournalCodec.rent(Map.of(customer, vehicle));
+        double price;
+        long position;
+        appendLock.lock();
+        try {
+            journal.checkWritable();
+            price = super.rentVehicle(customer, vehicle);
+            position = journal.append(record);
+        } finally {
+            appendLock.unlock();
+        }
+        journal.awaitDurable(position);
+        return price;
+    }
+
+    /**
+     * Rent several vehicles at once, each one to its customer, once the rentals are durable
+     * @param rentals : the vehicle to rent to each customer
+     * @return the daily rental price of the vehicle of each customer, in the iteration order of the rentals
+     * @throws UnknownVehicleException : if a vehicle is not in the list of vehicles
+     * @throws IllegalStateException : if a customer already rented a vehicle, if a vehicle is already rented or if a
+     * vehicle appears twice in the batch
+     */
+    @Override
+    public Map<Customer, Double> rentVehicles(Map<Customer, Vehicle> rentals)
+            throws UnknownVehicleException, IllegalStateException {
+        byte[] record = JournalCodec.rent(rentals);
+        Map<Customer, Double> prices;
+        long position;
+        appendLock.lock();
+        try {
+            journal.checkWritable();
+            prices = super.rentVehicles(rentals);
+            position = journal.append(record);
+        } finally {
+            appendLock.unlock();
+        }
+        journal.awaitDurable(position);
+        return prices;
+    }
+
+    /**
+     * Return a vehicle rented by a customer, once the return is durable
+     * @param customer : the customer
+     */
+    @Override
+    public void returnVehicle(Customer customer) {
+        long position;
+        appendLock.lock();
+        try {
+            journal.checkWritable();
+            Vehicle vehicle = vehicleRentedBy(customer);
+            if (vehicle == null) return;
+            super.returnVehicle(customer);
+            position = journal.append(JournalCodec.returnVehicle(customer, vehicle));
+        } finally {
+            appendLock.unlock();
+        }
+        journal.awaitDurable(position);
+    }
+
+    /**
+     * Reserve a vehicle for a customer for a range of days, once the reservation is durable
+     * @param customer : the customer
+     * @param vehicle : the vehicle
+     * @param start : the first day of the reservation
+     * @param end : the day after the last day of the reservation
+     * @return the reservation
+     * @throws UnknownVehicleException : if the vehicle is not in the list of vehicles
+     * @throws IllegalStateException : if the vehicle is already reserved for one of the days
+     */
+    @Override
+    public Reservation reserve(Customer customer, Vehicle vehicle, LocalDate start, LocalDate end)
+            throws UnknownVehicleException, IllegalStateException {
+        byte[] record = JournalCodec.reserve(new Reservation(customer, vehicle, start, end));
+        Reservation reservation;
+        long position;
+        appendLock.lock();
+        try {
+            journal.checkWritable();
+            reservation = super.reserve(customer, vehicle, start, end);
+            position = journal.append(record);
+        } finally {
+            appendLock.unlock();
+        }
+        journal.awaitDurable(position);
+        return reservation;
+    }
+
+    /**
+     * Cancel a reservation, once the cancellation is durable
+     * @param reservation : the reservation
+     * @return true if the reservation was cancelled, false if it was not recorded
+     */
+    @Override
+    public boolean cancelReservation(Reservation reservation) {
+        byte[] record = JournalCodec.cancel(reservation);
+        long position;
+        appendLock.lock();
+        try {
+            journal.checkWritable();
+            if (!super.cancelReservation(reservation)) return false;
+            position = journal.append(record);
+        } finally {
+            appendLock.unlock();
+        }
+        journal.awaitDurable(position);
+        return true;
+    }
+
+    /**
+     * Write a snapshot of the agency, then start the journal again from it
+     * Changes wait until the checkpoint is over, reads go on meanwhile
+     * @throws IOException if the snapshot or the journal cannot be written; the previous snapshot and journal are kept
+     * if the snapshot cannot be written
+     */
+    public void checkpoint() throws IOException {
+        appendLock.lock();
+        try {
+            journal.checkWritable();
+            journal.flush();
+            long next = epoch + 1;
+            AgencySnapshot.write(this, snapshotPath, next);
+            journal.reset(JournalCodec.checkpoint(next));
+            epoch = next;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Write a checkpoint periodically from a background thread, until the agency is closed
+     * A checkpoint which fails is tried again at the next period, its error is given by getCheckpointFailure
+     * @param period the time between two checkpoints
+     */
+    public synchronized void scheduleCheckpoints(Duration period) {
+        if (period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("La période doit être positive, votre période est égale à : " + period);
+        }
+        if (checkpoints != null) checkpoints.shutdown();
+        checkpoints = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "agency-checkpoints");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checkpoints.scheduleWithFixedDelay(() -> {
+            try {
+                checkpoint();
+                checkpointFailure = null;
+            } catch (IOException e) {
+                checkpointFailure = e;
+            }
+        }, period.toMillis(), period.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get the error of the last periodic checkpoint, if it failed
+     * @return the error of the last periodic checkpoint, or null if it succeeded or none ran yet
+     */
+    public IOException getCheckpointFailure() {
+        return checkpointFailure;
+    }
+
+    /**
+     * Stop the periodic checkpoints, flush the pending changes and close the journal; the agency refuses any later
+     * change
+     * @throws IOException if the changes cannot be written or the journal cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (checkpoints != null) checkpoints.shutdownNow();
+        }
+        appendLock.lock();
+        try {
+            journal.close();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+}
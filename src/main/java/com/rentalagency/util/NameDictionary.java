@@ -0,0 +1,51 @@
+package com.rentalagency.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary of canonical names, so vehicles sharing a brand or a model share one String instance.
+ * A fleet holds a few dozen brands and a few thousand models for up to millions of vehicles : keeping one instance of
+ * each name saves a String per vehicle and lets equal names be recognized by identity.
+ */
+public final class NameDictionary {
+    public static final NameDictionary BRANDS = new NameDictionary();
+    public static final NameDictionary MODELS = new NameDictionary();
+
+    private final ConcurrentHashMap<String, String> names = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor : creates a new empty NameDictionary
+     */
+    NameDictionary() {
+    }
+
+    /**
+     * Get the canonical instance of a name, adding the name to the dictionary if it is not in it yet
+     * @param name the name
+     * @return the canonical instance equal to the name, or null if the name is null
+     */
+    public String canonical(String name) {
+        if (name == null) return null;
+        String canonical = names.putIfAbsent(name, name);
+        return canonical == null ? name : canonical;
+    }
+
+    /**
+     * Get the canonical instance of a name without adding it to the dictionary, for names given by queries
+     * @param name the name
+     * @return the canonical instance equal to the name if there is one, the name itself otherwise
+     */
+    public String lookup(String name) {
+        if (name == null) return null;
+        String canonical = names.get(name);
+        return canonical == null ? name : canonical;
+    }
+
+    /**
+     * Get the number of names of the dictionary
+     * @return the number of names
+     */
+    public int size() {
+        return names.size();
+    }
+}
@@ -0,0 +1,67 @@
+package com.rentalagency.util;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fixed-precision formatting of prices, writing the same text as String.format("%.1f") without parsing a format or
+ * creating a Formatter.
+ * Every price which is a multiple of a quarter, as the daily rental prices of the cars and the motorbikes, is written
+ * digit by digit; any other value falls back to String.format.
+ */
+public final class PriceFormat {
+    private static final ConcurrentHashMap<Locale, Character> DECIMAL_SEPARATORS = new ConcurrentHashMap<>();
+    private static final char NOT_LATIN_DIGITS = 0;
+
+    /**
+     * The digit after the decimal separator of each quarter, rounded half up as String.format does
+     */
+    private static final char[] QUARTER_TENTHS = {'0', '3', '5', '8'};
+
+    private PriceFormat() {
+    }
+
+    /**
+     * Append a price with one decimal, as String.format("%.1f", price) in the default format locale
+     * @param builder the builder to append to
+     * @param price the price
+     * @return the builder
+     */
+    public static StringBuilder appendOneDecimal(StringBuilder builder, double price) {
+        return appendOneDecimal(builder, price, Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    /**
+     * Append a price with one decimal, as String.format(locale, "%.1f", price)
+     * @param builder the builder to append to
+     * @param price the price
+     * @param locale the locale giving the decimal separator
+     * @return the builder
+     */
+    public static StringBuilder appendOneDecimal(StringBuilder builder, double price, Locale locale) {
+        double quarters = price * 4;
+        char separator = decimalSeparator(locale);
+        if (separator == NOT_LATIN_DIGITS || Double.doubleToRawLongBits(price) < 0 || quarters >= 0x1p53
+                || quarters != Math.rint(quarters)) {
+            return builder.append(String.format(locale, "%.1f", price));
+        }
+        long wholeQuarters = (long) quarters;
+        return builder.append(wholeQuarters >> 2).append(separator).append(QUARTER_TENTHS[(int) (wholeQuarters & 3)]);
+    }
+
+    /**
+     * Get the decimal separator of a locale
+     * @param locale the locale
+     * @return the decimal separator, or NOT_LATIN_DIGITS if the locale does not write its numbers with 0 to 9
+     */
+    private static char decimalSeparator(Locale locale) {
+        Character separator = DECIMAL_SEPARATORS.get(locale);
+        if (separator == null) {
+            DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+            separator = symbols.getZeroDigit() == '0' ? symbols.getDecimalSeparator() : NOT_LATIN_DIGITS;
+            DECIMAL_SEPARATORS.put(locale, separator);
+        }
+        return separator;
+    }
+}
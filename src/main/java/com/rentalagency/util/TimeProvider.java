@@ -1,13 +1,74 @@
 package com.rentalagency.util;
 
+import java.time.Clock;
 import java.time.Year;
 
 public class TimeProvider {
+    private static volatile Clock clock = Clock.systemDefaultZone();
+    private static volatile CachedYear cachedYear;
+
+    /**
+     * Current year of the clock, with the instants between which it stays the current year
+     */
+    private static final class CachedYear {
+        private final int year;
+        private final long fromMillis;
+        private final long untilMillis;
+
+        /**
+         * Constructor : creates a new CachedYear
+         * @param year : the year
+         * @param fromMillis : the first instant of the year, in milliseconds since the epoch
+         * @param untilMillis : the first instant of the next year, in milliseconds since the epoch
+         */
+        CachedYear(int year, long fromMillis, long untilMillis) {
+            this.year = year;
+            this.fromMillis = fromMillis;
+            this.untilMillis = untilMillis;
+        }
+    }
+
     /**
      * Get the current year
+     * The year is computed once and cached until the clock reaches the next year, so most calls only read the clock
      * @return the current year
      */
     public static int currentYearValue() {
-        return Year.now().getValue();
+        Clock currentClock = clock;
+        CachedYear cached = cachedYear;
+        long now = currentClock.millis();
+        if (cached == null || now < cached.fromMillis || now >= cached.untilMillis) {
+            Year year = Year.now(currentClock);
+            cached = new CachedYear(year.getValue(), startOf(year, currentClock), startOf(year.plusYears(1), currentClock));
+            cachedYear = cached;
+        }
+        return cached.year;
+    }
+
+    /**
+     * Replace the clock giving the current year, for instance by a fixed clock in tests
+     * @param clock the new clock
+     */
+    public static void setClock(Clock clock) {
+        if (clock == null) throw new IllegalArgumentException("L'horloge ne peut pas être nulle");
+        TimeProvider.clock = clock;
+        cachedYear = null;
+    }
+
+    /**
+     * Go back to the system clock, in the default time-zone
+     */
+    public static void resetClock() {
+        setClock(Clock.systemDefaultZone());
+    }
+
+    /**
+     * Get the first instant of a year
+     * @param year : the year
+     * @param clock : the clock giving the time-zone
+     * @return the first instant of the year, in milliseconds since the epoch
+     */
+    private static long startOf(Year year, Clock clock) {
+        return year.atDay(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
     }
 }
@@ -0,0 +1,77 @@
+package com.rentalagency.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Access to the virtual threads of the JVM, which appeared after the version of Java the project is compiled for.
+ * They are found by reflection when the JVM provides them; otherwise daemon platform threads are used instead, so the
+ * callers work the same on every JVM, only with fewer concurrent tasks.
+ */
+public final class VirtualThreads {
+    private static final boolean AVAILABLE = virtualFactory("probe-") != null;
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Check if the JVM provides virtual threads
+     * @return true if the threads created by this class are virtual, false if they are platform threads
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * Get a factory of virtual threads, or of daemon platform threads if the JVM does not provide them
+     * @param prefix the prefix of the names of the threads, followed by their number
+     * @return the factory of threads
+     */
+    public static ThreadFactory factory(String prefix) {
+        ThreadFactory factory = AVAILABLE ? virtualFactory(prefix) : null;
+        if (factory != null) return factory;
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, prefix + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Get an executor starting a new virtual thread for each task, or a pool of daemon platform threads reused
+     * between tasks if the JVM does not provide virtual threads
+     * @param prefix the prefix of the names of the threads, followed by their number
+     * @return the executor, to shut down once it is no longer used
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String prefix) {
+        ThreadFactory factory = factory(prefix);
+        if (AVAILABLE) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                        .invoke(null, factory);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                // falls back to a pool below
+            }
+        }
+        return Executors.newCachedThreadPool(factory);
+    }
+
+    /**
+     * Get a factory of virtual threads by reflection
+     * @param prefix the prefix of the names of the threads, followed by their number
+     * @return the factory of virtual threads, or null if the JVM does not provide them
+     */
+    private static ThreadFactory virtualFactory(String prefix) {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
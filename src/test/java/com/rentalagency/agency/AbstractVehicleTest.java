@@ -10,9 +10,13 @@ import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.when;
 
@@ -109,6 +113,49 @@ class AbstractVehicleTest {
         }
     }
 
+    /**
+     * Test the hashCode method
+     * Check if two equal vehicles have the same hash code
+     * Check if a vehicle is not equal to null or to an object which is not a vehicle
+     */
+    @Tag("agency")
+    @DisplayName("Test the hashCode method")
+    @Test
+    void testHashCode() {
+        try (MockedStatic<TimeProvider> mockedTimeProvider = mockStatic(TimeProvider.class)) {
+            mockedTimeProvider.when(TimeProvider::currentYearValue).thenReturn(2025);
+
+            // Given
+            AbstractVehicle vehicle2 = new Car("Toyota", "Corolla", 2020, 4);
+
+            // Then
+            assertThat(vehicle.hashCode()).isEqualTo(vehicle2.hashCode());
+            assertThat(vehicle.equals(null)).isFalse();
+            assertThat(vehicle.equals("Toyota")).isFalse();
+        }
+    }
+
+    /**
+     * Test the canonical names
+     * Mock the current year value to 2025 for futures uses
+     * Check if two vehicles built from different but equal names share the same brand and model instances
+     */
+    @Tag("agency")
+    @DisplayName("Test the canonical names")
+    @Test
+    void testCanonicalNames() {
+        try (MockedStatic<TimeProvider> mockedTimeProvider = mockStatic(TimeProvider.class)) {
+            mockedTimeProvider.when(TimeProvider::currentYearValue).thenReturn(2025);
+
+            // When
+            AbstractVehicle vehicle2 = new Motorbike(new String("Toyota"), new String("Corolla"), 2018, 125);
+
+            // Then
+            assertThat(vehicle2.getBrand()).isSameAs(vehicle.getBrand());
+            assertThat(vehicle2.getModel()).isSameAs(vehicle.getModel());
+        }
+    }
+
     /**
      * Test the constructor
      * Mock the current year value to 2025 for futures uses
@@ -133,4 +180,47 @@ class AbstractVehicleTest {
                             " votre année de production est égale à : 1899");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Test the allocations of the appendTo method
+     * Render cars and motorbikes many times, with toString and with appendTo into a reused builder
+     * Check if appendTo renders the same text as toString and allocates fewer bytes per render
+     */
+    @Tag("agency")
+    @DisplayName("Test the allocations of the appendTo method")
+    @Test
+    void appendToAllocations() {
+        // Given
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        assumeTrue(allocations.isThreadAllocatedMemorySupported() && allocations.isThreadAllocatedMemoryEnabled());
+        Vehicle[] vehicles = {vehicle, new Motorbike("Yamaha", "MT-07", 2019, 700)};
+        StringBuilder builder = new StringBuilder(128);
+        int renders = 20_000;
+        long length = 0;
+        for (int i = 0; i < renders; i++) {
+            length += vehicles[i & 1].toString().length();
+            builder.setLength(0);
+            length += vehicles[i & 1].appendTo(builder).length();
+        }
+
+        // When
+        long threadId = Thread.currentThread().getId();
+        long start = allocations.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < renders; i++) length += vehicles[i & 1].toString().length();
+        long toStringBytes = allocations.getThreadAllocatedBytes(threadId) - start;
+        start = allocations.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < renders; i++) {
+            builder.setLength(0);
+            length += vehicles[i & 1].appendTo(builder).length();
+        }
+        long appendToBytes = allocations.getThreadAllocatedBytes(threadId) - start;
+
+        // Then
+        assertThat(length).isPositive();
+        assertThat(vehicles[0].appendTo(new StringBuilder()).toString()).isEqualTo(vehicles[0].toString());
+        assertThat(vehicles[1].appendTo(new StringBuilder()).toString()).isEqualTo(vehicles[1].toString());
+        assertThat(appendToBytes / renders).isLessThan(toStringBytes / renders);
+    }
+}
@@ -0,0 +1,236 @@
+package com.rentalagency.agency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AgencyNetworkTest {
+    AgencyNetwork network;
+    Car corolla;
+    Car clio;
+    Motorbike fz6;
+    Motorbike mt07;
+
+    /**
+     * Set up the test environment
+     * Create a network of two branches, the Toyota and Yamaha vehicles in the first one and the others in the second
+     */
+    @BeforeEach
+    void setUp() {
+        corolla = new Car("Toyota", "Corolla", 2019, 4);
+        clio = new Car("Renault", "Clio", 2015, 5);
+        fz6 = new Motorbike("Yamaha", "FZ6", 2006, 600);
+        mt07 = new Motorbike("Kawasaki", "Z650", 2020, 650);
+        network = new AgencyNetwork(List.of(new ConcurrentRentalAgency(), new ConcurrentRentalAgency()),
+                vehicle -> vehicle.getBrand().equals("Toyota") || vehicle.getBrand().equals("Yamaha") ? 0 : 1);
+        network.addAll(List.of(corolla, clio, fz6, mt07));
+    }
+
+    /**
+     * Test to route the vehicles to their shard
+     * Check if each vehicle is only in the fleet of its shard
+     */
+    @Tag("agency")
+    @DisplayName("Test to route the vehicles to their shard")
+    @Test
+    void routeVehicles() {
+        // Then
+        assertThat(network.getShardCount()).isEqualTo(2);
+        assertThat(network.getShard(0).getVehicles()).containsExactly(corolla, fz6);
+        assertThat(network.getShard(1).getVehicles()).containsExactly(clio, mt07);
+        assertThat(network.shardOf(clio)).isSameAs(network.getShard(1));
+        assertThat(network.add(corolla)).isFalse();
+
+        // When
+        network.remove(clio);
+
+        // Then
+        assertThat(network.getShard(1).getVehicles()).containsExactly(mt07);
+        assertThatThrownBy(() -> network.remove(clio)).isInstanceOf(UnknownVehicleException.class);
+    }
+
+    /**
+     * Test to rent and return vehicles in different shards
+     * Check if the rental is recorded by the shard of the vehicle only, and if a customer cannot rent a second vehicle
+     * in an other shard
+     */
+    @Tag("agency")
+    @DisplayName("Test to rent and return vehicles in different shards")
+    @Test
+    void rentVehicle() {
+        // Given
+        Customer customer = new Customer(new Date(), "David", "Tanguy");
+        Customer anOtherCustomer = new Customer(new Date(), "John", "Doe");
+
+        // When
+        double price = network.rentVehicle(customer, fz6);
+
+        // Then
+        assertThat(price).isEqualTo(150.0);
+        assertThat(network.aVehicleRentedBy(customer)).isTrue();
+        assertThat(network.aVehicleRented(fz6)).isTrue();
+        assertThat(network.getShard(0).renterOf(fz6)).isEqualTo(customer);
+        assertThat(network.getShard(1).allRentedVehicles()).isEmpty();
+        assertThatThrownBy(() -> network.rentVehicle(customer, clio))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Customer already rented a vehicle");
+        assertThatThrownBy(() -> network.rentVehicle(anOtherCustomer, fz6))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Vehicle already rented");
+        assertThat(network.aVehicleRentedBy(anOtherCustomer)).isFalse();
+
+        // When
+        network.returnVehicle(customer);
+        network.returnVehicle(customer);
+
+        // Then
+        assertThat(network.aVehicleRentedBy(customer)).isFalse();
+        assertThat(network.aVehicleRented(fz6)).isFalse();
+        assertThat(network.rentVehicle(customer, clio)).isEqualTo(100.0);
+        assertThat(network.getShard(1).renterOf(clio)).isEqualTo(customer);
+    }
+
+    /**
+     * Test a rental in progress in its shard
+     * Check if the customer cannot rent in an other shard meanwhile, if a return made meanwhile does nothing, and if
+     * a rental refused by the shard gives the customer up
+     */
+    @Tag("agency")
+    @DisplayName("Test a rental in progress in its shard")
+    @Test
+    void rentalInProgress() throws Exception {
+        // Given
+        CountDownLatch renting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ConcurrentRentalAgency slowShard = new ConcurrentRentalAgency(new ArrayList<>(List.of(corolla))) {
+            @Override
+            public double rentVehicle(Customer customer, Vehicle vehicle) {
+                renting.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.rentVehicle(customer, vehicle);
+            }
+        };
+        ConcurrentRentalAgency otherShard = new ConcurrentRentalAgency(new ArrayList<>(List.of(clio)));
+        AgencyNetwork slowNetwork = new AgencyNetwork(List.of(slowShard, otherShard), vehicle -> vehicle == corolla ? 0 : 1);
+        Customer customer = new Customer(new Date(), "David", "Tanguy");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // When
+        Future<Double> price = executor.submit(() -> slowNetwork.rentVehicle(customer, corolla));
+        renting.await();
+
+        // Then
+        assertThat(slowNetwork.aVehicleRentedBy(customer)).isFalse();
+        assertThatThrownBy(() -> slowNetwork.rentVehicle(customer, clio))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Customer already rented a vehicle");
+        slowNetwork.returnVehicle(customer);
+        release.countDown();
+        assertThat(price.get()).isEqualTo(80.0);
+        assertThat(slowNetwork.aVehicleRentedBy(customer)).isTrue();
+        executor.shutdown();
+
+        // When
+        Customer anOtherCustomer = new Customer(new Date(), "John", "Doe");
+
+        // Then
+        assertThatThrownBy(() -> slowNetwork.rentVehicle(anOtherCustomer, new Car("Renault", "Twingo", 2015, 4)))
+                .isInstanceOf(UnknownVehicleException.class);
+        assertThat(slowNetwork.aVehicleRentedBy(anOtherCustomer)).isFalse();
+        assertThat(slowNetwork.rentVehicle(anOtherCustomer, clio)).isEqualTo(100.0);
+    }
+
+    /**
+     * Test to select the vehicles of every shard
+     * Check if the results of the shards are merged in the order of the shards, and if the rented vehicles are skipped
+     * by selectAvailable
+     */
+    @Tag("agency")
+    @DisplayName("Test to select the vehicles of every shard")
+    @Test
+    void select() {
+        // Given
+        network.rentVehicle(new Customer(new Date(), "David", "Tanguy"), mt07);
+
+        // When
+        List<Vehicle> motorbikes = network.select(vehicle -> vehicle instanceof Motorbike);
+        List<Vehicle> available = network.selectAvailable(vehicle -> vehicle instanceof Motorbike);
+
+        // Then
+        assertThat(motorbikes).containsExactly(fz6, mt07);
+        assertThat(available).containsExactly(fz6);
+        assertThat(network.getVehicles()).containsExactly(corolla, fz6, clio, mt07);
+    }
+
+    /**
+     * Test a network spread by hash
+     * Check if every vehicle is found in exactly one shard and if the selection finds all of them
+     */
+    @Tag("agency")
+    @DisplayName("Test a network spread by hash")
+    @Test
+    void hashedNetwork() {
+        // Given
+        AgencyNetwork hashed = new AgencyNetwork(8);
+        List<Vehicle> vehicles = new ArrayList<>();
+        for (int i = 0; i < 100; i++) vehicles.add(new Car("Renault", "Clio " + i, 2015, 5));
+
+        // When
+        int added = hashed.addAll(vehicles);
+
+        // Then
+        assertThat(added).isEqualTo(100);
+        assertThat(hashed.select(vehicle -> true)).containsExactlyInAnyOrderElementsOf(vehicles);
+        int total = 0;
+        for (int i = 0; i < hashed.getShardCount(); i++) {
+            assertThat(hashed.getShard(i).getVehicles()).isNotEmpty();
+            total += hashed.getShard(i).getVehicles().size();
+        }
+        assertThat(total).isEqualTo(100);
+        for (Vehicle vehicle : vehicles) assertThat(hashed.shardOf(vehicle).getVehicles()).contains(vehicle);
+    }
+
+    /**
+     * Test the invalid networks
+     * Check if a network without shard, a customer renting in two shards and a partitioner out of range are refused
+     */
+    @Tag("agency")
+    @DisplayName("Test the invalid networks")
+    @Test
+    void invalidNetworks() {
+        // Given
+        Customer customer = new Customer(new Date(), "David", "Tanguy");
+        ConcurrentRentalAgency first = new ConcurrentRentalAgency(new ArrayList<>(List.of(corolla)));
+        ConcurrentRentalAgency second = new ConcurrentRentalAgency(new ArrayList<>(List.of(clio)));
+        first.rentVehicle(customer, corolla);
+        second.rentVehicle(customer, clio);
+        AgencyNetwork outOfRange = new AgencyNetwork(List.of(new ConcurrentRentalAgency()), vehicle -> 1);
+
+        // Then
+        assertThatThrownBy(() -> new AgencyNetwork(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Le nombre de succursales doit être supérieur à 0, votre nombre de succursales est égal à : 0");
+        assertThatThrownBy(() -> new AgencyNetwork(List.of(first, second), null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Un client loue des véhicules dans plusieurs succursales : David Tanguy");
+        assertThatThrownBy(() -> outOfRange.add(corolla))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("La succursale d'un véhicule doit être comprise entre 0 et 0, votre succursale est égale à : 1");
+    }
+}
@@ -107,4 +107,23 @@ class CarTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage("Le nombre de sièges doit être supérieur à 0, votre nombre de sièges est égal à : 0");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test the appendTo method
+     * Check if the appendTo method appends the same text as the toString method after the content of the builder
+     */
+    @Tag("agency")
+    @DisplayName("Test the appendTo method")
+    @Test
+    void appendTo() {
+        // Given
+        StringBuilder builder = new StringBuilder("Report : ");
+
+        // When
+        StringBuilder result = car.appendTo(builder);
+
+        // Then
+        assertThat(result).isSameAs(builder);
+        assertThat(builder.toString()).isEqualTo("Report : " + car.toString());
+    }
+}
@@ -0,0 +1,128 @@
+package com.rentalagency.agency;
+
+import com.rentalagency.criterions.*;
+import com.rentalagency.util.TimeProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mockStatic;
+
+class ColumnarFleetTest {
+    Fleet fleet;
+
+    /**
+     * Set up the test environment
+     * Create a fleet of 150 cars and 50 motorbikes, then remove one vehicle in five to leave empty slots
+     */
+    @BeforeEach
+    void setUp() {
+        fleet = new Fleet();
+        String[] brands = {"Toyota", "Honda", "Renault"};
+        for (int i = 0; i < 150; i++) fleet.add(new Car(brands[i % 3], "Model " + i, 2000 + i % 25, 2 + i % 6));
+        for (int i = 0; i < 50; i++) fleet.add(new Motorbike("Yamaha", "Model " + i, 2010 + i % 10, 50 + 20 * i));
+        for (int i = 0; i < 150; i += 5) fleet.remove(new Car(brands[i % 3], "Model " + i, 2000 + i % 25, 2 + i % 6));
+    }
+
+    /**
+     * Test the select method
+     * Mock the current year to 2025 for futures uses
+     * Check if the snapshot selects the same vehicles as a scan of the fleet, in the same order, for every criterion
+     */
+    @Tag("agency")
+    @DisplayName("Test the select method")
+    @Test
+    void select() {
+        try (MockedStatic<TimeProvider> mockedTimeProvider = mockStatic(TimeProvider.class)) {
+            mockedTimeProvider.when(TimeProvider::currentYearValue).thenReturn(2025);
+
+            // Given
+            ColumnarFleet snapshot = new ColumnarFleet(fleet, 2025);
+            List<Predicate<Vehicle>> criteria = List.of(
+                    new BrandCriterion("Honda"),
+                    new BrandCriterion("Ford"),
+                    new MaxPriceCriterion(150),
+                    new PriceRangeCriterion(100, 300),
+                    new ProductionYearCriterion(2010, 2015),
+                    new AndCriterion(new BrandCriterion("Toyota"), new MaxPriceCriterion(200)),
+                    new OrCriterion(new BrandCriterion("Yamaha"), new ModelCriterion("Model 7")),
+                    new NotCriterion(new BrandCriterion("Renault")),
+                    vehicle -> vehicle.getModel().endsWith("3"));
+
+            // Then
+            assertThat(snapshot.size()).isEqualTo(fleet.size());
+            assertThat(snapshot.getYear()).isEqualTo(2025);
+            for (Predicate<Vehicle> criterion : criteria) {
+                List<Vehicle> expected = fleet.stream().filter(criterion).toList();
+                assertThat(snapshot.select(criterion)).containsExactlyElementsOf(expected);
+                assertThat(snapshot.count(criterion)).isEqualTo(expected.size());
+            }
+        }
+    }
+
+    /**
+     * Test the select method with a vehicle without a brand
+     * Check if the brand criteria skip the vehicle without a brand, and if a criterion without a brand selects it
+     */
+    @Tag("agency")
+    @DisplayName("Test the select method with a vehicle without a brand")
+    @Test
+    void selectNullBrand() {
+        // Given
+        Vehicle withoutBrand = new Car(null, "Unknown", 2015, 4);
+        fleet.add(withoutBrand);
+        ColumnarFleet snapshot = new ColumnarFleet(fleet, 2025);
+
+        // Then
+        assertThat(snapshot.select(new BrandCriterion("Honda")))
+                .containsExactlyElementsOf(fleet.stream().filter(vehicle -> "Honda".equals(vehicle.getBrand())).toList());
+        assertThat(snapshot.select(new BrandCriterion(null))).containsExactly(withoutBrand);
+        assertThat(snapshot.count(new NotCriterion(new BrandCriterion("Yamaha")))).isEqualTo(fleet.size() - 50);
+    }
+
+    /**
+     * Test the averageDailyRentalPrice method
+     * Mock the current year to 2025 for futures uses
+     * Check if the average price is the one of the selected vehicles, and NaN when no vehicle is selected
+     */
+    @Tag("agency")
+    @DisplayName("Test the averageDailyRentalPrice method")
+    @Test
+    void averageDailyRentalPrice() {
+        try (MockedStatic<TimeProvider> mockedTimeProvider = mockStatic(TimeProvider.class)) {
+            mockedTimeProvider.when(TimeProvider::currentYearValue).thenReturn(2025);
+
+            // Given
+            ColumnarFleet snapshot = new ColumnarFleet(fleet, 2025);
+            BrandCriterion criterion = new BrandCriterion("Yamaha");
+
+            // Then
+            assertThat(snapshot.averageDailyRentalPrice(criterion)).isEqualTo(
+                    fleet.stream().filter(criterion).mapToDouble(Vehicle::dailyRentalPrice).average().getAsDouble());
+            assertThat(snapshot.averageDailyRentalPrice(new BrandCriterion("Ford"))).isNaN();
+        }
+    }
+
+    /**
+     * Test the countOfType method
+     * Check if the snapshot counts the remaining cars and the motorbikes
+     */
+    @Tag("agency")
+    @DisplayName("Test the countOfType method")
+    @Test
+    void countOfType() {
+        // Given
+        ColumnarFleet snapshot = new ColumnarFleet(fleet, 2025);
+
+        // Then
+        assertThat(snapshot.countOfType(ColumnarFleet.TYPE_CAR)).isEqualTo(120);
+        assertThat(snapshot.countOfType(ColumnarFleet.TYPE_MOTORBIKE)).isEqualTo(50);
+        assertThat(snapshot.countOfType(ColumnarFleet.TYPE_OTHER)).isZero();
+    }
+}
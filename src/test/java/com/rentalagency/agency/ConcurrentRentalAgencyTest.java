@@ -0,0 +1,196 @@
+package com.rentalagency.agency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrentRentalAgencyTest {
+    static final int THREADS = 16;
+    static final int VEHICLES = 4;
+    static final int ROUNDS = 5_000;
+
+    ConcurrentRentalAgency rentalAgency;
+    List<Vehicle> vehicles;
+
+    /**
+     * Set up the test environment
+     * Create a concurrent rental agency with a few vehicles, so that the threads compete for the same vehicles
+     */
+    @BeforeEach
+    void setUp() {
+        vehicles = new ArrayList<>();
+        for (int i = 0; i < VEHICLES; i++) vehicles.add(new Motorbike("Yamaha", "MT-0" + i, 2019, 700));
+        rentalAgency = new ConcurrentRentalAgency(vehicles);
+    }
+
+    /**
+     * Test the sequential behaviour of the concurrent agency
+     * Check if the same exceptions as the RentalAgency are thrown
+     */
+    @Tag("agency")
+    @DisplayName("Test the sequential behaviour of the concurrent agency")
+    @Test
+    void rentVehicle() {
+        // Given
+        Customer customer = new Customer(new Date(), "David", "Tanguy");
+        Customer anOtherCustomer = new Customer(new Date(), "John", "Doe");
+        Vehicle unknown = new Car("Toyota", "Corolla", 2019, 4);
+
+        // When
+        rentalAgency.rentVehicle(customer, vehicles.get(0));
+
+        // Then
+        assertThatThrownBy(() -> rentalAgency.rentVehicle(customer, unknown))
+                .isInstanceOf(UnknownVehicleException.class);
+        assertThatThrownBy(() -> rentalAgency.rentVehicle(customer, vehicles.get(1)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Customer already rented a vehicle");
+        assertThatThrownBy(() -> rentalAgency.rentVehicle(anOtherCustomer, vehicles.get(0)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Vehicle already rented");
+
+        // When
+        rentalAgency.returnVehicle(customer);
+
+        // Then
+        assertThat(rentalAgency.aVehicleRented(vehicles.get(0))).isFalse();
+        assertThat(rentalAgency.rentVehicle(anOtherCustomer, vehicles.get(0))).isEqualTo(175.0);
+    }
+
+    /**
+     * Test to select a page and the first vehicle of a large fleet
+     * Check if the criterion stops being tested once the page is full or the first vehicle is found, as in a
+     * RentalAgency
+     */
+    @Tag("agency")
+    @DisplayName("Test the paging and first stop testing the criterion early")
+    @Test
+    void selectPageAndFirst() {
+        // Given
+        for (int i = 0; i < 10_000; i++) rentalAgency.add(new Motorbike("Honda", "Model " + i, 2010, 50 + i % 900));
+        AtomicInteger tests = new AtomicInteger();
+        Predicate<Vehicle> criterion = vehicle -> tests.incrementAndGet() > 0 && vehicle.getBrand().equals("Honda");
+
+        // When
+        List<Vehicle> page = rentalAgency.select(criterion, 0, 5);
+        int pageTests = tests.getAndSet(0);
+        Optional<Vehicle> first = rentalAgency.first(criterion);
+
+        // Then
+        assertThat(page).extracting(Vehicle::getModel)
+                .containsExactly("Model 0", "Model 1", "Model 2", "Model 3", "Model 4");
+        assertThat(pageTests).isEqualTo(VEHICLES + 5);
+        assertThat(first).map(Vehicle::getModel).contains("Model 0");
+        assertThat(tests.get()).isEqualTo(VEHICLES + 1);
+    }
+
+    /**
+     * Stress test of concurrent rentals
+     * Many threads, each with its own customer, keep renting and returning randomly chosen vehicles among a few ones
+     * Check if a vehicle is never held by two customers at the same time
+     * Check if every rental ended with a return, leaving no vehicle rented
+     */
+    @Tag("agency")
+    @DisplayName("Stress test : a vehicle is never rented twice at the same time")
+    @Test
+    void concurrentRentalsNeverDoubleRent() throws Exception {
+        // Given
+        AtomicIntegerArray holders = new AtomicIntegerArray(VEHICLES);
+        AtomicInteger doubleRentals = new AtomicInteger();
+        AtomicInteger rentals = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < THREADS; t++) {
+            Customer customer = new Customer(new Date(), "Customer", String.valueOf(t));
+            futures.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int round = 0; round < ROUNDS; round++) {
+                    int index = random.nextInt(VEHICLES);
+                    try {
+                        rentalAgency.rentVehicle(customer, vehicles.get(index));
+                    } catch (IllegalStateException alreadyRented) {
+                        continue;
+                    }
+                    rentals.incrementAndGet();
+                    if (holders.incrementAndGet(index) != 1) doubleRentals.incrementAndGet();
+                    if (rentalAgency.renterOf(vehicles.get(index)) != customer) doubleRentals.incrementAndGet();
+                    holders.decrementAndGet(index);
+                    rentalAgency.returnVehicle(customer);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) future.get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // Then
+        assertThat(doubleRentals.get()).isZero();
+        assertThat(rentals.get()).isPositive();
+        assertThat(rentalAgency.allRentedVehicles()).isEmpty();
+    }
+
+    /**
+     * Stress test of concurrent changes of the fleet while vehicles are rented
+     * Some threads add and remove vehicles while others rent and return the vehicles which are always in the fleet
+     * Check if the fleet ends up with exactly the vehicles which were not removed
+     */
+    @Tag("agency")
+    @DisplayName("Stress test : concurrent changes of the fleet during rentals")
+    @Test
+    void concurrentFleetChanges() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                if (thread % 2 == 0) {
+                    for (int i = 0; i < ROUNDS; i++) {
+                        Vehicle vehicle = new Car("Renault", "Clio " + thread + "-" + i, 2020, 5);
+                        rentalAgency.add(vehicle);
+                        if (i % 2 == 0) rentalAgency.remove(vehicle);
+                    }
+                } else {
+                    Customer customer = new Customer(new Date(), "Customer", String.valueOf(thread));
+                    for (int i = 0; i < ROUNDS; i++) {
+                        try {
+                            rentalAgency.rentVehicle(customer, vehicles.get(i % VEHICLES));
+                            rentalAgency.returnVehicle(customer);
+                        } catch (IllegalStateException alreadyRented) {
+                            // another customer holds the vehicle
+                        }
+                        if (i % 100 == 0) rentalAgency.select(vehicle -> vehicle.getBrand().equals("Yamaha"));
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) future.get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // Then
+        assertThat(rentalAgency.getVehicles()).hasSize(VEHICLES + THREADS / 2 * ROUNDS / 2);
+        assertThat(rentalAgency.select(vehicle -> vehicle.getBrand().equals("Yamaha"))).hasSize(VEHICLES);
+        assertThat(rentalAgency.allRentedVehicles()).isEmpty();
+    }
+}
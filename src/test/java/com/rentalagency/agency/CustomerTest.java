@@ -0,0 +1,77 @@
+package com.rentalagency.agency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerTest {
+    /**
+     * Test the getters
+     * Check if the customer returns its birth date, name and surname, and if the birth date cannot be changed
+     */
+    @Tag("agency")
+    @DisplayName("Test the getters")
+    @Test
+    void getters() {
+        // Given
+        Date birth = new Date(1_000_000L);
+        Customer customer = new Customer(birth, "David", "Tanguy");
+
+        // When
+        birth.setTime(0);
+        customer.getBirth().setTime(0);
+
+        // Then
+        assertThat(customer.getBirth()).isEqualTo(new Date(1_000_000L));
+        assertThat(customer.getName()).isEqualTo("David");
+        assertThat(customer.getSurname()).isEqualTo("Tanguy");
+    }
+
+    /**
+     * Test the identity of the customers
+     * Check if two customers with the same birth date, name and surname are two different customers
+     */
+    @Tag("agency")
+    @DisplayName("Test the identity of the customers")
+    @Test
+    void identity() {
+        // Given
+        Customer customer = new Customer(new Date(1_000_000L), "Jean", "Martin");
+        Customer namesake = new Customer(new Date(1_000_000L), "Jean", "Martin");
+
+        // Then
+        assertThat(customer).isEqualTo(customer).isNotEqualTo(namesake);
+        assertThat(new Customer(null, null, null)).isNotEqualTo(new Customer(null, null, null));
+    }
+
+    /**
+     * Test to rent a vehicle to two customers with the same birth date, name and surname
+     * Check if each customer rents and returns its own vehicle
+     */
+    @Tag("agency")
+    @DisplayName("Test to rent a vehicle to two namesakes")
+    @Test
+    void namesakesRent() {
+        // Given
+        Car car = new Car("Toyota", "Yaris", 2015, 4);
+        Motorbike motorbike = new Motorbike("Honda", "CBR", 2018, 600);
+        RentalAgency agency = new RentalAgency(new ArrayList<>(List.of(car, motorbike)));
+        Customer customer = new Customer(new Date(1_000_000L), "Jean", "Martin");
+        Customer namesake = new Customer(new Date(1_000_000L), "Jean", "Martin");
+
+        // When
+        agency.rentVehicle(customer, car);
+        agency.rentVehicle(namesake, motorbike);
+        agency.returnVehicle(namesake);
+
+        // Then
+        assertThat(agency.renterOf(car)).isSameAs(customer);
+        assertThat(agency.aVehicleRented(motorbike)).isFalse();
+    }
+}
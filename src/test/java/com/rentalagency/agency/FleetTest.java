@@ -0,0 +1,213 @@
+package com.rentalagency.agency;
+
+import com.rentalagency.util.TimeProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mockStatic;
+
+class FleetTest {
+    Fleet fleet;
+    Vehicle car;
+    Vehicle motorbike;
+    Vehicle otherCar;
+
+    /**
+     * Set up the test environment
+     * Mock the current year value to 2025 for futures uses
+     * Create an empty fleet and three vehicles
+     */
+    @BeforeEach
+    void setUp() {
+        try (MockedStatic<TimeProvider> mockedTimeProvider = mockStatic(TimeProvider.class)) {
+            mockedTimeProvider.when(TimeProvider::currentYearValue).thenReturn(2025);
+            fleet = new Fleet();
+            car = new Car("Toyota", "Corolla", 2019, 4);
+            motorbike = new Motorbike("Yamaha", "FZ6", 2006, 600);
+            otherCar = new Car("Renault", "Clio", 2021, 5);
+        }
+    }
+
+    /**
+     * Test to add vehicles to the fleet
+     * Check if the vehicles are kept in insertion order
+     * Check if an equal vehicle is not added twice
+     */
+    @Tag("agency")
+    @DisplayName("Test to add vehicles to the fleet")
+    @Test
+    void add() {
+        try (MockedStatic<TimeProvider> mockedTimeProvider = mockStatic(TimeProvider.class)) {
+            mockedTimeProvider.when(TimeProvider::currentYearValue).thenReturn(2025);
+
+            // When
+            fleet.add(car);
+            fleet.add(motorbike);
+
+            // Then
+            assertThat(fleet.add(new Car("Toyota", "Corolla", 2019, 4))).isFalse();
+            assertThat(fleet).containsExactly(car, motorbike);
+            assertThat(fleet.contains(car)).isTrue();
+        }
+    }
+
+    /**
+     * Test to remove vehicles from the fleet
+     * Check if the remaining vehicles keep their order, both when iterating and when accessed by position
+     * Check if a vehicle which is not in the fleet can not be removed
+     */
+    @Tag("agency")
+    @DisplayName("Test to remove vehicles from the fleet")
+    @Test
+    void remove() {
+        // Given
+        fleet.add(car);
+        fleet.add(motorbike);
+        fleet.add(otherCar);
+
+        // When
+        boolean removed = fleet.remove(motorbike);
+
+        // Then
+        assertThat(removed).isTrue();
+        assertThat(fleet.remove(motorbike)).isFalse();
+        assertThat(fleet.contains(motorbike)).isFalse();
+        assertThat(fleet).containsExactly(car, otherCar);
+        assertThat(fleet.get(1)).isEqualTo(otherCar);
+        assertThat(fleet).hasSize(2);
+    }
+
+    /**
+     * Test the fleet when it grows over its capacity with empty slots left by removals
+     * Check if the fleet keeps every vehicle in order
+     */
+    @Tag("agency")
+    @DisplayName("Test the fleet when it grows after removals")
+    @Test
+    void growAfterRemovals() {
+        try (MockedStatic<TimeProvider> mockedTimeProvider = mockStatic(TimeProvider.class)) {
+            mockedTimeProvider.when(TimeProvider::currentYearValue).thenReturn(2025);
+
+            // When
+            for (int i = 0; i < 100; i++) {
+                fleet.add(new Car("Toyota", "Model " + i, 2020, 4));
+                if (i % 2 == 1) fleet.remove(new Car("Toyota", "Model " + (i - 1), 2020, 4));
+            }
+
+            // Then
+            assertThat(fleet).hasSize(50);
+            assertThat(fleet.get(0).getModel()).isEqualTo("Model 1");
+            assertThat(fleet.get(49).getModel()).isEqualTo("Model 99");
+            assertThat(fleet.contains(new Car("Toyota", "Model 51", 2020, 4))).isTrue();
+            assertThat(fleet.contains(new Car("Toyota", "Model 50", 2020, 4))).isFalse();
+        }
+    }
+
+    /**
+     * Test the brand index of the fleet
+     * Check if the slots of the vehicles of a brand are found
+     * Check if a removed vehicle is no longer found, if the slots follow the vehicles once the removals compact the
+     * fleet, and if an unknown brand gives no slot
+     */
+    @Tag("agency")
+    @DisplayName("Test the brand index of the fleet")
+    @Test
+    void slotsWithBrand() {
+        try (MockedStatic<TimeProvider> mockedTimeProvider = mockStatic(TimeProvider.class)) {
+            mockedTimeProvider.when(TimeProvider::currentYearValue).thenReturn(2025);
+
+            // Given
+            Vehicle yaris = new Car("Toyota", "Yaris", 2022, 5);
+            fleet.add(car);
+            fleet.add(motorbike);
+            fleet.add(yaris);
+
+            // Then
+            assertThat(fleet.countWithBrand("Toyota")).isEqualTo(2);
+            assertThat(fleet.slotsWithBrand("Toyota")).isEqualTo(BitSet.valueOf(new long[]{0b101}));
+
+            // When
+            fleet.remove(car);
+            fleet.remove(motorbike);
+
+            // Then
+            assertThat(fleet.end()).isEqualTo(1);
+            assertThat(fleet.slotsWithBrand("Toyota")).isEqualTo(BitSet.valueOf(new long[]{0b1}));
+            assertThat(fleet.slotsWithBrand("Yamaha")).isEqualTo(new BitSet());
+            assertThat(fleet.countWithBrand("Peugeot")).isZero();
+            assertThat(fleet.slotsWithBrand("Peugeot")).isEqualTo(new BitSet());
+        }
+    }
+
+    /**
+     * Test the rented flags of the fleet
+     * Check if the flag of a vehicle follows it when the removals compact the slots, and if a removed vehicle leaves no
+     * flag
+     */
+    @Tag("agency")
+    @DisplayName("Test the rented flags")
+    @Test
+    void setRented() {
+        // Given
+        fleet.add(car);
+        fleet.add(motorbike);
+        fleet.add(otherCar);
+        fleet.setRented(otherCar, true);
+        fleet.setRented(motorbike, true);
+
+        // When
+        fleet.remove(car);
+        fleet.setRented(motorbike, false);
+        fleet.remove(motorbike);
+
+        // Then
+        assertThat(fleet.slot(0)).isSameAs(otherCar);
+        assertThat(fleet.rentedWord(0)).isEqualTo(0b1L);
+        fleet.remove(otherCar);
+        assertThat(fleet.rentedWord(0)).isZero();
+        assertThat(fleet.rentedWord(1)).isZero();
+    }
+
+    /**
+     * Test to read the fleet by position while iterating over it
+     * Check if reading by position skips the empty slots without changing the fleet, so the iteration goes on
+     */
+    @Tag("agency")
+    @DisplayName("Test to read by position while iterating")
+    @Test
+    void getWhileIterating() {
+        try (MockedStatic<TimeProvider> mockedTimeProvider = mockStatic(TimeProvider.class)) {
+            mockedTimeProvider.when(TimeProvider::currentYearValue).thenReturn(2025);
+
+            // Given
+            fleet.add(car);
+            fleet.add(motorbike);
+            fleet.add(otherCar);
+            fleet.remove(car);
+            int version = fleet.version();
+
+            // When
+            List<Vehicle> read = new ArrayList<>();
+            for (Vehicle vehicle : fleet) {
+                read.add(vehicle);
+                read.add(fleet.get(0));
+                read.add(fleet.get(1));
+            }
+
+            // Then
+            assertThat(read).containsExactly(motorbike, motorbike, otherCar, otherCar, motorbike, otherCar);
+            assertThat(fleet.version()).isEqualTo(version);
+            assertThat(fleet.end()).isEqualTo(3);
+            assertThat(fleet.get(1)).isSameAs(otherCar);
+            assertThat(fleet.get(0)).isSameAs(motorbike);
+        }
+    }
+}
@@ -79,4 +79,23 @@ class MotorbikeTest {
                     .hasMessage("La cylindrée doit être supérieure à 50, votre cylindrée est égale à : 49");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Test the appendTo method
+     * Check if the appendTo method appends the same text as the toString method after the content of the builder
+     */
+    @Tag("agency")
+    @DisplayName("Test the appendTo method")
+    @Test
+    void appendTo() {
+        // Given
+        StringBuilder builder = new StringBuilder("Report : ");
+
+        // When
+        StringBuilder result = motorbike.appendTo(builder);
+
+        // Then
+        assertThat(result).isSameAs(builder);
+        assertThat(builder.toString()).isEqualTo("Report : " + motorbike.toString());
+    }
+}
@@ -0,0 +1,54 @@
+package com.rentalagency.agency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParallelScanTest {
+    Fleet fleet;
+
+    /**
+     * Set up the test environment
+     * Create a fleet of 20 000 motorbikes, then remove one in seven to leave empty slots
+     */
+    @BeforeEach
+    void setUp() {
+        fleet = new Fleet();
+        for (int i = 0; i < 20_000; i++) fleet.add(new Motorbike("Yamaha", "Model " + i, 2010, 50 + i % 1000));
+        for (int i = 0; i < 20_000; i += 7) fleet.remove(new Motorbike("Yamaha", "Model " + i, 2010, 50 + i % 1000));
+    }
+
+    /**
+     * Test the parallel scan
+     * Check if the result is the same as a sequential scan, in the same order
+     */
+    @Tag("agency")
+    @DisplayName("Test the parallel scan")
+    @Test
+    void execute() {
+        // Given
+        Predicate<Vehicle> criterion = vehicle -> vehicle.dailyRentalPrice() < 100;
+
+        // When
+        ParallelScan scan = new ParallelScan(fleet, criterion);
+
+        // Then
+        assertThat(scan.execute()).containsExactlyElementsOf(fleet.stream().filter(criterion).toList());
+    }
+
+    /**
+     * Test the parallel scan of an empty fleet
+     * Check if the result is empty
+     */
+    @Tag("agency")
+    @DisplayName("Test the parallel scan of an empty fleet")
+    @Test
+    void executeEmpty() {
+        assertThat(new ParallelScan(new Fleet(), vehicle -> true).execute()).isEmpty();
+    }
+}
@@ -0,0 +1,173 @@
+package com.rentalagency.agency;
+
+import com.rentalagency.util.TimeProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mockStatic;
+
+class PriceIndexTest {
+    Fleet fleet;
+    Vehicle newCar;
+    Vehicle oldCar;
+    Vehicle motorbike;
+    Vehicle bigMotorbike;
+
+    /**
+     * Set up the test environment
+     * Mock the current year value to 2025 for futures uses
+     * Create a fleet with two cars and two motorbikes
+     * Prices in 2025 : new car 160, old car 80, motorbike 150, big motorbike 300
+     */
+    @BeforeEach
+    void setUp() {
+        try (MockedStatic<TimeProvider> mockedTimeProvider = mockStatic(TimeProvider.class)) {
+            mockedTimeProvider.when(TimeProvider::currentYearValue).thenReturn(2025);
+            fleet = new Fleet();
+            newCar = new Car("Toyota", "Corolla", 2022, 4);
+            oldCar = new Car("Renault", "Clio", 2010, 4);
+            motorbike = new Motorbike("Yamaha", "FZ6", 2006, 600);
+            bigMotorbike = new Motorbike("Honda", "Goldwing", 2018, 1200);
+            fleet.add(newCar);
+            fleet.add(bigMotorbike);
+            fleet.add(oldCar);
+            fleet.add(motorbike);
+        }
+    }
+
+    /**
+     * Test a price range query
+     * Check if the vehicles within the range are returned in the order of the fleet, bounds included
+     */
+    @Tag("agency")
+    @DisplayName("Test a price range query")
+    @Test
+    void slotsBetween() {
+        try (MockedStatic<TimeProvider> mockedTimeProvider = mockStatic(TimeProvider.class)) {
+            mockedTimeProvider.when(TimeProvider::currentYearValue).thenReturn(2025);
+
+            // When
+            PriceIndex index = PriceIndex.build(fleet, 2025);
+
+            // Then
+            assertThat(between(index, fleet, 80, 160)).containsExactly(newCar, oldCar, motorbike);
+            assertThat(between(index, fleet, Double.NEGATIVE_INFINITY, 100)).containsExactly(oldCar);
+            assertThat(between(index, fleet, 300, Double.POSITIVE_INFINITY)).containsExactly(bigMotorbike);
+            assertThat(between(index, fleet, 400, 500)).isEmpty();
+            assertThat(between(index, fleet, 0, 10)).isEmpty();
+            assertThat(index.count(80, 160)).isEqualTo(3);
+        }
+    }
+
+    /**
+     * Test the validity of the index
+     * Check if the index is no longer valid after a change of the fleet or of the year
+     */
+    @Tag("agency")
+    @DisplayName("Test the validity of the index")
+    @Test
+    void isValidFor() {
+        // Given
+        PriceIndex index = PriceIndex.build(fleet, 2025);
+
+        // Then
+        assertThat(index.isValidFor(fleet, 2025)).isTrue();
+        assertThat(index.isValidFor(fleet, 2026)).isFalse();
+
+        // When
+        fleet.remove(oldCar);
+
+        // Then
+        assertThat(index.isValidFor(fleet, 2025)).isFalse();
+    }
+
+    /**
+     * Test to update the index after the fleet changed
+     * Check if the added vehicles are found and the removed ones skipped, both while they are kept in a separate run
+     * and once the runs are merged, and if the index is rebuilt when the year changes
+     */
+    @Tag("agency")
+    @DisplayName("Test to update the index")
+    @Test
+    void update() {
+        try (MockedStatic<TimeProvider> mockedTimeProvider = mockStatic(TimeProvider.class)) {
+            mockedTimeProvider.when(TimeProvider::currentYearValue).thenReturn(2025);
+
+            // Given
+            PriceIndex index = PriceIndex.build(fleet, 2025);
+            Vehicle cheapMotorbike = new Motorbike("Peugeot", "Kisbee", 2020, 50);
+            fleet.add(cheapMotorbike);
+            fleet.remove(newCar);
+
+            // When
+            PriceIndex updated = index.update(fleet, 2025);
+
+            // Then
+            assertThat(updated.isValidFor(fleet, 2025)).isTrue();
+            assertThat(updated.update(fleet, 2025)).isSameAs(updated);
+            assertThat(between(updated, fleet, 0, 160)).containsExactly(oldCar, motorbike, cheapMotorbike);
+            assertThat(updated.count(0, 160)).isEqualTo(4);
+
+            // When
+            List<Vehicle> added = new ArrayList<>();
+            for (int i = 0; i < 300; i++) {
+                Vehicle vehicle = new Motorbike("Suzuki", "Model " + i, 2020, 100 + i);
+                added.add(vehicle);
+                fleet.add(vehicle);
+            }
+            PriceIndex merged = updated.update(fleet, 2025);
+
+            // Then
+            assertThat(updated.count(150, 160)).isEqualTo(2);
+            assertThat(merged.count(150, 160)).isEqualTo(1);
+            assertThat(between(merged, fleet, 0, 20)).containsExactly(cheapMotorbike);
+            assertThat(between(merged, fleet, 25, 100)).containsAll(added).hasSize(301);
+            assertThat(merged.update(fleet, 2026).isValidFor(fleet, 2026)).isTrue();
+        }
+    }
+
+    /**
+     * Test the index on a large fleet with many identical prices
+     * Check if the result is the same as testing every vehicle
+     */
+    @Tag("agency")
+    @DisplayName("Test the index on a large fleet")
+    @Test
+    void largeFleet() {
+        // Given
+        Fleet largeFleet = new Fleet();
+        for (int i = 0; i < 1000; i++) largeFleet.add(new Motorbike("Yamaha", "Model " + i, 2010, 50 + (i * 37) % 1000));
+
+        // When
+        PriceIndex index = PriceIndex.build(largeFleet, 2025);
+
+        // Then
+        assertThat(between(index, largeFleet, 50, 125))
+                .containsExactlyElementsOf(largeFleet.stream()
+                        .filter(vehicle -> vehicle.dailyRentalPrice() >= 50 && vehicle.dailyRentalPrice() <= 125)
+                        .toList());
+    }
+
+    /**
+     * Get the vehicles of a fleet whose price is within a range, using the index
+     * @param index : the price index of the fleet
+     * @param fleet : the fleet
+     * @param minPrice : the minimum price
+     * @param maxPrice : the maximum price
+     * @return the list of vehicles within the range, in the order of the fleet
+     */
+    private static List<Vehicle> between(PriceIndex index, Fleet fleet, double minPrice, double maxPrice) {
+        BitSet slots = index.slotsBetween(minPrice, maxPrice, fleet);
+        List<Vehicle> vehicles = new ArrayList<>();
+        for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) vehicles.add(fleet.slot(slot));
+        return vehicles;
+    }
+}
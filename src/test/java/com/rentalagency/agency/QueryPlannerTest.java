@@ -0,0 +1,231 @@
+package com.rentalagency.agency;
+
+import com.rentalagency.criterions.*;
+import com.rentalagency.util.TimeProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mockStatic;
+
+class QueryPlannerTest {
+    Fleet fleet;
+    QueryPlanner planner;
+
+    /**
+     * Set up the test environment
+     * Mock the current year value to 2025 for futures uses
+     * Create a fleet of 100 vehicles : 10 Toyota cars and 90 Yamaha motorbikes, one motorbike in three costing 150
+     */
+    @BeforeEach
+    void setUp() {
+        try (MockedStatic<TimeProvider> mockedTimeProvider = mockStatic(TimeProvider.class)) {
+            mockedTimeProvider.when(TimeProvider::currentYearValue).thenReturn(2025);
+            fleet = new Fleet();
+            for (int i = 0; i < 10; i++) fleet.add(new Car("Toyota", "Corolla", 2010 + i, 4));
+            for (int i = 0; i < 90; i++) fleet.add(new Motorbike("Yamaha", "Model " + i, 2010, i % 3 == 0 ? 600 : 1200));
+            PriceIndex priceIndex = PriceIndex.build(fleet, 2025);
+            planner = new QueryPlanner(fleet, () -> priceIndex, priceIndex);
+        }
+    }
+
+    /**
+     * Test the plan of a criterion which is not indexed
+     * Check if the plan scans the whole fleet
+     */
+    @Tag("agency")
+    @DisplayName("Test the plan of a criterion which is not indexed")
+    @Test
+    void fullScan() {
+        // When
+        QueryPlan plan = planner.plan(new ModelCriterion("Corolla"));
+
+        // Then
+        assertThat(plan.explain()).isEqualTo("Full scan : 100 vehicles\nFilter : model = Corolla");
+        assertThat(plan.execute(fleet)).hasSize(10);
+    }
+
+    /**
+     * Test the plan of a conjunction
+     * Check if the most selective index drives the plan and if the cheap criteria are tested before the price
+     */
+    @Tag("agency")
+    @DisplayName("Test the plan of a conjunction")
+    @Test
+    void conjunction() {
+        // Given
+        Predicate<Vehicle> criterion = new AndCriterion(
+                new MaxPriceCriterion(150),
+                new AndCriterion(new ProductionYearCriterion(2015, 2025), new BrandCriterion("Toyota")));
+
+        // When
+        QueryPlan plan = planner.plan(criterion);
+
+        // Then
+        assertThat(plan.explain()).isEqualTo("Index lookup : brand index, brand = Toyota (10 vehicles)\n"
+                + "Filter : production year between 2015 and 2025, price <= 150.0");
+        assertThat(plan.execute(fleet))
+                .hasSize(5)
+                .allMatch(criterion);
+    }
+
+    /**
+     * Test the plan of a conjunction of two selective indexes
+     * Check if the candidates of both indexes are intersected
+     */
+    @Tag("agency")
+    @DisplayName("Test the plan of a conjunction of two selective indexes")
+    @Test
+    void intersection() {
+        // Given
+        Predicate<Vehicle> criterion = new AndCriterion(new BrandCriterion("Toyota"), new PriceRangeCriterion(70, 90));
+
+        // When
+        QueryPlan plan = planner.plan(criterion);
+
+        // Then
+        assertThat(plan.explain()).isEqualTo("Index lookup : brand index, brand = Toyota (10 vehicles)\n"
+                + "Intersect : price index, price between 70.0 and 90.0 (10 vehicles)");
+        assertThat(plan.execute(fleet))
+                .hasSize(10)
+                .allMatch(criterion);
+    }
+
+    /**
+     * Test the plan of a conjunction of an index much less selective than the driving one
+     * Check if the less selective index is tested as a filter instead of being intersected
+     */
+    @Tag("agency")
+    @DisplayName("Test the plan of a conjunction of an index much less selective than the driving one")
+    @Test
+    void indexUsedAsFilter() {
+        // Given
+        Predicate<Vehicle> criterion = new AndCriterion(new BrandCriterion("Yamaha"), new MaxPriceCriterion(150));
+
+        // When
+        QueryPlan plan = planner.plan(criterion);
+
+        // Then
+        assertThat(plan.explain()).isEqualTo("Index lookup : price index, price <= 150.0 (40 vehicles)\n"
+                + "Filter : brand = Yamaha");
+        assertThat(plan.execute(fleet))
+                .hasSize(30)
+                .allMatch(criterion);
+    }
+
+    /**
+     * Test the plan of a disjunction of indexed criteria
+     * Check if the candidates of the indexes are united, in the order of the fleet
+     */
+    @Tag("agency")
+    @DisplayName("Test the plan of a disjunction of indexed criteria")
+    @Test
+    void union() {
+        // Given
+        Predicate<Vehicle> criterion = new OrCriterion(new BrandCriterion("Toyota"), new PriceRangeCriterion(140, 160));
+
+        // When
+        QueryPlan plan = planner.plan(criterion);
+
+        // Then
+        assertThat(plan.explain()).isEqualTo("Index lookup : brand index, brand = Toyota (10 vehicles)\n"
+                + "Union : price index, price between 140.0 and 160.0 (30 vehicles)");
+        assertThat(plan.execute(fleet))
+                .hasSize(40)
+                .containsExactlyElementsOf(fleet.stream().filter(criterion).toList());
+    }
+
+    /**
+     * Test the plan of a disjunction with a criterion which is not indexed
+     * Check if the plan scans the whole fleet
+     */
+    @Tag("agency")
+    @DisplayName("Test the plan of a disjunction with a criterion which is not indexed")
+    @Test
+    void disjunctionWithoutIndex() {
+        // Given
+        Predicate<Vehicle> criterion = new OrCriterion(new BrandCriterion("Toyota"), new NotCriterion(new MaxPriceCriterion(200)));
+
+        // When
+        QueryPlan plan = planner.plan(criterion);
+
+        // Then
+        assertThat(plan.explain()).startsWith("Full scan : 100 vehicles");
+        assertThat(plan.execute(fleet))
+                .hasSize(70)
+                .containsExactlyElementsOf(fleet.stream().filter(criterion).toList());
+    }
+
+    /**
+     * Test the plan of price criteria when the fleet has no price index yet
+     * Check if the price index is only built for a price criterion answered from it, and not for one tested as a
+     * filter on the candidates of a more selective index
+     */
+    @Tag("agency")
+    @DisplayName("Test the price index is only built when it is used")
+    @Test
+    void priceIndexOnlyWhenUsed() {
+        // Given
+        AtomicInteger builds = new AtomicInteger();
+        QueryPlanner withoutIndex = new QueryPlanner(fleet, () -> {
+            builds.incrementAndGet();
+            return PriceIndex.build(fleet, 2025);
+        }, null);
+        Predicate<Vehicle> filtered = new AndCriterion(new BrandCriterion("Toyota"), new MaxPriceCriterion(150));
+        Predicate<Vehicle> indexed = new MaxPriceCriterion(150);
+
+        // When
+        QueryPlan filteredPlan = withoutIndex.plan(filtered);
+
+        // Then
+        assertThat(builds.get()).isZero();
+        assertThat(filteredPlan.explain()).isEqualTo("Index lookup : brand index, brand = Toyota (10 vehicles)\n"
+                + "Filter : price <= 150.0");
+
+        // When
+        QueryPlan indexedPlan = withoutIndex.plan(indexed);
+
+        // Then
+        assertThat(builds.get()).isEqualTo(1);
+        assertThat(indexedPlan.explain()).isEqualTo("Index lookup : price index, price <= 150.0 (40 vehicles)");
+    }
+
+    /**
+     * Test the plan of a lazy stream
+     * Check if the price criteria are tested on each vehicle without reading the price index, while the brand index
+     * is still used
+     */
+    @Tag("agency")
+    @DisplayName("Test the plan of a lazy stream")
+    @Test
+    void planStream() {
+        // Given
+        AtomicInteger lookups = new AtomicInteger();
+        QueryPlanner counting = new QueryPlanner(fleet, () -> {
+            lookups.incrementAndGet();
+            return PriceIndex.build(fleet, 2025);
+        }, PriceIndex.build(fleet, 2025));
+        Predicate<Vehicle> byPrice = new MaxPriceCriterion(150);
+        Predicate<Vehicle> byBrandAndPrice = new AndCriterion(new BrandCriterion("Yamaha"), new MaxPriceCriterion(150));
+
+        // When
+        QueryPlan pricePlan = counting.planStream(byPrice);
+        QueryPlan brandPlan = counting.planStream(byBrandAndPrice);
+
+        // Then
+        assertThat(lookups.get()).isZero();
+        assertThat(pricePlan.explain()).isEqualTo("Full scan : 100 vehicles\nFilter : price <= 150.0");
+        assertThat(pricePlan.stream(fleet).limit(2).toList())
+                .containsExactlyElementsOf(fleet.stream().filter(byPrice).limit(2).toList());
+        assertThat(brandPlan.explain()).isEqualTo("Index lookup : brand index, brand = Yamaha (90 vehicles)\n"
+                + "Filter : price <= 150.0");
+        assertThat(brandPlan.stream(fleet).toList())
+                .containsExactlyElementsOf(fleet.stream().filter(byBrandAndPrice).toList());
+    }
+}
@@ -1,7 +1,9 @@
 package com.rentalagency.agency;
 
+import com.rentalagency.criterions.AndCriterion;
 import com.rentalagency.criterions.BrandCriterion;
 import com.rentalagency.criterions.MaxPriceCriterion;
+import com.rentalagency.criterions.PriceRangeCriterion;
 import com.rentalagency.util.TimeProvider;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -11,10 +13,16 @@ import org.mockito.MockedStatic;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.time.LocalDate;
 
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.mockStatic;
@@ -156,6 +164,163 @@ class RentalAgencyTest {
                 .isEqualTo(expectedVehicles);
     }
 
+    /**
+     * Test to select vehicles of a brand after changes of the fleet
+     * Check if the brand criterion only returns the vehicles which are still in the agency, in the order they were added
+     */
+    @Tag("agency")
+    @DisplayName("Test to select vehicles of a brand after changes of the fleet")
+    @Test
+    void selectBrandAfterChanges() {
+        try (MockedStatic<TimeProvider> mockedTimeProvider = mockStatic(TimeProvider.class)) {
+            mockedTimeProvider.when(TimeProvider::currentYearValue).thenReturn(2025);
+
+            // Given
+            Vehicle yaris = new Car("Toyota", "Yaris", 2022, 5);
+            rentalAgency.add(car);
+            rentalAgency.add(yaris);
+
+            // When
+            rentalAgency.remove(car);
+            rentalAgency.add(car);
+
+            // Then
+            assertThat(rentalAgency.select(new BrandCriterion("Toyota")))
+                    .containsExactly(yaris, car);
+            assertThat(rentalAgency.select(new BrandCriterion("Yamaha")))
+                    .containsExactly(motorbike);
+            assertThat(rentalAgency.select(new BrandCriterion("Peugeot")))
+                    .isEmpty();
+        }
+    }
+
+    /**
+     * Test to select vehicles by price when the fleet and the year change
+     * Mock the current year value to 2025, then to 2030 when the car is no longer new and its price drops
+     * Check if the price criteria return the vehicles matching the prices of the current year
+     */
+    @Tag("agency")
+    @DisplayName("Test to select vehicles by price when the fleet and the year change")
+    @Test
+    void selectPriceAfterChanges() {
+        try (MockedStatic<TimeProvider> mockedTimeProvider = mockStatic(TimeProvider.class)) {
+            mockedTimeProvider.when(TimeProvider::currentYearValue).thenReturn(2025);
+
+            // Given
+            Vehicle yaris = new Car("Toyota", "Yaris", 2022, 5);
+
+            // When
+            rentalAgency.add(yaris);
+
+            // Then
+            assertThat(rentalAgency.select(new MaxPriceCriterion(160))).containsExactly(motorbike);
+            assertThat(rentalAgency.select(new PriceRangeCriterion(160, 200))).containsExactly(yaris);
+
+            // When
+            rentalAgency.add(car);
+            mockedTimeProvider.when(TimeProvider::currentYearValue).thenReturn(2030);
+
+            // Then
+            assertThat(rentalAgency.select(new MaxPriceCriterion(160))).containsExactly(motorbike, yaris, car);
+            assertThat(rentalAgency.select(new PriceRangeCriterion(150, 200))).containsExactly(motorbike);
+        }
+    }
+
+    /**
+     * Test to select vehicles with a composite criterion and to explain the plan
+     * Check if the vehicles satisfying both criteria are selected and if the plan starts from the brand index
+     */
+    @Tag("agency")
+    @DisplayName("Test to select vehicles with a composite criterion")
+    @Test
+    void selectComposite() {
+        // Given
+        AndCriterion criterion = new AndCriterion(new MaxPriceCriterion(200), new BrandCriterion("Toyota"));
+        rentalAgency.add(car);
+
+        // Then
+        assertThat(rentalAgency.select(criterion)).containsExactly(car);
+        assertThat(rentalAgency.explain(criterion))
+                .startsWith("Index lookup : brand index, brand = Toyota (1 vehicles)");
+    }
+
+    /**
+     * Test to select a page of vehicles
+     * Check if the page holds the expected vehicles, in the order they were added
+     * Check if the criterion is not tested on the vehicles after the page
+     * Check if an IllegalArgumentException is thrown when the offset or the limit is negative
+     */
+    @Tag("agency")
+    @DisplayName("Test to select a page of vehicles")
+    @Test
+    void selectPage() {
+        // Given
+        for (int i = 0; i < 1000; i++) rentalAgency.add(new Motorbike("Honda", "Model " + i, 2010, 50 + i));
+        AtomicInteger tests = new AtomicInteger();
+        Predicate<Vehicle> criterion = vehicle -> tests.incrementAndGet() > 0 && vehicle.getBrand().equals("Honda");
+
+        // When
+        List<Vehicle> page = rentalAgency.select(criterion, 10, 5);
+
+        // Then
+        assertThat(page)
+                .extracting(Vehicle::getModel)
+                .containsExactly("Model 10", "Model 11", "Model 12", "Model 13", "Model 14");
+        assertThat(tests.get()).isEqualTo(16);
+        assertThat(rentalAgency.select(criterion, 998, 5)).hasSize(2);
+        assertThatThrownBy(() -> rentalAgency.select(criterion, -1, 5))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Le décalage et la limite doivent être positifs," +
+                        " votre décalage est égal à : -1 et votre limite à : 5");
+    }
+
+    /**
+     * Test to get the first vehicle that satisfies a criterion
+     * Check if the first matching vehicle is returned and if no vehicle is returned when none matches
+     */
+    @Tag("agency")
+    @DisplayName("Test to get the first vehicle that satisfies a criterion")
+    @Test
+    void first() {
+        // When
+        rentalAgency.add(car);
+
+        // Then
+        assertThat(rentalAgency.first(new BrandCriterion("Toyota"))).contains(car);
+        assertThat(rentalAgency.first(vehicle -> vehicle.getProductionYear() < 2020)).contains(motorbike);
+        assertThat(rentalAgency.first(new BrandCriterion("Peugeot"))).isEmpty();
+        assertThat(rentalAgency.stream(new MaxPriceCriterion(100))).containsExactly(car);
+    }
+
+    /**
+     * Test to select vehicles in parallel
+     * Check if the result is the same as the sequential selection, below and above the parallel threshold
+     * Check if an IllegalArgumentException is thrown when the parallel threshold is not positive
+     */
+    @Tag("agency")
+    @DisplayName("Test to select vehicles in parallel")
+    @Test
+    void selectParallel() {
+        // Given
+        for (int i = 0; i < 5000; i++) rentalAgency.add(new Motorbike("Honda", "Model " + i, 2010, 50 + i % 500));
+        Predicate<Vehicle> criterion = vehicle -> vehicle.getModel().endsWith("7");
+
+        // Then
+        assertThat(rentalAgency.getParallelThreshold()).isEqualTo(RentalAgency.DEFAULT_PARALLEL_THRESHOLD);
+        assertThat(rentalAgency.selectParallel(criterion)).isEqualTo(rentalAgency.select(criterion));
+
+        // When
+        rentalAgency.setParallelThreshold(1);
+
+        // Then
+        assertThat(rentalAgency.selectParallel(criterion))
+                .hasSize(500)
+                .isEqualTo(rentalAgency.select(criterion));
+        assertThatThrownBy(() -> rentalAgency.setParallelThreshold(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Le seuil de parallélisme doit être supérieur à 0, votre seuil est égal à : 0");
+    }
+
     /**
      * Test to print the vehicles that satisfy the given criterion
      * Add a vehicle to the list of the rental agency which able us to print the selected vehicles
@@ -226,6 +391,53 @@ class RentalAgencyTest {
                 .hasMessage("Vehicle already rented");
     }
 
+    /**
+     * Test to rent several vehicles at once
+     * Mock the current year to 2025 for futures uses
+     * Check if nothing is rented when one rental of the batch is invalid
+     * Check if every vehicle is rented and its price returned when the batch is valid
+     */
+    @Tag("agency")
+    @DisplayName("Test to rent several vehicles at once")
+    @Test
+    void rentVehicles() {
+        try (MockedStatic<TimeProvider> mockedTimeProvider = mockStatic(TimeProvider.class)) {
+            mockedTimeProvider.when(TimeProvider::currentYearValue).thenReturn(2025);
+
+            // Given
+            Customer anOtherCustomer = new Customer(birth.getTime(), "John", "Doe");
+            Map<Customer, Vehicle> rentals = new LinkedHashMap<>();
+            rentals.put(customer, motorbike);
+            rentals.put(anOtherCustomer, car);
+
+            // Then
+            assertThatThrownBy(() -> rentalAgency.rentVehicles(rentals))
+                    .isInstanceOf(UnknownVehicleException.class)
+                    .hasMessage("Vehicle not found in the agency: " + car);
+            assertThat(rentalAgency.aVehicleRented(motorbike)).isFalse();
+
+            rentals.put(anOtherCustomer, motorbike);
+            assertThatThrownBy(() -> rentalAgency.rentVehicles(rentals))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Vehicle rented twice in the batch");
+            assertThat(rentalAgency.aVehicleRentedBy(customer)).isFalse();
+
+            // When
+            rentalAgency.add(car);
+            rentals.put(anOtherCustomer, car);
+            Map<Customer, Double> prices = rentalAgency.rentVehicles(rentals);
+
+            // Then
+            assertThat(prices).containsExactly(entry(customer, motorbike.dailyRentalPrice()),
+                    entry(anOtherCustomer, car.dailyRentalPrice()));
+            assertThat(rentalAgency.renterOf(motorbike)).isSameAs(customer);
+            assertThat(rentalAgency.renterOf(car)).isSameAs(anOtherCustomer);
+            assertThatThrownBy(() -> rentalAgency.rentVehicles(Map.of(customer, car)))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Customer already rented a vehicle");
+        }
+    }
+
     /**
      * Test if a customer rented a vehicle
      * Check if the customer rented a vehicle
@@ -263,6 +475,23 @@ class RentalAgencyTest {
         assertThat(rentalAgency.aVehicleRented(car)).isFalse();
     }
 
+    /**
+     * Test to get the customer who rented a vehicle
+     * Check if the customer who rented the vehicle is returned
+     * Check if no customer is returned for a vehicle which is not rented
+     */
+    @Tag("agency")
+    @DisplayName("Test to get the customer who rented a vehicle")
+    @Test
+    void renterOf() {
+        // When
+        rentalAgency.rentVehicle(customer, motorbike);
+
+        // Then
+        assertThat(rentalAgency.renterOf(motorbike)).isSameAs(customer);
+        assertThat(rentalAgency.renterOf(car)).isNull();
+    }
+
     /**
      * Test to return a vehicle
      * Return a vehicle rented by a customer and check if the vehicle is not rented by the customer and if the vehicle
@@ -307,4 +536,133 @@ class RentalAgencyTest {
                 .contains(motorbike)
                 .hasSize(1);
     }
-}
\ No newline at end of file
+
+    /**
+     * Test to select the vehicles available for a range of days
+     * Mock the current year to 2025 for futures uses
+     * Check if the vehicles reserved during the range are excluded, and if a vehicle outside of the agency or already
+     * reserved cannot be reserved
+     */
+    @Tag("agency")
+    @DisplayName("Test to select the available vehicles")
+    @Test
+    void selectAvailable() {
+        try (MockedStatic<TimeProvider> mockedTimeProvider = mockStatic(TimeProvider.class)) {
+            mockedTimeProvider.when(TimeProvider::currentYearValue).thenReturn(2025);
+
+            // Given
+            Car otherCar = new Car("Toyota", "Yaris", 2020, 5);
+            rentalAgency.add(car);
+            rentalAgency.add(otherCar);
+            LocalDate start = LocalDate.of(2026, 7, 1);
+            LocalDate end = LocalDate.of(2026, 7, 15);
+            Reservation reservation = rentalAgency.reserve(customer, car, start, end);
+
+            // When
+            List<Vehicle> available = rentalAgency.selectAvailable(new BrandCriterion("Toyota"), LocalDate.of(2026, 7, 10),
+                    LocalDate.of(2026, 7, 20));
+
+            // Then
+            assertThat(available).containsExactly(otherCar);
+            assertThat(rentalAgency.selectAvailable(new BrandCriterion("Toyota"), end, LocalDate.of(2026, 7, 20)))
+                    .containsExactly(car, otherCar);
+            assertThat(rentalAgency.reservationsOf(car)).containsExactly(reservation);
+            assertThatThrownBy(() -> rentalAgency.reserve(customer, car, LocalDate.of(2026, 7, 14), LocalDate.of(2026, 7, 16)))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Vehicle already reserved for these dates");
+            assertThatThrownBy(() -> rentalAgency.reserve(customer, new Car("Honda", "Civic", 2015, 5), start, end))
+                    .isInstanceOf(UnknownVehicleException.class);
+            assertThat(rentalAgency.cancelReservation(reservation)).isTrue();
+            assertThat(rentalAgency.allReservations()).isEmpty();
+        }
+    }
+
+    /**
+     * Test to select the vehicles which are not rented
+     * Mock the current year to 2025 for futures uses
+     * Check if the rented vehicles are skipped, with a full scan and with an index lookup, across several words of
+     * rented flags, and if a returned vehicle is available again
+     */
+    @Tag("agency")
+    @DisplayName("Test to select the vehicles which are not rented")
+    @Test
+    void selectAvailableNotRented() {
+        try (MockedStatic<TimeProvider> mockedTimeProvider = mockStatic(TimeProvider.class)) {
+            mockedTimeProvider.when(TimeProvider::currentYearValue).thenReturn(2025);
+
+            // Given
+            List<Vehicle> cars = new ArrayList<>();
+            for (int i = 0; i < 150; i++) cars.add(new Car(i % 2 == 0 ? "Toyota" : "Honda", "Model " + i, 2015, 2));
+            rentalAgency.addAll(cars);
+            Map<Customer, Vehicle> rentals = new LinkedHashMap<>();
+            for (int i = 0; i < 150; i += 3) rentals.put(new Customer(null, "Client", String.valueOf(i)), cars.get(i));
+            rentalAgency.rentVehicles(rentals);
+            rentalAgency.rentVehicle(customer, motorbike);
+            List<Vehicle> expected = new ArrayList<>();
+            for (int i = 0; i < 150; i++) if (i % 3 != 0 && i % 2 == 0) expected.add(cars.get(i));
+
+            // When
+            List<Vehicle> available = rentalAgency.selectAvailable(new BrandCriterion("Toyota"));
+
+            // Then
+            assertThat(available).containsExactlyElementsOf(expected);
+            assertThat(rentalAgency.selectAvailable(vehicle -> vehicle.getBrand().equals("Toyota")))
+                    .containsExactlyElementsOf(expected);
+            assertThat(rentalAgency.selectAvailable(new MaxPriceCriterion(50))).hasSize(100).doesNotContain(motorbike);
+            rentalAgency.returnVehicle(customer);
+            assertThat(rentalAgency.selectAvailable(new MaxPriceCriterion(1000))).startsWith(motorbike).hasSize(101);
+        }
+    }
+
+    /**
+     * Test to remove a rented vehicle and add it again
+     * Check if the vehicle is still rented once added again, and not selected as available, with add and with addAll,
+     * until its customer returns it
+     */
+    @Tag("agency")
+    @DisplayName("Test to remove a rented vehicle and add it again")
+    @Test
+    void removeWhileRented() {
+        // Given
+        rentalAgency.add(car);
+        rentalAgency.rentVehicle(customer, car);
+        Customer otherCustomer = new Customer(null, "John", "Doe");
+        rentalAgency.rentVehicle(otherCustomer, motorbike);
+
+        // When
+        rentalAgency.remove(car);
+        rentalAgency.add(car);
+        rentalAgency.remove(motorbike);
+        rentalAgency.addAll(List.of(motorbike));
+
+        // Then
+        assertThat(rentalAgency.aVehicleRented(car)).isTrue();
+        assertThat(rentalAgency.selectAvailable(vehicle -> true)).isEmpty();
+        assertThat(rentalAgency.selectAvailable(new BrandCriterion("Toyota"))).isEmpty();
+        rentalAgency.returnVehicle(customer);
+        assertThat(rentalAgency.selectAvailable(vehicle -> true)).containsExactly(car);
+    }
+
+    /**
+     * Test to find a vehicle by its brand, model and production year
+     * Check if the instance of the fleet is found, and if looking up unknown names registers no specification
+     */
+    @Tag("agency")
+    @DisplayName("Test to find a vehicle by its brand, model and production year")
+    @Test
+    void find() {
+        // Given
+        int registered = VehicleSpec.registered();
+
+        // When
+        Optional<Vehicle> found = rentalAgency.find("Yamaha", "FZ6", 2006);
+        Optional<Vehicle> otherYear = rentalAgency.find("Yamaha", "FZ6", 2007);
+        Optional<Vehicle> unknown = rentalAgency.find("Marque inconnue", "Modèle inconnu", 2006);
+
+        // Then
+        assertThat(found).containsSame(motorbike);
+        assertThat(otherYear).isEmpty();
+        assertThat(unknown).isEmpty();
+        assertThat(VehicleSpec.registered()).isEqualTo(registered);
+    }
+}
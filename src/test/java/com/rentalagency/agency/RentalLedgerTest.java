@@ -0,0 +1,97 @@
+package com.rentalagency.agency;
+
+import com.rentalagency.util.TimeProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.util.Calendar;
+import java.util.Collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mockStatic;
+
+class RentalLedgerTest {
+    RentalLedger ledger;
+    Customer customer;
+    Vehicle car;
+
+    /**
+     * Set up the test environment
+     * Mock the current year value to 2025 for futures uses
+     * Create an empty ledger, a customer and a car
+     */
+    @BeforeEach
+    void setUp() {
+        try (MockedStatic<TimeProvider> mockedTimeProvider = mockStatic(TimeProvider.class)) {
+            mockedTimeProvider.when(TimeProvider::currentYearValue).thenReturn(2025);
+            ledger = new RentalLedger();
+            car = new Car("Toyota", "Corolla", 2019, 4);
+            Calendar birth = Calendar.getInstance();
+            birth.set(2004, Calendar.JANUARY, 2);
+            customer = new Customer(birth.getTime(), "David", "Tanguy");
+        }
+    }
+
+    /**
+     * Test to record a rental
+     * Check if the rental can be found from the customer and from the vehicle
+     */
+    @Tag("agency")
+    @DisplayName("Test to record a rental")
+    @Test
+    void record() {
+        // When
+        ledger.record(customer, car);
+
+        // Then
+        assertThat(ledger.hasRental(customer)).isTrue();
+        assertThat(ledger.isRented(car)).isTrue();
+        assertThat(ledger.renterOf(car)).isSameAs(customer);
+        assertThat(ledger.vehicles()).containsExactly(car);
+    }
+
+    /**
+     * Test to release a rental
+     * Check if both sides of the rental are forgotten
+     * Check if releasing a customer without rental returns null
+     */
+    @Tag("agency")
+    @DisplayName("Test to release a rental")
+    @Test
+    void release() {
+        // Given
+        ledger.record(customer, car);
+        Collection<Vehicle> rented = ledger.vehicles();
+
+        // When
+        Vehicle released = ledger.release(customer);
+
+        // Then
+        assertThat(released).isSameAs(car);
+        assertThat(ledger.hasRental(customer)).isFalse();
+        assertThat(ledger.isRented(car)).isFalse();
+        assertThat(ledger.renterOf(car)).isNull();
+        assertThat(rented).isEmpty();
+        assertThat(ledger.release(customer)).isNull();
+    }
+
+    /**
+     * Test the view of the rented vehicles
+     * Check if the view can not be modified
+     */
+    @Tag("agency")
+    @DisplayName("Test the view of the rented vehicles")
+    @Test
+    void vehicles() {
+        // Given
+        ledger.record(customer, car);
+
+        // Then
+        assertThatThrownBy(() -> ledger.vehicles().clear())
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+}
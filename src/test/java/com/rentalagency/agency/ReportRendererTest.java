@@ -0,0 +1,114 @@
+package com.rentalagency.agency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReportRendererTest {
+    List<Vehicle> vehicles;
+    String expected;
+    ReportRenderer renderer;
+
+    /**
+     * Set up the test environment
+     * Create enough cars, motorbikes and other vehicles to fill several chunks, and their expected report made of
+     * their toString
+     */
+    @BeforeEach
+    void setUp() {
+        vehicles = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            vehicles.add(new Car("Toyota", "Corolla " + i, 2000 + i % 26, 1 + i % 9));
+            vehicles.add(new Motorbike("Yamaha", "MT " + i, 2000 + i % 26, 50 + i));
+        }
+        vehicles.add(new Vehicle() {
+            @Override
+            public String getBrand() {
+                return "Volvo";
+            }
+
+            @Override
+            public String getModel() {
+                return "FH";
+            }
+
+            @Override
+            public int getProductionYear() {
+                return 2018;
+            }
+
+            @Override
+            public double dailyRentalPrice() {
+                return 300;
+            }
+
+            @Override
+            public String toString() {
+                return "Camion spécial";
+            }
+        });
+        StringBuilder builder = new StringBuilder();
+        for (Vehicle vehicle : vehicles) builder.append(vehicle).append(System.lineSeparator());
+        expected = builder.toString();
+        renderer = new ReportRenderer();
+    }
+
+    /**
+     * Test to render a report to an Appendable and to a Writer
+     * Check if each line is the toString of its vehicle, whether the vehicles are given as a list or as a stream
+     */
+    @Tag("agency")
+    @DisplayName("Test to render a report to an Appendable and to a Writer")
+    @Test
+    void renderToAppendable() throws IOException {
+        // Given
+        StringBuilder builder = new StringBuilder();
+        StringWriter writer = new StringWriter();
+        StringBuilder streamed = new StringBuilder();
+
+        // When
+        renderer.render(vehicles, builder);
+        renderer.render(vehicles, writer);
+        renderer.render(vehicles.stream(), streamed);
+
+        // Then
+        assertThat(builder.toString()).isEqualTo(expected);
+        assertThat(writer.toString()).isEqualTo(expected);
+        assertThat(streamed.toString()).isEqualTo(expected);
+        assertThat(renderer.render(vehicles)).isEqualTo(expected);
+    }
+
+    /**
+     * Test to render a report to a byte buffer
+     * Check if the report is encoded in UTF-8, and if a buffer too small is reported
+     */
+    @Tag("agency")
+    @DisplayName("Test to render a report to a byte buffer")
+    @Test
+    void renderToByteBuffer() {
+        // Given
+        byte[] bytes = expected.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 10);
+
+        // When
+        int written = renderer.render(vehicles, buffer);
+
+        // Then
+        assertThat(written).isEqualTo(bytes.length);
+        assertThat(new String(buffer.array(), 0, written, StandardCharsets.UTF_8)).isEqualTo(expected);
+        assertThatThrownBy(() -> renderer.render(vehicles, ByteBuffer.allocate(100)))
+                .isInstanceOf(BufferOverflowException.class);
+    }
+}
@@ -0,0 +1,130 @@
+package com.rentalagency.agency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReservationCalendarTest {
+    ReservationCalendar calendar;
+    Customer customer;
+    Vehicle car;
+    Vehicle motorbike;
+
+    /**
+     * Set up the test environment
+     * Create an empty calendar, a customer, a car and a motorbike
+     */
+    @BeforeEach
+    void setUp() {
+        calendar = new ReservationCalendar();
+        customer = new Customer(new Date(1_000_000L), "David", "Tanguy");
+        car = new Car("Toyota", "Corolla", 2019, 4);
+        motorbike = new Motorbike("Yamaha", "FZ6", 2006, 600);
+    }
+
+    /**
+     * Test to reserve a vehicle
+     * Check if a reservation overlapping another one of the same vehicle is refused, and if reservations which only
+     * touch each other or which are for another vehicle are recorded
+     */
+    @Tag("agency")
+    @DisplayName("Test to reserve a vehicle")
+    @Test
+    void reserve() {
+        // Given
+        Reservation july = reservation(car, "2026-07-01", "2026-07-15");
+
+        // When
+        boolean reserved = calendar.reserve(july);
+
+        // Then
+        assertThat(reserved).isTrue();
+        assertThat(calendar.reserve(reservation(car, "2026-07-14", "2026-07-20"))).isFalse();
+        assertThat(calendar.reserve(reservation(car, "2026-06-20", "2026-07-02"))).isFalse();
+        assertThat(calendar.reserve(reservation(car, "2026-06-01", "2026-08-01"))).isFalse();
+        assertThat(calendar.reserve(reservation(car, "2026-07-05", "2026-07-06"))).isFalse();
+        assertThat(calendar.reserve(reservation(car, "2026-07-15", "2026-07-20"))).isTrue();
+        assertThat(calendar.reserve(reservation(car, "2026-06-25", "2026-07-01"))).isTrue();
+        assertThat(calendar.reserve(reservation(motorbike, "2026-07-01", "2026-07-15"))).isTrue();
+        assertThat(calendar.reservationsOf(car)).extracting(Reservation::getStart).containsExactly(
+                LocalDate.parse("2026-06-25"), LocalDate.parse("2026-07-01"), LocalDate.parse("2026-07-15"));
+        assertThat(calendar.reservations()).hasSize(4);
+    }
+
+    /**
+     * Test the availability of a vehicle
+     * Check if a vehicle is available around its reservations and not during them
+     */
+    @Tag("agency")
+    @DisplayName("Test the availability of a vehicle")
+    @Test
+    void isAvailable() {
+        // Given
+        calendar.reserve(reservation(car, "2026-07-01", "2026-07-15"));
+        calendar.reserve(reservation(car, "2026-08-01", "2026-08-10"));
+
+        // Then
+        assertThat(calendar.isAvailable(car, LocalDate.parse("2026-07-15"), LocalDate.parse("2026-08-01"))).isTrue();
+        assertThat(calendar.isAvailable(car, LocalDate.parse("2026-06-01"), LocalDate.parse("2026-07-01"))).isTrue();
+        assertThat(calendar.isAvailable(car, LocalDate.parse("2026-07-20"), LocalDate.parse("2026-08-02"))).isFalse();
+        assertThat(calendar.isAvailable(car, LocalDate.parse("2026-07-14"), LocalDate.parse("2026-07-15"))).isFalse();
+        assertThat(calendar.isAvailable(motorbike, LocalDate.parse("2026-07-01"), LocalDate.parse("2026-07-15"))).isTrue();
+    }
+
+    /**
+     * Test to cancel reservations
+     * Check if a cancelled reservation frees its days, if an unknown reservation is not cancelled, and if removing a
+     * vehicle drops its reservations
+     */
+    @Tag("agency")
+    @DisplayName("Test to cancel reservations")
+    @Test
+    void cancel() {
+        // Given
+        calendar.reserve(reservation(car, "2026-07-01", "2026-07-15"));
+        calendar.reserve(reservation(motorbike, "2026-07-01", "2026-07-15"));
+
+        // When
+        boolean cancelled = calendar.cancel(reservation(car, "2026-07-01", "2026-07-15"));
+
+        // Then
+        assertThat(cancelled).isTrue();
+        assertThat(calendar.cancel(reservation(car, "2026-07-01", "2026-07-15"))).isFalse();
+        assertThat(calendar.cancel(reservation(motorbike, "2026-07-01", "2026-07-10"))).isFalse();
+        assertThat(calendar.isAvailable(car, LocalDate.parse("2026-07-01"), LocalDate.parse("2026-07-15"))).isTrue();
+        calendar.removeVehicle(motorbike);
+        assertThat(calendar.reservationsOf(motorbike)).isEmpty();
+    }
+
+    /**
+     * Test to create an empty reservation
+     * Check if a reservation whose end date is not after its start date is refused
+     */
+    @Tag("agency")
+    @DisplayName("Test to create an empty reservation")
+    @Test
+    void emptyReservation() {
+        assertThatThrownBy(() -> reservation(car, "2026-07-01", "2026-07-01"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("La date de fin doit être postérieure à la date de début," +
+                        " votre date de début est égale à : 2026-07-01 et votre date de fin à : 2026-07-01");
+    }
+
+    /**
+     * Create a reservation of the customer
+     * @param vehicle : the vehicle
+     * @param start : the first day
+     * @param end : the day after the last day
+     * @return the reservation
+     */
+    private Reservation reservation(Vehicle vehicle, String start, String end) {
+        return new Reservation(customer, vehicle, LocalDate.parse(start), LocalDate.parse(end));
+    }
+}
@@ -0,0 +1,59 @@
+package com.rentalagency.agency;
+
+import com.rentalagency.util.TimeProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mockStatic;
+
+class VehicleSpecTest {
+    /**
+     * Test the of method
+     * Check if equal specifications give the same instance, and different capacities or kinds different instances
+     */
+    @Tag("agency")
+    @DisplayName("Test the of method")
+    @Test
+    void of() {
+        // When
+        VehicleSpec spec = VehicleSpec.of(VehicleSpec.Kind.CAR, "Toyota", "Corolla", 5);
+
+        // Then
+        assertThat(VehicleSpec.of(VehicleSpec.Kind.CAR, new String("Toyota"), new String("Corolla"), 5)).isSameAs(spec);
+        assertThat(VehicleSpec.of(VehicleSpec.Kind.CAR, "Toyota", "Corolla", 7)).isNotSameAs(spec);
+        assertThat(VehicleSpec.of(VehicleSpec.Kind.MOTORBIKE, "Toyota", "Corolla", 5)).isNotSameAs(spec);
+        assertThat(spec.getKind()).isEqualTo(VehicleSpec.Kind.CAR);
+        assertThat(spec.getBrand()).isEqualTo("Toyota");
+        assertThat(spec.getModel()).isEqualTo("Corolla");
+        assertThat(spec.getCapacity()).isEqualTo(5);
+    }
+
+    /**
+     * Test the specification of the vehicles
+     * Mock the current year to 2025 for futures uses
+     * Check if the units of a model share their specification and keep their own production year
+     */
+    @Tag("agency")
+    @DisplayName("Test the specification of the vehicles")
+    @Test
+    void sharedByVehicles() {
+        try (MockedStatic<TimeProvider> mockedTimeProvider = mockStatic(TimeProvider.class)) {
+            mockedTimeProvider.when(TimeProvider::currentYearValue).thenReturn(2025);
+
+            // Given
+            Car car = new Car("Toyota", "Corolla", 2018, 5);
+            Car otherCar = new Car("Toyota", "Corolla", 2022, 5);
+            Motorbike motorbike = new Motorbike("Yamaha", "MT-07", 2020, 689);
+
+            // Then
+            assertThat(otherCar.getSpec()).isSameAs(car.getSpec());
+            assertThat(otherCar.getProductionYear()).isEqualTo(2022);
+            assertThat(car.getNumberOfSeats()).isEqualTo(5);
+            assertThat(motorbike.getCylinderCapacity()).isEqualTo(689);
+            assertThat(motorbike.getSpec().getKind()).isEqualTo(VehicleSpec.Kind.MOTORBIKE);
+        }
+    }
+}
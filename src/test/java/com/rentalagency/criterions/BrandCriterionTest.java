@@ -74,4 +74,16 @@ class BrandCriterionTest {
             assertThat(result).isFalse();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Test the getBrand method
+     * Check if the brand of the criterion is equal to "Toyota"
+     */
+    @Tag("agency")
+    @DisplayName("Test the getBrand method")
+    @Test
+    void getBrand() {
+        // Then
+        assertThat(brandCriterion.getBrand()).isEqualTo("Toyota");
+    }
+}
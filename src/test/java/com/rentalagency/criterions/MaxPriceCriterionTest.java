@@ -73,4 +73,16 @@ class MaxPriceCriterionTest {
             assertFalse(result);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Test the getMaxPrice method
+     * Check if the maximum price of the criterion is equal to 100
+     */
+    @Tag("agency")
+    @DisplayName("Test the getMaxPrice method")
+    @Test
+    void getMaxPrice() {
+        // Then
+        assertEquals(100, maxPriceCriterion.getMaxPrice());
+    }
+}
@@ -0,0 +1,55 @@
+package com.rentalagency.criterions;
+
+import com.rentalagency.agency.Car;
+import com.rentalagency.util.TimeProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mockStatic;
+
+class ModelCriterionTest {
+    ModelCriterion modelCriterion;
+
+    /**
+     * Set the environment before each test
+     * Create a new ModelCriterion with the model "Corolla" in attributes
+     */
+    @BeforeEach
+    void setUp() {
+        modelCriterion = new ModelCriterion("Corolla");
+    }
+
+    /**
+     * Test if a vehicle satisfies the criterion
+     * Mock the current year to 2025 for futures uses
+     * Check if a Corolla satisfies the criterion and if a Yaris does not
+     */
+    @Tag("agency")
+    @DisplayName("Test if a vehicle satisfies the model criterion")
+    @Test
+    void testSatisfiesModelCriterion() {
+        try (MockedStatic<TimeProvider> mockedTimeProvider = mockStatic(TimeProvider.class)) {
+            mockedTimeProvider.when(TimeProvider::currentYearValue).thenReturn(2025);
+
+            // Then
+            assertThat(modelCriterion.test(new Car("Toyota", "Corolla", 2019, 5))).isTrue();
+            assertThat(modelCriterion.test(new Car("Toyota", "Yaris", 2019, 5))).isFalse();
+        }
+    }
+
+    /**
+     * Test the toString method
+     * Check if the string representation describes the required model
+     */
+    @Tag("agency")
+    @DisplayName("Test the toString method")
+    @Test
+    void testToString() {
+        assertThat(modelCriterion.getModel()).isEqualTo("Corolla");
+        assertThat(modelCriterion).hasToString("model = Corolla");
+    }
+}
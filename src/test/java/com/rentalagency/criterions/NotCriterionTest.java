@@ -0,0 +1,54 @@
+package com.rentalagency.criterions;
+
+import com.rentalagency.agency.Car;
+import com.rentalagency.util.TimeProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mockStatic;
+
+class NotCriterionTest {
+    NotCriterion notCriterion;
+
+    /**
+     * Set the environment before each test
+     * Create a new NotCriterion of the brand "Toyota" in attributes
+     */
+    @BeforeEach
+    void setUp() {
+        notCriterion = new NotCriterion(new BrandCriterion("Toyota"));
+    }
+
+    /**
+     * Test if a vehicle satisfies the criterion
+     * Mock the current year to 2025 for futures uses
+     * Check if a Honda satisfies the criterion and if a Toyota does not
+     */
+    @Tag("agency")
+    @DisplayName("Test if a vehicle satisfies the not criterion")
+    @Test
+    void testSatisfiesNotCriterion() {
+        try (MockedStatic<TimeProvider> mockedTimeProvider = mockStatic(TimeProvider.class)) {
+            mockedTimeProvider.when(TimeProvider::currentYearValue).thenReturn(2025);
+
+            // Then
+            assertThat(notCriterion.test(new Car("Honda", "Civic", 2019, 5))).isTrue();
+            assertThat(notCriterion.test(new Car("Toyota", "Corolla", 2019, 5))).isFalse();
+        }
+    }
+
+    /**
+     * Test the toString method
+     * Check if the string representation negates the criterion
+     */
+    @Tag("agency")
+    @DisplayName("Test the toString method")
+    @Test
+    void testToString() {
+        assertThat(notCriterion).hasToString("NOT brand = Toyota");
+    }
+}
@@ -0,0 +1,54 @@
+package com.rentalagency.criterions;
+
+import com.rentalagency.agency.Car;
+import com.rentalagency.util.TimeProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mockStatic;
+
+class OrCriterionTest {
+    /**
+     * Test if a vehicle satisfies the criterion
+     * Mock the current year to 2025 for futures uses
+     * Check if a vehicle satisfying one of the criteria satisfies the disjunction and if a vehicle satisfying none does not
+     */
+    @Tag("agency")
+    @DisplayName("Test if a vehicle satisfies the or criterion")
+    @Test
+    void testSatisfiesOrCriterion() {
+        try (MockedStatic<TimeProvider> mockedTimeProvider = mockStatic(TimeProvider.class)) {
+            mockedTimeProvider.when(TimeProvider::currentYearValue).thenReturn(2025);
+
+            // Given
+            OrCriterion orCriterion = new OrCriterion(new BrandCriterion("Toyota"), new MaxPriceCriterion(100));
+
+            // Then
+            assertThat(orCriterion.test(new Car("Toyota", "Corolla", 2022, 4))).isTrue();
+            assertThat(orCriterion.test(new Car("Honda", "Civic", 2015, 4))).isTrue();
+            assertThat(orCriterion.test(new Car("Honda", "Civic", 2022, 4))).isFalse();
+        }
+    }
+
+    /**
+     * Test the toString method
+     * Check if the string representation joins the criteria with OR
+     * Check if an IllegalArgumentException is thrown when there is no criterion
+     */
+    @Tag("agency")
+    @DisplayName("Test the toString method")
+    @Test
+    void testToString() {
+        assertThat(new OrCriterion(new BrandCriterion("Toyota"), new MaxPriceCriterion(100)))
+                .hasToString("(brand = Toyota OR price <= 100.0)");
+        assertThatThrownBy(() -> new OrCriterion(List.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Un critère composé doit contenir au moins un critère");
+    }
+}
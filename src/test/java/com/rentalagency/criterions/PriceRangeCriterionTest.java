@@ -0,0 +1,64 @@
+package com.rentalagency.criterions;
+
+import com.rentalagency.agency.Motorbike;
+import com.rentalagency.util.TimeProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mockStatic;
+
+class PriceRangeCriterionTest {
+    PriceRangeCriterion priceRangeCriterion;
+
+    /**
+     * Set the environment before each test
+     * Create a new PriceRangeCriterion between 100 and 200 in attributes
+     */
+    @BeforeEach
+    void setUp() {
+        priceRangeCriterion = new PriceRangeCriterion(100, 200);
+    }
+
+    /**
+     * Test if a vehicle satisfies the criterion
+     * Mock the current year to 2025 for futures uses
+     * Check if motorbikes priced 100, 150 and 200 satisfy the criterion and if motorbikes priced 50 and 250 do not
+     */
+    @Tag("agency")
+    @DisplayName("Test if a vehicle satisfies the price range criterion")
+    @Test
+    void testSatisfiesPriceRangeCriterion() {
+        try (MockedStatic<TimeProvider> mockedTimeProvider = mockStatic(TimeProvider.class)) {
+            mockedTimeProvider.when(TimeProvider::currentYearValue).thenReturn(2025);
+
+            // Then
+            assertThat(priceRangeCriterion.test(new Motorbike("Yamaha", "MT-03", 2019, 400))).isTrue();
+            assertThat(priceRangeCriterion.test(new Motorbike("Yamaha", "MT-07", 2019, 600))).isTrue();
+            assertThat(priceRangeCriterion.test(new Motorbike("Yamaha", "MT-09", 2019, 800))).isTrue();
+            assertThat(priceRangeCriterion.test(new Motorbike("Yamaha", "Neo's", 2019, 200))).isFalse();
+            assertThat(priceRangeCriterion.test(new Motorbike("Yamaha", "R1", 2019, 1000))).isFalse();
+        }
+    }
+
+    /**
+     * Test the constructor
+     * Check if the bounds are kept
+     * Check if an IllegalArgumentException is thrown when the minimum price is greater than the maximum price
+     */
+    @Tag("agency")
+    @DisplayName("Test the constructor")
+    @Test
+    void testConstructor() {
+        assertThat(priceRangeCriterion.getMinPrice()).isEqualTo(100);
+        assertThat(priceRangeCriterion.getMaxPrice()).isEqualTo(200);
+        assertThatThrownBy(() -> new PriceRangeCriterion(200, 100))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Le prix minimum doit être inférieur ou égal au prix maximum," +
+                        " votre prix minimum est égal à : 200.0 et votre prix maximum à : 100.0");
+    }
+}
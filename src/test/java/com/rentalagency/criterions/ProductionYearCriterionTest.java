@@ -0,0 +1,63 @@
+package com.rentalagency.criterions;
+
+import com.rentalagency.agency.Car;
+import com.rentalagency.util.TimeProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mockStatic;
+
+class ProductionYearCriterionTest {
+    ProductionYearCriterion productionYearCriterion;
+
+    /**
+     * Set the environment before each test
+     * Create a new ProductionYearCriterion between 2015 and 2020 in attributes
+     */
+    @BeforeEach
+    void setUp() {
+        productionYearCriterion = new ProductionYearCriterion(2015, 2020);
+    }
+
+    /**
+     * Test if a vehicle satisfies the criterion
+     * Mock the current year to 2025 for futures uses
+     * Check if cars produced in 2015 and 2020 satisfy the criterion and if cars produced in 2014 and 2021 do not
+     */
+    @Tag("agency")
+    @DisplayName("Test if a vehicle satisfies the production year criterion")
+    @Test
+    void testSatisfiesProductionYearCriterion() {
+        try (MockedStatic<TimeProvider> mockedTimeProvider = mockStatic(TimeProvider.class)) {
+            mockedTimeProvider.when(TimeProvider::currentYearValue).thenReturn(2025);
+
+            // Then
+            assertThat(productionYearCriterion.test(new Car("Toyota", "Corolla", 2015, 5))).isTrue();
+            assertThat(productionYearCriterion.test(new Car("Toyota", "Corolla", 2020, 5))).isTrue();
+            assertThat(productionYearCriterion.test(new Car("Toyota", "Corolla", 2014, 5))).isFalse();
+            assertThat(productionYearCriterion.test(new Car("Toyota", "Corolla", 2021, 5))).isFalse();
+        }
+    }
+
+    /**
+     * Test the constructor
+     * Check if the bounds are kept
+     * Check if an IllegalArgumentException is thrown when the minimum year is greater than the maximum year
+     */
+    @Tag("agency")
+    @DisplayName("Test the constructor")
+    @Test
+    void testConstructor() {
+        assertThat(productionYearCriterion.getMinYear()).isEqualTo(2015);
+        assertThat(productionYearCriterion.getMaxYear()).isEqualTo(2020);
+        assertThatThrownBy(() -> new ProductionYearCriterion(2020, 2015))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("L'année minimum doit être inférieure ou égale à l'année maximum," +
+                        " votre année minimum est égale à : 2020 et votre année maximum à : 2015");
+    }
+}
@@ -0,0 +1,243 @@
+package com.rentalagency.events;
+
+import com.rentalagency.agency.Car;
+import com.rentalagency.agency.Customer;
+import com.rentalagency.agency.Motorbike;
+import com.rentalagency.agency.RentalAgency;
+import com.rentalagency.events.FleetEvent.Type;
+import com.rentalagency.events.FleetEventBus.OverflowPolicy;
+import com.rentalagency.events.FleetEventBus.Subscription;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FleetEventBusTest {
+    RentalAgency rentalAgency;
+    Car car;
+    Motorbike motorbike;
+    Customer customer;
+
+    /**
+     * Set up the test environment
+     * Create an agency with a car, a motorbike to add later and a customer
+     */
+    @BeforeEach
+    void setUp() {
+        car = new Car("Toyota", "Corolla", 2019, 4);
+        motorbike = new Motorbike("Yamaha", "FZ6", 2006, 600);
+        rentalAgency = new RentalAgency(List.of(car));
+        customer = new Customer(new Date(1_000_000L), "David", "Tanguy");
+    }
+
+    /**
+     * Test the events of an agency
+     * Check if the vehicles added, rented, returned and removed are delivered in order, with their customer
+     */
+    @Tag("agency")
+    @DisplayName("Test the events of an agency")
+    @Test
+    void agencyEvents() throws InterruptedException {
+        // Given
+        BlockingQueue<FleetEvent> received = new LinkedBlockingQueue<>();
+        Subscription subscription = rentalAgency.getEvents().subscribe(received::add);
+
+        // When
+        rentalAgency.add(motorbike);
+        rentalAgency.add(car);
+        rentalAgency.rentVehicle(customer, motorbike);
+        rentalAgency.returnVehicle(customer);
+        rentalAgency.returnVehicle(customer);
+        rentalAgency.remove(motorbike);
+        List<FleetEvent> events = new ArrayList<>();
+        for (int i = 0; i < 4; i++) events.add(received.poll(5, TimeUnit.SECONDS));
+        subscription.close();
+
+        // Then
+        assertThat(events).extracting(FleetEvent::getType).containsExactly(Type.VEHICLE_ADDED, Type.VEHICLE_RENTED,
+                Type.VEHICLE_RETURNED, Type.VEHICLE_REMOVED);
+        assertThat(events).extracting(FleetEvent::getVehicle).containsOnly(motorbike);
+        assertThat(events).extracting(FleetEvent::getCustomer).containsExactly(null, customer, customer, null);
+        assertThat(events).extracting(FleetEvent::getSequence).isSorted().doesNotHaveDuplicates();
+        assertThat(events.get(1)).hasToString("#" + events.get(1).getSequence() + " VEHICLE_RENTED " + motorbike + " " + customer);
+        assertThat(subscription.getDelivered()).isEqualTo(4);
+        assertThat(subscription.isClosed()).isTrue();
+        assertThat(rentalAgency.getEvents().hasSubscribers()).isFalse();
+    }
+
+    /**
+     * Test a slow subscriber dropping the new events
+     * Check if publishing does not wait for a blocked listener and if the events beyond the capacity are dropped
+     */
+    @Tag("agency")
+    @DisplayName("Test a slow subscriber dropping the new events")
+    @Test
+    void dropNewest() throws InterruptedException {
+        // Given
+        FleetEventBus bus = new FleetEventBus();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> sequences = new ArrayList<>();
+        Subscription subscription = bus.subscribe(event -> {
+            started.countDown();
+            awaitQuietly(release);
+            sequences.add(event.getSequence());
+        }, 4, OverflowPolicy.DROP_NEWEST);
+        bus.publish(Type.VEHICLE_ADDED, car, null);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        for (int i = 0; i < 10; i++) bus.publish(Type.VEHICLE_ADDED, car, null);
+
+        // Then
+        assertThat(subscription.getPending()).isEqualTo(4);
+        assertThat(subscription.getDropped()).isEqualTo(6);
+        release.countDown();
+        awaitDelivered(subscription, 5);
+        assertThat(sequences).containsExactly(1L, 2L, 3L, 4L, 5L);
+        subscription.close();
+    }
+
+    /**
+     * Test a slow subscriber dropping the oldest events
+     * Check if the queue keeps the latest events when it is full
+     */
+    @Tag("agency")
+    @DisplayName("Test a slow subscriber dropping the oldest events")
+    @Test
+    void dropOldest() throws InterruptedException {
+        // Given
+        FleetEventBus bus = new FleetEventBus();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> sequences = new ArrayList<>();
+        Subscription subscription = bus.subscribe(event -> {
+            started.countDown();
+            awaitQuietly(release);
+            sequences.add(event.getSequence());
+        }, 4, OverflowPolicy.DROP_OLDEST);
+        bus.publish(Type.VEHICLE_ADDED, car, null);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        for (int i = 0; i < 10; i++) bus.publish(Type.VEHICLE_ADDED, car, null);
+
+        // Then
+        assertThat(subscription.getDropped()).isEqualTo(6);
+        release.countDown();
+        awaitDelivered(subscription, 5);
+        assertThat(sequences).containsExactly(1L, 8L, 9L, 10L, 11L);
+        subscription.close();
+    }
+
+    /**
+     * Test a slow subscriber blocking the publishers
+     * Check if a publisher waits for room in the queue and if no event is lost
+     */
+    @Tag("agency")
+    @DisplayName("Test a slow subscriber blocking the publishers")
+    @Test
+    void block() throws InterruptedException {
+        // Given
+        FleetEventBus bus = new FleetEventBus();
+        CountDownLatch release = new CountDownLatch(1);
+        Subscription subscription = bus.subscribe(event -> awaitQuietly(release), 2, OverflowPolicy.BLOCK);
+        Thread publisher = new Thread(() -> {
+            for (int i = 0; i < 10; i++) bus.publish(Type.VEHICLE_ADDED, car, null);
+        });
+
+        // When
+        publisher.start();
+        publisher.join(300);
+
+        // Then
+        assertThat(publisher.isAlive()).isTrue();
+        release.countDown();
+        publisher.join(5000);
+        assertThat(publisher.isAlive()).isFalse();
+        awaitDelivered(subscription, 10);
+        assertThat(subscription.getDropped()).isZero();
+        subscription.close();
+    }
+
+    /**
+     * Test a failing subscriber
+     * Check if the exceptions of a listener are counted and do not stop the delivery of the next events
+     */
+    @Tag("agency")
+    @DisplayName("Test a failing subscriber")
+    @Test
+    void failingListener() throws InterruptedException {
+        // Given
+        FleetEventBus bus = new FleetEventBus();
+        Subscription subscription = bus.subscribe(event -> {
+            if (event.getSequence() % 2 == 1) throw new IllegalStateException("Échec");
+        });
+
+        // When
+        for (int i = 0; i < 6; i++) bus.publish(Type.VEHICLE_ADDED, car, null);
+
+        // Then
+        awaitDelivered(subscription, 3);
+        assertThat(subscription.getFailures()).isEqualTo(3);
+        subscription.close();
+    }
+
+    /**
+     * Test the invalid subscriptions
+     * Check if a null listener, a null policy and a capacity lower than 1 are refused
+     */
+    @Tag("agency")
+    @DisplayName("Test the invalid subscriptions")
+    @Test
+    void invalidSubscriptions() {
+        // Given
+        FleetEventBus bus = new FleetEventBus();
+
+        // Then
+        assertThatThrownBy(() -> bus.subscribe(null)).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("L'abonné ne peut pas être nul");
+        assertThatThrownBy(() -> bus.subscribe(event -> { }, 1, null)).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("La politique de débordement ne peut pas être nulle");
+        assertThatThrownBy(() -> bus.subscribe(event -> { }, 0, OverflowPolicy.BLOCK))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("La capacité doit être supérieure à 0, votre capacité est égale à : 0");
+        assertThatThrownBy(() -> rentalAgency.setEvents(null)).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Le bus d'événements ne peut pas être nul");
+        assertThat(bus.hasSubscribers()).isFalse();
+    }
+
+    /**
+     * Wait for a latch, ignoring the interruptions
+     * @param latch : the latch
+     */
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Wait until a subscription delivered a number of events
+     * @param subscription : the subscription
+     * @param count : the number of events
+     */
+    private static void awaitDelivered(Subscription subscription, long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (subscription.getDelivered() < count && System.nanoTime() < deadline) Thread.sleep(5);
+        assertThat(subscription.getDelivered()).isEqualTo(count);
+    }
+}
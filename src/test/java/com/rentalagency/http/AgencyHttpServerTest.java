@@ -0,0 +1,246 @@
+package com.rentalagency.http;
+
+import com.rentalagency.agency.Car;
+import com.rentalagency.agency.ConcurrentRentalAgency;
+import com.rentalagency.agency.Customer;
+import com.rentalagency.agency.Motorbike;
+import com.rentalagency.agency.Vehicle;
+import com.rentalagency.persistence.JournaledRentalAgency;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AgencyHttpServerTest {
+    static final String CUSTOMER = "name=David&surname=Tanguy&birth=1990-05-17";
+
+    ConcurrentRentalAgency rentalAgency;
+    Car car;
+    Motorbike motorbike;
+    AgencyHttpServer server;
+    HttpClient client;
+
+    /**
+     * Set up the test environment
+     * Serve an agency with a car and a motorbike on a free local port
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        car = new Car("Toyota", "Corolla", 2019, 4);
+        motorbike = new Motorbike("Yamaha", "FZ6", 2006, 600);
+        rentalAgency = new ConcurrentRentalAgency(List.of(car, motorbike));
+        server = AgencyHttpServer.start(rentalAgency, new InetSocketAddress("127.0.0.1", 0));
+        client = HttpClient.newHttpClient();
+    }
+
+    /**
+     * Stop the server
+     */
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    /**
+     * Test to list the fleet
+     * Check if every vehicle is answered as a JSON object, and if the fleet can be paged
+     */
+    @Tag("agency")
+    @DisplayName("Test to list the fleet")
+    @Test
+    void listVehicles() throws Exception {
+        // When
+        HttpResponse<String> all = send("GET", "/vehicles");
+        HttpResponse<String> page = send("GET", "/vehicles?offset=1&limit=1");
+
+        // Then
+        assertThat(all.statusCode()).isEqualTo(200);
+        assertThat(all.headers().firstValue("Content-Type")).hasValue("application/json; charset=utf-8");
+        assertThat(all.body()).startsWith("[{\"type\":\"Car\",\"brand\":\"Toyota\",\"model\":\"Corolla\",\"productionYear\":2019,\"seats\":4,")
+                .endsWith(",{\"type\":\"Motorbike\",\"brand\":\"Yamaha\",\"model\":\"FZ6\",\"productionYear\":2006,"
+                        + "\"cylinderCapacity\":600,\"dailyRentalPrice\":150.0}]");
+        assertThat(page.body()).isEqualTo("[{\"type\":\"Motorbike\",\"brand\":\"Yamaha\",\"model\":\"FZ6\","
+                + "\"productionYear\":2006,\"cylinderCapacity\":600,\"dailyRentalPrice\":150.0}]");
+    }
+
+    /**
+     * Test to rent and return a vehicle
+     * Check if the rental answers the price, if a second rental of the vehicle is refused, and if the vehicle can be
+     * returned once
+     */
+    @Tag("agency")
+    @DisplayName("Test to rent and return a vehicle")
+    @Test
+    void rentAndReturn() throws Exception {
+        // When
+        HttpResponse<String> rented = send("POST", "/rentals?" + CUSTOMER + "&brand=Yamaha&model=FZ6&year=2006");
+        HttpResponse<String> rentedTwice = send("POST", "/rentals?name=John&surname=Doe&birth=1985-01-02&brand=Yamaha&model=FZ6&year=2006");
+        HttpResponse<String> available = send("GET", "/vehicles/select?brand=Yamaha&available=true");
+        HttpResponse<String> returned = send("DELETE", "/rentals?" + CUSTOMER);
+        HttpResponse<String> returnedTwice = send("DELETE", "/rentals?" + CUSTOMER);
+
+        // Then
+        assertThat(rented.statusCode()).isEqualTo(200);
+        assertThat(rented.body()).endsWith(",\"dailyRentalPrice\":150.0}");
+        assertThat(rentedTwice.statusCode()).isEqualTo(409);
+        assertThat(rentedTwice.body()).isEqualTo("{\"error\":\"Vehicle already rented\"}");
+        assertThat(available.body()).isEqualTo("[]");
+        assertThat(returned.statusCode()).isEqualTo(200);
+        assertThat(returned.body()).isEqualTo("{\"returned\":true}");
+        assertThat(returnedTwice.statusCode()).isEqualTo(404);
+        assertThat(rentalAgency.allRentedVehicles()).isEmpty();
+    }
+
+    /**
+     * Test the customers kept by the server
+     * Check if only a customer holding a rental is kept, if it is the same customer for its next requests, and if it
+     * is dropped once its vehicle is returned
+     */
+    @Tag("agency")
+    @DisplayName("Test the customers kept by the server")
+    @Test
+    void keptCustomers() throws Exception {
+        // When
+        HttpResponse<String> unknownVehicle = send("POST", "/rentals?" + CUSTOMER + "&brand=Honda&model=Civic&year=2015");
+        HttpResponse<String> noRental = send("DELETE", "/rentals?" + CUSTOMER);
+        int keptBefore = server.keptCustomers();
+        HttpResponse<String> rented = send("POST", "/rentals?" + CUSTOMER + "&brand=Yamaha&model=FZ6&year=2006");
+        int keptRenting = server.keptCustomers();
+        HttpResponse<String> rentedTwice = send("POST", "/rentals?" + CUSTOMER + "&brand=Toyota&model=Corolla&year=2019");
+        HttpResponse<String> returned = send("DELETE", "/rentals?" + CUSTOMER);
+
+        // Then
+        assertThat(unknownVehicle.statusCode()).isEqualTo(404);
+        assertThat(noRental.statusCode()).isEqualTo(404);
+        assertThat(keptBefore).isZero();
+        assertThat(rented.statusCode()).isEqualTo(200);
+        assertThat(keptRenting).isEqualTo(1);
+        assertThat(rentedTwice.statusCode()).isEqualTo(409);
+        assertThat(rentedTwice.body()).isEqualTo("{\"error\":\"Customer already rented a vehicle\"}");
+        assertThat(returned.statusCode()).isEqualTo(200);
+        assertThat(server.keptCustomers()).isZero();
+        assertThat(rentalAgency.allRentedVehicles()).isEmpty();
+    }
+
+    /**
+     * Test to select vehicles
+     * Check if the brand and the maximum price are combined
+     */
+    @Tag("agency")
+    @DisplayName("Test to select vehicles")
+    @Test
+    void selectVehicles() throws Exception {
+        // When
+        HttpResponse<String> byBrand = send("GET", "/vehicles/select?brand=Yamaha");
+        HttpResponse<String> byPrice = send("GET", "/vehicles/select?brand=Yamaha&maxPrice=100");
+
+        // Then
+        assertThat(byBrand.body()).contains("\"model\":\"FZ6\"").doesNotContain("Corolla");
+        assertThat(byPrice.body()).isEqualTo("[]");
+    }
+
+    /**
+     * Test the errors
+     * Check if the invalid parameters, the unknown paths and vehicles and the wrong methods are answered with their
+     * status and message
+     */
+    @Tag("agency")
+    @DisplayName("Test the errors")
+    @Test
+    void errors() throws Exception {
+        // When
+        HttpResponse<String> unknownVehicle = send("POST", "/rentals?" + CUSTOMER + "&brand=Honda&model=Civic&year=2015");
+        HttpResponse<String> missing = send("POST", "/rentals?name=David&surname=Tanguy&birth=1990-05-17&brand=Yamaha");
+        HttpResponse<String> badDate = send("DELETE", "/rentals?name=David&surname=Tanguy&birth=hier");
+        HttpResponse<String> unknownPath = send("GET", "/customers");
+        HttpResponse<String> wrongMethod = send("PUT", "/rentals");
+
+        // Then
+        assertThat(unknownVehicle.statusCode()).isEqualTo(404);
+        assertThat(unknownVehicle.body()).isEqualTo("{\"error\":\"Véhicule inconnu : Honda Civic 2015\"}");
+        assertThat(missing.statusCode()).isEqualTo(400);
+        assertThat(missing.body()).isEqualTo("{\"error\":\"Paramètre manquant : model\"}");
+        assertThat(badDate.statusCode()).isEqualTo(400);
+        assertThat(unknownPath.statusCode()).isEqualTo(404);
+        assertThat(wrongMethod.statusCode()).isEqualTo(405);
+        assertThat(wrongMethod.headers().firstValue("Allow")).hasValue("POST, DELETE");
+    }
+
+    /**
+     * Test the errors of the agency
+     * Check if a closed journaled agency is answered with 503 instead of a conflict, and if any other exception of the
+     * agency is answered with 500 instead of dropping the connection
+     */
+    @Tag("agency")
+    @DisplayName("Test the errors of the agency")
+    @Test
+    void agencyErrors(@TempDir Path directory) throws Exception {
+        // Given
+        server.close();
+        JournaledRentalAgency journaled = JournaledRentalAgency.open(directory.resolve("agency.journal"), false);
+        journaled.addAll(List.of(car, motorbike));
+        journaled.close();
+        server = AgencyHttpServer.start(journaled, new InetSocketAddress("127.0.0.1", 0));
+        ConcurrentRentalAgency failing = new ConcurrentRentalAgency(List.of(car, motorbike)) {
+            @Override
+            public double rentVehicle(Customer customer, Vehicle vehicle) {
+                throw new UncheckedIOException(new IOException("Disque plein"));
+            }
+        };
+        HttpResponse<String> closed;
+        HttpResponse<String> failed;
+
+        // When
+        closed = send("POST", "/rentals?" + CUSTOMER + "&brand=Yamaha&model=FZ6&year=2006");
+        server.close();
+        server = AgencyHttpServer.start(failing, new InetSocketAddress("127.0.0.1", 0));
+        failed = send("POST", "/rentals?" + CUSTOMER + "&brand=Yamaha&model=FZ6&year=2006");
+
+        // Then
+        assertThat(closed.statusCode()).isEqualTo(503);
+        assertThat(closed.body()).isEqualTo("{\"error\":\"Le journal est fermé\"}");
+        assertThat(failed.statusCode()).isEqualTo(500);
+        assertThat(failed.body()).isEqualTo("{\"error\":\"Erreur interne : java.io.IOException: Disque plein\"}");
+    }
+
+    /**
+     * Test to decode the parameters of a query string
+     * Check if the names and values are decoded, the empty parts skipped and the missing values empty
+     */
+    @Tag("agency")
+    @DisplayName("Test to decode the parameters of a query string")
+    @Test
+    void parameters() {
+        // Then
+        assertThat(AgencyHttpServer.parameters(null)).isEmpty();
+        assertThat(AgencyHttpServer.parameters("brand=Alfa%20Rom%C3%A9o&&model=Giulia+Quadrifoglio&flag"))
+                .containsEntry("brand", "Alfa Roméo").containsEntry("model", "Giulia Quadrifoglio")
+                .containsEntry("flag", "").hasSize(3);
+    }
+
+    /**
+     * Send a request to the server
+     * @param method : the method of the request
+     * @param pathAndQuery : the path and the query string
+     * @return the response, with its body as a string
+     */
+    private HttpResponse<String> send(String method, String pathAndQuery) throws Exception {
+        URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + pathAndQuery);
+        HttpRequest request = HttpRequest.newBuilder(uri).method(method, HttpRequest.BodyPublishers.noBody()).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,79 @@
+package com.rentalagency.http;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonWriterTest {
+    /**
+     * Test to write a document
+     * Check if the commas are written between the members and the elements, at every level of nesting
+     */
+    @Tag("util")
+    @DisplayName("Test to write a document")
+    @Test
+    void writeDocument() throws IOException {
+        // Given
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        try (JsonWriter json = new JsonWriter(output)) {
+            json.beginObject().name("empty").beginArray().endArray()
+                    .name("values").beginArray().value(1).value("deux").value(false).value((String) null).beginObject().endObject().endArray()
+                    .name("price").price(12.5).endObject();
+        }
+
+        // Then
+        assertThat(output.toString(StandardCharsets.UTF_8))
+                .isEqualTo("{\"empty\":[],\"values\":[1,\"deux\",false,null,{}],\"price\":12.5}");
+    }
+
+    /**
+     * Test to escape and encode the strings
+     * Check if the quotes, backslashes and control characters are escaped, and the other characters encoded in UTF-8
+     */
+    @Tag("util")
+    @DisplayName("Test to escape and encode the strings")
+    @Test
+    void escapeStrings() throws IOException {
+        // Given
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        try (JsonWriter json = new JsonWriter(output)) {
+            json.value("\"Škoda\"\\\n\t\u0001 € 🚗");
+        }
+
+        // Then
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo("\"\\\"Škoda\\\"\\\\\\n\\t\\u0001 € 🚗\"");
+    }
+
+    /**
+     * Test to write a document larger than the buffer
+     * Check if the buffer is flushed to the output when it is full
+     */
+    @Tag("util")
+    @DisplayName("Test to write a document larger than the buffer")
+    @Test
+    void writeLargeDocument() throws IOException {
+        // Given
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        try (JsonWriter json = new JsonWriter(output)) {
+            json.beginArray();
+            for (int i = 0; i < 10_000; i++) json.value("é");
+            json.endArray();
+        }
+
+        // Then
+        String document = output.toString(StandardCharsets.UTF_8);
+        assertThat(document).hasSize(2 + 10_000 * 3 + 9_999).startsWith("[\"é\",").endsWith(",\"é\"]");
+    }
+}
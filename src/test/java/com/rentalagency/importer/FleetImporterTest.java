@@ -0,0 +1,120 @@
+package com.rentalagency.importer;
+
+import com.rentalagency.agency.Car;
+import com.rentalagency.agency.Motorbike;
+import com.rentalagency.agency.RentalAgency;
+import com.rentalagency.util.TimeProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.MockedStatic;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mockStatic;
+
+class FleetImporterTest {
+    @TempDir
+    Path directory;
+
+    RentalAgency rentalAgency;
+    FleetImporter importer;
+
+    /**
+     * Set up the test environment
+     * Create an empty rental agency and an importer adding the vehicles to it
+     */
+    @BeforeEach
+    void setUp() {
+        rentalAgency = new RentalAgency();
+        importer = new FleetImporter(rentalAgency);
+    }
+
+    /**
+     * Test to import a file
+     * Mock the current year to 2025 for futures uses
+     * Check if the valid rows are imported, the duplicates skipped and the invalid rows reported with their reason
+     */
+    @Tag("agency")
+    @DisplayName("Test to import a file")
+    @Test
+    void importFile() throws IOException {
+        try (MockedStatic<TimeProvider> mockedTimeProvider = mockStatic(TimeProvider.class)) {
+            mockedTimeProvider.when(TimeProvider::currentYearValue).thenReturn(2025);
+
+            // Given
+            rentalAgency.add(new Car("Renault", "Clio", 2015, 5));
+            Path file = directory.resolve("fleet.csv");
+            Files.writeString(file, "type,brand,model,productionYear,capacity\n"
+                    + "Car,Toyota,Corolla,2020,4\r\n"
+                    + "Motorbike, Yamaha , MT-07 ,2019,689\n"
+                    + "Car,Toyota,Corolla,2020,4\n"
+                    + "Car,Renault,Clio,2015,5\n"
+                    + "\n"
+                    + "Car,Honda,Civic,2030,4\n"
+                    + "Car,Honda,Civic,2018,0\n"
+                    + "Truck,Volvo,FH,2018,2\n"
+                    + "Car,Honda,Civic,2018\n"
+                    + "Motorbike,Honda,CB500,20x8,500\n"
+                    + "car,Peugeot,208,2021,5\n"
+                    + "Motorbike,Honda,Dax,1899,125\n"
+                    + "Motorbike,Honda,Dax,2020,49", StandardCharsets.UTF_8);
+
+            // When
+            ImportReport report = importer.importFile(file);
+
+            // Then
+            assertThat(rentalAgency.getVehicles()).containsExactly(new Car("Renault", "Clio", 2015, 5),
+                    new Car("Toyota", "Corolla", 2020, 4), new Motorbike("Yamaha", "MT-07", 2019, 689),
+                    new Car("Peugeot", "208", 2021, 5));
+            assertThat(report.getRows()).isEqualTo(12);
+            assertThat(report.getImported()).isEqualTo(3);
+            assertThat(report.getDuplicates()).isEqualTo(2);
+            assertThat(report.getRejected()).extracting(ImportReport.RejectedRow::getLine).containsExactly(7L, 8L, 9L, 10L, 11L, 13L, 14L);
+            assertThat(report.getRejected()).extracting(ImportReport.RejectedRow::getReason).containsExactly(
+                    "L'année de production doit être comprise entre 1900 et l'année actuelle, votre année de production est égale à : 2030",
+                    "Le nombre de sièges doit être supérieur à 0, votre nombre de sièges est égal à : 0",
+                    "Type de véhicule inconnu : Truck",
+                    "Nombre de champs incorrect : 4 au lieu de 5",
+                    "Année de production invalide : 20x8",
+                    "L'année de production doit être comprise entre 1900 et l'année actuelle, votre année de production est égale à : 1899",
+                    "La cylindrée doit être supérieure à 50, votre cylindrée est égale à : 49");
+            assertThat(report).hasToString("12 rows : 3 imported, 2 duplicates, 7 rejected");
+        }
+    }
+
+    /**
+     * Test to import a large file
+     * Mock the current year to 2025 for futures uses
+     * Check if every row is imported when the rows cross the boundaries of the read buffer and of the batches
+     */
+    @Tag("agency")
+    @DisplayName("Test to import a large file")
+    @Test
+    void importLargeFile() throws IOException {
+        try (MockedStatic<TimeProvider> mockedTimeProvider = mockStatic(TimeProvider.class)) {
+            mockedTimeProvider.when(TimeProvider::currentYearValue).thenReturn(2025);
+
+            // Given
+            StringBuilder content = new StringBuilder();
+            for (int i = 0; i < 20_000; i++) content.append("Car,Toyota,Model ").append(i).append(",2020,4\n");
+            Path file = directory.resolve("large.csv");
+            Files.writeString(file, content, StandardCharsets.UTF_8);
+
+            // When
+            ImportReport report = importer.importFile(file);
+
+            // Then
+            assertThat(report.getImported()).isEqualTo(20_000);
+            assertThat(report.getRejected()).isEmpty();
+            assertThat(rentalAgency.getVehicles()).hasSize(20_000);
+            assertThat(rentalAgency.getVehicles().get(19_999)).isEqualTo(new Car("Toyota", "Model 19999", 2020, 4));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.rentalagency.metrics;
+
+import com.rentalagency.agency.Car;
+import com.rentalagency.agency.Customer;
+import com.rentalagency.agency.Motorbike;
+import com.rentalagency.agency.RentalAgency;
+import com.rentalagency.agency.UnknownVehicleException;
+import com.rentalagency.criterions.BrandCriterion;
+import com.rentalagency.metrics.AgencyMetrics.Operation;
+import com.rentalagency.metrics.AgencyMetrics.Rejection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AgencyMetricsTest {
+    RentalAgency rentalAgency;
+    Car car;
+    Motorbike motorbike;
+    Customer customer;
+    Customer anOtherCustomer;
+
+    /**
+     * Set up the test environment
+     * Create an agency with a car and a motorbike, and two customers
+     */
+    @BeforeEach
+    void setUp() {
+        car = new Car("Toyota", "Corolla", 2019, 4);
+        motorbike = new Motorbike("Yamaha", "FZ6", 2006, 600);
+        rentalAgency = new RentalAgency(List.of(car, motorbike));
+        customer = new Customer(new Date(1_000_000L), "David", "Tanguy");
+        anOtherCustomer = new Customer(new Date(2_000_000L), "John", "Doe");
+    }
+
+    /**
+     * Test the metrics of an agency
+     * Check if the completed operations are counted with their latency, and the rejected ones by reason
+     */
+    @Tag("agency")
+    @DisplayName("Test the metrics of an agency")
+    @Test
+    void recordOperations() {
+        // Given
+        AgencyMetrics metrics = new AgencyMetrics();
+        rentalAgency.setMetrics(metrics);
+
+        // When
+        rentalAgency.select(new BrandCriterion("Toyota"));
+        rentalAgency.rentVehicle(customer, car);
+        assertThatThrownBy(() -> rentalAgency.rentVehicle(customer, motorbike)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> rentalAgency.rentVehicle(anOtherCustomer, car)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> rentalAgency.rentVehicles(Map.of(anOtherCustomer, new Car("Honda", "Civic", 2015, 5))))
+                .isInstanceOf(UnknownVehicleException.class);
+        rentalAgency.returnVehicle(customer);
+        MetricsSnapshot snapshot = metrics.snapshot();
+
+        // Then
+        assertThat(snapshot.getCount(Operation.SELECT)).isEqualTo(1);
+        assertThat(snapshot.getCount(Operation.RENT_VEHICLE)).isEqualTo(1);
+        assertThat(snapshot.getCount(Operation.RENT_VEHICLES)).isZero();
+        assertThat(snapshot.getCount(Operation.RETURN_VEHICLE)).isEqualTo(1);
+        assertThat(snapshot.getLatency(Operation.RENT_VEHICLE).getTotalNanos()).isPositive();
+        assertThat(snapshot.getRejections(Rejection.CUSTOMER_ALREADY_RENTING)).isEqualTo(1);
+        assertThat(snapshot.getRejections(Rejection.VEHICLE_ALREADY_RENTED)).isEqualTo(1);
+        assertThat(snapshot.getRejections(Rejection.UNKNOWN_VEHICLE)).isEqualTo(1);
+        assertThat(snapshot.getRejections(Rejection.VEHICLE_RENTED_TWICE)).isZero();
+        assertThat(snapshot.toString()).contains("RENT_VEHICLE count=1", "UNKNOWN_VEHICLE 1");
+    }
+
+    /**
+     * Test the disabled metrics
+     * Check if an agency records nothing by default, and if the metrics cannot be null
+     */
+    @Tag("agency")
+    @DisplayName("Test the disabled metrics")
+    @Test
+    void disabled() {
+        // When
+        rentalAgency.rentVehicle(customer, car);
+        assertThatThrownBy(() -> rentalAgency.rentVehicle(customer, motorbike)).isInstanceOf(IllegalStateException.class);
+
+        // Then
+        assertThat(rentalAgency.getMetrics()).isSameAs(AgencyMetrics.DISABLED);
+        assertThat(AgencyMetrics.DISABLED.isEnabled()).isFalse();
+        assertThat(AgencyMetrics.DISABLED.start()).isZero();
+        MetricsSnapshot snapshot = AgencyMetrics.DISABLED.snapshot();
+        assertThat(snapshot.getCount(Operation.RENT_VEHICLE)).isZero();
+        assertThat(snapshot.getRejections(Rejection.CUSTOMER_ALREADY_RENTING)).isZero();
+        assertThatThrownBy(() -> rentalAgency.setMetrics(null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Les métriques ne peuvent pas être nulles");
+    }
+}
@@ -0,0 +1,64 @@
+package com.rentalagency.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LatencyHistogramTest {
+    /**
+     * Test the buckets of the durations
+     * Check if each duration is counted in the power-of-two bucket holding it, the longest ones in the last bucket
+     */
+    @Tag("util")
+    @DisplayName("Test the buckets of the durations")
+    @Test
+    void bucketOf() {
+        assertThat(LatencyHistogram.bucketOf(0)).isZero();
+        assertThat(LatencyHistogram.bucketOf(1)).isEqualTo(1);
+        assertThat(LatencyHistogram.bucketOf(1023)).isEqualTo(10);
+        assertThat(LatencyHistogram.bucketOf(1024)).isEqualTo(11);
+        assertThat(LatencyHistogram.bucketOf(Long.MAX_VALUE)).isEqualTo(LatencyHistogram.BUCKETS - 1);
+        assertThat(LatencyHistogram.upperBound(10)).isEqualTo(1024);
+        assertThat(LatencyHistogram.upperBound(LatencyHistogram.BUCKETS - 1)).isEqualTo(Long.MAX_VALUE);
+        assertThatThrownBy(() -> LatencyHistogram.upperBound(LatencyHistogram.BUCKETS))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Le numéro de l'intervalle doit être compris entre 0 et 39, votre numéro est égal à : 40");
+    }
+
+    /**
+     * Test the snapshot of a histogram
+     * Check if the count, the mean and the percentiles are computed from the recorded durations
+     */
+    @Tag("util")
+    @DisplayName("Test the snapshot of a histogram")
+    @Test
+    void snapshot() {
+        // Given
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 98; i++) histogram.record(100);
+        histogram.record(5_000);
+        histogram.record(-1);
+
+        // When
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        histogram.record(100);
+
+        // Then
+        assertThat(snapshot.getCount()).isEqualTo(100);
+        assertThat(snapshot.getTotalNanos()).isEqualTo(98 * 100 + 5_000);
+        assertThat(snapshot.getMeanNanos()).isEqualTo(148.0);
+        assertThat(snapshot.getBucketCounts()[7]).isEqualTo(98);
+        assertThat(snapshot.percentile(0)).isEqualTo(1);
+        assertThat(snapshot.percentile(50)).isEqualTo(128);
+        assertThat(snapshot.percentile(99)).isEqualTo(128);
+        assertThat(snapshot.percentile(100)).isEqualTo(8192);
+        assertThat(snapshot).hasToString("count=100 mean=148ns p50<128ns p99<128ns p999<8192ns");
+        assertThat(new LatencyHistogram().snapshot().percentile(50)).isZero();
+        assertThatThrownBy(() -> snapshot.percentile(101))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Le centile doit être compris entre 0 et 100, votre centile est égal à : 101.0");
+    }
+}
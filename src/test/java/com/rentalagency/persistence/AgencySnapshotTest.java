@@ -0,0 +1,159 @@
+package com.rentalagency.persistence;
+
+import com.rentalagency.agency.Car;
+import com.rentalagency.agency.Customer;
+import com.rentalagency.agency.Motorbike;
+import com.rentalagency.agency.RentalAgency;
+import com.rentalagency.agency.Vehicle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AgencySnapshotTest {
+    @TempDir
+    Path directory;
+
+    Path snapshot;
+    RentalAgency rentalAgency;
+    Car car;
+    Motorbike motorbike;
+    Customer customer;
+
+    /**
+     * Set up the test environment
+     * Create an agency with a car, a motorbike reserved and a customer renting the car
+     */
+    @BeforeEach
+    void setUp() {
+        snapshot = directory.resolve("agency.snapshot");
+        car = new Car("Toyota", "Corolla", 2019, 4);
+        motorbike = new Motorbike("Yamaha", "FZ6", 2006, 600);
+        customer = new Customer(new Date(1_000_000L), "David", "Tanguy");
+        rentalAgency = new RentalAgency(List.of(car, motorbike, new Car("Toyota", "Corolla", 2015, 4)));
+        rentalAgency.rentVehicle(customer, car);
+        rentalAgency.reserve(customer, motorbike, LocalDate.of(2026, 7, 1), LocalDate.of(2026, 7, 15));
+    }
+
+    /**
+     * Test to write and read a snapshot
+     * Check if the vehicles, in their order, and the rentals are read back
+     * Check if the vehicles read share the specification of the vehicles written
+     */
+    @Tag("agency")
+    @DisplayName("Test to write and read a snapshot")
+    @Test
+    void writeAndRead() throws IOException {
+        // When
+        AgencySnapshot.write(rentalAgency, snapshot);
+        AgencySnapshot read = AgencySnapshot.read(snapshot);
+
+        // Then
+        assertThat(read.getVehicles()).containsExactlyElementsOf(rentalAgency.getVehicles());
+        assertThat(read.getRentals()).hasSize(1).containsValue(car);
+        assertThat(read.getRentals().keySet().iterator().next()).usingRecursiveComparison().isEqualTo(customer);
+        assertThat(read.getReservations()).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(rentalAgency.allReservations());
+        assertThat(((Car) read.getVehicles().get(0)).getSpec()).isSameAs(car.getSpec());
+        assertThat(((Motorbike) read.getVehicles().get(1)).getCylinderCapacity()).isEqualTo(600);
+        assertThat(read.getEpoch()).isZero();
+        assertThat(directory.resolve("agency.snapshot.tmp")).doesNotExist();
+    }
+
+    /**
+     * Test to build an agency from a snapshot
+     * Check if the agency has the vehicles and the rentals of the snapshot
+     */
+    @Tag("agency")
+    @DisplayName("Test to build an agency from a snapshot")
+    @Test
+    void toAgency() throws IOException {
+        // Given
+        AgencySnapshot.write(rentalAgency, snapshot);
+
+        // When
+        RentalAgency restored = AgencySnapshot.read(snapshot).toAgency();
+
+        // Then
+        assertThat(restored.getVehicles()).containsExactlyElementsOf(rentalAgency.getVehicles());
+        assertThat(restored.renterOf(car)).usingRecursiveComparison().isEqualTo(customer);
+        assertThat(restored.aVehicleRented(motorbike)).isFalse();
+        assertThat(restored.reservationsOf(motorbike)).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(rentalAgency.reservationsOf(motorbike));
+    }
+
+    /**
+     * Test to read a corrupted snapshot
+     * Check if a changed byte and a file which is not a snapshot are detected
+     */
+    @Tag("agency")
+    @DisplayName("Test to read a corrupted snapshot")
+    @Test
+    void readCorrupted() throws IOException {
+        // Given
+        AgencySnapshot.write(rentalAgency, snapshot);
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(snapshot, bytes);
+        Path other = directory.resolve("other.snapshot");
+        Files.writeString(other, "Car,Toyota,Corolla,2019,4");
+
+        // Then
+        assertThatThrownBy(() -> AgencySnapshot.read(snapshot))
+                .isInstanceOf(IOException.class)
+                .hasMessageStartingWith("Instantané corrompu");
+        assertThatThrownBy(() -> AgencySnapshot.read(other))
+                .isInstanceOf(IOException.class)
+                .hasMessageStartingWith("Instantané corrompu");
+    }
+
+    /**
+     * Test to write an agency with a vehicle which cannot be saved
+     * Check if the snapshot is refused
+     */
+    @Tag("agency")
+    @DisplayName("Test to write an agency with a vehicle which cannot be saved")
+    @Test
+    void writeUnsupportedVehicle() {
+        // Given
+        Vehicle other = new Vehicle() {
+            @Override
+            public String getBrand() {
+                return "Volvo";
+            }
+
+            @Override
+            public String getModel() {
+                return "FH";
+            }
+
+            @Override
+            public int getProductionYear() {
+                return 2018;
+            }
+
+            @Override
+            public double dailyRentalPrice() {
+                return 300;
+            }
+        };
+        rentalAgency.add(other);
+
+        // Then
+        assertThatThrownBy(() -> AgencySnapshot.write(rentalAgency, snapshot))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Seules les voitures et les motos peuvent être sauvegardées");
+        assertThat(snapshot).doesNotExist();
+    }
+}
@@ -0,0 +1,137 @@
+package com.rentalagency.persistence;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JournalTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * Test to replay a journal
+     * Check if the records are replayed in the order they were appended
+     * Check if a record whose checksum does not match and the records after it are cut off
+     */
+    @Tag("agency")
+    @DisplayName("Test to replay a journal")
+    @Test
+    void replay() throws IOException {
+        // Given
+        Path path = directory.resolve("test.journal");
+        try (Journal journal = Journal.open(path, false, record -> { })) {
+            for (byte i = 0; i < 3; i++) journal.awaitDurable(journal.append(new byte[]{i, i}));
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{9}), 4 + 2 + 4 + 4 + 1);
+        }
+
+        // When
+        List<Byte> replayed = new ArrayList<>();
+        try (Journal journal = Journal.open(path, false, record -> replayed.add(record[0]))) {
+            journal.awaitDurable(journal.append(new byte[]{7}));
+        }
+
+        // Then
+        assertThat(replayed).containsExactly((byte) 0);
+        replayed.clear();
+        try (Journal journal = Journal.open(path, false, record -> replayed.add(record[0]))) {
+            assertThat(replayed).containsExactly((byte) 0, (byte) 7);
+        }
+    }
+
+    /**
+     * Test the group commit
+     * Check if the records appended by concurrent callers are all durable, in fewer flushes than records
+     * Check if a closed journal refuses new records
+     */
+    @Tag("agency")
+    @DisplayName("Test the group commit")
+    @Test
+    void groupCommit() throws Exception {
+        // Given
+        Path path = directory.resolve("group.journal");
+        int threads = 8;
+        int recordsPerThread = 100;
+        Journal journal = Journal.open(path, true, record -> { });
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            byte thread = (byte) t;
+            Thread writer = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < recordsPerThread; i++) journal.awaitDurable(journal.append(new byte[]{thread, (byte) i}));
+            });
+            writer.start();
+            writers.add(writer);
+        }
+        start.countDown();
+        for (Thread writer : writers) writer.join();
+        long flushes = journal.flushes();
+        journal.close();
+
+        // Then
+        assertThat(flushes).isLessThanOrEqualTo(threads * recordsPerThread);
+        assertThatThrownBy(() -> journal.append(new byte[]{1}))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Le journal est fermé");
+        List<byte[]> replayed = Collections.synchronizedList(new ArrayList<>());
+        try (Journal reopened = Journal.open(path, true, replayed::add)) {
+            assertThat(replayed).hasSize(threads * recordsPerThread);
+            for (int t = 0; t < threads; t++) {
+                byte thread = (byte) t;
+                assertThat(replayed.stream().filter(record -> record[0] == thread).map(record -> (int) record[1]))
+                        .isSorted().hasSize(recordsPerThread);
+            }
+        }
+    }
+
+    /**
+     * Test to wait for a record across a reset
+     * Check if a caller waiting for a record saved by a reset returns at once, without flushing again, and if the
+     * positions keep growing after the reset
+     */
+    @Tag("agency")
+    @DisplayName("Test to wait for a record across a reset")
+    @Test
+    void awaitAcrossReset() throws Exception {
+        // Given
+        Path path = directory.resolve("reset.journal");
+        try (Journal journal = Journal.open(path, true, record -> { })) {
+            long position = journal.append(new byte[64]);
+            journal.flush();
+            long flushes = journal.flushes();
+
+            // When
+            journal.reset(new byte[]{1});
+            Thread waiter = new Thread(() -> journal.awaitDurable(position));
+            waiter.start();
+            waiter.join(2_000);
+
+            // Then
+            assertThat(waiter.isAlive()).isFalse();
+            assertThat(journal.flushes()).isEqualTo(flushes);
+            assertThat(journal.append(new byte[]{2})).isGreaterThan(position);
+        }
+    }
+}
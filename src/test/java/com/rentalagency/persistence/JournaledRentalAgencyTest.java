@@ -0,0 +1,384 @@
+package com.rentalagency.persistence;
+
+import com.rentalagency.agency.Car;
+import com.rentalagency.agency.Customer;
+import com.rentalagency.agency.Motorbike;
+import com.rentalagency.agency.Reservation;
+import com.rentalagency.agency.Vehicle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JournaledRentalAgencyTest {
+    @TempDir
+    Path directory;
+
+    Path journal;
+    Car car;
+    Motorbike motorbike;
+    Customer customer;
+    Customer anOtherCustomer;
+
+    /**
+     * Set up the test environment
+     * Create the path of the journal, a car, a motorbike and two customers
+     */
+    @BeforeEach
+    void setUp() {
+        journal = directory.resolve("agency.journal");
+        car = new Car("Toyota", "Corolla", 2019, 4);
+        motorbike = new Motorbike("Yamaha", "FZ6", 2006, 600);
+        customer = new Customer(new Date(1_000_000L), "David", "Tanguy");
+        anOtherCustomer = new Customer(new Date(2_000_000L), "John", "Doe");
+    }
+
+    /**
+     * Test to reopen a journaled agency
+     * Check if the vehicles and the open rentals are rebuilt from the journal, and the returned rentals are not
+     */
+    @Tag("agency")
+    @DisplayName("Test to reopen a journaled agency")
+    @Test
+    void reopen() throws IOException {
+        // Given
+        Car otherCar = new Car("Honda", "Civic", 2015, 5);
+        try (JournaledRentalAgency agency = JournaledRentalAgency.open(journal)) {
+            agency.add(car);
+            agency.addAll(List.of(motorbike, otherCar));
+            agency.remove(otherCar);
+            agency.rentVehicle(customer, car);
+            agency.rentVehicle(anOtherCustomer, motorbike);
+            agency.returnVehicle(anOtherCustomer);
+            agency.returnVehicle(anOtherCustomer);
+        }
+
+        // When
+        try (JournaledRentalAgency agency = JournaledRentalAgency.open(journal)) {
+            // Then
+            assertThat(agency.getVehicles()).containsExactly(car, motorbike);
+            assertThat(agency.renterOf(car)).usingRecursiveComparison().isEqualTo(customer);
+            assertThat(agency.aVehicleRented(motorbike)).isFalse();
+            agency.returnVehicle(agency.renterOf(car));
+            assertThat(agency.allRentedVehicles()).isEmpty();
+        }
+    }
+
+    /**
+     * Test to reopen an agency where two customers with the same birth date, name and surname rented a vehicle
+     * Check if each rental is rebuilt with its own customer, from the journal and from the snapshot, and if the return
+     * of one of them returns its own vehicle
+     */
+    @Tag("agency")
+    @DisplayName("Test to reopen an agency with namesakes")
+    @Test
+    void reopenNamesakes() throws IOException {
+        // Given
+        Car otherCar = new Car("Honda", "Civic", 2015, 5);
+        try (JournaledRentalAgency agency = JournaledRentalAgency.open(journal)) {
+            agency.addAll(List.of(car, motorbike, otherCar));
+            Customer jean = new Customer(new Date(3_000_000L), "Jean", "Martin");
+            agency.rentVehicle(jean, car);
+            agency.rentVehicle(new Customer(new Date(3_000_000L), "Jean", "Martin"), motorbike);
+            agency.returnVehicle(jean);
+        }
+
+        // When
+        try (JournaledRentalAgency agency = JournaledRentalAgency.open(journal)) {
+            assertThat(agency.aVehicleRented(car)).isFalse();
+            assertThat(agency.aVehicleRented(motorbike)).isTrue();
+            agency.checkpoint();
+            agency.rentVehicle(new Customer(new Date(3_000_000L), "Jean", "Martin"), otherCar);
+        }
+
+        // Then
+        try (JournaledRentalAgency agency = JournaledRentalAgency.open(journal)) {
+            assertThat(agency.allRentedVehicles()).containsExactlyInAnyOrder(motorbike, otherCar);
+            assertThat(agency.renterOf(motorbike)).isNotSameAs(agency.renterOf(otherCar));
+            agency.returnVehicle(agency.renterOf(otherCar));
+            assertThat(agency.allRentedVehicles()).containsExactly(motorbike);
+        }
+    }
+
+    /**
+     * Test to reopen a journal whose last record was torn by a crash
+     * Check if the torn record is ignored and cut off, and if the agency keeps journaling after it
+     */
+    @Tag("agency")
+    @DisplayName("Test to reopen a journal with a torn record")
+    @Test
+    void reopenTornJournal() throws IOException {
+        // Given
+        try (JournaledRentalAgency agency = JournaledRentalAgency.open(journal)) {
+            agency.add(car);
+        }
+        long size = Files.size(journal);
+        Files.write(journal, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        // When
+        try (JournaledRentalAgency agency = JournaledRentalAgency.open(journal)) {
+            agency.add(motorbike);
+        }
+
+        // Then
+        assertThat(Files.size(journal)).isGreaterThan(size);
+        try (JournaledRentalAgency agency = JournaledRentalAgency.open(journal)) {
+            assertThat(agency.getVehicles()).containsExactly(car, motorbike);
+        }
+    }
+
+    /**
+     * Test to rent vehicles from several threads
+     * Check if every rental made concurrently is found again when the journal is reopened
+     */
+    @Tag("agency")
+    @DisplayName("Test to rent vehicles from several threads")
+    @Test
+    void concurrentRentals() throws Exception {
+        // Given
+        int threads = 8;
+        int rentalsPerThread = 50;
+        List<Vehicle> vehicles = new ArrayList<>();
+        for (int i = 0; i < threads * rentalsPerThread; i++) vehicles.add(new Car("Toyota", "Model " + i, 2019, 4));
+
+        // When
+        try (JournaledRentalAgency agency = JournaledRentalAgency.open(journal)) {
+            agency.addAll(vehicles);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < rentalsPerThread; i++) {
+                        Customer renter = new Customer(null, "Customer " + thread, String.valueOf(i));
+                        agency.rentVehicle(renter, vehicles.get(thread * rentalsPerThread + i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) future.get();
+            executor.shutdown();
+        }
+
+        // Then
+        try (JournaledRentalAgency agency = JournaledRentalAgency.open(journal)) {
+            assertThat(agency.allRentedVehicles()).hasSize(threads * rentalsPerThread);
+            assertThat(agency.renterOf(vehicles.get(rentalsPerThread + 3)))
+                    .usingRecursiveComparison().isEqualTo(new Customer(null, "Customer 1", "3"));
+        }
+    }
+
+    /**
+     * Test the refused changes
+     * Check if a vehicle which cannot be journaled is refused without being added
+     * Check if a closed agency refuses changes
+     */
+    @Tag("agency")
+    @DisplayName("Test the refused changes")
+    @Test
+    void refusedChanges() throws IOException {
+        // Given
+        JournaledRentalAgency agency = JournaledRentalAgency.open(journal, false);
+        Vehicle other = new Vehicle() {
+            @Override
+            public String getBrand() {
+                return "Volvo";
+            }
+
+            @Override
+            public String getModel() {
+                return "FH";
+            }
+
+            @Override
+            public int getProductionYear() {
+                return 2018;
+            }
+
+            @Override
+            public double dailyRentalPrice() {
+                return 300;
+            }
+        };
+
+        // Then
+        assertThatThrownBy(() -> agency.add(other))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Seules les voitures et les motos peuvent être journalisées");
+        assertThat(agency.getVehicles()).isEmpty();
+
+        // When
+        agency.close();
+
+        // Then
+        assertThatThrownBy(() -> agency.add(car))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Le journal est fermé");
+        assertThat(agency.getVehicles()).isEmpty();
+    }
+
+    /**
+     * Test to reopen an agency after a checkpoint
+     * Check if the journal is started again from the snapshot, and if the changes made after the checkpoint are
+     * replayed over the snapshot
+     */
+    @Tag("agency")
+    @DisplayName("Test to reopen an agency after a checkpoint")
+    @Test
+    void checkpoint() throws IOException {
+        // Given
+        try (JournaledRentalAgency agency = JournaledRentalAgency.open(journal)) {
+            agency.addAll(List.of(car, motorbike));
+            agency.rentVehicle(customer, car);
+            long size = Files.size(journal);
+
+            // When
+            agency.checkpoint();
+
+            // Then
+            assertThat(Files.size(journal)).isLessThan(size);
+            assertThat(directory.resolve("agency.journal.snapshot")).exists();
+            agency.rentVehicle(anOtherCustomer, motorbike);
+            agency.returnVehicle(customer);
+        }
+        try (JournaledRentalAgency agency = JournaledRentalAgency.open(journal)) {
+            assertThat(agency.getVehicles()).containsExactly(car, motorbike);
+            assertThat(agency.renterOf(motorbike)).usingRecursiveComparison().isEqualTo(anOtherCustomer);
+            assertThat(agency.aVehicleRented(car)).isFalse();
+        }
+    }
+
+    /**
+     * Test to reopen an agency after a checkpoint taken while a removed vehicle is rented
+     * Check if the rental of the removed vehicle is kept by the snapshot as the journal keeps it, so the vehicle is
+     * still rented once added back and can be returned
+     */
+    @Tag("agency")
+    @DisplayName("Test to reopen an agency after a checkpoint keeping the rental of a removed vehicle")
+    @Test
+    void checkpointRemovedRental() throws IOException {
+        // Given
+        try (JournaledRentalAgency agency = JournaledRentalAgency.open(journal)) {
+            agency.addAll(List.of(car, motorbike));
+            agency.rentVehicle(customer, car);
+            agency.remove(car);
+
+            // When
+            agency.checkpoint();
+        }
+
+        // Then
+        try (JournaledRentalAgency agency = JournaledRentalAgency.open(journal)) {
+            assertThat(agency.getVehicles()).containsExactly(motorbike);
+            assertThat(agency.renterOf(car)).usingRecursiveComparison().isEqualTo(customer);
+            agency.add(car);
+            assertThat(agency.aVehicleRented(car)).isTrue();
+            assertThat(agency.selectAvailable(vehicle -> true)).containsExactly(motorbike);
+            agency.returnVehicle(agency.renterOf(car));
+            assertThat(agency.aVehicleRented(car)).isFalse();
+        }
+    }
+
+    /**
+     * Test to reopen an agency whose checkpoint was interrupted after writing the snapshot
+     * Check if the journal older than the snapshot is ignored instead of being replayed twice
+     */
+    @Tag("agency")
+    @DisplayName("Test to reopen an agency after an interrupted checkpoint")
+    @Test
+    void interruptedCheckpoint() throws IOException {
+        // Given
+        try (JournaledRentalAgency agency = JournaledRentalAgency.open(journal)) {
+            agency.addAll(List.of(car, motorbike));
+            agency.rentVehicle(customer, car);
+            agency.returnVehicle(customer);
+            AgencySnapshot.write(agency, directory.resolve("agency.journal.snapshot"), 1);
+        }
+
+        // When
+        try (JournaledRentalAgency agency = JournaledRentalAgency.open(journal)) {
+            agency.rentVehicle(customer, motorbike);
+        }
+
+        // Then
+        try (JournaledRentalAgency agency = JournaledRentalAgency.open(journal)) {
+            assertThat(agency.getVehicles()).containsExactly(car, motorbike);
+            assertThat(agency.renterOf(motorbike)).usingRecursiveComparison().isEqualTo(customer);
+            assertThat(agency.aVehicleRented(car)).isFalse();
+        }
+    }
+
+    /**
+     * Test the periodic checkpoints
+     * Check if a snapshot is written in the background without failure
+     */
+    @Tag("agency")
+    @DisplayName("Test the periodic checkpoints")
+    @Test
+    void scheduleCheckpoints() throws Exception {
+        // Given
+        Path snapshot = directory.resolve("agency.journal.snapshot");
+        try (JournaledRentalAgency agency = JournaledRentalAgency.open(journal, false)) {
+            agency.add(car);
+
+            // When
+            agency.scheduleCheckpoints(Duration.ofMillis(10));
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            while (!Files.exists(snapshot) && System.nanoTime() < deadline) Thread.sleep(10);
+
+            // Then
+            assertThat(snapshot).exists();
+            assertThat(agency.getCheckpointFailure()).isNull();
+            assertThatThrownBy(() -> agency.scheduleCheckpoints(Duration.ZERO))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("La période doit être positive, votre période est égale à : PT0S");
+        }
+        try (JournaledRentalAgency agency = JournaledRentalAgency.open(journal)) {
+            assertThat(agency.getVehicles()).containsExactly(car);
+        }
+    }
+
+    /**
+     * Test to reopen an agency with reservations
+     * Check if the reservations made and cancelled are rebuilt from the journal and from the snapshot
+     */
+    @Tag("agency")
+    @DisplayName("Test to reopen an agency with reservations")
+    @Test
+    void reservations() throws IOException {
+        // Given
+        Reservation july;
+        try (JournaledRentalAgency agency = JournaledRentalAgency.open(journal)) {
+            agency.addAll(List.of(car, motorbike));
+            july = agency.reserve(customer, car, LocalDate.of(2026, 7, 1), LocalDate.of(2026, 7, 15));
+            Reservation august = agency.reserve(customer, car, LocalDate.of(2026, 8, 1), LocalDate.of(2026, 8, 15));
+            agency.cancelReservation(august);
+        }
+
+        // When
+        try (JournaledRentalAgency agency = JournaledRentalAgency.open(journal)) {
+            // Then
+            assertThat(agency.allReservations()).usingRecursiveFieldByFieldElementComparator().containsExactly(july);
+            agency.reserve(anOtherCustomer, motorbike, LocalDate.of(2026, 7, 1), LocalDate.of(2026, 7, 2));
+            agency.checkpoint();
+        }
+        try (JournaledRentalAgency agency = JournaledRentalAgency.open(journal)) {
+            assertThat(agency.reservationsOf(car)).usingRecursiveFieldByFieldElementComparator().containsExactly(july);
+            assertThat(agency.reservationsOf(motorbike)).hasSize(1);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.rentalagency.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NameDictionaryTest {
+    /**
+     * Test the canonical method
+     * Check if equal names give the same instance, the first one added, and if null stays null
+     */
+    @Tag("util")
+    @DisplayName("Test the canonical method")
+    @Test
+    void canonical() {
+        // Given
+        NameDictionary dictionary = new NameDictionary();
+        String first = new String("Toyota");
+
+        // When
+        String canonical = dictionary.canonical(first);
+
+        // Then
+        assertThat(canonical).isSameAs(first);
+        assertThat(dictionary.canonical(new String("Toyota"))).isSameAs(first);
+        assertThat(dictionary.canonical(null)).isNull();
+        assertThat(dictionary.size()).isEqualTo(1);
+    }
+
+    /**
+     * Test the lookup method
+     * Check if a known name gives its canonical instance and if an unknown name is returned without being added
+     */
+    @Tag("util")
+    @DisplayName("Test the lookup method")
+    @Test
+    void lookup() {
+        // Given
+        NameDictionary dictionary = new NameDictionary();
+        String first = dictionary.canonical(new String("Toyota"));
+        String unknown = new String("Ford");
+
+        // Then
+        assertThat(dictionary.lookup(new String("Toyota"))).isSameAs(first);
+        assertThat(dictionary.lookup(unknown)).isSameAs(unknown);
+        assertThat(dictionary.size()).isEqualTo(1);
+    }
+}
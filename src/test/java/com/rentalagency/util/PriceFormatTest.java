@@ -0,0 +1,53 @@
+package com.rentalagency.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriceFormatTest {
+    /**
+     * Test to format the prices which are multiples of a quarter
+     * Check if every price is written as String.format("%.1f") writes it, with the decimal separator of the locale
+     */
+    @Tag("util")
+    @DisplayName("Test to format the prices which are multiples of a quarter")
+    @Test
+    void appendOneDecimal() {
+        for (Locale locale : new Locale[]{Locale.FRANCE, Locale.US, Locale.GERMANY}) {
+            for (int quarters = 0; quarters < 100_000; quarters += 7) {
+                double price = quarters / 4.0;
+
+                // When
+                String result = PriceFormat.appendOneDecimal(new StringBuilder(), price, locale).toString();
+
+                // Then
+                assertThat(result).isEqualTo(String.format(locale, "%.1f", price));
+            }
+        }
+    }
+
+    /**
+     * Test to format the other values
+     * Check if the values which are not multiples of a quarter, the negative values and the locales not writing their
+     * digits from 0 to 9 are written as String.format("%.1f") writes them
+     */
+    @Tag("util")
+    @DisplayName("Test to format the other values")
+    @Test
+    void appendOneDecimalFallback() {
+        Locale arabic = Locale.forLanguageTag("ar-EG");
+        double[] values = {0.15, 2.45, 1e300, -0.0, -12.5, Double.NaN, Double.POSITIVE_INFINITY};
+        for (Locale locale : new Locale[]{Locale.FRANCE, arabic}) {
+            for (double value : values) {
+                assertThat(PriceFormat.appendOneDecimal(new StringBuilder(), value, locale).toString())
+                        .isEqualTo(String.format(locale, "%.1f", value));
+            }
+        }
+        assertThat(PriceFormat.appendOneDecimal(new StringBuilder("Prix : "), 160, arabic).toString())
+                .isEqualTo("Prix : " + String.format(arabic, "%.1f", 160.0));
+    }
+}
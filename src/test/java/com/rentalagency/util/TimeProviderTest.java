@@ -1,14 +1,54 @@
 package com.rentalagency.util;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.Year;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class TimeProviderTest {
+    /**
+     * Clock whose instant can be moved by the test
+     */
+    static class MovableClock extends Clock {
+        Instant instant;
+
+        MovableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+    /**
+     * Clean up the test environment
+     * Go back to the system clock
+     */
+    @AfterEach
+    void tearDown() {
+        TimeProvider.resetClock();
+    }
+
     /**
      * Test the currentYearValue method
      * Should return the current year
@@ -26,4 +66,42 @@ class TimeProviderTest {
         // Then
         assertEquals(currentYear, result);
     }
-}
\ No newline at end of file
+
+    /**
+     * Test the setClock method
+     * Should return the year of the given clock, and throw an IllegalArgumentException for a null clock
+     */
+    @Tag("util")
+    @Test
+    @DisplayName("Test the setClock method")
+    void setClock() {
+        // When
+        TimeProvider.setClock(Clock.fixed(Instant.parse("2030-06-15T12:00:00Z"), ZoneOffset.UTC));
+
+        // Then
+        assertEquals(2030, TimeProvider.currentYearValue());
+        assertThrows(IllegalArgumentException.class, () -> TimeProvider.setClock(null));
+    }
+
+    /**
+     * Test the currentYearValue method at the year rollover
+     * Should return the new year as soon as the clock reaches it, and the old one if the clock goes back
+     */
+    @Tag("util")
+    @Test
+    @DisplayName("Test the currentYearValue method at the year rollover")
+    void currentYearValueRollover() {
+        // Given
+        MovableClock clock = new MovableClock(Instant.parse("2030-12-31T23:59:59.999Z"));
+        TimeProvider.setClock(clock);
+        assertEquals(2030, TimeProvider.currentYearValue());
+
+        // When
+        clock.instant = Instant.parse("2031-01-01T00:00:00Z");
+
+        // Then
+        assertEquals(2031, TimeProvider.currentYearValue());
+        clock.instant = Instant.parse("2030-12-31T23:59:59.999Z");
+        assertEquals(2030, TimeProvider.currentYearValue());
+    }
+}